@@ -2,16 +2,25 @@ package com.github.darioajr.teuthis;
 
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
 import java.lang.management.ManagementFactory;
-import java.net.InetAddress;
-import java.net.UnknownHostException;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import org.apache.avro.io.BinaryEncoder;
 import org.apache.avro.io.DatumWriter;
@@ -22,29 +31,53 @@ import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.header.Headers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.darioajr.teuthis.admin.AdminHandler;
 import com.github.darioajr.teuthis.avro.Message;
+import com.github.darioajr.teuthis.codec.ContentDecodingHandler;
+import com.github.darioajr.teuthis.codec.ContentEncoding;
 import com.github.darioajr.teuthis.infra.AsyncResourceMonitor;
-import com.github.darioajr.teuthis.infra.CircuitBreakerManager;
 import com.github.darioajr.teuthis.infra.Config;
+import com.github.darioajr.teuthis.infra.Latencies;
 import com.github.darioajr.teuthis.infra.Metrics;
+import com.github.darioajr.teuthis.infra.MetricsExposition;
 import com.github.darioajr.teuthis.infra.MetricsHandler;
 import com.github.darioajr.teuthis.infra.ObjectPools;
+import com.github.darioajr.teuthis.infra.RequestTimings;
+import com.github.darioajr.teuthis.infra.Settings;
+import com.github.darioajr.teuthis.kafka.KafkaHeaders;
+import com.github.darioajr.teuthis.kafka.Lane;
+import com.github.darioajr.teuthis.kafka.Lanes;
+import com.github.darioajr.teuthis.kafka.PublishRoute;
 import com.github.darioajr.teuthis.security.AuthenticationHandler;
+import com.github.darioajr.teuthis.security.ClientCertificateHandler;
+import com.github.darioajr.teuthis.security.ConnectionGovernor;
+import com.github.darioajr.teuthis.security.JwtValidator;
+import com.github.darioajr.teuthis.security.QuotaHandler;
 import com.github.darioajr.teuthis.security.RateLimitHandler;
 import com.github.darioajr.teuthis.security.SecurityHeadersHandler;
+import com.github.darioajr.teuthis.security.TlsContext;
+import com.github.darioajr.teuthis.security.TopicAllowlist;
 import com.github.darioajr.teuthis.security.ValidationHandler;
 import com.github.darioajr.teuthis.queue.QueueCleanupManager;
 import com.github.darioajr.teuthis.queue.QueueCleanupHandler;
+import com.github.darioajr.teuthis.schema.JsonAvroConverter;
+import com.github.darioajr.teuthis.schema.JsonSchemaRegistry;
+import com.github.darioajr.teuthis.schema.SchemaRegistry;
+import com.github.darioajr.teuthis.schema.TopicAvroSchemas;
 import com.sun.management.OperatingSystemMXBean;
 
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelFuture;
-import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.EventLoopGroup;
@@ -56,12 +89,15 @@ import io.netty.handler.codec.http.DefaultFullHttpResponse;
 import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.FullHttpResponse;
 import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.HttpServerKeepAliveHandler;
 import io.netty.handler.codec.http.HttpVersion;
 import io.netty.handler.codec.http.QueryStringDecoder;
+import io.prometheus.client.exporter.common.TextFormat;
 
 public class TeuthisServer {
 
@@ -69,29 +105,36 @@ public class TeuthisServer {
     private static final Logger performanceLogger = LoggerFactory.getLogger("performance");
     private static final Logger securityLogger = LoggerFactory.getLogger("security");
     
-    private static final double THRESHOLD = Config.d("resources.threshold");
-    private static final int RETRY_AFTER = Config.i("retry.after.seconds");
-    private static final String PARTITION_KEY = Config.str("kafka.partition.key");
-    private static final List<String> ALLOWED_TOPICS = Config.allowedTopics();
-    private static final int KAFKA_THREADS = Config.i("kafka.thread.pool.size");
+    // TLS termination, null when teuthis.tls.enabled=false
+    private static TlsContext tls;
     
-    private static final ExecutorService kafkaExecutor =
-        Executors.newFixedThreadPool(KAFKA_THREADS, r -> {
-            Thread t = new Thread(r, "kafka-sender");
+    // Uncompressed producer for payloads that arrive already compressed (passthrough)
+    private static Producer<String, byte[]> passthroughProducer;
+    
+    // Transactional producer for atomic fan-out; transactions run one at a time on their own thread, with a
+    // bounded backlog. The producer is null until created and after a fatal error until it is recreated.
+    private static final boolean FANOUT_TRANSACTIONAL = Config.b("teuthis.publish.fanout.transactional.enabled", false);
+    private static volatile Supplier<Producer<String, byte[]>> transactionalFactory;
+    private static volatile Producer<String, byte[]> transactionalProducer;
+    private static final ExecutorService transactionExecutor = new ThreadPoolExecutor(
+        1, 1, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(Math.max(1, Config.i("teuthis.publish.fanout.transactional.max.queued", 100))),
+        r -> {
+            Thread t = new Thread(r, "kafka-transactions");
             t.setDaemon(true);
             return t;
         });
-    private static Producer<String, byte[]> producer;
 
-    public static void main(String[] args) throws InterruptedException {
+    public static void main(String[] args) throws InterruptedException, IOException {
         logger.info("🚀 Starting Teuthis Server...");
         
         // Print configuration summary
         Config.printSummary();
         
         // Set resource threshold metric for monitoring
-        Metrics.resourceThreshold.set(THRESHOLD);
-        logger.info("📊 Resource threshold set to: {:.1f}%", THRESHOLD * 100);
+        double threshold = Settings.current().resourceThreshold();
+        Metrics.resourceThreshold.set(threshold);
+        logger.info("📊 Resource threshold set to: {}%", String.format("%.1f", threshold * 100));
         
         int port = Config.i("server.port");
         int bossThreads = Config.i("netty.boss.threads");
@@ -114,8 +157,31 @@ public class TeuthisServer {
               })
             : new NioEventLoopGroup());
 
-        try (Producer<String, byte[]> kafkaProducer = createProducer()) {
-            producer = kafkaProducer;
+        try (Producer<String, byte[]> kafkaProducer = createProducer(Config.str("kafka.compression.type"))) {
+            if (ContentDecodingHandler.isPassthroughEnabled()) {
+                passthroughProducer = createProducer("none");
+            }
+            Lanes.start(kafkaProducer, passthroughProducer, ContentDecodingHandler.isPassthroughEnabled(),
+                        TeuthisServer::createProducer);
+            if (FANOUT_TRANSACTIONAL) {
+                startTransactions(TeuthisServer::createTransactionalProducer);
+            }
+            TopicAllowlist.start();
+            RateLimitHandler.startCluster();
+            Latencies.start();
+            if (JwtValidator.isAuthEnabled()) {
+                JwtValidator.start();
+            }
+            Config.startWatching();
+            tls = TlsContext.fromConfig();
+            if (tls != null) {
+                tls.start(Duration.ofMillis(Config.l("teuthis.tls.reload.interval.ms", 30_000)));
+            }
+            if (SchemaRegistry.isEnabled()) {
+                for (String topic : TopicAllowlist.snapshot().exactTopics()) {
+                    SchemaRegistry.prefetch(topic, Message.getClassSchema());
+                }
+            }
             
             // Initialize queue cleanup manager
             QueueCleanupManager cleanupManager = new QueueCleanupManager(
@@ -129,41 +195,83 @@ public class TeuthisServer {
                  @Override
                  protected void initChannel(SocketChannel ch) {
                      logger.debug("Initializing channel: {}", ch.remoteAddress());
+                     ConnectionGovernor governor = new ConnectionGovernor();
+                     ch.pipeline().addLast(governor);
+                     if (tls != null) {
+                         ch.pipeline().addLast(tls.newHandler(ch.alloc()));
+                         if (tls.requestsClientCertificates()) {
+                             ch.pipeline().addLast(new ClientCertificateHandler());
+                         }
+                     }
                      ch.pipeline().addLast(
                        new HttpServerCodec(),
-                       new HttpObjectAggregator(64 * 1024),
-                       new SecurityHeadersHandler(),
-                       new MetricsHandler(),
-                       new RateLimitHandler(),
-                       new AuthenticationHandler(),
-                       new ValidationHandler(),
-                       new QueueCleanupHandler(cleanupManager),
-                       new PublishHandler()
+                       governor.requestProbe(),
+                       new HttpObjectAggregator(64 * 1024)
                      );
+                     ch.pipeline().addLast(requestHandlers(cleanupManager));
                  }
              });
 
             ChannelFuture f = b.bind(port).sync();
-            logger.info("✅ Server successfully started on http://localhost:{}", port);
+            logger.info("✅ Server successfully started on {}://localhost:{}", tls != null ? "https" : "http", port);
             f.channel().closeFuture().sync();
         } catch (InterruptedException e) {
             logger.error("❌ Server interrupted: {}", e.getMessage(), e);
             Thread.currentThread().interrupt();
             throw e;
-        } catch (RuntimeException e) {
+        } catch (IOException | RuntimeException e) {
             logger.error("❌ Failed to start server: {}", e.getMessage(), e);
             throw e;
         } finally {
             logger.info("🔄 Shutting down server gracefully...");
             bossGroup.shutdownGracefully();
             workerGroup.shutdownGracefully();
-            kafkaExecutor.shutdown();
+            Lanes.shutdown();
+            TopicAllowlist.shutdown();
+            JwtValidator.shutdown();
+            RateLimitHandler.stopCluster();
+            if (tls != null) {
+                tls.shutdown();
+            }
+            Config.stopWatching();
+            transactionExecutor.shutdown();
+            if (passthroughProducer != null) {
+                passthroughProducer.close();
+            }
+            if (transactionalProducer != null) {
+                transactionalProducer.close();
+            }
             AsyncResourceMonitor.shutdown();
+            JsonSchemaRegistry.shutdown();
+            TopicAvroSchemas.shutdown();
+            SchemaRegistry.shutdown();
             ObjectPools.clearThreadLocalCaches();
             logger.info("✅ Server shutdown completed");
         }
     }
 
+    /**
+     * Handlers after the HTTP codec and aggregator, in pipeline order
+     *
+     * Responses are written without closing the connection; the keep-alive handler
+     * closes it after the response when the request did not ask to keep it open.
+     */
+    static ChannelHandler[] requestHandlers(QueueCleanupManager cleanupManager) {
+        return new ChannelHandler[] {
+            new HttpServerKeepAliveHandler(),
+            new SecurityHeadersHandler(),
+            new MetricsHandler(),
+            new RateLimitHandler(),
+            new AuthenticationHandler(),
+            new ContentDecodingHandler(),
+            new ValidationHandler(),
+            new QuotaHandler(),
+            new AdminHandler(),
+            new QueueCleanupHandler(cleanupManager),
+            new PublishHandler()
+        };
+    }
+    
     private static AdminClient createAdminClient() {
         Properties props = new Properties();
         props.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, Config.str("kafka.bootstrap.servers"));
@@ -180,8 +288,51 @@ public class TeuthisServer {
         }
     }
 
-    private static Producer<String, byte[]> createProducer() {
-        logger.debug("Creating Kafka producer with bootstrap servers: {}", Config.str("kafka.bootstrap.servers"));
+    /**
+     * Enable atomic fan-out, creating the transactional producer now and after fatal errors from {@code factory}
+     */
+    static void startTransactions(Supplier<Producer<String, byte[]>> factory) {
+        transactionalFactory = factory;
+        transactionalProducer = factory.get();
+    }
+
+    /**
+     * Transactional producer, recreated first when a previous attempt failed; null when it cannot be created
+     */
+    private static synchronized Producer<String, byte[]> currentTransactionalProducer() {
+        Producer<String, byte[]> producer = transactionalProducer;
+        if (producer == null) {
+            try {
+                producer = transactionalFactory.get();
+                transactionalProducer = producer;
+                logger.info("✅ Transactional producer recreated");
+            } catch (RuntimeException e) {
+                logger.error("❌ Could not recreate transactional producer: {}", e.getMessage(), e);
+            }
+        }
+        return producer;
+    }
+
+    private static Producer<String, byte[]> createTransactionalProducer() {
+        String transactionalId = Config.str("teuthis.publish.fanout.transactional.id", "teuthis-" + KafkaHeaders.hostname());
+        Properties overrides = new Properties();
+        overrides.put(ProducerConfig.TRANSACTIONAL_ID_CONFIG, transactionalId);
+        overrides.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, "true");
+        overrides.put(ProducerConfig.ACKS_CONFIG, "all");
+        
+        Producer<String, byte[]> kafkaProducer = createProducer(Config.str("kafka.compression.type"), overrides);
+        kafkaProducer.initTransactions();
+        logger.info("✅ Transactional producer initialized with transactional.id {}", transactionalId);
+        return kafkaProducer;
+    }
+
+    private static Producer<String, byte[]> createProducer(String compressionType) {
+        return createProducer(compressionType, new Properties());
+    }
+
+    private static Producer<String, byte[]> createProducer(String compressionType, Properties overrides) {
+        logger.debug("Creating Kafka producer with bootstrap servers: {} (compression: {})",
+                     Config.str("kafka.bootstrap.servers"), compressionType);
         
         Properties p = new Properties();
         p.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, Config.str("kafka.bootstrap.servers"));
@@ -193,7 +344,8 @@ public class TeuthisServer {
         p.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, Config.str("kafka.max.in.flight.requests.per.connection"));
         p.put(ProducerConfig.BATCH_SIZE_CONFIG, Config.str("kafka.batch.size"));
         p.put(ProducerConfig.LINGER_MS_CONFIG, Config.str("kafka.linger.ms"));
-        p.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, Config.str("kafka.compression.type"));
+        p.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        p.putAll(overrides);
         
         try {
             Producer<String, byte[]> kafkaProducer = new KafkaProducer<>(p);
@@ -210,6 +362,24 @@ public class TeuthisServer {
 
     private static class PublishHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
         
+        private static final ObjectMapper JSON = new ObjectMapper();
+        
+        /** Identifies topics of one request whose record values are byte-identical */
+        private record ValueKey(JsonAvroConverter converter, boolean unwrapped, int schemaId) {}
+        
+        private record EncodedValue(byte[] bytes, String format) {}
+        
+        /** Per-topic outcome of a fan-out publish */
+        private record TopicResult(String topic, String status, int partition, long offset, String error) {
+            static TopicResult sent(RecordMetadata md) {
+                return new TopicResult(md.topic(), "ok", md.partition(), md.offset(), null);
+            }
+            
+            static TopicResult failed(String topic, String error) {
+                return new TopicResult(topic, "error", -1, -1, error != null ? error : "unknown error");
+            }
+        }
+        
         private static String getClientIp(ChannelHandlerContext ctx) {
             try {
                 return ctx.channel().remoteAddress() != null ? 
@@ -235,6 +405,10 @@ public class TeuthisServer {
             // MDC para correlação de logs
             MDC.put("requestId", requestId);
             MDC.put("clientIp", clientIp);
+            RequestTimings requestTimings = RequestTimings.of(ctx);
+            if (requestTimings != null) {
+                requestTimings.requestId(requestId);
+            }
             
             try {
                 if (req.method() == null || req.uri() == null) {
@@ -256,7 +430,6 @@ public class TeuthisServer {
                 }
                 
                 QueryStringDecoder dec = new QueryStringDecoder(req.uri());
-                String[] segs = dec.path().split("/");
                 
                 // Handle health check endpoint (GET)
                 if (dec.path().equals("/health")) {
@@ -274,7 +447,7 @@ public class TeuthisServer {
                 if (dec.path().equals("/metrics")) {
                     if (req.method().equals(HttpMethod.GET)) {
                         logger.debug("📊 Metrics request from {}", clientIp);
-                        sendMetricsResponse(ctx);
+                        sendMetricsResponse(ctx, req);
                         return;
                     } else {
                         sendError(ctx, HttpResponseStatus.METHOD_NOT_ALLOWED, "Metrics endpoint only accepts GET requests");
@@ -290,27 +463,38 @@ public class TeuthisServer {
                     return;
                 }
                 
-                if (segs.length != 3 || !segs[1].equals("publish")) {
+                PublishRoute route = PublishRoute.parse(dec);
+                if (route == null) {
                     logger.warn("⚠️ Invalid path: {} for request {}", dec.path(), requestId);
                     securityLogger.warn("Invalid path attempt from {}: {}", clientIp, dec.path());
                     sendError(ctx, HttpResponseStatus.NOT_FOUND);
                     return;
                 }
+                if (route.topics().isEmpty()) {
+                    sendError(ctx, HttpResponseStatus.BAD_REQUEST, "Missing topics parameter");
+                    return;
+                }
+                if (route.atomic() && transactionalFactory == null) {
+                    sendError(ctx, HttpResponseStatus.BAD_REQUEST, "Atomic fan-out is not enabled");
+                    return;
+                }
                 
-                String topic = segs[2];
+                String topic = route.fanOut() ? String.join(",", route.topics()) : route.topics().get(0);
                 MDC.put("topic", topic);
                 
-                if (!ALLOWED_TOPICS.contains(topic)) {
-                    logger.warn("⚠️ Topic not allowed: {} for request {}", topic, requestId);
-                    securityLogger.warn("Unauthorized topic access attempt from {}: {}", clientIp, topic);
-                    sendError(ctx, HttpResponseStatus.BAD_REQUEST, "Tópico não permitido: " + topic);
-                    return;
+                for (String t : route.topics()) {
+                    if (!TopicAllowlist.isAllowed(t)) {
+                        logger.warn("⚠️ Topic not allowed: {} for request {}", t, requestId);
+                        securityLogger.warn("Unauthorized topic access attempt from {}: {}", clientIp, t);
+                        sendError(ctx, HttpResponseStatus.BAD_REQUEST, "Tópico não permitido: " + t);
+                        return;
+                    }
                 }
                 
                 String resourceLimitMessage = AsyncResourceMonitor.checkResourceLimits();
                 if (resourceLimitMessage != null) {
                     logger.warn("⚠️ Resource usage high, rejecting request {} for topic {}: {}", requestId, topic, resourceLimitMessage);
-                    sendError(ctx, HttpResponseStatus.TOO_MANY_REQUESTS, resourceLimitMessage, RETRY_AFTER);
+                    sendError(ctx, HttpResponseStatus.TOO_MANY_REQUESTS, resourceLimitMessage, Settings.current().retryAfterSeconds());
                     return;
                 }
                 
@@ -319,159 +503,70 @@ public class TeuthisServer {
                 
                 logger.debug("📦 Message body size: {} bytes for request {}", body.length, requestId);
                 
-                String format = detectFormat(new String(body, StandardCharsets.UTF_8));
-                MDC.put("format", format);
+                ContentEncoding passthrough = ctx.channel().attr(ContentDecodingHandler.PASSTHROUGH_ENCODING).getAndSet(null);
                 
-                Message msg;
-                try {
-                    msg = Message.newBuilder()
-                                         .setFormat(format)
-                                         .setPayload(ByteBuffer.wrap(body))
-                                         .setTimestamp(System.currentTimeMillis())
-                                         .setHostname(InetAddress.getLocalHost().getHostName())
-                                         .build();
-                    
-                    logger.debug("✅ Avro message built successfully for request {}", requestId);
-                } catch (UnknownHostException e) {
-                    logger.error("❌ Failed to get hostname for request {}: {}", requestId, e.getMessage(), e);
-                    sendError(ctx, HttpResponseStatus.INTERNAL_SERVER_ERROR, "Failed to build message");
+                if (route.fanOut()) {
+                    publishFanOut(ctx, req, requestId, route, body, passthrough);
                     return;
                 }
                 
-                if (msg == null) {
-                    logger.error("❌ Failed to build message for request {}", requestId);
-                    sendError(ctx, HttpResponseStatus.INTERNAL_SERVER_ERROR, "Failed to build message");
-                    return;
+                ProducerRecord<String, byte[]> record = buildRecord(ctx, req, requestId, topic, body, passthrough, null);
+                if (record == null) {
+                    return; // Error response already sent
                 }
-                
-                byte[] avroBytes;
-                ByteArrayOutputStream out = ObjectPools.getBuffer();
-                try {
-                    DatumWriter<Message> w = ObjectPools.getAvroWriter();
-                    BinaryEncoder enc = ObjectPools.getEncoder(out);
-                    w.write(msg, enc);
-                    enc.flush();
-                    avroBytes = out.toByteArray();
-                    
-                    logger.debug("📋 Avro serialization completed: {} bytes for request {}", avroBytes.length, requestId);
-                } catch (java.io.IOException e) {
-                    logger.error("❌ IO error during serialization for request {}: {}", requestId, e.getMessage(), e);
-                    sendError(ctx, HttpResponseStatus.INTERNAL_SERVER_ERROR, "IO error during serialization");
-                    return;
-                } catch (org.apache.avro.AvroRuntimeException e) {
-                    logger.error("❌ Avro runtime error for request {}: {}", requestId, e.getMessage(), e);
-                    sendError(ctx, HttpResponseStatus.INTERNAL_SERVER_ERROR, "Avro runtime error during serialization");
+                RequestTimings timings = RequestTimings.of(ctx);
+                if (timings != null) {
+                    timings.stamp(RequestTimings.Stage.SERIALIZATION);
+                }
+                Lane lane = Lanes.forTopic(topic);
+                String tenant = AuthenticationHandler.tenant(ctx);
+                long requestStartTime = System.nanoTime();
+                CompletableFuture<RecordMetadata> sent = lane.submit(tenant, record, passthrough != null, timings);
+                if (sent.isCompletedExceptionally()) {
+                    if (lane.isFair()) {
+                        logger.warn("⚠️ Queue of tenant {} full on lane {}, rejecting request {} for topic {}",
+                                   tenant, lane.name(), requestId, topic);
+                        sendError(ctx, HttpResponseStatus.TOO_MANY_REQUESTS, "Tenant queue full: " + tenant, Settings.current().retryAfterSeconds());
+                    } else {
+                        logger.warn("⚠️ Lane {} saturated ({} in flight), rejecting request {} for topic {}",
+                                   lane.name(), lane.maxInFlight(), requestId, topic);
+                        sendError(ctx, HttpResponseStatus.SERVICE_UNAVAILABLE, "Lane saturated: " + lane.name(), Settings.current().retryAfterSeconds());
+                    }
                     return;
                 }
-
-                ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, PARTITION_KEY, avroBytes);
                 
-                logger.info("🚀 Sending message to Kafka topic: {} for request {}", topic, requestId);
+                logger.info("🚀 Sending message to Kafka topic: {} on lane {} for request {} (tenant {})",
+                           topic, lane.name(), requestId, tenant);
                 
-                kafkaExecutor.submit(() -> {
-                    // Manter MDC no thread do Kafka  
+                sent.whenComplete((md, ex) -> {
+                    if (timings != null) {
+                        timings.stamp(RequestTimings.Stage.ACK);
+                    }
+                    // Runs on the lane producer I/O thread; keep MDC for correlation
                     MDC.put("requestId", requestId);
                     MDC.put("topic", topic);
-                    // clientIp já está no MDC principal
-                    
-                    long requestStartTime = System.nanoTime();
-                    
                     try {
-                        logger.debug("🚀 Submitting message to Kafka producer for request {}", requestId);
-                        
-                        RecordMetadata md = CircuitBreakerManager.sendWithProtection(producer, record).get();
                         long duration = System.nanoTime() - requestStartTime;
+                        Latencies.publish().record(duration, requestId);
                         
-                        // Record metrics safely
-                        try {
-                            Metrics.publishLatency.observe((double) duration / 1_000_000_000.0);
+                        if (ex == null) {
                             Metrics.messagesTotal.inc();
-                        } catch (Exception metricsError) {
-                            logger.warn("⚠️ Failed to record metrics for request {}: {}", requestId, metricsError.getMessage());
-                        }
-                        
-                        logger.info("✅ Message sent successfully to partition {} offset {} for request {} in {}ms", 
-                                   md.partition(), md.offset(), requestId, duration / 1_000_000);
-                        
-                        performanceLogger.info("Message processing completed: requestId={}, topic={}, partition={}, offset={}, duration={}ms", 
-                                              requestId, topic, md.partition(), md.offset(), duration / 1_000_000);
-                        
-                        // Send success response in the Netty event loop
-                        ctx.executor().execute(() -> {
-                            try {
-                                sendSuccess(ctx, HttpResponseStatus.CREATED);
-                            } catch (Exception e) {
-                                logger.error("❌ Error sending success response for request {}: {}", requestId, e.getMessage(), e);
-                            }
-                        });
-                        
-                    } catch (InterruptedException ex) {
-                        long duration = System.nanoTime() - requestStartTime;
-
-                        // Record metrics safely
-                        try {
-                            Metrics.publishLatency.observe((double) duration / 1_000_000_000.0);
-                            Metrics.messagesErrors.inc();
-                        } catch (Exception metricsError) {
-                            logger.warn("⚠️ Failed to record error metrics for request {}: {}", requestId, metricsError.getMessage());
-                        }
-
-                        logger.error("❌ Interrupted while sending message to Kafka for request {} after {}ms: {}",
-                                    requestId, duration / 1_000_000, ex.getMessage(), ex);
-
-                        Thread.currentThread().interrupt();
-                        ctx.executor().execute(() -> {
-                            try {
-                                sendError(ctx, HttpResponseStatus.SERVICE_UNAVAILABLE,
-                                          "Kafka indisponível: " + ex.getMessage(), RETRY_AFTER);
-                            } catch (Exception e) {
-                                logger.error("❌ Error sending interrupted response for request {}: {}", requestId, e.getMessage(), e);
-                            }
-                        });
-                    } catch (java.util.concurrent.ExecutionException ex) {
-                        long duration = System.nanoTime() - requestStartTime;
-
-                        // Record metrics safely
-                        try {
-                            Metrics.publishLatency.observe((double) duration / 1_000_000_000.0);
-                            Metrics.messagesErrors.inc();
-                        } catch (Exception metricsError) {
-                            logger.warn("⚠️ Failed to record error metrics for request {}: {}", requestId, metricsError.getMessage());
-                        }
-
-                        logger.error("❌ Execution error while sending message to Kafka for request {} after {}ms: {}",
-                                    requestId, duration / 1_000_000, ex.getMessage(), ex);
-
-                        ctx.executor().execute(() -> {
-                            try {
-                                sendError(ctx, HttpResponseStatus.SERVICE_UNAVAILABLE,
-                                          "Kafka indisponível: " + ex.getMessage(), RETRY_AFTER);
-                            } catch (Exception e) {
-                                logger.error("❌ Error sending execution error response for request {}: {}", requestId, e.getMessage(), e);
-                            }
-                        });
-                    } catch (Exception ex) {
-                        long duration = System.nanoTime() - requestStartTime;
-                        
-                        // Record metrics safely
-                        try {
-                            Metrics.publishLatency.observe((double) duration / 1_000_000_000.0);
+                            logger.info("✅ Message sent successfully to partition {} offset {} for request {} in {}ms", 
+                                       md.partition(), md.offset(), requestId, duration / 1_000_000);
+                            performanceLogger.info("Message processing completed: requestId={}, topic={}, lane={}, partition={}, offset={}, duration={}ms", 
+                                                  requestId, topic, lane.name(), md.partition(), md.offset(), duration / 1_000_000);
+                            
+                            // Send success response in the Netty event loop
+                            ctx.executor().execute(() -> sendSuccess(ctx, HttpResponseStatus.CREATED));
+                        } else {
                             Metrics.messagesErrors.inc();
-                        } catch (Exception metricsError) {
-                            logger.warn("⚠️ Failed to record error metrics for request {}: {}", requestId, metricsError.getMessage());
+                            logger.error("❌ Error while sending message to Kafka for request {} after {}ms: {}",
+                                        requestId, duration / 1_000_000, ex.getMessage(), ex);
+                            ctx.executor().execute(() -> sendError(ctx, HttpResponseStatus.SERVICE_UNAVAILABLE,
+                                                                   "Kafka indisponível: " + ex.getMessage(), Settings.current().retryAfterSeconds()));
                         }
-                        
-                        logger.error("❌ Unexpected error while sending message to Kafka for request {} after {}ms: {}",
-                                    requestId, duration / 1_000_000, ex.getMessage(), ex);
-                        
-                        ctx.executor().execute(() -> {
-                            try {
-                                sendError(ctx, HttpResponseStatus.INTERNAL_SERVER_ERROR,
-                                          "Erro interno: " + ex.getMessage());
-                            } catch (Exception e) {
-                                logger.error("❌ Error sending unexpected error response for request {}: {}", requestId, e.getMessage(), e);
-                            }
-                        });
+                    } catch (RuntimeException e) {
+                        logger.error("❌ Error completing request {}: {}", requestId, e.getMessage(), e);
                     } finally {
                         MDC.clear();
                     }
@@ -518,26 +613,28 @@ public class TeuthisServer {
                 
                 StringBuilder limitedResources = new StringBuilder();
                 boolean isHigh = false;
+                double threshold = Settings.current().resourceThreshold();
                 
-                if (cpu > THRESHOLD) {
+                if (cpu > threshold) {
                     limitedResources.append("CPU: ").append(String.format("%.1f%%", cpu * 100));
                     isHigh = true;
                 }
                 
-                if (ramRatio > THRESHOLD) {
+                if (ramRatio > threshold) {
                     if (limitedResources.length() > 0) limitedResources.append(", ");
                     limitedResources.append("RAM: ").append(String.format("%.1f%%", ramRatio * 100));
                     isHigh = true;
                 }
                 
-                if (diskRatio > THRESHOLD) {
+                if (diskRatio > threshold) {
                     if (limitedResources.length() > 0) limitedResources.append(", ");
                     limitedResources.append("Disco: ").append(String.format("%.1f%%", diskRatio * 100));
                     isHigh = true;
                 }
                 
                 if (isHigh) {
-                    String message = "Recursos limitados: " + limitedResources.toString() + " ≥ 85%";
+                    String message = "Recursos limitados: " + limitedResources.toString() + " ≥ "
+                                     + String.format("%.0f%%", threshold * 100);
                     logger.warn("⚠️ High resource usage detected - {}", message);
                     return message;
                 } else {
@@ -569,6 +666,377 @@ public class TeuthisServer {
             return format;
         }
 
+        /**
+         * Build the Kafka record for one topic. Value encodings are shared through
+         * {@code encoded} (when not null) between topics that would produce the same
+         * bytes. Returns null after sending an error response.
+         */
+        private static ProducerRecord<String, byte[]> buildRecord(ChannelHandlerContext ctx, FullHttpRequest req,
+                                                                  String requestId, String topic, byte[] body,
+                                                                  ContentEncoding passthrough,
+                                                                  Map<ValueKey, EncodedValue> encoded) {
+            // Passthrough bodies are still compressed, so they are never converted
+            TopicAvroSchemas.TopicSchema avroSchema = passthrough == null ? TopicAvroSchemas.forTopic(topic) : null;
+            // Raw topics skip the Message envelope and carry its fields as record headers
+            boolean raw = Settings.current().rawTopics().contains(topic);
+            boolean rawValue = avroSchema != null && (raw || avroSchema.mode() == TopicAvroSchemas.PublishMode.VALUE);
+            
+            int schemaId = -1;
+            if (SchemaRegistry.isEnabled() && (rawValue || !raw)) {
+                schemaId = rawValue
+                    ? SchemaRegistry.valueSchemaId(topic, avroSchema.converter())
+                    : SchemaRegistry.messageSchemaId(topic);
+                if (schemaId < 0) {
+                    Metrics.schemaRegistryMisses.labels(topic).inc();
+                    // Counted rather than logged at WARN: while the registry is down every request lands here
+                    logger.debug("⏳ Schema id not registered yet for topic {}, rejecting request {}", topic, requestId);
+                    sendError(ctx, HttpResponseStatus.SERVICE_UNAVAILABLE, "Schema not registered yet for topic: " + topic, Settings.current().retryAfterSeconds());
+                    return null;
+                }
+            }
+            
+            ValueKey key = encoded != null
+                ? new ValueKey(avroSchema != null ? avroSchema.converter() : null, raw || rawValue, schemaId) : null;
+            EncodedValue value = key != null ? encoded.get(key) : null;
+            if (value == null) {
+                value = encodeValue(ctx, req, requestId, topic, body, passthrough, avroSchema, raw, rawValue, schemaId);
+                if (value == null) {
+                    return null; // Error response already sent
+                }
+                if (key != null) {
+                    encoded.put(key, value);
+                }
+            }
+            MDC.put("format", value.format());
+            
+            Headers headers = raw ? KafkaHeaders.envelope(value.format(), System.currentTimeMillis(), passthrough) : null;
+            headers = KafkaHeaders.propagate(headers, req.headers(), requestId);
+            if (headers != null) {
+                Metrics.kafkaHeaderBytes.labels(topic).inc(KafkaHeaders.sizeOf(headers));
+            }
+            return new ProducerRecord<>(topic, null, Settings.current().partitionKey(), value.bytes(), headers);
+        }
+        
+        private static EncodedValue encodeValue(ChannelHandlerContext ctx, FullHttpRequest req, String requestId,
+                                                String topic, byte[] body, ContentEncoding passthrough,
+                                                TopicAvroSchemas.TopicSchema avroSchema, boolean raw,
+                                                boolean rawValue, int schemaId) {
+            String format;
+            if (avroSchema != null) {
+                body = convertToAvro(ctx, requestId, topic, avroSchema, body, rawValue ? schemaId : -1);
+                if (body == null) {
+                    return null; // Error response already sent
+                }
+                format = "avro";
+            } else if (passthrough != null) {
+                format = formatFromContentType(req.headers().get(HttpHeaderNames.CONTENT_TYPE));
+            } else {
+                format = detectFormat(new String(body, StandardCharsets.UTF_8));
+            }
+            
+            byte[] bytes = raw || rawValue ? body : serializeEnvelope(ctx, requestId, format, body, passthrough, schemaId);
+            return bytes != null ? new EncodedValue(bytes, format) : null;
+        }
+        
+        /**
+         * Publish one payload to every topic of a fan-out request and answer with
+         * the per-topic results
+         */
+        private static void publishFanOut(ChannelHandlerContext ctx, FullHttpRequest req, String requestId,
+                                          PublishRoute route, byte[] body, ContentEncoding passthrough) {
+            Map<ValueKey, EncodedValue> encoded = new HashMap<>(4);
+            List<ProducerRecord<String, byte[]>> records = new ArrayList<>(route.topics().size());
+            for (String topic : route.topics()) {
+                ProducerRecord<String, byte[]> record = buildRecord(ctx, req, requestId, topic, body, passthrough, encoded);
+                if (record == null) {
+                    return; // Error response already sent
+                }
+                records.add(record);
+            }
+            RequestTimings timings = RequestTimings.of(ctx);
+            if (timings != null) {
+                timings.stamp(RequestTimings.Stage.SERIALIZATION);
+            }
+            
+            logger.info("🚀 Fanning out request {} to {} topics ({} encodings, atomic: {})",
+                       requestId, records.size(), encoded.size(), route.atomic());
+            
+            if (route.atomic()) {
+                try {
+                    transactionExecutor.execute(() -> publishAtomically(ctx, requestId, records, timings));
+                } catch (RejectedExecutionException e) {
+                    logger.warn("⚠️ Transaction backlog full, rejecting fan-out request {}", requestId);
+                    sendError(ctx, HttpResponseStatus.SERVICE_UNAVAILABLE, "Transaction backlog full",
+                              Settings.current().retryAfterSeconds());
+                }
+                return;
+            }
+            
+            // Reserve every unfair lane first so a saturated lane rejects the request before anything is sent;
+            // fair lanes queue instead and a full tenant queue fails only that topic
+            List<Lane> lanes = new ArrayList<>(records.size());
+            List<Lane> reserved = new ArrayList<>(records.size());
+            for (ProducerRecord<String, byte[]> record : records) {
+                Lane lane = Lanes.forTopic(record.topic());
+                if (!lane.isFair()) {
+                    if (!lane.tryAcquire()) {
+                        reserved.forEach(Lane::release);
+                        logger.warn("⚠️ Lane {} saturated, rejecting fan-out request {}", lane.name(), requestId);
+                        sendError(ctx, HttpResponseStatus.SERVICE_UNAVAILABLE, "Lane saturated: " + lane.name(), Settings.current().retryAfterSeconds());
+                        return;
+                    }
+                    reserved.add(lane);
+                }
+                lanes.add(lane);
+            }
+            
+            String tenant = AuthenticationHandler.tenant(ctx);
+            long start = System.nanoTime();
+            List<CompletableFuture<RecordMetadata>> futures = new ArrayList<>(records.size());
+            for (int i = 0; i < records.size(); i++) {
+                Lane lane = lanes.get(i);
+                futures.add(lane.isFair() ? lane.submit(tenant, records.get(i), passthrough != null, timings)
+                                          : lane.send(records.get(i), passthrough != null, timings));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .whenComplete((ignored, error) -> {
+                    if (timings != null) {
+                        timings.stamp(RequestTimings.Stage.ACK);
+                    }
+                    completeFanOut(ctx, requestId, records, futures, start);
+                });
+        }
+        
+        private static void completeFanOut(ChannelHandlerContext ctx, String requestId,
+                                           List<ProducerRecord<String, byte[]>> records,
+                                           List<CompletableFuture<RecordMetadata>> futures, long start) {
+            MDC.put("requestId", requestId);
+            try {
+                List<TopicResult> results = new ArrayList<>(records.size());
+                int failures = 0;
+                for (int i = 0; i < records.size(); i++) {
+                    String topic = records.get(i).topic();
+                    CompletableFuture<RecordMetadata> future = futures.get(i);
+                    if (future.isCompletedExceptionally()) {
+                        failures++;
+                        Throwable cause = future.handle((md, ex) -> ex).join();
+                        logger.error("❌ Fan-out send to topic {} failed for request {}: {}", topic, requestId, cause.getMessage());
+                        results.add(TopicResult.failed(topic, cause.getMessage()));
+                        Metrics.messagesErrors.inc();
+                    } else {
+                        results.add(TopicResult.sent(future.join()));
+                        Metrics.messagesTotal.inc();
+                    }
+                }
+                
+                long duration = System.nanoTime() - start;
+                Latencies.publish().record(duration, requestId);
+                performanceLogger.info("Fan-out completed: requestId={}, topics={}, failures={}, duration={}ms",
+                                      requestId, records.size(), failures, duration / 1_000_000);
+                
+                HttpResponseStatus status = failures == 0 ? HttpResponseStatus.CREATED
+                    : failures == records.size() ? HttpResponseStatus.SERVICE_UNAVAILABLE
+                    : HttpResponseStatus.MULTI_STATUS;
+                ctx.executor().execute(() -> sendFanOutResponse(ctx, status, results));
+            } finally {
+                MDC.clear();
+            }
+        }
+        
+        private static void publishAtomically(ChannelHandlerContext ctx, String requestId,
+                                              List<ProducerRecord<String, byte[]>> records, RequestTimings timings) {
+            MDC.put("requestId", requestId);
+            long start = System.nanoTime();
+            Producer<String, byte[]> tx = currentTransactionalProducer();
+            List<TopicResult> results = new ArrayList<>(records.size());
+            HttpResponseStatus status;
+            try {
+                if (tx == null) {
+                    throw new IllegalStateException("Transactional producer unavailable");
+                }
+                tx.beginTransaction();
+                List<Future<RecordMetadata>> futures = new ArrayList<>(records.size());
+                if (timings != null) {
+                    timings.stamp(RequestTimings.Stage.ENQUEUE);
+                }
+                for (ProducerRecord<String, byte[]> record : records) {
+                    futures.add(tx.send(record));
+                }
+                tx.commitTransaction();
+                for (Future<RecordMetadata> future : futures) {
+                    results.add(TopicResult.sent(future.get()));
+                }
+                Metrics.messagesTotal.inc(records.size());
+                status = HttpResponseStatus.CREATED;
+            } catch (org.apache.kafka.common.errors.ProducerFencedException
+                     | org.apache.kafka.common.errors.OutOfOrderSequenceException
+                     | org.apache.kafka.common.errors.AuthorizationException ex) {
+                // Fatal for this producer: replace it so later transactions can proceed
+                logger.error("❌ Transactional producer failed fatally for request {}: {}", requestId, ex.getMessage(), ex);
+                replaceTransactionalProducer(tx);
+                status = failAll(records, results, ex.getMessage());
+            } catch (IllegalStateException ex) {
+                // Closed producer or one left in a state that cannot begin a transaction
+                logger.error("❌ Transactional producer unusable for request {}: {}", requestId, ex.getMessage(), ex);
+                replaceTransactionalProducer(tx);
+                status = failAll(records, results, ex.getMessage());
+            } catch (org.apache.kafka.common.KafkaException ex) {
+                logger.error("❌ Aborting fan-out transaction for request {}: {}", requestId, ex.getMessage(), ex);
+                try {
+                    tx.abortTransaction();
+                } catch (RuntimeException abortFailure) {
+                    // Fatal state or abort timeout: the producer cannot start another transaction
+                    logger.error("❌ Could not abort fan-out transaction for request {}: {}",
+                                requestId, abortFailure.getMessage(), abortFailure);
+                    replaceTransactionalProducer(tx);
+                }
+                status = failAll(records, results, "aborted: " + ex.getMessage());
+            } catch (InterruptedException | java.util.concurrent.ExecutionException ex) {
+                // Only reachable after commit, when every send has already completed
+                if (ex instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                logger.error("❌ Could not read fan-out metadata for request {}: {}", requestId, ex.getMessage(), ex);
+                results.clear();
+                for (ProducerRecord<String, byte[]> record : records) {
+                    results.add(new TopicResult(record.topic(), "ok", -1, -1, null));
+                }
+                status = HttpResponseStatus.CREATED;
+            } catch (RuntimeException ex) {
+                // Never leave the client without a response
+                logger.error("❌ Fan-out transaction failed for request {}: {}", requestId, ex.getMessage(), ex);
+                status = failAll(records, results, ex.getMessage());
+            } finally {
+                if (timings != null) {
+                    timings.stamp(RequestTimings.Stage.ACK);
+                }
+                Latencies.publish().record(System.nanoTime() - start, requestId);
+                MDC.clear();
+            }
+            HttpResponseStatus response = status;
+            ctx.executor().execute(() -> sendFanOutResponse(ctx, response, results));
+        }
+
+        /**
+         * Drop a failed producer and try to create its replacement; while that fails the field stays
+         * null and the next atomic request tries again
+         */
+        private static void replaceTransactionalProducer(Producer<String, byte[]> failed) {
+            if (failed == null) {
+                return;
+            }
+            transactionalProducer = null;
+            try {
+                failed.close(Duration.ZERO);
+            } catch (RuntimeException e) {
+                logger.warn("⚠️ Error closing failed transactional producer: {}", e.getMessage());
+            }
+            currentTransactionalProducer();
+        }
+        
+        private static HttpResponseStatus failAll(List<ProducerRecord<String, byte[]>> records,
+                                                  List<TopicResult> results, String error) {
+            results.clear();
+            for (ProducerRecord<String, byte[]> record : records) {
+                results.add(TopicResult.failed(record.topic(), error));
+            }
+            Metrics.messagesErrors.inc(records.size());
+            return HttpResponseStatus.SERVICE_UNAVAILABLE;
+        }
+        
+        private static void sendFanOutResponse(ChannelHandlerContext ctx, HttpResponseStatus status, List<TopicResult> results) {
+            ObjectNode json = JSON.createObjectNode();
+            ArrayNode topics = json.putArray("results");
+            for (TopicResult result : results) {
+                ObjectNode node = topics.addObject().put("topic", result.topic()).put("status", result.status());
+                if (result.error() != null) {
+                    node.put("error", result.error());
+                } else if (result.offset() >= 0) {
+                    node.put("partition", result.partition()).put("offset", result.offset());
+                }
+            }
+            byte[] bytes = json.toString().getBytes(StandardCharsets.UTF_8);
+            
+            try {
+                Metrics.requestsTotal.labels("POST", String.valueOf(status.code())).inc();
+            } catch (Exception e) {
+                logger.warn("⚠️ Error recording fan-out metrics: {}", e.getMessage());
+            }
+            
+            FullHttpResponse response = new DefaultFullHttpResponse(
+                HttpVersion.HTTP_1_1, status, Unpooled.wrappedBuffer(bytes));
+            response.headers().set(HttpHeaderNames.CONTENT_TYPE, "application/json");
+            response.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, bytes.length);
+            ctx.writeAndFlush(response);
+        }
+
+        private static byte[] convertToAvro(ChannelHandlerContext ctx, String requestId, String topic,
+                                            TopicAvroSchemas.TopicSchema avroSchema, byte[] body, int schemaId) {
+            long start = System.nanoTime();
+            try {
+                byte[] converted = avroSchema.converter().convert(body, schemaId);
+                logger.debug("🔁 JSON converted to Avro {}: {} -> {} bytes for request {}",
+                            avroSchema.schema().getFullName(), body.length, converted.length, requestId);
+                return converted;
+            } catch (JsonAvroConverter.ConversionException e) {
+                Metrics.avroConversionErrors.labels(topic).inc();
+                logger.warn("⚠️ JSON to Avro conversion failed for request {} on topic {}: {}", requestId, topic, e.getMessage());
+                sendError(ctx, HttpResponseStatus.UNPROCESSABLE_ENTITY, e.getMessage());
+                return null;
+            } finally {
+                Metrics.avroConversionDuration.labels(topic).observe((System.nanoTime() - start) / 1_000_000_000.0);
+            }
+        }
+
+        private static byte[] serializeEnvelope(ChannelHandlerContext ctx, String requestId, String format,
+                                                byte[] body, ContentEncoding passthrough, int schemaId) {
+            Message msg = Message.newBuilder()
+                                 .setFormat(format)
+                                 .setPayload(ByteBuffer.wrap(body))
+                                 .setTimestamp(System.currentTimeMillis())
+                                 .setHostname(KafkaHeaders.hostname())
+                                 .setEncoding(passthrough != null ? passthrough.token() : null)
+                                 .build();
+            
+            logger.debug("✅ Avro message built successfully for request {}", requestId);
+            
+            ByteArrayOutputStream out = ObjectPools.getBuffer();
+            try {
+                if (schemaId >= 0) {
+                    SchemaRegistry.writeHeader(out, schemaId);
+                }
+                DatumWriter<Message> w = ObjectPools.getAvroWriter();
+                BinaryEncoder enc = ObjectPools.getEncoder(out);
+                w.write(msg, enc);
+                enc.flush();
+                byte[] avroBytes = out.toByteArray();
+                
+                logger.debug("📋 Avro serialization completed: {} bytes for request {}", avroBytes.length, requestId);
+                return avroBytes;
+            } catch (java.io.IOException e) {
+                logger.error("❌ IO error during serialization for request {}: {}", requestId, e.getMessage(), e);
+                sendError(ctx, HttpResponseStatus.INTERNAL_SERVER_ERROR, "IO error during serialization");
+                return null;
+            } catch (org.apache.avro.AvroRuntimeException e) {
+                logger.error("❌ Avro runtime error for request {}: {}", requestId, e.getMessage(), e);
+                sendError(ctx, HttpResponseStatus.INTERNAL_SERVER_ERROR, "Avro runtime error during serialization");
+                return null;
+            }
+        }
+
+        private static String formatFromContentType(String contentType) {
+            if (contentType == null) {
+                return "txt";
+            }
+            String mainType = contentType.split(";")[0].trim().toLowerCase();
+            return switch (mainType) {
+                case "application/json" -> "json";
+                case "application/soap+xml" -> "soap";
+                case "application/xml", "text/xml" -> "xml";
+                default -> "txt";
+            };
+        }
+
         private static void sendSuccess(ChannelHandlerContext ctx, HttpResponseStatus status) {
             logger.debug("✅ Sending success response: {}", status);
             
@@ -579,8 +1047,9 @@ public class TeuthisServer {
                 logger.warn("⚠️ Error recording success metrics: {}", e.getMessage());
             }
             
-            ctx.writeAndFlush(new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status))
-               .addListener(ChannelFutureListener.CLOSE);
+            FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status);
+            response.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, 0);
+            ctx.writeAndFlush(response);
         }
         
         private static void sendHealthResponse(ChannelHandlerContext ctx) {
@@ -593,29 +1062,36 @@ public class TeuthisServer {
             response.headers().set(HttpHeaderNames.CONTENT_TYPE, "application/json");
             response.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, bytes.length);
             
-            ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+            ctx.writeAndFlush(response);
         }
         
-        private static void sendMetricsResponse(ChannelHandlerContext ctx) {
+        private static void sendMetricsResponse(ChannelHandlerContext ctx, FullHttpRequest req) {
             logger.debug("📊 Sending metrics response");
-            try {
-                // Basic metrics in Prometheus format
-                StringBuilder metrics = new StringBuilder();
-                metrics.append("# HELP teuthis_requests_total Total HTTP requests\n");
-                metrics.append("# TYPE teuthis_requests_total counter\n");
-                metrics.append("teuthis_requests_total ").append(System.currentTimeMillis()).append("\n");
-                
-                byte[] bytes = metrics.toString().getBytes(StandardCharsets.UTF_8);
-                FullHttpResponse response = new DefaultFullHttpResponse(
-                    HttpVersion.HTTP_1_1, HttpResponseStatus.OK, Unpooled.wrappedBuffer(bytes));
-                response.headers().set(HttpHeaderNames.CONTENT_TYPE, "text/plain; version=0.0.4; charset=utf-8");
-                response.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, bytes.length);
-                
-                ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
-            } catch (Exception e) {
-                logger.error("❌ Error generating metrics: {}", e.getMessage());
-                sendError(ctx, HttpResponseStatus.INTERNAL_SERVER_ERROR);
-            }
+            String contentType = TextFormat.chooseContentType(req.headers().get(HttpHeaderNames.ACCEPT));
+            boolean gzip = req.headers().containsValue(HttpHeaderNames.ACCEPT_ENCODING, HttpHeaderValues.GZIP, true);
+            // Rendered off the event loop; cached renders complete at once
+            MetricsExposition.scrape(contentType, gzip).whenComplete((content, e) -> {
+                Runnable respond = () -> {
+                    if (e != null) {
+                        sendError(ctx, HttpResponseStatus.INTERNAL_SERVER_ERROR);
+                        return;
+                    }
+                    FullHttpResponse response = new DefaultFullHttpResponse(
+                        HttpVersion.HTTP_1_1, HttpResponseStatus.OK, content);
+                    response.headers().set(HttpHeaderNames.CONTENT_TYPE, contentType);
+                    response.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, content.readableBytes());
+                    response.headers().set(HttpHeaderNames.VARY, HttpHeaderNames.ACCEPT_ENCODING);
+                    if (gzip) {
+                        response.headers().set(HttpHeaderNames.CONTENT_ENCODING, HttpHeaderValues.GZIP);
+                    }
+                    ctx.writeAndFlush(response);
+                };
+                if (ctx.executor().inEventLoop()) {
+                    respond.run();
+                } else {
+                    ctx.executor().execute(respond);
+                }
+            });
         }
 
         private static void sendError(ChannelHandlerContext ctx, HttpResponseStatus status) {
@@ -644,7 +1120,7 @@ public class TeuthisServer {
                 resp.headers().set(HttpHeaderNames.RETRY_AFTER, retryAfter.toString());
             }
             
-            ctx.writeAndFlush(resp).addListener(ChannelFutureListener.CLOSE);
+            ctx.writeAndFlush(resp);
         }
     }
 }
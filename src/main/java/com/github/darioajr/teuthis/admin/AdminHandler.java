@@ -0,0 +1,165 @@
+package com.github.darioajr.teuthis.admin;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.darioajr.teuthis.infra.Config;
+import com.github.darioajr.teuthis.infra.Latencies;
+import com.github.darioajr.teuthis.infra.Settings;
+import com.github.darioajr.teuthis.security.AuthenticationHandler;
+import com.github.darioajr.teuthis.security.Principal;
+import com.github.darioajr.teuthis.security.TopicAllowlist;
+import com.github.darioajr.teuthis.security.TopicMatcher;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.QueryStringDecoder;
+
+/**
+ * Operational endpoints, enabled by {@code teuthis.admin.enabled}.
+ *
+ * Endpoints:
+ * - GET /admin/config - Version of the configuration in effect
+ * - POST /admin/config/reload - Reload the configuration and apply it live
+ * - GET /admin/topics - Topic allowlist in effect
+ * - POST /admin/topics/reload - Reload the topic allowlist file
+ * - GET /admin/latency - Full publish and request latency distributions
+ *
+ * /admin is not a public endpoint, so requests are authenticated by
+ * {@link com.github.darioajr.teuthis.security.AuthenticationHandler}. Unless
+ * {@code teuthis.admin.require.auth=false}, admin endpoints are refused while
+ * authentication is disabled. The reload endpoints change the gateway for
+ * every tenant and the latency dump merges every recording thread, so they
+ * also require the {@code teuthis.admin.role} role (JWT {@code roles} claim
+ * or certificate identity roles).
+ */
+public class AdminHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminHandler.class);
+    private static final Logger securityLogger = LoggerFactory.getLogger("security");
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, FullHttpRequest req) throws Exception {
+        String path = new QueryStringDecoder(req.uri()).path();
+        Settings settings = Settings.current();
+        if (!settings.adminEnabled() || !path.startsWith("/admin/")) {
+            ctx.fireChannelRead(req.retain());
+            return;
+        }
+
+        if (settings.adminRequireAuth() && !settings.authEnabled()) {
+            securityLogger.warn("Admin request {} from {} refused: authentication is disabled", path, ctx.channel().remoteAddress());
+            sendJson(ctx, HttpResponseStatus.FORBIDDEN, Map.of("error", "Admin endpoints require authentication"));
+            return;
+        }
+
+        HttpMethod method = req.method();
+        boolean privileged = method.equals(HttpMethod.POST) || path.equals("/admin/latency");
+        if (privileged && !isAdmin(ctx, settings)) {
+            securityLogger.warn("Admin request {} from {} refused: missing role {}",
+                               path, ctx.channel().remoteAddress(), settings.adminRole());
+            sendJson(ctx, HttpResponseStatus.FORBIDDEN, Map.of("error", "Admin role required"));
+            return;
+        }
+
+        if (method.equals(HttpMethod.GET) && path.equals("/admin/config")) {
+            sendJson(ctx, HttpResponseStatus.OK, Map.of("version", Config.snapshot().version()));
+        } else if (method.equals(HttpMethod.POST) && path.equals("/admin/config/reload")) {
+            reloadConfig(ctx);
+        } else if (method.equals(HttpMethod.GET) && path.equals("/admin/topics")) {
+            sendJson(ctx, HttpResponseStatus.OK, topics(TopicAllowlist.snapshot()));
+        } else if (method.equals(HttpMethod.POST) && path.equals("/admin/topics/reload")) {
+            reloadTopics(ctx);
+        } else if (method.equals(HttpMethod.GET) && path.equals("/admin/latency")) {
+            sendLatency(ctx);
+        } else {
+            sendJson(ctx, HttpResponseStatus.NOT_FOUND, Map.of("error", "Admin endpoint not found"));
+        }
+    }
+
+    private void reloadConfig(ChannelHandlerContext ctx) throws JsonProcessingException {
+        securityLogger.info("Configuration reload requested from {}", ctx.channel().remoteAddress());
+        Config.Snapshot previous = Config.snapshot();
+        try {
+            Config.Snapshot current = Config.reload();
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("version", current.version());
+            body.put("changed", current.changedKeys(previous));
+            sendJson(ctx, HttpResponseStatus.OK, body);
+        } catch (IOException e) {
+            logger.error("❌ Configuration reload failed: {}", e.getMessage());
+            sendJson(ctx, HttpResponseStatus.UNPROCESSABLE_ENTITY,
+                     Map.of("error", "Configuration reload failed: " + e.getMessage()));
+        }
+    }
+
+    private void reloadTopics(ChannelHandlerContext ctx) throws JsonProcessingException {
+        securityLogger.info("Topic allowlist reload requested from {}", ctx.channel().remoteAddress());
+        try {
+            sendJson(ctx, HttpResponseStatus.OK, topics(TopicAllowlist.reload()));
+        } catch (IOException | IllegalArgumentException e) {
+            logger.error("❌ Topic allowlist reload failed: {}", e.getMessage());
+            sendJson(ctx, HttpResponseStatus.UNPROCESSABLE_ENTITY,
+                     Map.of("error", "Topic allowlist reload failed: " + e.getMessage()));
+        }
+    }
+
+    private static void sendLatency(ChannelHandlerContext ctx) {
+        byte[] bytes = Latencies.dump().getBytes(StandardCharsets.UTF_8);
+        FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK,
+                                                                 Unpooled.wrappedBuffer(bytes));
+        response.headers().set(HttpHeaderNames.CONTENT_TYPE, "application/json; charset=UTF-8");
+        response.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, bytes.length);
+        ctx.writeAndFlush(response);
+    }
+
+    /**
+     * Whether the caller holds the admin role; without authentication (allowed by
+     * {@code teuthis.admin.require.auth=false}) there is no caller to check
+     */
+    private static boolean isAdmin(ChannelHandlerContext ctx, Settings settings) {
+        Principal principal = AuthenticationHandler.principal(ctx);
+        if (principal == null) {
+            return !settings.authEnabled();
+        }
+        return principal.hasRole(settings.adminRole());
+    }
+
+    private static Map<String, Object> topics(TopicMatcher matcher) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("entries", matcher.entries());
+        body.put("exact", matcher.exactTopics().size());
+        return body;
+    }
+
+    private static void sendJson(ChannelHandlerContext ctx, HttpResponseStatus status, Object body) throws JsonProcessingException {
+        byte[] bytes = JSON.writeValueAsBytes(body);
+        FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status, Unpooled.wrappedBuffer(bytes));
+        response.headers().set(HttpHeaderNames.CONTENT_TYPE, "application/json; charset=UTF-8");
+        response.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, bytes.length);
+        ctx.writeAndFlush(response);
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        logger.error("❌ Admin handler error: {}", cause.getMessage(), cause);
+        ctx.close();
+    }
+}
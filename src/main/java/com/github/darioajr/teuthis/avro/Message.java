@@ -15,10 +15,10 @@ import org.apache.avro.message.SchemaStore;
 /** Teuthis message schema */
 @org.apache.avro.specific.AvroGenerated
 public class Message extends org.apache.avro.specific.SpecificRecordBase implements org.apache.avro.specific.SpecificRecord {
-  private static final long serialVersionUID = 3360707399293116489L;
+  private static final long serialVersionUID = -3704046684663780160L;
 
 
-  public static final org.apache.avro.Schema SCHEMA$ = new org.apache.avro.Schema.Parser().parse("{\"type\":\"record\",\"name\":\"Message\",\"namespace\":\"com.github.darioajr.teuthis.avro\",\"doc\":\"Teuthis message schema\",\"fields\":[{\"name\":\"format\",\"type\":\"string\",\"doc\":\"Message format (json, xml, soap, txt)\"},{\"name\":\"payload\",\"type\":\"bytes\",\"doc\":\"Message payload as bytes\"},{\"name\":\"timestamp\",\"type\":\"long\",\"doc\":\"Message timestamp in milliseconds\"},{\"name\":\"hostname\",\"type\":\"string\",\"doc\":\"Source hostname\"}]}");
+  public static final org.apache.avro.Schema SCHEMA$ = new org.apache.avro.Schema.Parser().parse("{\"type\":\"record\",\"name\":\"Message\",\"namespace\":\"com.github.darioajr.teuthis.avro\",\"doc\":\"Teuthis message schema\",\"fields\":[{\"name\":\"format\",\"type\":\"string\",\"doc\":\"Message format (json, xml, soap, txt)\"},{\"name\":\"payload\",\"type\":\"bytes\",\"doc\":\"Message payload as bytes\"},{\"name\":\"timestamp\",\"type\":\"long\",\"doc\":\"Message timestamp in milliseconds\"},{\"name\":\"hostname\",\"type\":\"string\",\"doc\":\"Source hostname\"},{\"name\":\"encoding\",\"type\":[\"null\",\"string\"],\"doc\":\"Content-Encoding of a payload passed through still compressed (gzip, zstd, lz4); null when the payload is plain\",\"default\":null}]}");
   public static org.apache.avro.Schema getClassSchema() { return SCHEMA$; }
 
   private static final SpecificData MODEL$ = new SpecificData();
@@ -82,6 +82,8 @@ public class Message extends org.apache.avro.specific.SpecificRecordBase impleme
   private long timestamp;
   /** Source hostname */
   private java.lang.CharSequence hostname;
+  /** Content-Encoding of a payload passed through still compressed (gzip, zstd, lz4); null when the payload is plain */
+  private java.lang.CharSequence encoding;
 
   /**
    * Default constructor.  Note that this does not initialize fields
@@ -96,12 +98,14 @@ public class Message extends org.apache.avro.specific.SpecificRecordBase impleme
    * @param payload Message payload as bytes
    * @param timestamp Message timestamp in milliseconds
    * @param hostname Source hostname
+   * @param encoding Content-Encoding of a payload passed through still compressed (gzip, zstd, lz4); null when the payload is plain
    */
-  public Message(java.lang.CharSequence format, java.nio.ByteBuffer payload, java.lang.Long timestamp, java.lang.CharSequence hostname) {
+  public Message(java.lang.CharSequence format, java.nio.ByteBuffer payload, java.lang.Long timestamp, java.lang.CharSequence hostname, java.lang.CharSequence encoding) {
     this.format = format;
     this.payload = payload;
     this.timestamp = timestamp;
     this.hostname = hostname;
+    this.encoding = encoding;
   }
 
   @Override
@@ -118,6 +122,7 @@ public class Message extends org.apache.avro.specific.SpecificRecordBase impleme
     case 1: return payload;
     case 2: return timestamp;
     case 3: return hostname;
+    case 4: return encoding;
     default: throw new IndexOutOfBoundsException("Invalid index: " + field$);
     }
   }
@@ -131,6 +136,7 @@ public class Message extends org.apache.avro.specific.SpecificRecordBase impleme
     case 1: payload = (java.nio.ByteBuffer)value$; break;
     case 2: timestamp = (java.lang.Long)value$; break;
     case 3: hostname = (java.lang.CharSequence)value$; break;
+    case 4: encoding = (java.lang.CharSequence)value$; break;
     default: throw new IndexOutOfBoundsException("Invalid index: " + field$);
     }
   }
@@ -207,6 +213,24 @@ public class Message extends org.apache.avro.specific.SpecificRecordBase impleme
     this.hostname = value;
   }
 
+  /**
+   * Gets the value of the 'encoding' field.
+   * @return Content-Encoding of a payload passed through still compressed (gzip, zstd, lz4); null when the payload is plain
+   */
+  public java.lang.CharSequence getEncoding() {
+    return encoding;
+  }
+
+
+  /**
+   * Sets the value of the 'encoding' field.
+   * Content-Encoding of a payload passed through still compressed (gzip, zstd, lz4); null when the payload is plain
+   * @param value the value to set.
+   */
+  public void setEncoding(java.lang.CharSequence value) {
+    this.encoding = value;
+  }
+
   /**
    * Creates a new Message RecordBuilder.
    * @return A new Message RecordBuilder
@@ -256,6 +280,8 @@ public class Message extends org.apache.avro.specific.SpecificRecordBase impleme
     private long timestamp;
     /** Source hostname */
     private java.lang.CharSequence hostname;
+    /** Content-Encoding of a payload passed through still compressed (gzip, zstd, lz4); null when the payload is plain */
+    private java.lang.CharSequence encoding;
 
     /** Creates a new Builder */
     private Builder() {
@@ -284,6 +310,10 @@ public class Message extends org.apache.avro.specific.SpecificRecordBase impleme
         this.hostname = data().deepCopy(fields()[3].schema(), other.hostname);
         fieldSetFlags()[3] = other.fieldSetFlags()[3];
       }
+      if (isValidValue(fields()[4], other.encoding)) {
+        this.encoding = data().deepCopy(fields()[4].schema(), other.encoding);
+        fieldSetFlags()[4] = other.fieldSetFlags()[4];
+      }
     }
 
     /**
@@ -308,6 +338,10 @@ public class Message extends org.apache.avro.specific.SpecificRecordBase impleme
         this.hostname = data().deepCopy(fields()[3].schema(), other.hostname);
         fieldSetFlags()[3] = true;
       }
+      if (isValidValue(fields()[4], other.encoding)) {
+        this.encoding = data().deepCopy(fields()[4].schema(), other.encoding);
+        fieldSetFlags()[4] = true;
+      }
     }
 
     /**
@@ -485,6 +519,50 @@ public class Message extends org.apache.avro.specific.SpecificRecordBase impleme
       return this;
     }
 
+    /**
+      * Gets the value of the 'encoding' field.
+      * Content-Encoding of a payload passed through still compressed (gzip, zstd, lz4); null when the payload is plain
+      * @return The value.
+      */
+    public java.lang.CharSequence getEncoding() {
+      return encoding;
+    }
+
+
+    /**
+      * Sets the value of the 'encoding' field.
+      * Content-Encoding of a payload passed through still compressed (gzip, zstd, lz4); null when the payload is plain
+      * @param value The value of 'encoding'.
+      * @return This builder.
+      */
+    public com.github.darioajr.teuthis.avro.Message.Builder setEncoding(java.lang.CharSequence value) {
+      validate(fields()[4], value);
+      this.encoding = value;
+      fieldSetFlags()[4] = true;
+      return this;
+    }
+
+    /**
+      * Checks whether the 'encoding' field has been set.
+      * Content-Encoding of a payload passed through still compressed (gzip, zstd, lz4); null when the payload is plain
+      * @return True if the 'encoding' field has been set, false otherwise.
+      */
+    public boolean hasEncoding() {
+      return fieldSetFlags()[4];
+    }
+
+
+    /**
+      * Clears the value of the 'encoding' field.
+      * Content-Encoding of a payload passed through still compressed (gzip, zstd, lz4); null when the payload is plain
+      * @return This builder.
+      */
+    public com.github.darioajr.teuthis.avro.Message.Builder clearEncoding() {
+      encoding = null;
+      fieldSetFlags()[4] = false;
+      return this;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public Message build() {
@@ -494,6 +572,7 @@ public class Message extends org.apache.avro.specific.SpecificRecordBase impleme
         record.payload = fieldSetFlags()[1] ? this.payload : (java.nio.ByteBuffer) defaultValue(fields()[1]);
         record.timestamp = fieldSetFlags()[2] ? this.timestamp : (java.lang.Long) defaultValue(fields()[2]);
         record.hostname = fieldSetFlags()[3] ? this.hostname : (java.lang.CharSequence) defaultValue(fields()[3]);
+        record.encoding = fieldSetFlags()[4] ? this.encoding : (java.lang.CharSequence) defaultValue(fields()[4]);
         return record;
       } catch (org.apache.avro.AvroMissingFieldException e) {
         throw e;
@@ -534,6 +613,14 @@ public class Message extends org.apache.avro.specific.SpecificRecordBase impleme
 
     out.writeString(this.hostname);
 
+    if (this.encoding == null) {
+      out.writeIndex(0);
+      out.writeNull();
+    } else {
+      out.writeIndex(1);
+      out.writeString(this.encoding);
+    }
+
   }
 
   @Override public void customDecode(org.apache.avro.io.ResolvingDecoder in)
@@ -549,8 +636,15 @@ public class Message extends org.apache.avro.specific.SpecificRecordBase impleme
 
       this.hostname = in.readString(this.hostname instanceof Utf8 ? (Utf8)this.hostname : null);
 
+      if (in.readIndex() != 1) {
+        in.readNull();
+        this.encoding = null;
+      } else {
+        this.encoding = in.readString(this.encoding instanceof Utf8 ? (Utf8)this.encoding : null);
+      }
+
     } else {
-      for (int i = 0; i < 4; i++) {
+      for (int i = 0; i < 5; i++) {
         switch (fieldOrder[i].pos()) {
         case 0:
           this.format = in.readString(this.format instanceof Utf8 ? (Utf8)this.format : null);
@@ -568,6 +662,15 @@ public class Message extends org.apache.avro.specific.SpecificRecordBase impleme
           this.hostname = in.readString(this.hostname instanceof Utf8 ? (Utf8)this.hostname : null);
           break;
 
+        case 4:
+          if (in.readIndex() != 1) {
+            in.readNull();
+            this.encoding = null;
+          } else {
+            this.encoding = in.readString(this.encoding instanceof Utf8 ? (Utf8)this.encoding : null);
+          }
+          break;
+
         default:
           throw new java.io.IOException("Corrupt ResolvingDecoder.");
         }
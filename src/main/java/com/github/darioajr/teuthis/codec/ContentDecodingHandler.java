@@ -0,0 +1,202 @@
+package com.github.darioajr.teuthis.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.darioajr.teuthis.infra.Config;
+import com.github.darioajr.teuthis.infra.Metrics;
+import com.github.darioajr.teuthis.kafka.PublishRoute;
+import com.github.darioajr.teuthis.schema.JsonSchemaRegistry;
+import com.github.darioajr.teuthis.schema.TopicAvroSchemas;
+import com.github.darioajr.teuthis.security.ValidationHandler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.AttributeKey;
+
+/**
+ * Decodes gzip/zstd/lz4 request bodies with zip-bomb limits, or marks them for
+ * passthrough when the payload can be stored still compressed.
+ *
+ * Passthrough applies when it is enabled, the request codec equals the producer
+ * {@code compression.type}, payload validation is disabled and the topic has
+ * neither a JSON Schema nor an Avro conversion. The compressed bytes then reach the publisher untouched, with the
+ * codec exposed through {@link #PASSTHROUGH_ENCODING}.
+ */
+public class ContentDecodingHandler extends ChannelInboundHandlerAdapter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentDecodingHandler.class);
+    private static final Logger securityLogger = LoggerFactory.getLogger("security");
+
+    /**
+     * Encoding of the current request body when it is passed through compressed
+     */
+    public static final AttributeKey<ContentEncoding> PASSTHROUGH_ENCODING =
+        AttributeKey.valueOf("teuthis.passthroughEncoding");
+
+    private static final boolean ENABLED = Config.b("teuthis.compression.inbound.enabled", true);
+    private static final int MAX_DECOMPRESSED_SIZE = Config.i("teuthis.compression.max.decompressed.size",
+        Config.i("teuthis.security.max.payload.size", 10 * 1024 * 1024));
+    private static final int MAX_RATIO = Config.i("teuthis.compression.max.ratio", 100);
+    private static final boolean PASSTHROUGH_ENABLED = Config.b("teuthis.compression.passthrough.enabled", false);
+    private static final String PRODUCER_CODEC = Config.str("kafka.compression.type", "none");
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (msg instanceof FullHttpRequest req) {
+            ctx.channel().attr(PASSTHROUGH_ENCODING).set(null);
+
+            String header = req.headers().get(HttpHeaderNames.CONTENT_ENCODING);
+            if (header == null || header.equalsIgnoreCase("identity") || !req.method().equals(HttpMethod.POST)) {
+                super.channelRead(ctx, msg);
+                return;
+            }
+
+            ContentEncoding encoding = ENABLED ? ContentEncoding.fromHeader(header) : null;
+            if (encoding == null) {
+                securityLogger.warn("Unsupported Content-Encoding '{}' from {}", header, ctx.channel().remoteAddress());
+                req.release();
+                sendError(ctx, HttpResponseStatus.UNSUPPORTED_MEDIA_TYPE, "Unsupported Content-Encoding: " + header);
+                return;
+            }
+
+            if (isPassthroughEligible(encoding, req.uri())) {
+                logger.debug("📦 Passing {} body through compressed", encoding.token());
+                Metrics.compressedRequests.labels(encoding.token(), "passthrough").inc();
+                ctx.channel().attr(PASSTHROUGH_ENCODING).set(encoding);
+                super.channelRead(ctx, msg);
+                return;
+            }
+
+            ByteBuf decoded;
+            try {
+                decoded = decode(ctx.alloc(), req.content(), encoding, MAX_DECOMPRESSED_SIZE, MAX_RATIO);
+            } catch (DecompressionLimitException e) {
+                securityLogger.warn("Rejected {} body from {}: {}", encoding.token(), ctx.channel().remoteAddress(), e.getMessage());
+                Metrics.compressedRequests.labels(encoding.token(), "rejected_" + e.reason()).inc();
+                req.release();
+                sendError(ctx, HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE, e.getMessage());
+                return;
+            } catch (IOException e) {
+                securityLogger.warn("Corrupt {} body from {}: {}", encoding.token(), ctx.channel().remoteAddress(), e.getMessage());
+                Metrics.compressedRequests.labels(encoding.token(), "rejected_corrupt").inc();
+                req.release();
+                sendError(ctx, HttpResponseStatus.BAD_REQUEST, "Invalid " + encoding.token() + " body");
+                return;
+            }
+
+            FullHttpRequest plain = req.replace(decoded);
+            plain.headers().remove(HttpHeaderNames.CONTENT_ENCODING);
+            plain.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, decoded.readableBytes());
+            req.release();
+
+            Metrics.compressedRequests.labels(encoding.token(), "decoded").inc();
+            logger.debug("📦 Decoded {} body: {} bytes", encoding.token(), decoded.readableBytes());
+            super.channelRead(ctx, plain);
+            return;
+        }
+
+        super.channelRead(ctx, msg);
+    }
+
+    static boolean isPassthroughEligible(ContentEncoding encoding, String uri) {
+        if (!PASSTHROUGH_ENABLED || ValidationHandler.isPayloadValidationEnabled()
+                || !encoding.kafkaCodec().equalsIgnoreCase(PRODUCER_CODEC)) {
+            return false;
+        }
+        // Atomic fan-out goes through the compressing transactional producer
+        PublishRoute route = PublishRoute.parse(uri);
+        if (route == null || route.atomic() || route.topics().isEmpty()) {
+            return false;
+        }
+        for (String topic : route.topics()) {
+            if (JsonSchemaRegistry.forTopic(topic) != null || TopicAvroSchemas.forTopic(topic) != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check if compressed payloads may be published without being decoded
+     */
+    public static boolean isPassthroughEnabled() {
+        return PASSTHROUGH_ENABLED;
+    }
+
+    /**
+     * Decode a compressed body, enforcing an absolute size cap and a maximum expansion ratio
+     */
+    public static ByteBuf decode(ByteBufAllocator alloc, ByteBuf compressed, ContentEncoding encoding,
+                                 int maxSize, int maxRatio) throws IOException, DecompressionLimitException {
+        long ratioLimit = (long) Math.max(compressed.readableBytes(), 1) * maxRatio;
+        boolean ratioBound = ratioLimit < maxSize;
+        int limit = (int) Math.min(maxSize, ratioLimit);
+
+        ByteBuf out = alloc.buffer(Math.min(limit, Math.max(compressed.readableBytes() * 4, 256)));
+        try (InputStream in = encoding.decoder(new ByteBufInputStream(compressed.duplicate()))) {
+            int read;
+            do {
+                int chunk = Math.min(8192, limit + 1 - out.writerIndex());
+                read = out.writeBytes(in, chunk);
+                if (out.writerIndex() > limit) {
+                    throw ratioBound
+                        ? new DecompressionLimitException("ratio", "Compression ratio exceeds " + maxRatio + ":1")
+                        : new DecompressionLimitException("size", "Decompressed body exceeds " + maxSize + " bytes");
+                }
+            } while (read >= 0);
+            return out;
+        } catch (IOException | DecompressionLimitException | RuntimeException e) {
+            out.release();
+            throw e;
+        }
+    }
+
+    private static void sendError(ChannelHandlerContext ctx, HttpResponseStatus status, String message) {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        FullHttpResponse response = new DefaultFullHttpResponse(
+            HttpVersion.HTTP_1_1, status, Unpooled.wrappedBuffer(bytes));
+        response.headers().set(HttpHeaderNames.CONTENT_TYPE, "text/plain; charset=UTF-8");
+        response.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, bytes.length);
+
+        ctx.writeAndFlush(response);
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+        logger.error("❌ Content decoding handler error: {}", cause.getMessage(), cause);
+        ctx.close();
+    }
+
+    /**
+     * Raised when a compressed body would expand beyond the configured limits
+     */
+    public static class DecompressionLimitException extends Exception {
+        private static final long serialVersionUID = 1L;
+        private final String reason;
+
+        public DecompressionLimitException(String reason, String message) {
+            super(message);
+            this.reason = reason;
+        }
+
+        public String reason() {
+            return reason;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.darioajr.teuthis.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+import com.github.luben.zstd.ZstdInputStreamNoFinalizer;
+
+import net.jpountz.lz4.LZ4FrameInputStream;
+
+/**
+ * Supported request Content-Encoding values and their matching Kafka compression codec
+ */
+public enum ContentEncoding {
+
+    GZIP("gzip", "gzip"),
+    ZSTD("zstd", "zstd"),
+    LZ4("lz4", "lz4");
+
+    private final String token;
+    private final String kafkaCodec;
+
+    ContentEncoding(String token, String kafkaCodec) {
+        this.token = token;
+        this.kafkaCodec = kafkaCodec;
+    }
+
+    /**
+     * HTTP Content-Encoding token
+     */
+    public String token() {
+        return token;
+    }
+
+    /**
+     * Kafka {@code compression.type} using the same algorithm
+     */
+    public String kafkaCodec() {
+        return kafkaCodec;
+    }
+
+    /**
+     * Wrap a compressed stream with the matching decoder
+     */
+    public InputStream decoder(InputStream compressed) throws IOException {
+        return switch (this) {
+            case GZIP -> new GZIPInputStream(compressed, 8192);
+            case ZSTD -> new ZstdInputStreamNoFinalizer(compressed);
+            case LZ4 -> new LZ4FrameInputStream(compressed);
+        };
+    }
+
+    /**
+     * Resolve a Content-Encoding header value, or null when it is not supported
+     */
+    public static ContentEncoding fromHeader(String header) {
+        String value = header.trim().toLowerCase(Locale.ROOT);
+        for (ContentEncoding encoding : values()) {
+            if (encoding.token.equals(value)) {
+                return encoding;
+            }
+        }
+        return value.equals("x-gzip") ? GZIP : null;
+    }
+}
@@ -20,8 +20,7 @@ public class AsyncResourceMonitor {
     
     private static final Logger logger = LoggerFactory.getLogger(AsyncResourceMonitor.class);
     
-    private static final double THRESHOLD = Config.d("resources.threshold");
-    private static final long CHECK_INTERVAL = Config.i("teuthis.monitoring.resource.check.interval");
+    private static final long CHECK_INTERVAL = Config.i("teuthis.monitoring.resource.check.interval", 5000);
     
     // Cached resource status
     private static final AtomicReference<ResourceStatus> cachedStatus = 
@@ -45,6 +44,14 @@ public class AsyncResourceMonitor {
         );
         
         logger.info("✅ Async resource monitor started with {}ms interval", CHECK_INTERVAL);
+        
+        Config.addListener((previous, current) -> {
+            if (current.changed(previous, "resources.threshold")) {
+                double threshold = Settings.current().resourceThreshold();
+                Metrics.resourceThreshold.set(threshold);
+                logger.info("🔄 Resource threshold changed to {}%", String.format("%.1f", threshold * 100));
+            }
+        });
     }
     
     /**
@@ -61,27 +68,28 @@ public class AsyncResourceMonitor {
         ResourceStatus status = cachedStatus.get();
         
         if (status.isOverThreshold()) {
+            double threshold = Settings.current().resourceThreshold();
             StringBuilder limitedResources = new StringBuilder();
             boolean first = true;
             
-            if (status.cpuUsage() > THRESHOLD) {
+            if (status.cpuUsage() > threshold) {
                 limitedResources.append("CPU: ").append(String.format("%.1f%%", status.cpuUsage() * 100));
                 first = false;
             }
             
-            if (status.memoryUsage() > THRESHOLD) {
+            if (status.memoryUsage() > threshold) {
                 if (!first) limitedResources.append(", ");
                 limitedResources.append("RAM: ").append(String.format("%.1f%%", status.memoryUsage() * 100));
                 first = false;
             }
             
-            if (status.diskUsage() > THRESHOLD) {
+            if (status.diskUsage() > threshold) {
                 if (!first) limitedResources.append(", ");
                 limitedResources.append("Disco: ").append(String.format("%.1f%%", status.diskUsage() * 100));
             }
             
             return "Recursos limitados: " + limitedResources.toString() + " ≥ " + 
-                   String.format("%.0f%%", THRESHOLD * 100);
+                   String.format("%.0f%%", threshold * 100);
         }
         
         return null; // Resources are OK
@@ -112,7 +120,8 @@ public class AsyncResourceMonitor {
             Metrics.diskUsage.set(diskUsage);
             
             // Determine if any resource is over threshold
-            boolean overThreshold = cpu > THRESHOLD || memoryUsage > THRESHOLD || diskUsage > THRESHOLD;
+            double threshold = Settings.current().resourceThreshold();
+            boolean overThreshold = cpu > threshold || memoryUsage > threshold || diskUsage > threshold;
             
             ResourceStatus newStatus = new ResourceStatus(
                 cpu, memoryUsage, diskUsage, overThreshold, System.currentTimeMillis()
@@ -148,7 +157,7 @@ public class AsyncResourceMonitor {
         return new MonitorStats(
             lastUpdateTime.get(),
             CHECK_INTERVAL,
-            THRESHOLD,
+            Settings.current().resourceThreshold(),
             cachedStatus.get()
         );
     }
@@ -3,6 +3,7 @@ package com.github.darioajr.teuthis.infra;
 import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
 
+import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
@@ -110,6 +111,25 @@ public class CircuitBreakerManager {
         });
     }
     
+    /**
+     * Execute Kafka send operation without blocking a thread on the result.
+     * The callback runs on the producer I/O thread and must not block.
+     */
+    public static void sendAsync(Producer<String, byte[]> producer,
+                                 ProducerRecord<String, byte[]> record,
+                                 Callback callback) {
+        logger.debug("🚀 Sending message to Kafka: {}", record.topic());
+        producer.send(record, (metadata, exception) -> {
+            if (exception != null) {
+                logger.error("❌ Kafka send failed: {}", exception.getMessage());
+            } else {
+                logger.debug("✅ Kafka send successful: partition={}, offset={}",
+                            metadata.partition(), metadata.offset());
+            }
+            callback.onCompletion(metadata, exception);
+        });
+    }
+    
     /**
      * Get circuit breaker state
      */
@@ -2,65 +2,268 @@ package com.github.darioajr.teuthis.infra;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Configuration utility class for Teuthis
+ *
+ * Properties come from application.properties, then the optional file named by
+ * {@code teuthis.config.file}, then system properties and environment
+ * variables. They are held in an immutable, versioned {@link Snapshot} that
+ * {@link #reload()} rebuilds and swaps atomically; values cached in static
+ * fields are updated by registering a {@link Listener}. Settings read per
+ * request are exposed, typed and validated, by {@link Settings}.
  */
 public class Config {
     
     private static final Logger logger = LoggerFactory.getLogger(Config.class);
-    private static final Properties props = new Properties();
     
-    static {
-        loadConfiguration();
+    /**
+     * Immutable view of the configuration, with values already interpolated
+     */
+    public record Snapshot(long version, Map<String, String> values) {
+        
+        /**
+         * Keys added, removed or changed since {@code previous}
+         */
+        public Set<String> changedKeys(Snapshot previous) {
+            Set<String> changed = new TreeSet<>();
+            values.forEach((key, value) -> {
+                if (!value.equals(previous.values.get(key))) {
+                    changed.add(key);
+                }
+            });
+            previous.values.keySet().stream().filter(key -> !values.containsKey(key)).forEach(changed::add);
+            return changed;
+        }
+        
+        /**
+         * Whether any key starting with one of the prefixes changed since {@code previous}
+         */
+        public boolean changed(Snapshot previous, String... prefixes) {
+            for (String key : changedKeys(previous)) {
+                for (String prefix : prefixes) {
+                    if (key.startsWith(prefix)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
     }
     
-    private static void loadConfiguration() {
+    /**
+     * Notified after a reload swapped in a different snapshot
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onReload(Snapshot previous, Snapshot current);
+    }
+    
+    private static final String CONFIG_FILE = configFile();
+    private static final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private static volatile Snapshot snapshot;
+    private static String fileVersion = "";
+    private static ScheduledExecutorService watcher;
+    private static final LongAdder lookups = new LongAdder();
+    
+    static {
         try {
-            // Load from application.properties in classpath
-            try (InputStream is = Config.class.getClassLoader().getResourceAsStream("application.properties")) {
-                if (is != null) {
-                    props.load(is);
-                    logger.info("✅ Loaded configuration from application.properties");
-                }
-            }
-            
-            // Override with system properties
-            Properties systemProps = System.getProperties();
-            for (String key : systemProps.stringPropertyNames()) {
-                props.setProperty(key, systemProps.getProperty(key));
+            snapshot = new Snapshot(1, loadConfiguration());
+            logger.info("✅ Configuration loaded successfully with {} properties", snapshot.values().size());
+        } catch (IOException e) {
+            // Starting on defaults would silently drop every setting the operator pointed us at
+            logger.error("❌ Could not load configuration file {}: {}", CONFIG_FILE, e.getMessage());
+            throw new IllegalStateException("Configuration file " + CONFIG_FILE + " cannot be read", e);
+        }
+    }
+    
+    private static Map<String, String> loadConfiguration() throws IOException {
+        Properties props = new Properties();
+        
+        // Load from application.properties in classpath
+        try (InputStream is = Config.class.getClassLoader().getResourceAsStream("application.properties")) {
+            if (is != null) {
+                props.load(is);
+                logger.info("✅ Loaded configuration from application.properties");
             }
-            
-            // Override with environment variables (convert dots to underscores)
-            System.getenv().forEach((key, value) -> {
-                String propKey = key.toLowerCase().replace('_', '.');
-                props.setProperty(propKey, value);
-                props.setProperty(key, value); // Also keep original format
-            });
-            
-            logger.info("✅ Configuration loaded successfully with {} properties", props.size());
-            
         } catch (IOException e) {
             logger.warn("⚠️ Could not load application.properties: {}", e.getMessage());
         }
+        
+        // Override with the external file, the only source that changes at runtime
+        if (!CONFIG_FILE.isEmpty()) {
+            Path file = Path.of(CONFIG_FILE);
+            String version = fileVersion(file);
+            try (InputStream is = Files.newInputStream(file)) {
+                props.load(is);
+            }
+            fileVersion = version;
+            logger.info("✅ Loaded configuration from {}", CONFIG_FILE);
+        }
+        
+        // Override with system properties
+        Properties systemProps = System.getProperties();
+        for (String key : systemProps.stringPropertyNames()) {
+            props.setProperty(key, systemProps.getProperty(key));
+        }
+        
+        // Override with environment variables (convert dots to underscores)
+        System.getenv().forEach((key, value) -> {
+            String propKey = key.toLowerCase().replace('_', '.');
+            props.setProperty(propKey, value);
+            props.setProperty(key, value); // Also keep original format
+        });
+        
+        Map<String, String> values = new HashMap<>();
+        for (String key : props.stringPropertyNames()) {
+            values.put(key, interpolate(props.getProperty(key)));
+        }
+        return Map.copyOf(values);
+    }
+    
+    private static String configFile() {
+        String file = System.getProperty("teuthis.config.file");
+        if (file == null) {
+            file = System.getenv("TEUTHIS_CONFIG_FILE");
+        }
+        return file != null ? file.trim() : "";
+    }
+    
+    private static String fileVersion(Path file) throws IOException {
+        return Files.getLastModifiedTime(file).toMillis() + "/" + Files.size(file);
+    }
+    
+    /**
+     * Configuration in effect
+     */
+    public static Snapshot snapshot() {
+        return snapshot;
+    }
+    
+    /**
+     * Number of property lookups so far; tests use it to keep the request path off {@code Config}
+     */
+    public static long lookups() {
+        return lookups.sum();
+    }
+    
+    /**
+     * Register a listener for configuration changes
+     */
+    public static void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+    
+    /**
+     * Re-read every source and, when something changed, swap in a new snapshot
+     * and notify the listeners
+     *
+     * @return the snapshot in effect after the reload
+     * @throws IOException if the configuration file cannot be read; the current snapshot is kept
+     * @throws IllegalArgumentException if {@link Settings} validation fails; the current snapshot is kept
+     */
+    public static synchronized Snapshot reload() throws IOException {
+        Snapshot previous = snapshot;
+        Map<String, String> values;
+        try {
+            values = loadConfiguration();
+        } catch (IOException e) {
+            Metrics.configReloads.labels("error").inc();
+            throw e;
+        }
+        if (values.equals(previous.values())) {
+            Metrics.configReloads.labels("unchanged").inc();
+            return previous;
+        }
+        
+        Snapshot current = new Snapshot(previous.version() + 1, values);
+        Settings settings;
+        try {
+            settings = Settings.from(current);
+        } catch (IllegalArgumentException e) {
+            Metrics.configReloads.labels("error").inc();
+            throw e;
+        }
+        snapshot = current;
+        Settings.apply(settings);
+        Metrics.configReloads.labels("success").inc();
+        Metrics.configVersion.set(current.version());
+        logger.info("🔄 Configuration reloaded (version {}): {}", current.version(), current.changedKeys(previous));
+        for (Listener listener : listeners) {
+            try {
+                listener.onReload(previous, current);
+            } catch (RuntimeException e) {
+                logger.error("❌ Configuration listener failed to apply version {}: {}", current.version(), e.getMessage(), e);
+            }
+        }
+        return current;
+    }
+    
+    /**
+     * Poll {@code teuthis.config.file} for changes and reload when it is modified
+     */
+    public static synchronized void startWatching() {
+        long interval = l("teuthis.config.reload.interval.ms", 5000L);
+        if (CONFIG_FILE.isEmpty() || interval <= 0 || watcher != null) {
+            return;
+        }
+        Metrics.configVersion.set(snapshot.version());
+        watcher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "config-watcher");
+            t.setDaemon(true);
+            return t;
+        });
+        watcher.scheduleWithFixedDelay(Config::reloadIfChanged, interval, interval, TimeUnit.MILLISECONDS);
+        logger.info("✅ Watching configuration file {} every {}ms", CONFIG_FILE, interval);
+    }
+    
+    public static synchronized void stopWatching() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+            watcher = null;
+        }
+    }
+    
+    private static synchronized void reloadIfChanged() {
+        try {
+            if (!fileVersion.equals(fileVersion(Path.of(CONFIG_FILE)))) {
+                reload();
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("❌ Failed to reload configuration file {}, keeping version {}: {}",
+                        CONFIG_FILE, snapshot.version(), e.getMessage());
+        }
     }
     
     /**
      * Get string property with interpolation support
      */
     public static String str(String key) {
-        String value = props.getProperty(key);
+        lookups.increment();
+        String value = snapshot.values().get(key);
         if (value == null) {
             logger.warn("⚠️ Property not found: {}", key);
             return "";
         }
-        return interpolate(value);
+        return value;
     }
     
     /**
@@ -109,6 +312,106 @@ public class Config {
         return Boolean.parseBoolean(value);
     }
     
+    /**
+     * Get string property, falling back to a default when absent or empty
+     */
+    public static String str(String key, String defaultValue) {
+        lookups.increment();
+        String value = snapshot.values().get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? defaultValue : trimmed;
+    }
+
+    /**
+     * Get integer property, falling back to a default when absent
+     */
+    public static int i(String key, int defaultValue) {
+        String value = str(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            logger.error("❌ Invalid integer value for {}: {}", key, value);
+            throw new IllegalArgumentException("Invalid integer value for " + key + ": " + value, e);
+        }
+    }
+
+    /**
+     * Get long property, falling back to a default when absent
+     */
+    public static long l(String key, long defaultValue) {
+        String value = str(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            logger.error("❌ Invalid long value for {}: {}", key, value);
+            throw new IllegalArgumentException("Invalid long value for " + key + ": " + value, e);
+        }
+    }
+
+    /**
+     * Get double property, falling back to a default when absent
+     */
+    public static double d(String key, double defaultValue) {
+        String value = str(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            logger.error("❌ Invalid double value for {}: {}", key, value);
+            throw new IllegalArgumentException("Invalid double value for " + key + ": " + value, e);
+        }
+    }
+
+    /**
+     * Get boolean property, falling back to a default when absent
+     */
+    public static boolean b(String key, boolean defaultValue) {
+        String value = str(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Get comma-separated list property (trimmed, empty entries dropped)
+     */
+    public static List<String> list(String key) {
+        String value = str(key, null);
+        if (value == null) {
+            return List.of();
+        }
+        return Arrays.stream(value.split(","))
+                     .map(String::trim)
+                     .filter(s -> !s.isEmpty())
+                     .toList();
+    }
+
+    /**
+     * Get all properties under a prefix, keyed by the remainder of the name
+     */
+    public static Map<String, String> withPrefix(String prefix) {
+        lookups.increment();
+        Map<String, String> values = new TreeMap<>();
+        for (String key : snapshot.values().keySet()) {
+            if (key.startsWith(prefix) && key.length() > prefix.length()) {
+                String value = str(key, null);
+                if (value != null) {
+                    values.put(key.substring(prefix.length()), value);
+                }
+            }
+        }
+        return values;
+    }
+    
     /**
      * Get allowed topics list
      */
@@ -176,7 +479,9 @@ public class Config {
      * Get all properties (for debugging)
      */
     public static Properties getAllProperties() {
-        return new Properties(props);
+        Properties props = new Properties();
+        props.putAll(snapshot.values());
+        return props;
     }
     
     /**
@@ -186,7 +491,8 @@ public class Config {
         logger.info("📋 Configuration Summary:");
         logger.info("  Server Port: {}", str("server.port"));
         logger.info("  Kafka Bootstrap: {}", str("kafka.bootstrap.servers"));
-        logger.info("  Schema Registry: {}", str("schema.registry.url"));
+        logger.info("  Schema Registry: {} (wire format {})", str("schema.registry.url"),
+                    b("teuthis.schema.registry.enabled", false) ? "enabled" : "disabled");
         logger.info("  Boss Threads: {}", str("netty.boss.threads"));
         logger.info("  Worker Threads: {}", str("netty.worker.threads"));
         logger.info("  Kafka Threads: {}", str("kafka.thread.pool.size"));
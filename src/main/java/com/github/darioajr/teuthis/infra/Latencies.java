@@ -0,0 +1,183 @@
+package com.github.darioajr.teuthis.infra;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.exemplars.Exemplar;
+
+/**
+ * Latency recorders for publish (lane send to broker ack) and whole requests
+ * (first byte to response flush).
+ *
+ * Each is exposed as a Prometheus histogram on the {@code teuthis.latency.buckets}
+ * bounds, with request-id exemplars in buckets at or above
+ * {@code teuthis.latency.exemplar.threshold.ms} (shown in OpenMetrics scrapes),
+ * and as a summary of precise percentiles over the last
+ * {@code teuthis.latency.interval.ms}. {@link #dump()} returns the full
+ * distributions for {@code GET /admin/latency}.
+ */
+public final class Latencies {
+
+    private static final Logger logger = LoggerFactory.getLogger(Latencies.class);
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999, 0.9999};
+    private static final List<String> QUANTILE_LABEL = List.of("quantile");
+    private static final List<String> LE_LABEL = List.of("le");
+
+    private static final int DIGITS = Config.i("teuthis.latency.significant.digits", 2);
+    private static final double[] BUCKETS = buckets(Config.list("teuthis.latency.buckets"));
+    private static final long EXEMPLAR_NANOS =
+        TimeUnit.MILLISECONDS.toNanos(Config.l("teuthis.latency.exemplar.threshold.ms", 100));
+    private static final long INTERVAL_MS = Math.max(100, Config.l("teuthis.latency.interval.ms", 10_000));
+
+    private static final LatencyRecorder publish =
+        new LatencyRecorder("teuthis_publish_latency", DIGITS, BUCKETS, EXEMPLAR_NANOS);
+    private static final LatencyRecorder request =
+        new LatencyRecorder("teuthis_request_latency", DIGITS, BUCKETS, EXEMPLAR_NANOS);
+    private static final List<LatencyRecorder> recorders = List.of(publish, request);
+
+    private static final ScheduledExecutorService rotator = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "latency-rotate");
+        t.setDaemon(true);
+        return t;
+    });
+
+    static {
+        new LatencyCollector().register();
+    }
+
+    private Latencies() {
+    }
+
+    /**
+     * Start closing percentile intervals; the histograms are exposed from class load on
+     */
+    public static void start() {
+        rotator.scheduleAtFixedRate(() -> recorders.forEach(LatencyRecorder::rotate),
+                                    INTERVAL_MS, INTERVAL_MS, TimeUnit.MILLISECONDS);
+        logger.info("✅ Latency recorders started - {} significant digits, {} buckets, {} ms interval",
+                   DIGITS, BUCKETS.length, INTERVAL_MS);
+    }
+
+    /**
+     * Lane send to broker ack, replacing the former fixed-bucket publish histogram
+     */
+    public static LatencyRecorder publish() {
+        return publish;
+    }
+
+    /**
+     * First byte of a request to the flush of its response
+     */
+    public static LatencyRecorder request() {
+        return request;
+    }
+
+    /**
+     * Full distributions, cumulative and of the last interval, as JSON
+     */
+    public static String dump() {
+        ObjectNode root = JSON.createObjectNode();
+        root.put("unit", "microseconds");
+        root.put("significant_digits", publish.significantDigits());
+        root.put("interval_ms", INTERVAL_MS);
+        ObjectNode all = root.putObject("recorders");
+        for (LatencyRecorder recorder : recorders) {
+            ObjectNode node = all.putObject(recorder.name());
+            distribution(node.putObject("total"), recorder.merge());
+            distribution(node.putObject("window"), recorder.window());
+        }
+        return root.toString();
+    }
+
+    private static void distribution(ObjectNode node, LatencyRecorder.Snapshot snapshot) {
+        node.put("count", snapshot.count());
+        node.put("sum_micros", snapshot.sumNanos() / 1000);
+        ObjectNode percentiles = node.putObject("percentiles");
+        for (double q : QUANTILES) {
+            percentiles.put(label(q * 100), snapshot.percentileMicros(q * 100));
+        }
+        // Non-empty buckets only, as [lowest, highest, count]
+        ArrayNode buckets = node.putArray("buckets");
+        LatencyRecorder recorder = snapshot.recorder();
+        long[] counts = snapshot.counts();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                buckets.addArray().add(recorder.lowestMicros(i)).add(recorder.highestMicros(i)).add(counts[i]);
+            }
+        }
+    }
+
+    private static double[] buckets(List<String> configured) {
+        if (configured.isEmpty()) {
+            return new double[] {0.0005, 0.001, 0.0025, 0.005, 0.0075, 0.01, 0.025, 0.05, 0.075,
+                                 0.1, 0.25, 0.5, 0.75, 1.0, 2.5, 5.0, 10.0};
+        }
+        return configured.stream().mapToDouble(Double::parseDouble).sorted().distinct().toArray();
+    }
+
+    private static String label(double value) {
+        String text = String.format(Locale.ROOT, "%.4f", value);
+        text = text.replaceAll("0+$", "");
+        return text.endsWith(".") ? text.substring(0, text.length() - 1) : text;
+    }
+
+    /**
+     * Histogram with exemplars and percentile summary of every recorder
+     */
+    private static final class LatencyCollector extends Collector {
+
+        @Override
+        public List<MetricFamilySamples> collect() {
+            List<MetricFamilySamples> families = new ArrayList<>(recorders.size() * 2);
+            for (LatencyRecorder recorder : recorders) {
+                families.add(histogram(recorder));
+                families.add(summary(recorder));
+            }
+            return families;
+        }
+
+        private static MetricFamilySamples histogram(LatencyRecorder recorder) {
+            LatencyRecorder.Snapshot total = recorder.merge();
+            double[] bounds = recorder.bounds();
+            String name = recorder.name() + "_seconds";
+            List<MetricFamilySamples.Sample> samples = new ArrayList<>(bounds.length + 3);
+            for (int b = 0; b <= bounds.length; b++) {
+                String le = b < bounds.length ? doubleToGoString(bounds[b]) : "+Inf";
+                long count = b < bounds.length ? total.countAtOrBelow(bounds[b]) : total.count();
+                Exemplar exemplar = recorder.exemplar(b);
+                samples.add(new MetricFamilySamples.Sample(name + "_bucket", LE_LABEL, List.of(le), count, exemplar));
+            }
+            samples.add(new MetricFamilySamples.Sample(name + "_count", List.of(), List.of(), total.count()));
+            samples.add(new MetricFamilySamples.Sample(name + "_sum", List.of(), List.of(), total.sumNanos() / 1e9));
+            return new MetricFamilySamples(name, Type.HISTOGRAM,
+                "Latency in seconds, from HdrHistogram-style recorders; slow buckets carry request id exemplars", samples);
+        }
+
+        private static MetricFamilySamples summary(LatencyRecorder recorder) {
+            LatencyRecorder.Snapshot window = recorder.window();
+            String name = recorder.name() + "_window_seconds";
+            List<MetricFamilySamples.Sample> samples = new ArrayList<>(QUANTILES.length);
+            for (double q : QUANTILES) {
+                samples.add(new MetricFamilySamples.Sample(name, QUANTILE_LABEL, List.of(doubleToGoString(q)),
+                                                           window.percentileMicros(q * 100) / 1e6));
+            }
+            // No _count or _sum: they would go backwards between intervals; the histogram has the running totals
+            return new MetricFamilySamples(name, Type.SUMMARY,
+                "Latency percentiles in seconds over the last teuthis.latency.interval.ms", samples);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.github.darioajr.teuthis.infra;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import io.prometheus.client.exemplars.Exemplar;
+
+/**
+ * Latency distribution in HdrHistogram-style log-linear buckets, recorded
+ * without locks or writes shared between threads.
+ *
+ * Values are kept in microseconds with {@code significantDigits} decimal
+ * digits of precision, up to one hour. Each recording thread owns a stripe of
+ * counts that only it writes; {@link #merge()} sums the stripes into a
+ * cumulative {@link Snapshot}, folding those of ended threads into a retained
+ * total and dropping them, and {@link #rotate()} keeps the difference
+ * from the previous rotation as the distribution of the last interval. A
+ * recording at or above the exemplar threshold becomes the exemplar of its
+ * Prometheus bucket, labelled with its request id.
+ */
+public final class LatencyRecorder {
+
+    private static final long MAX_MICROS = TimeUnit.HOURS.toMicros(1);
+
+    private final String name;
+    private final int significantDigits;
+    private final int halfMagnitude;
+    private final int subBuckets;
+    private final int length;
+    private final double[] bounds;
+    private final long exemplarThresholdNanos;
+    private final AtomicReferenceArray<Exemplar> exemplars;
+
+    private final List<Stripe> stripes = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Stripe> stripe = ThreadLocal.withInitial(this::newStripe);
+
+    // Counts of the stripes of ended threads; guarded by this
+    private final long[] retiredCounts;
+    private long retiredSumNanos;
+
+    // Replaced by rotate; the window is the distribution between the last two rotations
+    private volatile Snapshot rotated;
+    private volatile Snapshot window;
+
+    // Counts of one thread; written only by it, with release stores so merge sees whole values
+    private static final class Stripe {
+        final Thread owner = Thread.currentThread();
+        final AtomicLongArray counts;
+        final AtomicLong sumNanos = new AtomicLong();
+
+        Stripe(int length) {
+            counts = new AtomicLongArray(length);
+        }
+    }
+
+    /**
+     * Cumulative or interval distribution
+     *
+     * @param counts by bucket index of the recorder that took it
+     */
+    public record Snapshot(LatencyRecorder recorder, long[] counts, long count, long sumNanos) {
+
+        /**
+         * Distribution recorded since {@code earlier}
+         */
+        public Snapshot minus(Snapshot earlier) {
+            long[] delta = counts.clone();
+            for (int i = 0; i < delta.length; i++) {
+                delta[i] -= earlier.counts[i];
+            }
+            return new Snapshot(recorder, delta, count - earlier.count, sumNanos - earlier.sumNanos);
+        }
+
+        /**
+         * Highest value, in microseconds, equivalent to the one at this percentile (0-100); 0 when empty
+         */
+        public long percentileMicros(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return recorder.highestMicros(i);
+                }
+            }
+            return recorder.highestMicros(counts.length - 1);
+        }
+
+        /**
+         * Recordings whose bucket lies entirely at or below {@code seconds}
+         */
+        public long countAtOrBelow(double seconds) {
+            long micros = (long) Math.floor(seconds * 1e6);
+            long below = 0;
+            for (int i = 0; i < counts.length && recorder.highestMicros(i) <= micros; i++) {
+                below += counts[i];
+            }
+            return below;
+        }
+    }
+
+    /**
+     * @param bounds                 upper bounds of the Prometheus buckets, in seconds, ascending
+     * @param exemplarThresholdNanos recordings this slow keep an exemplar; 0 keeps one for every bucket
+     */
+    public LatencyRecorder(String name, int significantDigits, double[] bounds, long exemplarThresholdNanos) {
+        this.name = name;
+        this.significantDigits = Math.clamp(significantDigits, 1, 4);
+        // Enough sub-buckets per power of two to tell apart values that differ in the last significant digit
+        long resolution = 2 * (long) Math.pow(10, this.significantDigits);
+        int bits = 64 - Long.numberOfLeadingZeros(resolution - 1);
+        this.halfMagnitude = bits - 1;
+        this.subBuckets = 1 << bits;
+        this.length = index(MAX_MICROS) + 1;
+        this.bounds = bounds.clone();
+        this.exemplarThresholdNanos = exemplarThresholdNanos;
+        this.exemplars = new AtomicReferenceArray<>(bounds.length + 1);
+        this.retiredCounts = new long[length];
+        this.rotated = merge();
+        this.window = rotated.minus(rotated);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int significantDigits() {
+        return significantDigits;
+    }
+
+    /**
+     * Upper bounds of the Prometheus buckets, in seconds
+     */
+    public double[] bounds() {
+        return bounds.clone();
+    }
+
+    /**
+     * Latest exemplar of a Prometheus bucket ({@code bounds().length} for +Inf), or null
+     */
+    public Exemplar exemplar(int bucket) {
+        return exemplars.get(bucket);
+    }
+
+    /**
+     * Record one latency; never blocks and touches no memory another thread writes
+     *
+     * @param requestId exemplar label for slow recordings, may be null
+     */
+    public void record(long nanos, String requestId) {
+        long micros = Math.min(Math.max(nanos, 0) / 1000, MAX_MICROS);
+        Stripe own = stripe.get();
+        int i = index(micros);
+        own.counts.lazySet(i, own.counts.get(i) + 1);
+        own.sumNanos.lazySet(own.sumNanos.get() + nanos);
+        if (requestId != null && nanos >= exemplarThresholdNanos) {
+            double seconds = nanos / 1e9;
+            exemplars.set(bucket(seconds), new Exemplar(seconds, System.currentTimeMillis(), "request_id", requestId));
+        }
+    }
+
+    /**
+     * Everything recorded so far
+     */
+    public synchronized Snapshot merge() {
+        for (Stripe s : stripes) {
+            // A thread's writes happen-before isAlive() returns false, so its stripe is final
+            if (!s.owner.isAlive()) {
+                for (int i = 0; i < length; i++) {
+                    retiredCounts[i] += s.counts.get(i);
+                }
+                retiredSumNanos += s.sumNanos.get();
+                stripes.remove(s);
+            }
+        }
+
+        long[] counts = retiredCounts.clone();
+        long count = 0;
+        for (long c : counts) {
+            count += c;
+        }
+        long sumNanos = retiredSumNanos;
+        for (Stripe s : stripes) {
+            for (int i = 0; i < length; i++) {
+                long c = s.counts.get(i);
+                counts[i] += c;
+                count += c;
+            }
+            sumNanos += s.sumNanos.get();
+        }
+        return new Snapshot(this, counts, count, sumNanos);
+    }
+
+    /**
+     * Close the current interval; {@link #window()} then covers it
+     */
+    public synchronized void rotate() {
+        Snapshot current = merge();
+        window = current.minus(rotated);
+        rotated = current;
+    }
+
+    /**
+     * Distribution of the last completed interval
+     */
+    public Snapshot window() {
+        return window;
+    }
+
+    /**
+     * Prometheus bucket of a value in seconds
+     */
+    int bucket(double seconds) {
+        for (int b = 0; b < bounds.length; b++) {
+            if (seconds <= bounds[b]) {
+                return b;
+            }
+        }
+        return bounds.length;
+    }
+
+    int index(long micros) {
+        if (micros < subBuckets) {
+            return (int) micros;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(micros) - halfMagnitude;
+        int half = 1 << halfMagnitude;
+        return subBuckets + (shift - 1) * half + (int) (micros >>> shift) - half;
+    }
+
+    long lowestMicros(int index) {
+        if (index < subBuckets) {
+            return index;
+        }
+        int half = 1 << halfMagnitude;
+        int offset = index - subBuckets;
+        int shift = offset / half + 1;
+        return (long) (offset % half + half) << shift;
+    }
+
+    long highestMicros(int index) {
+        return lowestMicros(index + 1) - 1;
+    }
+
+    /**
+     * Stripes of threads still alive at the last merge, or created since
+     */
+    int stripeCount() {
+        return stripes.size();
+    }
+
+    private Stripe newStripe() {
+        Stripe s = new Stripe(length);
+        stripes.add(s);
+        return s;
+    }
+}
@@ -16,12 +16,7 @@ public class Metrics {
             .labelNames("method", "status")
             .register();
     
-        // Latency and performance metrics
-    public static final Histogram publishLatency = Histogram.build()
-            .name("teuthis_publish_latency_seconds")
-            .help("Latency of publish operations in seconds")
-            .buckets(0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1.0, 2.5, 5.0, 10.0)
-            .register();
+        // Latency and performance metrics; publish latency is exposed by Latencies
 
     public static final Counter messagesTotal = Counter.build()
             .name("teuthis_messages_total")
@@ -90,6 +85,216 @@ public class Metrics {
             .help("Number of active queue cleanup operations")
             .register();
     
+    // Schema validation metrics
+    public static final Histogram schemaValidationDuration = Histogram.build()
+            .name("teuthis_schema_validation_seconds")
+            .help("Time spent validating payloads against the topic JSON Schema")
+            .labelNames("topic")
+            .buckets(0.00001, 0.00005, 0.0001, 0.0005, 0.001, 0.005, 0.01, 0.05)
+            .register();
+
+    public static final Counter schemaViolations = Counter.build()
+            .name("teuthis_schema_violations_total")
+            .help("Total number of payloads rejected by the topic JSON Schema")
+            .labelNames("topic")
+            .register();
+
+    // Compressed request metrics
+    public static final Counter compressedRequests = Counter.build()
+            .name("teuthis_compressed_requests_total")
+            .help("Compressed request bodies by Content-Encoding and outcome (decoded, passthrough, rejected_*)")
+            .labelNames("encoding", "outcome")
+            .register();
+
+    // JSON to Avro conversion metrics
+    public static final Histogram avroConversionDuration = Histogram.build()
+            .name("teuthis_avro_conversion_seconds")
+            .help("Time spent converting JSON payloads into the topic Avro schema")
+            .labelNames("topic")
+            .buckets(0.00001, 0.00005, 0.0001, 0.0005, 0.001, 0.005, 0.01, 0.05)
+            .register();
+
+    public static final Counter avroConversionErrors = Counter.build()
+            .name("teuthis_avro_conversion_errors_total")
+            .help("Total number of payloads that could not be converted into the topic Avro schema")
+            .labelNames("topic")
+            .register();
+
+    // Schema registry metrics
+    public static final Counter schemaRegistryRequests = Counter.build()
+            .name("teuthis_schema_registry_requests_total")
+            .help("Schema registrations against the schema registry by outcome (registered, failed)")
+            .labelNames("outcome")
+            .register();
+
+    public static final Counter schemaRegistryMisses = Counter.build()
+            .name("teuthis_schema_registry_misses_total")
+            .help("Total number of publish requests rejected because the topic schema id was not known yet")
+            .labelNames("topic")
+            .register();
+
+    // Kafka record header metrics
+    public static final Counter kafkaHeaderBytes = Counter.build()
+            .name("teuthis_kafka_header_bytes_total")
+            .help("Bytes of record headers (keys and values) added to published records")
+            .labelNames("topic")
+            .register();
+
+    // Priority lane metrics
+    public static final Histogram lanePublishLatency = Histogram.build()
+            .name("teuthis_lane_publish_latency_seconds")
+            .help("Time from lane admission to Kafka acknowledgement")
+            .labelNames("lane")
+            .buckets(0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1.0, 2.5, 5.0, 10.0)
+            .register();
+
+    public static final Gauge laneInFlight = Gauge.build()
+            .name("teuthis_lane_in_flight")
+            .help("Records admitted to a lane and not yet acknowledged")
+            .labelNames("lane")
+            .register();
+
+    public static final Counter laneRejected = Counter.build()
+            .name("teuthis_lane_rejected_total")
+            .help("Total number of publishes rejected because the lane in-flight budget was exhausted")
+            .labelNames("lane")
+            .register();
+
+    // Tenant fair queuing metrics
+    public static final Histogram tenantQueueTime = Histogram.build()
+            .name("teuthis_tenant_queue_seconds")
+            .help("Time a publish waited in its tenant fair queue before getting a lane permit")
+            .labelNames("tenant")
+            .buckets(0.0005, 0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1.0, 2.5)
+            .register();
+
+    public static final Counter tenantRejected = Counter.build()
+            .name("teuthis_tenant_rejected_total")
+            .help("Total number of publishes rejected because the tenant fair queue was full")
+            .labelNames("tenant")
+            .register();
+
+    // Topic allowlist metrics
+    public static final Counter topicAllowlistReloads = Counter.build()
+            .name("teuthis_topic_allowlist_reloads_total")
+            .help("Total number of topic allowlist loads by outcome")
+            .labelNames("outcome")
+            .register();
+
+    public static final Gauge topicAllowlistEntries = Gauge.build()
+            .name("teuthis_topic_allowlist_entries")
+            .help("Entries (exact names, prefixes and globs) in the topic allowlist in effect")
+            .register();
+
+    // Configuration reload metrics
+    public static final Counter configReloads = Counter.build()
+            .name("teuthis_config_reloads_total")
+            .help("Total number of configuration reloads by outcome (success, unchanged, error)")
+            .labelNames("outcome")
+            .register();
+
+    public static final Gauge configVersion = Gauge.build()
+            .name("teuthis_config_version")
+            .help("Version of the configuration snapshot in effect")
+            .register();
+
+    // JWT verification cache metrics
+    public static final Counter jwtCacheRequests = Counter.build()
+            .name("teuthis_jwt_cache_requests_total")
+            .help("Token lookups in the verified JWT cache by result (hit, miss, connection when bound to the connection)")
+            .labelNames("result")
+            .register();
+
+    // JWKS metrics
+    public static final Counter jwksRefreshes = Counter.build()
+            .name("teuthis_jwks_refreshes_total")
+            .help("Total number of JWKS loads by outcome (success, error)")
+            .labelNames("outcome")
+            .register();
+
+    public static final Gauge jwksKeys = Gauge.build()
+            .name("teuthis_jwks_keys")
+            .help("Signing keys loaded from the JWKS")
+            .register();
+
+    public static final Counter jwksUnknownKids = Counter.build()
+            .name("teuthis_jwks_unknown_kids_total")
+            .help("Distinct unknown key ids seen in tokens (repeats within the negative cache TTL are not counted)")
+            .register();
+
+    // Rate limiting metrics
+    public static final Gauge rateLimitClients = Gauge.build()
+            .name("teuthis_rate_limit_clients")
+            .help("Clients (addresses or networks) holding a per-client rate limit bucket, as of the last sweep")
+            .register();
+
+    public static final Counter clusterSyncPackets = Counter.build()
+            .name("teuthis_cluster_sync_packets_total")
+            .help("Cluster rate limit sync packets by result (sent, received, rejected, replayed)")
+            .labelNames("result")
+            .register();
+
+    public static final Counter clusterSyncDropped = Counter.build()
+            .name("teuthis_cluster_sync_dropped_total")
+            .help("Admitted requests not reported to peers because the pending delta table was full")
+            .register();
+
+    public static final Counter quotaRejected = Counter.build()
+            .name("teuthis_quota_rejected_total")
+            .help("Publish requests rejected by a subject, topic or subject x topic quota")
+            .labelNames("scope", "unit")
+            .register();
+
+    public static final Counter tlsHandshakes = Counter.build()
+            .name("teuthis_tls_handshakes_total")
+            .help("TLS handshakes by engine and result (full, resumed, failure)")
+            .labelNames("provider", "result")
+            .register();
+
+    public static final Histogram tlsHandshakeSeconds = Histogram.build()
+            .name("teuthis_tls_handshake_seconds")
+            .help("Time from connection setup to a completed TLS handshake")
+            .labelNames("provider")
+            .buckets(0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25)
+            .register();
+
+    public static final Counter tlsReloads = Counter.build()
+            .name("teuthis_tls_reloads_total")
+            .help("TLS certificate loads by outcome")
+            .labelNames("outcome")
+            .register();
+
+    public static final Counter mtlsIdentities = Counter.build()
+            .name("teuthis_mtls_identities_total")
+            .help("Client certificate lookups by result (hit, mapped, unmapped)")
+            .labelNames("result")
+            .register();
+
+    public static final Counter connectionsClosed = Counter.build()
+            .name("teuthis_connections_closed_total")
+            .help("Closed connections by reason (normal, idle, header_timeout, body_timeout, slow_body, ip_limit, global_limit)")
+            .labelNames("reason")
+            .register();
+
+    public static final Counter metricsScrapes = Counter.build()
+            .name("teuthis_metrics_scrapes_total")
+            .help("Scrapes of /metrics by result (cached, rendered)")
+            .labelNames("result")
+            .register();
+
+    public static final Histogram metricsRenderSeconds = Histogram.build()
+            .name("teuthis_metrics_render_seconds")
+            .help("Time taken to render the metrics exposition")
+            .buckets(0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1)
+            .register();
+
+    public static final Histogram requestStageSeconds = Histogram.build()
+            .name("teuthis_request_stage_seconds")
+            .help("Time from the previous request stage to this one (accept, headers, body, auth, validation, serialization, enqueue, ack, flush)")
+            .labelNames("stage")
+            .buckets(0.00001, 0.00005, 0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1.0, 2.5, 10.0)
+            .register();
+
     /**
      * Records a queue cleanup operation metric.
      */
@@ -0,0 +1,127 @@
+package com.github.darioajr.teuthis.infra;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.exporter.common.TextFormat;
+import io.prometheus.client.hotspot.DefaultExports;
+
+/**
+ * Prometheus exposition of the default registry, JVM collectors included.
+ *
+ * Scrapes are rendered on a dedicated thread into pooled buffers, never on
+ * the event loops. Each variant (text 0.0.4 or OpenMetrics, plain or gzip) is
+ * kept for {@code teuthis.metrics.cache.ms}, so several Prometheus replicas
+ * scraping together cost one render; scrapes of a stale variant share the
+ * render in progress.
+ */
+public final class MetricsExposition {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsExposition.class);
+
+    private static final long CACHE_NANOS = TimeUnit.MILLISECONDS.toNanos(Config.l("teuthis.metrics.cache.ms", 1000));
+    private static final int VARIANTS = 4;
+
+    private static final ExecutorService renderer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "metrics-render");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // The cached buffer is released when a newer render replaces it; scrapes hold their own reference
+    private record Rendering(ByteBuf content, long renderedAt) {}
+
+    // Guarded by the cache array's monitor: cached rendering and scrapes waiting for a render, per variant
+    private static final Rendering[] cache = new Rendering[VARIANTS];
+    private static final List<List<CompletableFuture<ByteBuf>>> waiting = new ArrayList<>(Collections.nCopies(VARIANTS, null));
+
+    static {
+        if (Config.b("teuthis.metrics.jvm.enabled", true)) {
+            DefaultExports.initialize();
+        }
+        logger.info("✅ Metrics exposition initialized - render cache {} ms", TimeUnit.NANOSECONDS.toMillis(CACHE_NANOS));
+    }
+
+    private MetricsExposition() {
+    }
+
+    /**
+     * Exposition of the default registry in {@code contentType} (see {@link TextFormat#chooseContentType}).
+     * Completes at once when cached, else on the render thread; the caller owns the buffer.
+     */
+    public static CompletableFuture<ByteBuf> scrape(String contentType, boolean gzip) {
+        int variant = (TextFormat.CONTENT_TYPE_OPENMETRICS_100.equals(contentType) ? 2 : 0) | (gzip ? 1 : 0);
+        CompletableFuture<ByteBuf> scrape = new CompletableFuture<>();
+        synchronized (cache) {
+            Rendering rendering = cache[variant];
+            if (rendering != null && System.nanoTime() - rendering.renderedAt() < CACHE_NANOS) {
+                Metrics.metricsScrapes.labels("cached").inc();
+                scrape.complete(rendering.content().retainedDuplicate());
+                return scrape;
+            }
+            if (waiting.get(variant) == null) {
+                waiting.set(variant, new ArrayList<>());
+                renderer.execute(() -> render(variant, contentType, gzip));
+            }
+            waiting.get(variant).add(scrape);
+        }
+        return scrape;
+    }
+
+    private static void render(int variant, String contentType, boolean gzip) {
+        long start = System.nanoTime();
+        ByteBuf content = PooledByteBufAllocator.DEFAULT.directBuffer();
+        Throwable failure = null;
+        try (OutputStream out = gzip ? new GZIPOutputStream(new ByteBufOutputStream(content)) : new ByteBufOutputStream(content);
+             Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+            TextFormat.writeFormat(contentType, writer, CollectorRegistry.defaultRegistry.metricFamilySamples());
+        } catch (IOException | RuntimeException e) {
+            logger.error("❌ Error rendering metrics: {}", e.getMessage());
+            content.release();
+            failure = e;
+        }
+
+        List<CompletableFuture<ByteBuf>> scrapes;
+        List<ByteBuf> copies = new ArrayList<>();
+        synchronized (cache) {
+            scrapes = waiting.set(variant, null);
+            if (failure == null) {
+                Rendering previous = cache[variant];
+                cache[variant] = new Rendering(content, System.nanoTime());
+                if (previous != null) {
+                    previous.content().release();
+                }
+                for (int i = 0; i < scrapes.size(); i++) {
+                    copies.add(content.retainedDuplicate());
+                }
+            }
+        }
+        Metrics.metricsScrapes.labels("rendered").inc(scrapes.size());
+        Metrics.metricsRenderSeconds.observe((System.nanoTime() - start) / 1e9);
+        for (int i = 0; i < scrapes.size(); i++) {
+            if (failure != null) {
+                scrapes.get(i).completeExceptionally(failure);
+            } else {
+                scrapes.get(i).complete(copies.get(i));
+            }
+        }
+    }
+}
@@ -26,8 +26,8 @@ public class ObjectPools {
     private static final ThreadLocal<DatumWriter<Message>> AVRO_WRITER_CACHE = 
         ThreadLocal.withInitial(() -> new SpecificDatumWriter<>(Message.class));
     
-    private static final ThreadLocal<BinaryEncoder> ENCODER_CACHE = 
-        ThreadLocal.withInitial(() -> EncoderFactory.get().binaryEncoder(null, null));
+    // Filled on first use: Avro cannot create an encoder without a stream
+    private static final ThreadLocal<BinaryEncoder> ENCODER_CACHE = new ThreadLocal<>();
     
     // Pool for ByteArrayOutputStream objects
     private static final ConcurrentLinkedQueue<ByteArrayOutputStream> bufferPool = 
@@ -88,8 +88,9 @@ public class ObjectPools {
      * Get cached binary encoder
      */
     public static BinaryEncoder getEncoder(ByteArrayOutputStream output) {
-        BinaryEncoder encoder = ENCODER_CACHE.get();
-        return EncoderFactory.get().binaryEncoder(output, encoder);
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(output, ENCODER_CACHE.get());
+        ENCODER_CACHE.set(encoder);
+        return encoder;
     }
     
     /**
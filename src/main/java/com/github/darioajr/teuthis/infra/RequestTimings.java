@@ -0,0 +1,155 @@
+package com.github.darioajr.teuthis.infra;
+
+import java.util.Locale;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.AttributeKey;
+
+/**
+ * Nanosecond stage stamps of one request, from its first byte to the flush of
+ * its response.
+ *
+ * Each stage histogram observes the time since the previous stamped stage, so
+ * a stage a request skips (no Kafka send for {@code /health}) folds into the
+ * next one. {@link Stage#ACCEPT} is the wait from connection accept to the
+ * first byte, TLS handshake included, and only exists for the first request
+ * on a connection. Stamps are written by the event loop, the lane sender and
+ * the producer I/O thread; every hand-off between them is a happens-before
+ * edge, so plain fields suffice.
+ */
+public final class RequestTimings {
+
+    public enum Stage {
+        ACCEPT, HEADERS, BODY, AUTH, VALIDATION, SERIALIZATION, ENQUEUE, ACK, FLUSH;
+
+        final String label = name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Timings of the request the channel's handlers are currently serving
+     */
+    public static final AttributeKey<RequestTimings> KEY = AttributeKey.valueOf("requestTimings");
+
+    private static final boolean SERVER_TIMING = Config.b("teuthis.metrics.server.timing.enabled", false);
+    private static final Stage[] STAGES = Stage.values();
+
+    private final long start;
+    private final long[] stamps = new long[STAGES.length];
+    private final String method;
+    private final String endpoint;
+    private String requestId;
+
+    /**
+     * @param acceptedAt connection accept time for its first request, else 0
+     * @param start      arrival of the request's first byte
+     */
+    public RequestTimings(long acceptedAt, long start, String method, String uri) {
+        this.start = start;
+        this.stamps[Stage.ACCEPT.ordinal()] = acceptedAt;
+        this.method = switch (method) {
+            case "GET", "POST", "PUT", "DELETE", "HEAD", "OPTIONS", "PATCH" -> method;
+            default -> "other";
+        };
+        this.endpoint = endpoint(uri);
+    }
+
+    /**
+     * Timings of the request being served on the channel, null when it is not timed
+     */
+    public static RequestTimings of(ChannelHandlerContext ctx) {
+        return ctx.channel().attr(KEY).get();
+    }
+
+    /**
+     * Stamp a stage of the request being served on the channel, if it is timed
+     */
+    public static void stamp(ChannelHandlerContext ctx, Stage stage) {
+        RequestTimings timings = of(ctx);
+        if (timings != null) {
+            timings.stamp(stage);
+        }
+    }
+
+    /**
+     * Exemplar label of the request, set once the gateway assigns it
+     */
+    public void requestId(String requestId) {
+        this.requestId = requestId;
+    }
+
+    public void stamp(Stage stage) {
+        stamps[stage.ordinal()] = System.nanoTime();
+    }
+
+    /**
+     * {@code Server-Timing} value for the stages stamped so far, or null when the header is disabled
+     */
+    public String serverTiming() {
+        if (!SERVER_TIMING) {
+            return null;
+        }
+        StringBuilder header = new StringBuilder(160);
+        long previous = start;
+        for (Stage stage : STAGES) {
+            long stamp = stamps[stage.ordinal()];
+            if (stage == Stage.ACCEPT) {
+                if (stamp != 0) {
+                    append(header, stage.label, start - stamp);
+                }
+            } else if (stamp != 0) {
+                append(header, stage.label, stamp - previous);
+                previous = stamp;
+            }
+        }
+        append(header, "total", System.nanoTime() - start);
+        return header.toString();
+    }
+
+    private static void append(StringBuilder header, String name, long nanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        header.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.3f", nanos / 1e6));
+    }
+
+    /**
+     * Observe every stamped stage and the whole request; call once the response is flushed
+     */
+    public void record(int status) {
+        long previous = start;
+        for (Stage stage : STAGES) {
+            long stamp = stamps[stage.ordinal()];
+            if (stamp == 0) {
+                continue;
+            }
+            if (stage == Stage.ACCEPT) {
+                Metrics.requestStageSeconds.labels(stage.label).observe((start - stamp) / 1e9);
+            } else {
+                Metrics.requestStageSeconds.labels(stage.label).observe((stamp - previous) / 1e9);
+                previous = stamp;
+            }
+        }
+        Metrics.requestDuration.labels(method, endpoint, Integer.toString(status)).observe((previous - start) / 1e9);
+        Latencies.request().record(previous - start, requestId);
+    }
+
+    /**
+     * First path segment for the endpoint label, bounded to the routes the gateway serves
+     */
+    private static String endpoint(String uri) {
+        int begin = uri.startsWith("/") ? 1 : 0;
+        int end = begin;
+        while (end < uri.length() && uri.charAt(end) != '/' && uri.charAt(end) != '?') {
+            end++;
+        }
+        return switch (uri.substring(begin, end)) {
+            case "publish" -> "publish";
+            case "health" -> "health";
+            case "metrics" -> "metrics";
+            case "admin" -> "admin";
+            case "queue" -> "queue";
+            case "debug" -> "debug";
+            default -> "other";
+        };
+    }
+}
@@ -0,0 +1,197 @@
+package com.github.darioajr.teuthis.infra;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Typed, validated settings read on the request path.
+ *
+ * Built from a {@link Config.Snapshot} at startup and on every reload, so
+ * handlers read plain final fields instead of parsing properties per request.
+ * An invalid value fails the build with every problem listed: at startup the
+ * server does not start, on reload the previous configuration stays in effect.
+ */
+public record Settings(
+    boolean authEnabled,
+    String tenantClaim,
+    double rateLimitGlobal,
+    double rateLimitPerIp,
+    int maxPayloadSize,
+    boolean payloadValidationEnabled,
+    int maxFanoutTopics,
+    double resourceThreshold,
+    int retryAfterSeconds,
+    String partitionKey,
+    Set<String> rawTopics,
+    boolean adminEnabled,
+    boolean adminRequireAuth,
+    String adminRole,
+    boolean quotaEnabled,
+    Quota subjectQuota,
+    Quota topicQuota,
+    Quota subjectTopicQuota
+) {
+
+    /**
+     * Requests and bytes per second allowed to one quota holder; 0 means unlimited
+     */
+    public record Quota(double requestsPerSecond, double bytesPerSecond) {}
+
+    private static volatile Settings current = from(Config.snapshot());
+
+    /**
+     * Settings in effect
+     */
+    public static Settings current() {
+        return current;
+    }
+
+    static void apply(Settings settings) {
+        current = settings;
+    }
+
+    /**
+     * Parse and validate the settings of a snapshot
+     *
+     * @throws IllegalArgumentException listing every invalid value
+     */
+    public static Settings from(Config.Snapshot snapshot) {
+        Parser p = new Parser(snapshot.values());
+        Settings settings = new Settings(
+            p.bool("teuthis.security.auth.enabled", false),
+            p.text("teuthis.fair.tenant.claim", "tenant"),
+            p.positive("teuthis.security.rate.limit.global", 10000),
+            p.positive("teuthis.security.rate.limit.per.ip", 100),
+            p.positiveInt("teuthis.security.max.payload.size", 10 * 1024 * 1024),
+            p.bool("teuthis.security.payload.validation.enabled", true),
+            p.positiveInt("teuthis.publish.fanout.max.topics", 10),
+            p.fraction("resources.threshold", 0.95),
+            p.atLeastZeroInt("retry.after.seconds", 60),
+            p.text("kafka.partition.key", "teuthis-key"),
+            p.set("teuthis.publish.raw.topics"),
+            p.bool("teuthis.admin.enabled", false),
+            p.bool("teuthis.admin.require.auth", true),
+            p.text("teuthis.admin.role", "admin"),
+            p.bool("teuthis.quota.enabled", false),
+            p.quota("teuthis.quota.subject."),
+            p.quota("teuthis.quota.topic."),
+            p.quota("teuthis.quota.subject.topic.")
+        );
+        if (!p.errors.isEmpty()) {
+            throw new IllegalArgumentException("Invalid configuration: " + String.join("; ", p.errors));
+        }
+        return settings;
+    }
+
+    private static final class Parser {
+        final Map<String, String> values;
+        final List<String> errors = new ArrayList<>();
+
+        Parser(Map<String, String> values) {
+            this.values = values;
+        }
+
+        String raw(String key) {
+            String value = values.get(key);
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+
+        String text(String key, String defaultValue) {
+            String value = raw(key);
+            return value != null ? value : defaultValue;
+        }
+
+        boolean bool(String key, boolean defaultValue) {
+            String value = raw(key);
+            if (value == null) {
+                return defaultValue;
+            }
+            if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+                errors.add(key + " must be true or false, got '" + value + "'");
+                return defaultValue;
+            }
+            return Boolean.parseBoolean(value);
+        }
+
+        double number(String key, double defaultValue) {
+            String value = raw(key);
+            if (value == null) {
+                return defaultValue;
+            }
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                errors.add(key + " must be a number, got '" + value + "'");
+                return defaultValue;
+            }
+        }
+
+        int integer(String key, int defaultValue) {
+            String value = raw(key);
+            if (value == null) {
+                return defaultValue;
+            }
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                errors.add(key + " must be an integer, got '" + value + "'");
+                return defaultValue;
+            }
+        }
+
+        double positive(String key, double defaultValue) {
+            double value = number(key, defaultValue);
+            if (value <= 0) {
+                errors.add(key + " must be greater than 0, got " + value);
+            }
+            return value;
+        }
+
+        int positiveInt(String key, int defaultValue) {
+            int value = integer(key, defaultValue);
+            if (value <= 0) {
+                errors.add(key + " must be greater than 0, got " + value);
+            }
+            return value;
+        }
+
+        int atLeastZeroInt(String key, int defaultValue) {
+            int value = integer(key, defaultValue);
+            if (value < 0) {
+                errors.add(key + " must not be negative, got " + value);
+            }
+            return value;
+        }
+
+        double nonNegative(String key) {
+            double value = number(key, 0);
+            if (value < 0) {
+                errors.add(key + " must not be negative, got " + value);
+            }
+            return value;
+        }
+
+        Quota quota(String prefix) {
+            return new Quota(nonNegative(prefix + "requests.per.second"), nonNegative(prefix + "bytes.per.second"));
+        }
+
+        double fraction(String key, double defaultValue) {
+            double value = number(key, defaultValue);
+            if (value <= 0 || value > 1) {
+                errors.add(key + " must be in (0, 1], got " + value);
+            }
+            return value;
+        }
+
+        Set<String> set(String key) {
+            String value = raw(key);
+            if (value == null) {
+                return Set.of();
+            }
+            return Set.copyOf(Arrays.stream(value.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList());
+        }
+    }
+}
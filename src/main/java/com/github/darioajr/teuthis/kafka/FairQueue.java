@@ -0,0 +1,121 @@
+package com.github.darioajr.teuthis.kafka;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Deficit round robin queue across tenants, weighted by bytes.
+ *
+ * Every round a tenant with queued work earns {@code quantum * weight} bytes
+ * of credit and dequeues items while their size fits its credit, so tenants
+ * get bandwidth in proportion to their weights whatever their request sizes.
+ * Each tenant queue is bounded by count and bytes; a full tenant queue only
+ * rejects that tenant. Not thread-safe.
+ */
+final class FairQueue<T> {
+
+    private static final class TenantQueue<T> {
+        final String tenant;
+        final int weight;
+        final ArrayDeque<T> items = new ArrayDeque<>();
+        final ArrayDeque<Integer> sizes = new ArrayDeque<>();
+        long bytes;
+        long deficit;
+        boolean credited;
+
+        TenantQueue(String tenant, int weight) {
+            this.tenant = tenant;
+            this.weight = weight;
+        }
+    }
+
+    private final int quantum;
+    private final ToIntFunction<String> weights;
+    private final int maxQueued;
+    private final long maxQueuedBytes;
+
+    // Only tenants with queued items; the deque is the round robin order
+    private final Map<String, TenantQueue<T>> tenants = new HashMap<>();
+    private final ArrayDeque<TenantQueue<T>> active = new ArrayDeque<>();
+    private int size;
+
+    FairQueue(int quantum, ToIntFunction<String> weights, int maxQueued, long maxQueuedBytes) {
+        this.quantum = quantum;
+        this.weights = weights;
+        this.maxQueued = maxQueued;
+        this.maxQueuedBytes = maxQueuedBytes;
+    }
+
+    /**
+     * Queue an item, returning false when the tenant queue is full
+     */
+    boolean offer(String tenant, T item, int bytes) {
+        TenantQueue<T> queue = tenants.get(tenant);
+        int queued = queue != null ? queue.items.size() : 0;
+        long queuedBytes = queue != null ? queue.bytes : 0;
+        // Checked before the tenant gets a queue, so a first item is bounded too
+        if (queued >= maxQueued || queuedBytes + bytes > maxQueuedBytes) {
+            return false;
+        }
+        if (queue == null) {
+            queue = new TenantQueue<>(tenant, Math.max(1, weights.applyAsInt(tenant)));
+            tenants.put(tenant, queue);
+            active.addLast(queue);
+        }
+        queue.items.addLast(item);
+        queue.sizes.addLast(bytes);
+        queue.bytes += bytes;
+        size++;
+        return true;
+    }
+
+    /**
+     * Next item in deficit round robin order, or null when empty
+     */
+    T poll() {
+        while (!active.isEmpty()) {
+            TenantQueue<T> queue = active.peekFirst();
+            if (!queue.credited) {
+                queue.deficit += (long) quantum * queue.weight;
+                queue.credited = true;
+            }
+            int bytes = queue.sizes.peekFirst();
+            if (bytes <= queue.deficit) {
+                T item = queue.items.pollFirst();
+                queue.sizes.pollFirst();
+                queue.deficit -= bytes;
+                queue.bytes -= bytes;
+                size--;
+                if (queue.items.isEmpty()) {
+                    // Idle tenants keep no credit and no state
+                    active.pollFirst();
+                    tenants.remove(queue.tenant);
+                }
+                return item;
+            }
+            // Out of credit for this round: move to the back
+            active.pollFirst();
+            queue.credited = false;
+            active.addLast(queue);
+        }
+        return null;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Bytes queued for a tenant
+     */
+    long queuedBytes(String tenant) {
+        TenantQueue<T> queue = tenants.get(tenant);
+        return queue != null ? queue.bytes : 0;
+    }
+}
@@ -0,0 +1,139 @@
+package com.github.darioajr.teuthis.kafka;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.darioajr.teuthis.codec.ContentEncoding;
+import com.github.darioajr.teuthis.infra.Config;
+
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.util.AsciiString;
+
+/**
+ * Kafka record headers added at publish time.
+ *
+ * Raw mode topics (body as the record value, no Avro envelope) carry the
+ * {@code Message} envelope fields as headers. Header values are pre-encoded
+ * where they repeat: format tokens, the hostname and content encodings are
+ * encoded once and shared by all records. {@code timestamp} is an 8-byte
+ * big-endian epoch milliseconds value.
+ *
+ * HTTP headers listed in {@code teuthis.kafka.headers.propagate} are copied
+ * under their lower-case name, plus the request id when enabled. Names are
+ * prepared once at startup; with nothing configured no headers are built.
+ */
+public class KafkaHeaders {
+
+    private static final Logger logger = LoggerFactory.getLogger(KafkaHeaders.class);
+
+    public static final String FORMAT = "format";
+    public static final String TIMESTAMP = "timestamp";
+    public static final String HOSTNAME = "hostname";
+    public static final String ENCODING = "encoding";
+
+    public static final String REQUEST_ID = "request-id";
+
+    private static final String[] PROPAGATED_KEYS = Config.list("teuthis.kafka.headers.propagate").stream()
+        .map(name -> name.toLowerCase(Locale.ROOT))
+        .distinct()
+        .toArray(String[]::new);
+    private static final AsciiString[] PROPAGATED_HTTP = Arrays.stream(PROPAGATED_KEYS)
+        .map(AsciiString::cached)
+        .toArray(AsciiString[]::new);
+    private static final boolean PROPAGATE_REQUEST_ID = Config.b("teuthis.kafka.headers.request.id.enabled", false);
+    private static final boolean PROPAGATION_ENABLED = PROPAGATED_KEYS.length > 0 || PROPAGATE_REQUEST_ID;
+
+    private static final String LOCAL_HOSTNAME = resolveHostname();
+    private static final byte[] HOSTNAME_BYTES = LOCAL_HOSTNAME.getBytes(StandardCharsets.UTF_8);
+
+    private static final ConcurrentHashMap<String, byte[]> FORMAT_BYTES = new ConcurrentHashMap<>();
+    private static final byte[][] ENCODING_BYTES = new byte[ContentEncoding.values().length][];
+
+    static {
+        for (String format : new String[] {"json", "xml", "soap", "txt", "avro"}) {
+            FORMAT_BYTES.put(format, format.getBytes(StandardCharsets.UTF_8));
+        }
+        for (ContentEncoding encoding : ContentEncoding.values()) {
+            ENCODING_BYTES[encoding.ordinal()] = encoding.token().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Hostname of this instance, resolved once at startup
+     */
+    public static String hostname() {
+        return LOCAL_HOSTNAME;
+    }
+
+    /**
+     * Build the envelope headers for a raw record
+     */
+    public static Headers envelope(String format, long timestamp, ContentEncoding encoding) {
+        Headers headers = new RecordHeaders();
+        headers.add(FORMAT, FORMAT_BYTES.computeIfAbsent(format, f -> f.getBytes(StandardCharsets.UTF_8)));
+        headers.add(TIMESTAMP, ByteBuffer.allocate(Long.BYTES).putLong(timestamp).array());
+        headers.add(HOSTNAME, HOSTNAME_BYTES);
+        if (encoding != null) {
+            headers.add(ENCODING, ENCODING_BYTES[encoding.ordinal()]);
+        }
+        return headers;
+    }
+
+    /**
+     * Add the configured HTTP headers and request id to {@code headers}, creating
+     * them if needed. Returns {@code headers} unchanged when nothing applies.
+     */
+    public static Headers propagate(Headers headers, HttpHeaders http, String requestId) {
+        if (!PROPAGATION_ENABLED) {
+            return headers;
+        }
+        for (int i = 0; i < PROPAGATED_HTTP.length; i++) {
+            String value = http.get(PROPAGATED_HTTP[i]);
+            if (value != null) {
+                if (headers == null) {
+                    headers = new RecordHeaders();
+                }
+                headers.add(PROPAGATED_KEYS[i], value.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        if (PROPAGATE_REQUEST_ID) {
+            if (headers == null) {
+                headers = new RecordHeaders();
+            }
+            headers.add(REQUEST_ID, requestId.getBytes(StandardCharsets.US_ASCII));
+        }
+        return headers;
+    }
+
+    /**
+     * Serialized size of header keys and values, in bytes
+     */
+    public static int sizeOf(Headers headers) {
+        int bytes = 0;
+        for (Header header : headers) {
+            bytes += header.key().length();
+            bytes += header.value() != null ? header.value().length : 0;
+        }
+        return bytes;
+    }
+
+    private static String resolveHostname() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            logger.warn("⚠️ Could not resolve local hostname, using 'unknown': {}", e.getMessage());
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.github.darioajr.teuthis.kafka;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+
+import com.github.darioajr.teuthis.infra.CircuitBreakerManager;
+import com.github.darioajr.teuthis.infra.Metrics;
+import com.github.darioajr.teuthis.infra.RequestTimings;
+
+import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
+
+/**
+ * Priority lane: a producer, sender threads and an in-flight budget that no
+ * other lane shares.
+ *
+ * Callers {@link #submit} records on the event loop. Without a fair queue a
+ * full lane rejects immediately, so a flood on one lane never queues work in
+ * front of another. With one, records wait in bounded per-tenant queues and
+ * free permits are handed out in deficit round robin order, so a noisy tenant
+ * only fills its own queue. Completion runs on the lane producer's own I/O
+ * thread.
+ *
+ * Priority is not a scheduling weight: lanes never compete for a shared
+ * resource, so a higher lane is served first simply because lower lanes cannot
+ * take its producer, threads or permits. The order only names the lanes and
+ * picks the default lane.
+ */
+public final class Lane {
+
+    private final String name;
+    private final int priority;
+    // Swapped when a configuration reload changes the lane producer profile
+    private volatile Producer<String, byte[]> producer;
+    private volatile Producer<String, byte[]> passthroughProducer;
+    private final ExecutorService sender;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final Histogram.Child latency;
+    private final Gauge.Child inFlightGauge;
+    private final FairQueue<Pending> fairQueue;
+
+    /**
+     * A record waiting in the fair queue
+     */
+    private record Pending(String tenant, ProducerRecord<String, byte[]> record, boolean passthrough,
+                           RequestTimings timings, CompletableFuture<RecordMetadata> result, long enqueued) {}
+
+    /**
+     * Raised through the returned future when a record is not admitted
+     */
+    public static final class RejectedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        RejectedException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    Lane(String name, int priority, Producer<String, byte[]> producer, Producer<String, byte[]> passthroughProducer,
+         ExecutorService sender, int maxInFlight) {
+        this(name, priority, producer, passthroughProducer, sender, maxInFlight, null);
+    }
+
+    Lane(String name, int priority, Producer<String, byte[]> producer, Producer<String, byte[]> passthroughProducer,
+         ExecutorService sender, int maxInFlight, FairQueue<?> fairQueue) {
+        this.name = name;
+        this.priority = priority;
+        this.producer = producer;
+        this.passthroughProducer = passthroughProducer;
+        this.sender = sender;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.latency = Metrics.lanePublishLatency.labels(name);
+        this.inFlightGauge = Metrics.laneInFlight.labels(name);
+        @SuppressWarnings("unchecked")
+        FairQueue<Pending> queue = (FairQueue<Pending>) fairQueue;
+        this.fairQueue = queue;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Position in {@code teuthis.lanes}, 0 being the highest priority; informational,
+     * isolation alone keeps lanes from delaying each other
+     */
+    public int priority() {
+        return priority;
+    }
+
+    public int maxInFlight() {
+        return maxInFlight;
+    }
+
+    public int inFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    Producer<String, byte[]> producer() {
+        return producer;
+    }
+
+    Producer<String, byte[]> passthroughProducer() {
+        return passthroughProducer;
+    }
+
+    /**
+     * Publish through new producers from now on; records already handed to the
+     * previous ones complete there, records still queued for a sender go to the new ones
+     */
+    synchronized void swapProducers(Producer<String, byte[]> producer, Producer<String, byte[]> passthroughProducer) {
+        this.producer = producer;
+        this.passthroughProducer = passthroughProducer;
+    }
+
+    public boolean isFair() {
+        return fairQueue != null;
+    }
+
+    /**
+     * Admit a record for a tenant. The future fails with {@link RejectedException}
+     * when the lane (or, with fair queuing, the tenant queue) is full.
+     */
+    public CompletableFuture<RecordMetadata> submit(String tenant, ProducerRecord<String, byte[]> record,
+                                                    boolean passthrough) {
+        return submit(tenant, record, passthrough, null);
+    }
+
+    /**
+     * {@link #submit(String, ProducerRecord, boolean)}, stamping {@link RequestTimings.Stage#ENQUEUE} when
+     * the record is handed to the producer
+     */
+    public CompletableFuture<RecordMetadata> submit(String tenant, ProducerRecord<String, byte[]> record,
+                                                    boolean passthrough, RequestTimings timings) {
+        if (fairQueue == null) {
+            if (!tryAcquire()) {
+                return CompletableFuture.failedFuture(new RejectedException("Lane " + name + " saturated"));
+            }
+            return send(record, passthrough, timings);
+        }
+
+        Pending pending = new Pending(tenant, record, passthrough, timings, new CompletableFuture<>(), System.nanoTime());
+        boolean queued;
+        synchronized (fairQueue) {
+            queued = fairQueue.offer(tenant, pending, sizeOf(record));
+        }
+        if (!queued) {
+            Metrics.tenantRejected.labels(Lanes.tenantLabel(tenant)).inc();
+            return CompletableFuture.failedFuture(new RejectedException("Queue of tenant " + tenant + " full"));
+        }
+        dispatch();
+        return pending.result();
+    }
+
+    /**
+     * Reserve room for one record, without blocking
+     */
+    public boolean tryAcquire() {
+        if (inFlight.tryAcquire()) {
+            inFlightGauge.inc();
+            return true;
+        }
+        Metrics.laneRejected.labels(name).inc();
+        return false;
+    }
+
+    /**
+     * Give back a permit that will not be used by {@link #send}
+     */
+    public void release() {
+        inFlight.release();
+        inFlightGauge.dec();
+    }
+
+    /**
+     * Send a record admitted with {@link #tryAcquire()}; the permit is released on completion
+     */
+    public CompletableFuture<RecordMetadata> send(ProducerRecord<String, byte[]> record, boolean passthrough) {
+        return send(record, passthrough, null);
+    }
+
+    /**
+     * {@link #send(ProducerRecord, boolean)}, stamping {@link RequestTimings.Stage#ENQUEUE} when the record
+     * is handed to the producer
+     */
+    public CompletableFuture<RecordMetadata> send(ProducerRecord<String, byte[]> record, boolean passthrough,
+                                                  RequestTimings timings) {
+        CompletableFuture<RecordMetadata> result = new CompletableFuture<>();
+        send(record, passthrough, timings, result);
+        return result;
+    }
+
+    private void send(ProducerRecord<String, byte[]> record, boolean passthrough, RequestTimings timings,
+                      CompletableFuture<RecordMetadata> result) {
+        long start = System.nanoTime();
+        try {
+            // producer.send can block on metadata or a full buffer, so it never runs on the caller thread
+            sender.execute(() -> {
+                try {
+                    // Stamped first: a producer may complete the record before send returns
+                    if (timings != null) {
+                        timings.stamp(RequestTimings.Stage.ENQUEUE);
+                    }
+                    // Resolved here, not when queued, so a reload never leaves queued records on a closed producer
+                    Producer<String, byte[]> target = target(passthrough);
+                    try {
+                        CircuitBreakerManager.sendAsync(target, record,
+                            (metadata, exception) -> complete(result, metadata, exception, start));
+                    } catch (IllegalStateException closed) {
+                        // Swapped and closed between resolving and sending
+                        Producer<String, byte[]> current = target(passthrough);
+                        if (current == target) {
+                            throw closed;
+                        }
+                        CircuitBreakerManager.sendAsync(current, record,
+                            (metadata, exception) -> complete(result, metadata, exception, start));
+                    }
+                } catch (RuntimeException e) {
+                    complete(result, null, e, start);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            complete(result, null, e, start);
+        }
+    }
+
+    private Producer<String, byte[]> target(boolean passthrough) {
+        Producer<String, byte[]> compressed = passthroughProducer;
+        return passthrough && compressed != null ? compressed : producer;
+    }
+
+    /**
+     * Hand free permits to queued records in fair order
+     */
+    private void dispatch() {
+        while (inFlight.tryAcquire()) {
+            Pending next;
+            synchronized (fairQueue) {
+                next = fairQueue.poll();
+            }
+            if (next == null) {
+                inFlight.release();
+                // A record queued while the permit was held would otherwise wait for the next completion
+                synchronized (fairQueue) {
+                    if (fairQueue.isEmpty()) {
+                        return;
+                    }
+                }
+                continue;
+            }
+            inFlightGauge.inc();
+            Metrics.tenantQueueTime.labels(Lanes.tenantLabel(next.tenant())).observe((System.nanoTime() - next.enqueued()) / 1_000_000_000.0);
+            send(next.record(), next.passthrough(), next.timings(), next.result());
+        }
+    }
+
+    private static int sizeOf(ProducerRecord<String, byte[]> record) {
+        int size = record.value() != null ? record.value().length : 0;
+        return record.key() != null ? size + record.key().length() : size;
+    }
+
+    void shutdown() {
+        sender.shutdown();
+    }
+
+    private void complete(CompletableFuture<RecordMetadata> result, RecordMetadata metadata, Exception exception,
+                          long start) {
+        release();
+        latency.observe((System.nanoTime() - start) / 1_000_000_000.0);
+        if (fairQueue != null) {
+            dispatch();
+        }
+        if (exception != null) {
+            result.completeExceptionally(exception);
+        } else {
+            result.complete(metadata);
+        }
+    }
+}
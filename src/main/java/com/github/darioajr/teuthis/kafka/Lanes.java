@@ -0,0 +1,237 @@
+package com.github.darioajr.teuthis.kafka;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.darioajr.teuthis.infra.Config;
+
+/**
+ * Topic to priority lane assignment.
+ *
+ * {@code teuthis.lanes} lists lanes from highest to lowest priority. Each lane
+ * takes its topics from {@code teuthis.lanes.<lane>.topics}; topics not
+ * assigned anywhere go to {@code teuthis.lanes.default} (the last lane when
+ * unset). The default lane publishes through the main producer; every other
+ * lane gets its own producer, configured by {@code teuthis.lanes.<lane>.producer.*}.
+ *
+ * Without {@code teuthis.lanes} there is a single "default" lane.
+ *
+ * When a configuration reload changes {@code kafka.*} or a lane's
+ * {@code producer.*} properties, the producers of the lanes other than the
+ * default are rebuilt and swapped in; the old ones are closed once their
+ * in-flight records complete.
+ *
+ * With {@code teuthis.fair.enabled} every lane shares its in-flight budget
+ * across tenants by deficit round robin over bytes, weighted by
+ * {@code teuthis.fair.weight.<tenant>}. Tenant metrics are labelled with the
+ * weighted tenants and the first {@code teuthis.fair.metrics.max.tenants}
+ * others; the rest share the label "other".
+ */
+public class Lanes {
+
+    private static final Logger logger = LoggerFactory.getLogger(Lanes.class);
+
+    public static final String DEFAULT_LANE = "default";
+
+    /**
+     * Creates the producer of a lane
+     */
+    @FunctionalInterface
+    public interface ProducerFactory {
+        Producer<String, byte[]> create(String compressionType, Properties overrides);
+    }
+
+    private static volatile List<Lane> lanes = List.of();
+    private static volatile Map<String, Lane> byTopic = Map.of();
+    private static volatile Lane defaultLane;
+    private static ProducerFactory producerFactory;
+    private static boolean passthrough;
+
+    private static final String OTHER_TENANT = "other";
+    private static final int MAX_TENANT_LABELS = Config.i("teuthis.fair.metrics.max.tenants", 100);
+    // Weighted tenants are always labelled; they do not count towards the cap
+    private static final Set<String> weightedTenants = ConcurrentHashMap.newKeySet();
+    private static final Set<String> tenantLabels = ConcurrentHashMap.newKeySet();
+
+    static {
+        Config.addListener((previous, current) -> {
+            for (Lane lane : lanes) {
+                if (lane != defaultLane && current.changed(previous, "kafka.", "teuthis.lanes." + lane.name() + ".producer.")) {
+                    rebuildProducers(lane);
+                }
+            }
+        });
+    }
+
+    /**
+     * Build the configured lanes. {@code producer} and {@code passthroughProducer}
+     * (may be null) are used by the default lane.
+     */
+    public static synchronized void start(Producer<String, byte[]> producer, Producer<String, byte[]> passthroughProducer,
+                                          boolean passthroughEnabled, ProducerFactory factory) {
+        List<String> names = Config.list("teuthis.lanes");
+        if (names.isEmpty()) {
+            names = List.of(DEFAULT_LANE);
+        }
+        String defaultName = Config.str("teuthis.lanes.default", names.get(names.size() - 1));
+        if (!names.contains(defaultName)) {
+            throw new IllegalArgumentException("teuthis.lanes.default '" + defaultName + "' is not one of teuthis.lanes " + names);
+        }
+
+        producerFactory = factory;
+        passthrough = passthroughEnabled;
+        List<Lane> built = new ArrayList<>(names.size());
+        Map<String, Lane> topics = new HashMap<>();
+        Lane fallback = null;
+        for (int priority = 0; priority < names.size(); priority++) {
+            String name = names.get(priority);
+            String prefix = "teuthis.lanes." + name + ".";
+            boolean isDefault = name.equals(defaultName);
+
+            int threads = Config.i(prefix + "threads", isDefault ? Math.max(1, Config.i("kafka.thread.pool.size", 1)) : 1);
+            int maxInFlight = Config.i(prefix + "max.in.flight", Config.i("teuthis.lanes.max.in.flight", 10000));
+
+            Producer<String, byte[]> laneProducer = producer;
+            Producer<String, byte[]> lanePassthrough = passthroughProducer;
+            if (!isDefault) {
+                Properties overrides = overrides(name);
+                laneProducer = factory.create(Config.str("kafka.compression.type"), overrides);
+                lanePassthrough = passthroughEnabled ? factory.create("none", overrides) : null;
+            }
+
+            Lane lane = new Lane(name, priority, laneProducer, lanePassthrough, sender(name, threads), maxInFlight,
+                                 fairQueue());
+            built.add(lane);
+            for (String topic : Config.list(prefix + "topics")) {
+                Lane previous = topics.putIfAbsent(topic, lane);
+                if (previous != null) {
+                    throw new IllegalArgumentException("Topic " + topic + " assigned to lanes " + previous.name() + " and " + name);
+                }
+            }
+            if (isDefault) {
+                fallback = lane;
+            }
+            logger.info("✅ Lane {} (priority {}): {} sender threads, {} in flight, topics {}",
+                       name, priority, threads, maxInFlight, isDefault ? "<default>" : Config.list(prefix + "topics"));
+        }
+
+        lanes = List.copyOf(built);
+        byTopic = Map.copyOf(topics);
+        defaultLane = fallback;
+    }
+
+    /**
+     * Metric label of a tenant, bounding the label cardinality
+     */
+    static String tenantLabel(String tenant) {
+        if (weightedTenants.contains(tenant) || tenantLabels.contains(tenant)) {
+            return tenant;
+        }
+        synchronized (tenantLabels) {
+            if (tenantLabels.size() < MAX_TENANT_LABELS) {
+                tenantLabels.add(tenant);
+                return tenant;
+            }
+        }
+        return OTHER_TENANT;
+    }
+
+    /**
+     * Lane serving a topic
+     */
+    public static Lane forTopic(String topic) {
+        Lane lane = byTopic.get(topic);
+        return lane != null ? lane : defaultLane;
+    }
+
+    /**
+     * All lanes, highest priority first
+     */
+    public static List<Lane> all() {
+        return lanes;
+    }
+
+    /**
+     * Stop sender threads and close the producers owned by lanes
+     */
+    public static synchronized void shutdown() {
+        for (Lane lane : lanes) {
+            lane.shutdown();
+            if (lane != defaultLane) {
+                lane.producer().close();
+                if (lane.passthroughProducer() != null) {
+                    lane.passthroughProducer().close();
+                }
+            }
+        }
+        lanes = List.of();
+        byTopic = Map.of();
+        defaultLane = null;
+    }
+
+    /**
+     * Per-lane tenant queue, or null when fair queuing is disabled
+     */
+    private static FairQueue<?> fairQueue() {
+        if (!Config.b("teuthis.fair.enabled", false)) {
+            return null;
+        }
+        Map<String, Integer> weights = new HashMap<>();
+        Config.withPrefix("teuthis.fair.weight.").forEach((tenant, weight) -> weights.put(tenant, Integer.parseInt(weight.trim())));
+        weightedTenants.addAll(weights.keySet());
+        int defaultWeight = Config.i("teuthis.fair.default.weight", 1);
+        return new FairQueue<>(Config.i("teuthis.fair.quantum.bytes", 16384),
+                               tenant -> weights.getOrDefault(tenant, defaultWeight),
+                               Config.i("teuthis.fair.tenant.max.queued", 1000),
+                               Config.l("teuthis.fair.tenant.max.queued.bytes", 16L * 1024 * 1024));
+    }
+
+    private static Properties overrides(String lane) {
+        Properties overrides = new Properties();
+        overrides.put(ProducerConfig.CLIENT_ID_CONFIG, "teuthis-" + lane);
+        overrides.putAll(Config.withPrefix("teuthis.lanes." + lane + ".producer."));
+        return overrides;
+    }
+
+    private static synchronized void rebuildProducers(Lane lane) {
+        Properties overrides = overrides(lane.name());
+        Producer<String, byte[]> oldProducer = lane.producer();
+        Producer<String, byte[]> oldPassthrough = lane.passthroughProducer();
+        lane.swapProducers(producerFactory.create(Config.str("kafka.compression.type"), overrides),
+                           passthrough ? producerFactory.create("none", overrides) : null);
+        logger.info("🔄 Lane {} producers rebuilt with the new configuration", lane.name());
+
+        // close() waits for in-flight records, so it must not hold up the reload
+        Thread closer = new Thread(() -> {
+            oldProducer.close(Duration.ofSeconds(30));
+            if (oldPassthrough != null) {
+                oldPassthrough.close(Duration.ofSeconds(30));
+            }
+        }, "kafka-lane-" + lane.name() + "-close");
+        closer.setDaemon(true);
+        closer.start();
+    }
+
+    private static ExecutorService sender(String lane, int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "kafka-lane-" + lane + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
@@ -0,0 +1,56 @@
+package com.github.darioajr.teuthis.kafka;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import io.netty.handler.codec.http.QueryStringDecoder;
+
+/**
+ * Topics targeted by a publish request.
+ *
+ * {@code /publish/{topic}} targets a single topic. {@code /publish?topics=a,b,c}
+ * fans the same payload out to every listed topic (duplicates removed, order
+ * kept); {@code atomic=true} asks for all-or-nothing delivery.
+ */
+public record PublishRoute(List<String> topics, boolean fanOut, boolean atomic) {
+
+    public static final String TOPICS_PARAM = "topics";
+    public static final String ATOMIC_PARAM = "atomic";
+
+    /**
+     * Parse a request URI, returning null when it is not a publish path
+     */
+    public static PublishRoute parse(String uri) {
+        return parse(new QueryStringDecoder(uri));
+    }
+
+    /**
+     * Parse a decoded request URI, returning null when it is not a publish path
+     */
+    public static PublishRoute parse(QueryStringDecoder decoder) {
+        String[] segments = decoder.path().split("/");
+        if (segments.length < 2 || !segments[1].equals("publish")) {
+            return null;
+        }
+        if (segments.length == 3) {
+            return new PublishRoute(List.of(segments[2]), false, false);
+        }
+        if (segments.length != 2) {
+            return null;
+        }
+
+        Set<String> topics = new LinkedHashSet<>();
+        for (String value : decoder.parameters().getOrDefault(TOPICS_PARAM, List.of())) {
+            for (String topic : value.split(",")) {
+                String trimmed = topic.trim();
+                if (!trimmed.isEmpty()) {
+                    topics.add(trimmed);
+                }
+            }
+        }
+        List<String> atomic = decoder.parameters().get(ATOMIC_PARAM);
+        return new PublishRoute(List.copyOf(topics), true,
+                                atomic != null && !atomic.isEmpty() && Boolean.parseBoolean(atomic.get(0)));
+    }
+}
@@ -8,6 +8,7 @@ import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.darioajr.teuthis.security.AuthenticationHandler;
 import com.github.darioajr.teuthis.security.JwtValidator;
 
 import io.netty.buffer.Unpooled;
@@ -67,7 +68,7 @@ public class QueueCleanupHandler extends SimpleChannelInboundHandler<FullHttpReq
             }
             
             // Autenticação (se habilitada)
-            if (authRequired && !isAuthenticated(request)) {
+            if (authRequired && !isAuthenticated(ctx, request)) {
                 securityLogger.warn("Unauthorized queue cleanup attempt from {}", clientIp);
                 sendResponse(ctx, HttpResponseStatus.UNAUTHORIZED, 
                            "{\"error\":\"Authentication required for queue operations\"}");
@@ -166,9 +167,13 @@ public class QueueCleanupHandler extends SimpleChannelInboundHandler<FullHttpReq
     }
     
     /**
-     * Verifica autenticação JWT.
+     * Verifica autenticação JWT, reaproveitando o principal do AuthenticationHandler.
      */
-    private boolean isAuthenticated(FullHttpRequest request) {
+    private boolean isAuthenticated(ChannelHandlerContext ctx, FullHttpRequest request) {
+        if (AuthenticationHandler.principal(ctx) != null) {
+            return true;
+        }
+        
         String authHeader = request.headers().get(HttpHeaderNames.AUTHORIZATION);
         
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -176,7 +181,7 @@ public class QueueCleanupHandler extends SimpleChannelInboundHandler<FullHttpReq
         }
         
         String token = authHeader.substring(7);
-        return JwtValidator.validate(token);
+        return JwtValidator.authenticate(token) != null;
     }
     
     /**
@@ -0,0 +1,470 @@
+package com.github.darioajr.teuthis.schema;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.EncoderFactory;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Converts plain JSON documents into Avro binary for one schema version.
+ *
+ * The schema is compiled once into a tree of field plans (name lookup tables,
+ * defaults, union branch selection), and each document is converted straight
+ * from the Jackson token stream into an Avro record without building a JSON tree.
+ * Unions are resolved from the JSON token type (null, then the first compatible
+ * branch); bytes and fixed values are read as ISO-8859-1 strings as in Avro's
+ * own JSON encoding.
+ */
+public final class JsonAvroConverter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final ThreadLocal<ByteArrayOutputStream> BUFFER_CACHE =
+        ThreadLocal.withInitial(() -> new ByteArrayOutputStream(1024));
+    private static final ThreadLocal<BinaryEncoder> ENCODER_CACHE = new ThreadLocal<>();
+
+    private final Schema schema;
+    private final long fingerprint;
+    private final Plan root;
+    private final DatumWriter<GenericRecord> writer;
+
+    private JsonAvroConverter(Schema schema) {
+        if (schema.getType() != Schema.Type.RECORD) {
+            throw new IllegalArgumentException("Top-level Avro schema must be a record: " + schema.getFullName());
+        }
+        this.schema = schema;
+        this.fingerprint = SchemaNormalization.parsingFingerprint64(schema);
+        this.root = compile(schema, new IdentityHashMap<>());
+        this.writer = new GenericDatumWriter<>(schema);
+    }
+
+    /**
+     * Compile a converter for a record schema
+     */
+    public static JsonAvroConverter compile(Schema schema) {
+        return new JsonAvroConverter(schema);
+    }
+
+    public Schema schema() {
+        return schema;
+    }
+
+    /**
+     * Parsing Canonical Form fingerprint identifying this schema version
+     */
+    public long fingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Convert a JSON document into an Avro record
+     */
+    public GenericRecord toRecord(byte[] json) {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                throw new ConversionException("empty document");
+            }
+            Object value = root.read(parser, token);
+            if (parser.nextToken() != null) {
+                throw new ConversionException("unexpected trailing content");
+            }
+            return (GenericRecord) value;
+        } catch (JsonProcessingException e) {
+            throw new ConversionException("malformed JSON - " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new ConversionException("unreadable payload - " + e.getMessage());
+        }
+    }
+
+    /**
+     * Convert a JSON document into Avro binary encoding
+     */
+    public byte[] convert(byte[] json) {
+        return convert(json, -1);
+    }
+
+    /**
+     * Convert a JSON document into Avro binary encoding, prefixed with the schema
+     * registry wire format header when {@code schemaId} is not negative
+     */
+    public byte[] convert(byte[] json, int schemaId) {
+        GenericRecord record = toRecord(json);
+        ByteArrayOutputStream out = BUFFER_CACHE.get();
+        out.reset();
+        try {
+            if (schemaId >= 0) {
+                SchemaRegistry.writeHeader(out, schemaId);
+            }
+            BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, ENCODER_CACHE.get());
+            ENCODER_CACHE.set(encoder);
+            writer.write(record, encoder);
+            encoder.flush();
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new ConversionException("Avro encoding failed - " + e.getMessage());
+        }
+    }
+
+    private static Plan compile(Schema schema, Map<Schema, RecordPlan> records) {
+        return switch (schema.getType()) {
+            case RECORD -> compileRecord(schema, records);
+            case ARRAY -> new ArrayPlan(schema, compile(schema.getElementType(), records));
+            case MAP -> new MapPlan(compile(schema.getValueType(), records));
+            case UNION -> compileUnion(schema, records);
+            case ENUM -> new EnumPlan(schema);
+            case FIXED -> new BytesPlan(schema, schema.getFixedSize());
+            case BYTES -> new BytesPlan(null, -1);
+            case STRING -> new ScalarPlan(Schema.Type.STRING);
+            case INT, LONG, FLOAT, DOUBLE, BOOLEAN, NULL -> new ScalarPlan(schema.getType());
+        };
+    }
+
+    private static Plan compileRecord(Schema schema, Map<Schema, RecordPlan> records) {
+        RecordPlan existing = records.get(schema);
+        if (existing != null) {
+            return existing; // recursive reference
+        }
+        RecordPlan plan = new RecordPlan(schema);
+        records.put(schema, plan);
+        for (Schema.Field field : schema.getFields()) {
+            plan.fields.put(field.name(), new FieldPlan(field.pos(), compile(field.schema(), records)));
+            for (String alias : field.aliases()) {
+                plan.fields.putIfAbsent(alias, plan.fields.get(field.name()));
+            }
+            if (field.hasDefaultValue()) {
+                plan.defaults[field.pos()] = GenericData.get().getDefaultValue(field);
+                plan.hasDefault[field.pos()] = true;
+            } else if (isNullable(field.schema())) {
+                plan.hasDefault[field.pos()] = true;
+            }
+        }
+        return plan;
+    }
+
+    private static Plan compileUnion(Schema schema, Map<Schema, RecordPlan> records) {
+        UnionPlan plan = new UnionPlan(schema);
+        for (Schema branch : schema.getTypes()) {
+            Plan compiled = compile(branch, records);
+            switch (branch.getType()) {
+                case NULL -> plan.nullBranch = compiled;
+                case BOOLEAN -> plan.booleanBranch = first(plan.booleanBranch, compiled);
+                case INT, LONG -> plan.integerBranch = first(plan.integerBranch, compiled);
+                case FLOAT, DOUBLE -> plan.floatBranch = first(plan.floatBranch, compiled);
+                case STRING, ENUM, BYTES, FIXED -> plan.stringBranch = first(plan.stringBranch, compiled);
+                case RECORD, MAP -> plan.objectBranch = first(plan.objectBranch, compiled);
+                case ARRAY -> plan.arrayBranch = first(plan.arrayBranch, compiled);
+                default -> { }
+            }
+        }
+        if (plan.floatBranch == null) {
+            plan.floatBranch = plan.integerBranch;
+        }
+        if (plan.integerBranch == null) {
+            plan.integerBranch = plan.floatBranch;
+        }
+        return plan;
+    }
+
+    private static Plan first(Plan current, Plan candidate) {
+        return current != null ? current : candidate;
+    }
+
+    private static boolean isNullable(Schema schema) {
+        if (schema.getType() == Schema.Type.NULL) {
+            return true;
+        }
+        return schema.getType() == Schema.Type.UNION
+            && schema.getTypes().stream().anyMatch(s -> s.getType() == Schema.Type.NULL);
+    }
+
+    /**
+     * Compiled conversion step for one schema node
+     */
+    private interface Plan {
+        Object read(JsonParser p, JsonToken token) throws IOException;
+    }
+
+    private record FieldPlan(int pos, Plan plan) {}
+
+    private static final class RecordPlan implements Plan {
+        private final Schema schema;
+        private final Map<String, FieldPlan> fields = new HashMap<>();
+        private final Object[] defaults;
+        private final boolean[] hasDefault;
+
+        RecordPlan(Schema schema) {
+            this.schema = schema;
+            this.defaults = new Object[schema.getFields().size()];
+            this.hasDefault = new boolean[schema.getFields().size()];
+        }
+
+        @Override
+        public Object read(JsonParser p, JsonToken token) throws IOException {
+            if (token != JsonToken.START_OBJECT) {
+                throw mismatch("record " + schema.getName(), token);
+            }
+            GenericData.Record record = new GenericData.Record(schema);
+            boolean[] seen = new boolean[defaults.length];
+
+            while ((token = p.nextToken()) == JsonToken.FIELD_NAME) {
+                String name = p.currentName();
+                JsonToken valueToken = p.nextToken();
+                FieldPlan field = fields.get(name);
+                if (field == null) {
+                    p.skipChildren(); // unknown JSON fields are dropped
+                    continue;
+                }
+                try {
+                    record.put(field.pos(), field.plan().read(p, valueToken));
+                } catch (ConversionException e) {
+                    throw e.under("." + name);
+                }
+                seen[field.pos()] = true;
+            }
+
+            for (int i = 0; i < seen.length; i++) {
+                if (!seen[i]) {
+                    if (!hasDefault[i]) {
+                        throw new ConversionException("missing required field '"
+                            + schema.getFields().get(i).name() + "'");
+                    }
+                    Object value = defaults[i];
+                    record.put(i, value == null ? null : GenericData.get().deepCopy(schema.getFields().get(i).schema(), value));
+                }
+            }
+            return record;
+        }
+    }
+
+    private static final class ArrayPlan implements Plan {
+        private final Schema schema;
+        private final Plan element;
+
+        ArrayPlan(Schema schema, Plan element) {
+            this.schema = schema;
+            this.element = element;
+        }
+
+        @Override
+        public Object read(JsonParser p, JsonToken token) throws IOException {
+            if (token != JsonToken.START_ARRAY) {
+                throw mismatch("array", token);
+            }
+            List<Object> values = new ArrayList<>();
+            while ((token = p.nextToken()) != JsonToken.END_ARRAY) {
+                try {
+                    values.add(element.read(p, token));
+                } catch (ConversionException e) {
+                    throw e.under("[" + values.size() + "]");
+                }
+            }
+            return new GenericData.Array<>(schema, values);
+        }
+    }
+
+    private static final class MapPlan implements Plan {
+        private final Plan value;
+
+        MapPlan(Plan value) {
+            this.value = value;
+        }
+
+        @Override
+        public Object read(JsonParser p, JsonToken token) throws IOException {
+            if (token != JsonToken.START_OBJECT) {
+                throw mismatch("map", token);
+            }
+            Map<String, Object> values = new HashMap<>();
+            while ((token = p.nextToken()) == JsonToken.FIELD_NAME) {
+                String key = p.currentName();
+                try {
+                    values.put(key, value.read(p, p.nextToken()));
+                } catch (ConversionException e) {
+                    throw e.under("." + key);
+                }
+            }
+            return values;
+        }
+    }
+
+    private static final class UnionPlan implements Plan {
+        private final Schema schema;
+        Plan nullBranch;
+        Plan booleanBranch;
+        Plan integerBranch;
+        Plan floatBranch;
+        Plan stringBranch;
+        Plan objectBranch;
+        Plan arrayBranch;
+
+        UnionPlan(Schema schema) {
+            this.schema = schema;
+        }
+
+        @Override
+        public Object read(JsonParser p, JsonToken token) throws IOException {
+            Plan branch = switch (token) {
+                case VALUE_NULL -> nullBranch;
+                case VALUE_TRUE, VALUE_FALSE -> booleanBranch;
+                case VALUE_NUMBER_INT -> integerBranch;
+                case VALUE_NUMBER_FLOAT -> floatBranch;
+                case VALUE_STRING -> stringBranch;
+                case START_OBJECT -> objectBranch;
+                case START_ARRAY -> arrayBranch;
+                default -> null;
+            };
+            if (branch == null) {
+                throw mismatch(schema.toString(), token);
+            }
+            return branch.read(p, token);
+        }
+    }
+
+    private static final class EnumPlan implements Plan {
+        private final Schema schema;
+
+        EnumPlan(Schema schema) {
+            this.schema = schema;
+        }
+
+        @Override
+        public Object read(JsonParser p, JsonToken token) throws IOException {
+            if (token != JsonToken.VALUE_STRING) {
+                throw mismatch("enum " + schema.getName(), token);
+            }
+            String symbol = p.getText();
+            if (!schema.hasEnumSymbol(symbol)) {
+                throw new ConversionException("'" + symbol + "' is not a symbol of " + schema.getName());
+            }
+            return new GenericData.EnumSymbol(schema, symbol);
+        }
+    }
+
+    private static final class BytesPlan implements Plan {
+        private final Schema fixedSchema;
+        private final int size;
+
+        BytesPlan(Schema fixedSchema, int size) {
+            this.fixedSchema = fixedSchema;
+            this.size = size;
+        }
+
+        @Override
+        public Object read(JsonParser p, JsonToken token) throws IOException {
+            if (token != JsonToken.VALUE_STRING) {
+                throw mismatch(fixedSchema != null ? "fixed" : "bytes", token);
+            }
+            byte[] bytes = p.getText().getBytes(StandardCharsets.ISO_8859_1);
+            if (fixedSchema == null) {
+                return ByteBuffer.wrap(bytes);
+            }
+            if (bytes.length != size) {
+                throw new ConversionException("expected " + size + " bytes but found " + bytes.length);
+            }
+            return new GenericData.Fixed(fixedSchema, bytes);
+        }
+    }
+
+    private static final class ScalarPlan implements Plan {
+        private final Schema.Type type;
+
+        ScalarPlan(Schema.Type type) {
+            this.type = type;
+        }
+
+        @Override
+        public Object read(JsonParser p, JsonToken token) throws IOException {
+            switch (type) {
+                case NULL:
+                    if (token == JsonToken.VALUE_NULL) return null;
+                    break;
+                case BOOLEAN:
+                    if (token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE) return token == JsonToken.VALUE_TRUE;
+                    break;
+                case STRING:
+                    if (token == JsonToken.VALUE_STRING) return p.getText();
+                    break;
+                case INT:
+                    if (token == JsonToken.VALUE_NUMBER_INT) {
+                        if (p.getNumberType() != JsonParser.NumberType.INT) {
+                            throw new ConversionException("value out of int range");
+                        }
+                        return p.getIntValue();
+                    }
+                    break;
+                case LONG:
+                    if (token == JsonToken.VALUE_NUMBER_INT) {
+                        if (p.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+                            throw new ConversionException("value out of long range");
+                        }
+                        return p.getLongValue();
+                    }
+                    break;
+                case FLOAT:
+                    if (token.isNumeric()) return p.getFloatValue();
+                    break;
+                case DOUBLE:
+                    if (token.isNumeric()) return p.getDoubleValue();
+                    break;
+                default:
+                    break;
+            }
+            throw mismatch(type.getName(), token);
+        }
+    }
+
+    private static ConversionException mismatch(String expected, JsonToken found) {
+        return new ConversionException("expected " + expected + " but found " + found);
+    }
+
+    /**
+     * Raised when a JSON document cannot be mapped onto the topic schema.
+     * The JSON path is assembled while the failure unwinds, so successful
+     * conversions never build path strings.
+     */
+    public static class ConversionException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final String path;
+        private final String detail;
+
+        public ConversionException(String detail) {
+            this("", detail);
+        }
+
+        private ConversionException(String path, String detail) {
+            super(null, null, false, false);
+            this.path = path;
+            this.detail = detail;
+        }
+
+        ConversionException under(String segment) {
+            return new ConversionException(segment + path, detail);
+        }
+
+        @Override
+        public String getMessage() {
+            return "$" + path + ": " + detail;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.darioajr.teuthis.schema;
+
+import java.nio.file.Paths;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.darioajr.teuthis.infra.Config;
+
+/**
+ * Per-topic JSON Schema cache.
+ *
+ * Schemas are read from {@code <dir>/<topic>.schema.json}, compiled once into
+ * {@link JsonSchemaValidator} instances and swapped in place when the file
+ * changes. A schema that fails to compile never replaces the last good one.
+ */
+public class JsonSchemaRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(JsonSchemaRegistry.class);
+
+    private static final boolean ENABLED = Config.b("teuthis.schema.json.enabled", false);
+    private static final long RELOAD_INTERVAL = Config.l("teuthis.schema.json.reload.interval.ms", 5000L);
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static final SchemaDirectory<JsonSchemaValidator> schemas = new SchemaDirectory<>(
+        "JSON Schema",
+        Paths.get(Config.str("teuthis.schema.json.dir", "schemas/json")),
+        ".schema.json",
+        (topic, file) -> JsonSchemaValidator.compile(mapper.readTree(file.toFile()), file.toString()));
+
+    static {
+        if (ENABLED) {
+            schemas.reload();
+            schemas.startReloading(RELOAD_INTERVAL, "json-schema-reloader");
+            logger.info("✅ JSON Schema validation enabled from {} ({} schemas)", schemas.dir(), schemas.size());
+        }
+    }
+
+    /**
+     * Check if per-topic schema enforcement is enabled
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Get the compiled validator for a topic, or null when the topic has no schema
+     */
+    public static JsonSchemaValidator forTopic(String topic) {
+        return ENABLED ? schemas.get(topic) : null;
+    }
+
+    /**
+     * Rescan the schema directory, compiling new or modified schemas and dropping removed ones
+     */
+    public static void reload() {
+        schemas.reload();
+    }
+
+    /**
+     * Stop the background reloader
+     */
+    public static void shutdown() {
+        schemas.shutdown();
+    }
+}
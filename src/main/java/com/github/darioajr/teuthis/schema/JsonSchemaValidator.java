@@ -0,0 +1,530 @@
+package com.github.darioajr.teuthis.schema;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * JSON Schema validator compiled once from a schema document and evaluated
+ * directly on the Jackson token stream, so payloads are never materialized
+ * into a tree.
+ *
+ * Supported keywords: type, properties, required, additionalProperties, items,
+ * enum, const, minLength, maxLength, pattern, minimum, maximum,
+ * exclusiveMinimum, exclusiveMaximum (numeric, or draft-4 booleans), minItems,
+ * maxItems. Annotations ($schema, $id, title, description, default, examples,
+ * format, ...) are accepted and ignored; any other keyword, composition
+ * ($ref, allOf, anyOf, oneOf, not, if) included, is rejected at compile time
+ * rather than silently ignored.
+ */
+public final class JsonSchemaValidator {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final Set<String> SUPPORTED_KEYWORDS = Set.of(
+        "type", "properties", "required", "additionalProperties", "items", "enum", "const",
+        "minLength", "maxLength", "pattern", "minimum", "maximum", "exclusiveMinimum", "exclusiveMaximum",
+        "minItems", "maxItems");
+
+    // No effect on validation; definitions are only reachable through the rejected $ref
+    private static final Set<String> ANNOTATION_KEYWORDS = Set.of(
+        "$schema", "$id", "id", "$comment", "title", "description", "default", "examples", "format",
+        "deprecated", "readOnly", "writeOnly", "definitions", "$defs");
+
+    private static final int T_NULL = 1;
+    private static final int T_BOOLEAN = 1 << 1;
+    private static final int T_INTEGER = 1 << 2;
+    private static final int T_NUMBER = 1 << 3;
+    private static final int T_STRING = 1 << 4;
+    private static final int T_OBJECT = 1 << 5;
+    private static final int T_ARRAY = 1 << 6;
+
+    private static final Object NULL_VALUE = new Object();
+
+    private final Node root;
+    private final String version;
+
+    private JsonSchemaValidator(Node root, String version) {
+        this.root = root;
+        this.version = version;
+    }
+
+    /**
+     * Compile a parsed schema document into a reusable validator
+     */
+    public static JsonSchemaValidator compile(JsonNode schema, String version) {
+        return new JsonSchemaValidator(compileNode(schema, "#"), version);
+    }
+
+    /**
+     * Identifier of the schema source this validator was compiled from
+     */
+    public String version() {
+        return version;
+    }
+
+    /**
+     * Validate a JSON document, returning the first violation or null when valid
+     */
+    public String validate(byte[] json) {
+        return validate(new ByteArrayInputStream(json));
+    }
+
+    /**
+     * Validate a JSON document, returning the first violation or null when valid
+     */
+    public String validate(InputStream json) {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return "$: empty document";
+            }
+            PathStack path = new PathStack();
+            validateValue(parser, token, root, path);
+            if (parser.nextToken() != null) {
+                return "$: unexpected trailing content";
+            }
+            return null;
+        } catch (Violation v) {
+            return v.getMessage();
+        } catch (JsonProcessingException e) {
+            return "$: malformed JSON - " + e.getOriginalMessage();
+        } catch (IOException e) {
+            return "$: unreadable payload - " + e.getMessage();
+        }
+    }
+
+    private static void validateValue(JsonParser p, JsonToken token, Node node, PathStack path)
+            throws IOException, Violation {
+        switch (token) {
+            case START_OBJECT -> validateObject(p, node, path);
+            case START_ARRAY -> validateArray(p, node, path);
+            case VALUE_STRING -> validateString(p, node, path);
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> validateNumber(p, token, node, path);
+            case VALUE_TRUE, VALUE_FALSE -> {
+                requireType(node, T_BOOLEAN, "boolean", path);
+                checkEnum(node, token == JsonToken.VALUE_TRUE, path);
+            }
+            case VALUE_NULL -> {
+                requireType(node, T_NULL, "null", path);
+                checkEnum(node, NULL_VALUE, path);
+            }
+            default -> throw new Violation(path.render() + ": unexpected token " + token);
+        }
+    }
+
+    private static void validateObject(JsonParser p, Node node, PathStack path) throws IOException, Violation {
+        requireType(node, T_OBJECT, "object", path);
+        boolean[] seen = node.required.length > 0 ? new boolean[node.required.length] : null;
+
+        JsonToken token;
+        while ((token = p.nextToken()) == JsonToken.FIELD_NAME) {
+            String name = p.currentName();
+            JsonToken valueToken = p.nextToken();
+            Node child = node.properties.get(name);
+
+            if (seen != null) {
+                Integer idx = node.requiredIndex.get(name);
+                if (idx != null) {
+                    seen[idx] = true;
+                }
+            }
+
+            if (child != null) {
+                path.push(name);
+                validateValue(p, valueToken, child, path);
+                path.pop();
+            } else if (!node.additionalAllowed) {
+                throw new Violation(path.render() + ": additional property '" + name + "' is not allowed");
+            } else if (node.additionalSchema != null) {
+                path.push(name);
+                validateValue(p, valueToken, node.additionalSchema, path);
+                path.pop();
+            } else {
+                p.skipChildren();
+            }
+        }
+
+        if (token != JsonToken.END_OBJECT) {
+            throw new Violation(path.render() + ": unexpected token " + token);
+        }
+        if (seen != null) {
+            for (int i = 0; i < seen.length; i++) {
+                if (!seen[i]) {
+                    throw new Violation(path.render() + ": missing required property '" + node.required[i] + "'");
+                }
+            }
+        }
+    }
+
+    private static void validateArray(JsonParser p, Node node, PathStack path) throws IOException, Violation {
+        requireType(node, T_ARRAY, "array", path);
+        int count = 0;
+        JsonToken token;
+        while ((token = p.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new Violation(path.render() + ": unterminated array");
+            }
+            if (node.items != null) {
+                path.push(count);
+                validateValue(p, token, node.items, path);
+                path.pop();
+            } else {
+                p.skipChildren();
+            }
+            count++;
+            if (node.maxItems >= 0 && count > node.maxItems) {
+                throw new Violation(path.render() + ": array has more than " + node.maxItems + " items");
+            }
+        }
+        if (node.minItems >= 0 && count < node.minItems) {
+            throw new Violation(path.render() + ": array has fewer than " + node.minItems + " items");
+        }
+    }
+
+    private static void validateString(JsonParser p, Node node, PathStack path) throws IOException, Violation {
+        requireType(node, T_STRING, "string", path);
+        if (!node.hasStringConstraints) {
+            return;
+        }
+        String value = p.getText();
+        if (node.minLength >= 0 || node.maxLength >= 0) {
+            int length = value.codePointCount(0, value.length());
+            if (node.minLength >= 0 && length < node.minLength) {
+                throw new Violation(path.render() + ": string shorter than " + node.minLength);
+            }
+            if (node.maxLength >= 0 && length > node.maxLength) {
+                throw new Violation(path.render() + ": string longer than " + node.maxLength);
+            }
+        }
+        if (node.pattern != null && !node.pattern.matcher(value).find()) {
+            throw new Violation(path.render() + ": string does not match pattern " + node.pattern.pattern());
+        }
+        checkEnum(node, value, path);
+    }
+
+    private static void validateNumber(JsonParser p, JsonToken token, Node node, PathStack path)
+            throws IOException, Violation {
+        if (node.types != 0) {
+            boolean integral = token == JsonToken.VALUE_NUMBER_INT
+                || (p.getDoubleValue() % 1 == 0 && !Double.isInfinite(p.getDoubleValue()));
+            boolean allowed = (node.types & T_NUMBER) != 0 || (integral && (node.types & T_INTEGER) != 0);
+            if (!allowed) {
+                throw new Violation(path.render() + ": expected " + node.typeNames + " but found "
+                    + (integral ? "integer" : "number"));
+            }
+        }
+        if (!node.hasNumberConstraints) {
+            return;
+        }
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            checkIntegerBounds(p.getDecimalValue(), node, path);
+        } else {
+            checkBounds(p.getDoubleValue(), node, path);
+        }
+        if (node.enumValues != null) {
+            checkEnum(node, p.getDecimalValue().stripTrailingZeros(), path);
+        }
+    }
+
+    private static void checkBounds(double value, Node node, PathStack path) throws Violation {
+        if (value < node.minimum) {
+            throw new Violation(path.render() + ": value below minimum " + node.minimum);
+        }
+        if (value <= node.exclusiveMinimum) {
+            throw new Violation(path.render() + ": value not above exclusive minimum " + node.exclusiveMinimum);
+        }
+        if (value > node.maximum) {
+            throw new Violation(path.render() + ": value above maximum " + node.maximum);
+        }
+        if (value >= node.exclusiveMaximum) {
+            throw new Violation(path.render() + ": value not below exclusive maximum " + node.exclusiveMaximum);
+        }
+    }
+
+    /**
+     * Integers past 2^53 lose precision as doubles, so they are compared exactly
+     */
+    private static void checkIntegerBounds(BigDecimal value, Node node, PathStack path) throws Violation {
+        if (node.exactMinimum != null && value.compareTo(node.exactMinimum) < 0) {
+            throw new Violation(path.render() + ": value below minimum " + node.minimum);
+        }
+        if (node.exactExclusiveMinimum != null && value.compareTo(node.exactExclusiveMinimum) <= 0) {
+            throw new Violation(path.render() + ": value not above exclusive minimum " + node.exclusiveMinimum);
+        }
+        if (node.exactMaximum != null && value.compareTo(node.exactMaximum) > 0) {
+            throw new Violation(path.render() + ": value above maximum " + node.maximum);
+        }
+        if (node.exactExclusiveMaximum != null && value.compareTo(node.exactExclusiveMaximum) >= 0) {
+            throw new Violation(path.render() + ": value not below exclusive maximum " + node.exclusiveMaximum);
+        }
+    }
+
+    private static void requireType(Node node, int type, String found, PathStack path) throws Violation {
+        if (node.types != 0 && (node.types & type) == 0) {
+            throw new Violation(path.render() + ": expected " + node.typeNames + " but found " + found);
+        }
+    }
+
+    private static void checkEnum(Node node, Object value, PathStack path) throws Violation {
+        if (node.enumValues != null && !node.enumValues.contains(value)) {
+            throw new Violation(path.render() + ": value is not one of the allowed values");
+        }
+    }
+
+    private static Node compileNode(JsonNode schema, String location) {
+        Node node = new Node();
+        if (schema.isBoolean()) {
+            if (!schema.booleanValue()) {
+                throw new IllegalArgumentException(location + ": boolean 'false' schemas are not supported");
+            }
+            return node;
+        }
+        if (!schema.isObject()) {
+            throw new IllegalArgumentException(location + ": schema must be an object");
+        }
+
+        Iterator<String> names = schema.fieldNames();
+        while (names.hasNext()) {
+            String keyword = names.next();
+            if (!SUPPORTED_KEYWORDS.contains(keyword) && !ANNOTATION_KEYWORDS.contains(keyword)) {
+                throw new IllegalArgumentException(location + ": unsupported keyword '" + keyword + "'");
+            }
+        }
+
+        JsonNode type = schema.get("type");
+        if (type != null) {
+            if (type.isArray()) {
+                StringBuilder typeNames = new StringBuilder();
+                for (JsonNode t : type) {
+                    node.types |= typeBit(t.asText(), location);
+                    if (typeNames.length() > 0) typeNames.append('|');
+                    typeNames.append(t.asText());
+                }
+                node.typeNames = typeNames.toString();
+            } else {
+                node.types = typeBit(type.asText(), location);
+                node.typeNames = type.asText();
+            }
+        }
+
+        JsonNode properties = schema.get("properties");
+        if (properties != null) {
+            node.properties = new HashMap<>();
+            properties.fields().forEachRemaining(e ->
+                node.properties.put(e.getKey(), compileNode(e.getValue(), location + "/properties/" + e.getKey())));
+        }
+
+        JsonNode required = schema.get("required");
+        if (required != null && required.isArray()) {
+            node.required = new String[required.size()];
+            node.requiredIndex = new HashMap<>();
+            for (int i = 0; i < required.size(); i++) {
+                node.required[i] = required.get(i).asText();
+                node.requiredIndex.put(node.required[i], i);
+            }
+        }
+
+        JsonNode additional = schema.get("additionalProperties");
+        if (additional != null) {
+            if (additional.isBoolean()) {
+                node.additionalAllowed = additional.booleanValue();
+            } else {
+                node.additionalSchema = compileNode(additional, location + "/additionalProperties");
+            }
+        }
+
+        JsonNode items = schema.get("items");
+        if (items != null) {
+            node.items = compileNode(items, location + "/items");
+        }
+        node.minItems = schema.path("minItems").asInt(-1);
+        node.maxItems = schema.path("maxItems").asInt(-1);
+
+        node.minLength = schema.path("minLength").asInt(-1);
+        node.maxLength = schema.path("maxLength").asInt(-1);
+        if (schema.hasNonNull("pattern")) {
+            node.pattern = Pattern.compile(schema.get("pattern").asText());
+        }
+
+        if (schema.has("minimum")) {
+            node.minimum = schema.get("minimum").asDouble();
+            node.exactMinimum = schema.get("minimum").decimalValue();
+        }
+        if (schema.has("maximum")) {
+            node.maximum = schema.get("maximum").asDouble();
+            node.exactMaximum = schema.get("maximum").decimalValue();
+        }
+        // Both bounds apply when a schema gives both; draft-4 booleans make minimum/maximum exclusive
+        JsonNode exclusiveMinimum = exclusiveBound(schema, "exclusiveMinimum", "minimum", location);
+        if (exclusiveMinimum != null) {
+            node.exclusiveMinimum = exclusiveMinimum.asDouble();
+            node.exactExclusiveMinimum = exclusiveMinimum.decimalValue();
+        }
+        JsonNode exclusiveMaximum = exclusiveBound(schema, "exclusiveMaximum", "maximum", location);
+        if (exclusiveMaximum != null) {
+            node.exclusiveMaximum = exclusiveMaximum.asDouble();
+            node.exactExclusiveMaximum = exclusiveMaximum.decimalValue();
+        }
+
+        JsonNode enumNode = schema.get("enum");
+        JsonNode constNode = schema.get("const");
+        if (enumNode != null || constNode != null) {
+            node.enumValues = new HashSet<>();
+            if (enumNode != null) {
+                for (JsonNode value : enumNode) {
+                    node.enumValues.add(canonical(value, location));
+                }
+            }
+            if (constNode != null) {
+                node.enumValues.add(canonical(constNode, location));
+            }
+        }
+
+        node.hasStringConstraints = node.minLength >= 0 || node.maxLength >= 0
+            || node.pattern != null || node.enumValues != null;
+        node.hasNumberConstraints = node.minimum != Double.NEGATIVE_INFINITY
+            || node.maximum != Double.POSITIVE_INFINITY
+            || node.exclusiveMinimum != Double.NEGATIVE_INFINITY
+            || node.exclusiveMaximum != Double.POSITIVE_INFINITY || node.enumValues != null;
+        return node;
+    }
+
+    /**
+     * Numeric node of an exclusive bound, null when there is none
+     */
+    private static JsonNode exclusiveBound(JsonNode schema, String keyword, String inclusive, String location) {
+        JsonNode bound = schema.get(keyword);
+        if (bound == null || (bound.isBoolean() && !bound.booleanValue())) {
+            return null;
+        }
+        if (bound.isNumber()) {
+            return bound;
+        }
+        if (bound.isBoolean()) {
+            if (!schema.has(inclusive)) {
+                throw new IllegalArgumentException(location + ": '" + keyword + "': true requires '" + inclusive + "'");
+            }
+            return schema.get(inclusive);
+        }
+        throw new IllegalArgumentException(location + ": '" + keyword + "' must be a number or a boolean");
+    }
+
+    private static Object canonical(JsonNode value, String location) {
+        if (value.isNull()) {
+            return NULL_VALUE;
+        }
+        if (value.isBoolean()) {
+            return value.booleanValue();
+        }
+        if (value.isNumber()) {
+            return value.decimalValue().stripTrailingZeros();
+        }
+        if (value.isTextual()) {
+            return value.textValue();
+        }
+        throw new IllegalArgumentException(location + ": enum/const values must be scalars");
+    }
+
+    private static int typeBit(String type, String location) {
+        return switch (type) {
+            case "null" -> T_NULL;
+            case "boolean" -> T_BOOLEAN;
+            case "integer" -> T_INTEGER;
+            case "number" -> T_NUMBER;
+            case "string" -> T_STRING;
+            case "object" -> T_OBJECT;
+            case "array" -> T_ARRAY;
+            default -> throw new IllegalArgumentException(location + ": unknown type '" + type + "'");
+        };
+    }
+
+    /**
+     * Compiled schema node
+     */
+    private static final class Node {
+        int types;
+        String typeNames = "any";
+        Map<String, Node> properties = Map.of();
+        String[] required = new String[0];
+        Map<String, Integer> requiredIndex = Map.of();
+        boolean additionalAllowed = true;
+        Node additionalSchema;
+        Node items;
+        int minItems = -1;
+        int maxItems = -1;
+        int minLength = -1;
+        int maxLength = -1;
+        Pattern pattern;
+        double minimum = Double.NEGATIVE_INFINITY;
+        double maximum = Double.POSITIVE_INFINITY;
+        double exclusiveMinimum = Double.NEGATIVE_INFINITY;
+        double exclusiveMaximum = Double.POSITIVE_INFINITY;
+        // The same bounds for integer values, null when absent
+        BigDecimal exactMinimum;
+        BigDecimal exactMaximum;
+        BigDecimal exactExclusiveMinimum;
+        BigDecimal exactExclusiveMaximum;
+        Set<Object> enumValues;
+        boolean hasStringConstraints;
+        boolean hasNumberConstraints;
+    }
+
+    /**
+     * JSON path of the value being validated, rendered only when a violation is reported
+     */
+    private static final class PathStack {
+        private Object[] segments = new Object[8];
+        private int size;
+
+        void push(Object segment) {
+            if (size == segments.length) {
+                Object[] grown = new Object[size * 2];
+                System.arraycopy(segments, 0, grown, 0, size);
+                segments = grown;
+            }
+            segments[size++] = segment;
+        }
+
+        void pop() {
+            segments[--size] = null;
+        }
+
+        String render() {
+            StringBuilder sb = new StringBuilder("$");
+            for (int i = 0; i < size; i++) {
+                Object segment = segments[i];
+                if (segment instanceof Integer index) {
+                    sb.append('[').append(index).append(']');
+                } else {
+                    sb.append('.').append(segment);
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Stackless signal used to abort validation at the first violation
+     */
+    private static final class Violation extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        Violation(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.github.darioajr.teuthis.schema;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Directory of per-topic schema files ({@code <dir>/<topic><suffix>}) compiled
+ * into cached objects. Changed files are recompiled on reload; a file that fails
+ * to compile never replaces the last good version.
+ */
+final class SchemaDirectory<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaDirectory.class);
+
+    /**
+     * Compiles one schema file
+     */
+    @FunctionalInterface
+    interface Compiler<T> {
+        T compile(String topic, Path file) throws IOException;
+    }
+
+    private record Entry<T>(String version, T value) {}
+
+    private final String kind;
+    private final Path dir;
+    private final String suffix;
+    private final Compiler<T> compiler;
+    private final ConcurrentHashMap<String, Entry<T>> entries = new ConcurrentHashMap<>();
+    private ScheduledExecutorService reloader;
+    private Runnable afterReload = () -> { };
+
+    SchemaDirectory(String kind, Path dir, String suffix, Compiler<T> compiler) {
+        this.kind = kind;
+        this.dir = dir;
+        this.suffix = suffix;
+        this.compiler = compiler;
+    }
+
+    T get(String topic) {
+        Entry<T> entry = entries.get(topic);
+        return entry != null ? entry.value() : null;
+    }
+
+    Collection<T> values() {
+        return entries.values().stream().map(Entry::value).toList();
+    }
+
+    /**
+     * Run after every rescan, on the reloading thread
+     */
+    void onReload(Runnable task) {
+        this.afterReload = task;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    Path dir() {
+        return dir;
+    }
+
+    /**
+     * Rescan the directory, compiling new or modified files and dropping removed ones
+     */
+    synchronized void reload() {
+        if (!Files.isDirectory(dir)) {
+            if (!entries.isEmpty()) {
+                logger.warn("⚠️ {} directory {} disappeared, keeping {} cached schemas", kind, dir, entries.size());
+            }
+            return;
+        }
+
+        Set<String> present = new HashSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + suffix)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String topic = name.substring(0, name.length() - suffix.length());
+                present.add(topic);
+                loadIfChanged(topic, file);
+            }
+        } catch (IOException e) {
+            logger.error("❌ Error scanning {} directory {}: {}", kind, dir, e.getMessage());
+            return;
+        }
+
+        for (Map.Entry<String, Entry<T>> entry : entries.entrySet()) {
+            if (!present.contains(entry.getKey())) {
+                entries.remove(entry.getKey());
+                logger.info("🗑️ {} removed for topic {}", kind, entry.getKey());
+            }
+        }
+        afterReload.run();
+    }
+
+    private void loadIfChanged(String topic, Path file) {
+        try {
+            String version = Files.getLastModifiedTime(file).toMillis() + "/" + Files.size(file);
+            Entry<T> current = entries.get(topic);
+            if (current != null && current.version().equals(version)) {
+                return;
+            }
+
+            entries.put(topic, new Entry<>(version, compiler.compile(topic, file)));
+            logger.info("✅ {} {} for topic {} ({})", kind, current == null ? "loaded" : "reloaded", topic, file);
+        } catch (IOException | RuntimeException e) {
+            logger.error("❌ Failed to compile {} {} for topic {}, keeping previous version: {}",
+                        kind, file, topic, e.getMessage());
+        }
+    }
+
+    /**
+     * Poll the directory for changes in the background
+     */
+    void startReloading(long intervalMs, String threadName) {
+        if (intervalMs <= 0 || reloader != null) {
+            return;
+        }
+        reloader = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, threadName);
+            t.setDaemon(true);
+            return t;
+        });
+        reloader.scheduleWithFixedDelay(this::reload, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    void shutdown() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+    }
+}
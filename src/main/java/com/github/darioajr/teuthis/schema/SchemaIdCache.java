@@ -0,0 +1,235 @@
+package com.github.darioajr.teuthis.schema;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.apache.avro.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.github.darioajr.teuthis.infra.Metrics;
+
+/**
+ * Subject/schema to registry id cache, persisted to a local file so ids known
+ * from a previous run are available before (or without) the registry.
+ *
+ * Lookups never block: a miss schedules one registration on the executor and
+ * returns -1 until it completes. A failed registration is retried after a delay
+ * that doubles with each consecutive failure, so an unreachable registry is not
+ * called at request rate.
+ */
+final class SchemaIdCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaIdCache.class);
+
+    private record Entry(String subject, long fingerprint, int id, String schema) {}
+
+    private record Backoff(int failures, long retryAtNanos) {}
+
+    private final Path file;
+    private final SchemaRegistryClient client;
+    private final Executor executor;
+    private final long retryMinNanos;
+    private final long retryMaxNanos;
+    private final LongSupplier clock;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    // subject -> schema fingerprint -> id
+    private final ConcurrentHashMap<String, ConcurrentHashMap<Long, Integer>> ids = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, String> schemasById = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<Integer>> pending = new ConcurrentHashMap<>();
+    // subject@fingerprint -> consecutive failures and when the next attempt may start
+    private final ConcurrentHashMap<String, Backoff> backoffs = new ConcurrentHashMap<>();
+    private final List<Entry> entries = new ArrayList<>();
+
+    /**
+     * @param retryMinMs delay before retrying after the first failure
+     * @param retryMaxMs cap on the delay, which doubles with each consecutive failure
+     * @param clock      nanosecond time source
+     */
+    SchemaIdCache(Path file, SchemaRegistryClient client, Executor executor,
+                  long retryMinMs, long retryMaxMs, LongSupplier clock) {
+        this.file = file;
+        this.client = client;
+        this.executor = executor;
+        this.retryMinNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, retryMinMs));
+        this.retryMaxNanos = Math.max(retryMinNanos, TimeUnit.MILLISECONDS.toNanos(retryMaxMs));
+        this.clock = clock;
+        load();
+    }
+
+    /**
+     * Cached id for a subject and schema, or -1 after scheduling its registration unless backing off
+     */
+    int lookup(String subject, Schema schema, long fingerprint) {
+        ConcurrentHashMap<Long, Integer> bySchema = ids.get(subject);
+        Integer id = bySchema != null ? bySchema.get(fingerprint) : null;
+        if (id != null) {
+            return id;
+        }
+        if (!backingOff(subject + '@' + fingerprint)) {
+            registerAsync(subject, schema, fingerprint);
+        }
+        return -1;
+    }
+
+    /**
+     * Register in the background unless the id is already known, a registration is running
+     * or the last one failed too recently
+     */
+    CompletableFuture<Integer> registerAsync(String subject, Schema schema, long fingerprint) {
+        ConcurrentHashMap<Long, Integer> bySchema = ids.get(subject);
+        Integer known = bySchema != null ? bySchema.get(fingerprint) : null;
+        if (known != null) {
+            return CompletableFuture.completedFuture(known);
+        }
+        String key = subject + '@' + fingerprint;
+        CompletableFuture<Integer> running = pending.get(key);
+        if (running != null) {
+            return running;
+        }
+        if (backingOff(key)) {
+            return CompletableFuture.failedFuture(
+                new IOException("Schema registration for subject " + subject + " is backing off after a failure"));
+        }
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        running = pending.putIfAbsent(key, future);
+        if (running != null) {
+            return running;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    int id = register(subject, schema, fingerprint);
+                    backoffs.remove(key);
+                    pending.remove(key, future);
+                    future.complete(id);
+                } catch (IOException | RuntimeException e) {
+                    failed(key, subject);
+                    pending.remove(key, future);
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(key, future);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private boolean backingOff(String key) {
+        Backoff backoff = backoffs.get(key);
+        return backoff != null && clock.getAsLong() - backoff.retryAtNanos() < 0;
+    }
+
+    private void failed(String key, String subject) {
+        Backoff backoff = backoffs.compute(key, (k, previous) -> {
+            int failures = previous != null ? previous.failures() + 1 : 1;
+            long delay = Math.min(retryMaxNanos, retryMinNanos << Math.min(failures - 1, 30));
+            return new Backoff(failures, clock.getAsLong() + delay);
+        });
+        logger.debug("🔁 Retrying schema registration for subject {} in {} ms (failure {})", subject,
+                     TimeUnit.NANOSECONDS.toMillis(backoff.retryAtNanos() - clock.getAsLong()), backoff.failures());
+    }
+
+    /**
+     * Register synchronously, returning the cached id when already known
+     */
+    int register(String subject, Schema schema, long fingerprint) throws IOException {
+        ConcurrentHashMap<Long, Integer> bySchema = ids.get(subject);
+        Integer known = bySchema != null ? bySchema.get(fingerprint) : null;
+        if (known != null) {
+            return known;
+        }
+        int id;
+        try {
+            id = client.register(subject, schema);
+        } catch (IOException e) {
+            Metrics.schemaRegistryRequests.labels("failed").inc();
+            logger.warn("⚠️ Failed to register schema {} under subject {}: {}", schema.getFullName(), subject, e.getMessage());
+            throw e;
+        }
+        if (id < 0) {
+            Metrics.schemaRegistryRequests.labels("failed").inc();
+            throw new IOException("Schema registry response for subject " + subject + " has no id");
+        }
+        Metrics.schemaRegistryRequests.labels("registered").inc();
+        logger.info("✅ Registered schema {} under subject {} with id {}", schema.getFullName(), subject, id);
+        put(new Entry(subject, fingerprint, id, schema.toString()));
+        return id;
+    }
+
+    /**
+     * Schema text for a registry id, or null when unknown locally
+     */
+    String schema(int id) {
+        return schemasById.get(id);
+    }
+
+    int size() {
+        return schemasById.size();
+    }
+
+    private synchronized void put(Entry entry) {
+        index(entry);
+        entries.add(entry);
+        persist();
+    }
+
+    private void index(Entry entry) {
+        ids.computeIfAbsent(entry.subject(), s -> new ConcurrentHashMap<>()).put(entry.fingerprint(), entry.id());
+        schemasById.put(entry.id(), entry.schema());
+    }
+
+    private synchronized void load() {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try {
+            for (JsonNode node : mapper.readTree(file.toFile())) {
+                Entry entry = new Entry(node.path("subject").asText(), node.path("fingerprint").asLong(),
+                                        node.path("id").asInt(), node.path("schema").asText());
+                index(entry);
+                entries.add(entry);
+            }
+            logger.info("✅ Loaded {} schema registry ids from {}", entries.size(), file);
+        } catch (IOException e) {
+            logger.warn("⚠️ Ignoring unreadable schema id cache {}: {}", file, e.getMessage());
+        }
+    }
+
+    private void persist() {
+        ArrayNode array = mapper.createArrayNode();
+        for (Entry entry : entries) {
+            array.addObject()
+                 .put("subject", entry.subject())
+                 .put("fingerprint", entry.fingerprint())
+                 .put("id", entry.id())
+                 .put("schema", entry.schema());
+        }
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            mapper.writerWithDefaultPrettyPrinter().writeValue(tmp.toFile(), array);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("⚠️ Failed to persist schema id cache {}: {}", file, e.getMessage());
+        }
+    }
+}
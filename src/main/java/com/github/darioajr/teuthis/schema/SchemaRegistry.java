@@ -0,0 +1,114 @@
+package com.github.darioajr.teuthis.schema;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.darioajr.teuthis.avro.Message;
+import com.github.darioajr.teuthis.infra.Config;
+
+/**
+ * Schema registry integration for producing records in the Confluent wire
+ * format: magic byte 0, 4-byte big-endian schema id, Avro binary body.
+ *
+ * Subjects follow the topic name strategy ({@code <topic>-value}). Ids are
+ * resolved from {@link SchemaIdCache}, so the publish path never waits on the
+ * registry; a topic whose id is not known yet is rejected until registration
+ * completes.
+ */
+public class SchemaRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaRegistry.class);
+
+    public static final byte MAGIC_BYTE = 0;
+    public static final int HEADER_SIZE = 5;
+
+    private static final boolean ENABLED = Config.b("teuthis.schema.registry.enabled", false);
+
+    private static final long MESSAGE_FINGERPRINT = SchemaNormalization.parsingFingerprint64(Message.getClassSchema());
+
+    // Topic -> subject name, avoids building the string per request
+    private static final ConcurrentHashMap<String, String> subjects = new ConcurrentHashMap<>();
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "schema-registry-client");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final SchemaIdCache cache = ENABLED ? new SchemaIdCache(
+        Paths.get(Config.str("teuthis.schema.registry.cache.file", "schemas/registry-ids.json")),
+        new SchemaRegistryClient(Config.str("schema.registry.url", "http://localhost:8081"),
+                                 Duration.ofMillis(Config.l("teuthis.schema.registry.timeout.ms", 5000L))),
+        executor,
+        Config.l("teuthis.schema.registry.retry.min.ms", 1000L),
+        Config.l("teuthis.schema.registry.retry.max.ms", 60000L),
+        System::nanoTime) : null;
+
+    static {
+        if (ENABLED) {
+            logger.info("✅ Schema registry wire format enabled ({} cached ids)", cache.size());
+        }
+    }
+
+    /**
+     * Check if records are produced in the schema registry wire format
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Registry id of the {@code Message} envelope for a topic, or -1 while not yet registered
+     */
+    public static int messageSchemaId(String topic) {
+        return ENABLED ? cache.lookup(subject(topic), Message.getClassSchema(), MESSAGE_FINGERPRINT) : -1;
+    }
+
+    /**
+     * Registry id of a converted topic schema, or -1 while not yet registered
+     */
+    public static int valueSchemaId(String topic, JsonAvroConverter converter) {
+        return ENABLED ? cache.lookup(subject(topic), converter.schema(), converter.fingerprint()) : -1;
+    }
+
+    /**
+     * Start registering a schema for a topic ahead of its first request
+     */
+    public static void prefetch(String topic, Schema schema) {
+        if (ENABLED) {
+            cache.registerAsync(subject(topic), schema, SchemaNormalization.parsingFingerprint64(schema));
+        }
+    }
+
+    /**
+     * Write the wire format header (magic byte and schema id)
+     */
+    public static void writeHeader(OutputStream out, int schemaId) throws IOException {
+        out.write(MAGIC_BYTE);
+        out.write(schemaId >>> 24);
+        out.write(schemaId >>> 16);
+        out.write(schemaId >>> 8);
+        out.write(schemaId);
+    }
+
+    /**
+     * Stop the registration thread
+     */
+    public static void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static String subject(String topic) {
+        return subjects.computeIfAbsent(topic, t -> t + "-value");
+    }
+}
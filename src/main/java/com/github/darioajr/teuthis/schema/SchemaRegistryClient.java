@@ -0,0 +1,66 @@
+package com.github.darioajr.teuthis.schema;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.apache.avro.Schema;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Minimal Confluent Schema Registry REST client (schema registration).
+ */
+public class SchemaRegistryClient {
+
+    private static final String CONTENT_TYPE = "application/vnd.schemaregistry.v1+json";
+
+    private final String baseUrl;
+    private final Duration timeout;
+    private final HttpClient http;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    public SchemaRegistryClient(String baseUrl, Duration timeout) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeout = timeout;
+        this.http = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    /**
+     * Register a schema under a subject and return its global id.
+     * Registering an already known schema returns the existing id.
+     */
+    public int register(String subject, Schema schema) throws IOException {
+        String body = mapper.createObjectNode().put("schema", schema.toString()).toString();
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create(baseUrl + "/subjects/" + URLEncoder.encode(subject, StandardCharsets.UTF_8) + "/versions"))
+            .timeout(timeout)
+            .header("Content-Type", CONTENT_TYPE)
+            .header("Accept", CONTENT_TYPE)
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+        return send(request).path("id").asInt(-1);
+    }
+
+    private JsonNode send(HttpRequest request) throws IOException {
+        HttpResponse<String> response;
+        try {
+            response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted calling schema registry " + request.uri());
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException("Schema registry returned " + response.statusCode() + " for "
+                                  + request.uri() + ": " + response.body());
+        }
+        return mapper.readTree(response.body());
+    }
+}
@@ -0,0 +1,128 @@
+package com.github.darioajr.teuthis.schema;
+
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.darioajr.teuthis.infra.Config;
+
+/**
+ * Per-topic Avro schemas used to convert incoming JSON at ingest.
+ *
+ * Schemas are read from {@code <dir>/<topic>.avsc}. Converters are compiled once
+ * per schema version (Parsing Canonical Form fingerprint), so touching a file
+ * without changing the schema reuses the compiled converter; converters no
+ * topic uses any more are dropped after each rescan.
+ */
+public class TopicAvroSchemas {
+
+    private static final Logger logger = LoggerFactory.getLogger(TopicAvroSchemas.class);
+
+    /**
+     * Where the converted record goes
+     */
+    public enum PublishMode {
+        /** Converted bytes become the {@code Message} envelope payload (format "avro") */
+        PAYLOAD,
+        /** Converted bytes are the Kafka record value, without the envelope */
+        VALUE
+    }
+
+    /**
+     * Compiled conversion settings for one topic
+     */
+    public record TopicSchema(String topic, JsonAvroConverter converter, PublishMode mode) {
+        public Schema schema() {
+            return converter.schema();
+        }
+    }
+
+    private static final boolean ENABLED = Config.b("teuthis.schema.avro.enabled", false);
+    private static final long RELOAD_INTERVAL = Config.l("teuthis.schema.avro.reload.interval.ms", 5000L);
+    private static final PublishMode DEFAULT_MODE = parseMode(Config.str("teuthis.schema.avro.publish.mode", "payload"));
+
+    // Compiled converters by schema fingerprint
+    private static final ConcurrentHashMap<Long, JsonAvroConverter> converters = new ConcurrentHashMap<>();
+
+    private static final SchemaDirectory<TopicSchema> schemas = new SchemaDirectory<>(
+        "Avro schema",
+        Paths.get(Config.str("teuthis.schema.avro.dir", "schemas/avro")),
+        ".avsc",
+        (topic, file) -> {
+            Schema schema = new Schema.Parser().parse(file.toFile());
+            long fingerprint = SchemaNormalization.parsingFingerprint64(schema);
+            JsonAvroConverter converter = converters.computeIfAbsent(fingerprint, fp -> JsonAvroConverter.compile(schema));
+            PublishMode mode = parseMode(Config.str("teuthis.schema.avro.publish.mode." + topic, DEFAULT_MODE.name()));
+            if (mode == PublishMode.VALUE) {
+                SchemaRegistry.prefetch(topic, schema);
+            }
+            return new TopicSchema(topic, converter, mode);
+        });
+
+    static {
+        schemas.onReload(TopicAvroSchemas::evictUnused);
+        if (ENABLED) {
+            schemas.reload();
+            schemas.startReloading(RELOAD_INTERVAL, "avro-schema-reloader");
+            logger.info("✅ JSON to Avro conversion enabled from {} ({} schemas, default mode {})",
+                       schemas.dir(), schemas.size(), DEFAULT_MODE);
+        }
+    }
+
+    /**
+     * Check if JSON to Avro conversion is enabled
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Get the conversion settings for a topic, or null when the topic is not converted
+     */
+    public static TopicSchema forTopic(String topic) {
+        return ENABLED ? schemas.get(topic) : null;
+    }
+
+    /**
+     * Rescan the schema directory
+     */
+    public static void reload() {
+        schemas.reload();
+    }
+
+    /**
+     * Stop the background reloader
+     */
+    public static void shutdown() {
+        schemas.shutdown();
+    }
+
+    private static void evictUnused() {
+        Set<JsonAvroConverter> used = Collections.newSetFromMap(new IdentityHashMap<>());
+        schemas.values().forEach(topic -> used.add(topic.converter()));
+        converters.values().removeIf(converter -> !used.contains(converter));
+    }
+
+    /**
+     * Compiled converters currently cached
+     */
+    static int converterCount() {
+        return converters.size();
+    }
+
+    private static PublishMode parseMode(String value) {
+        try {
+            return PublishMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid Avro publish mode: " + value, e);
+        }
+    }
+}
@@ -4,6 +4,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 
+import com.github.darioajr.teuthis.infra.Metrics;
+import com.github.darioajr.teuthis.infra.RequestTimings;
+
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
@@ -13,74 +16,141 @@ import io.netty.handler.codec.http.FullHttpResponse;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.AttributeKey;
 
 /**
- * JWT Authentication handler for incoming requests
+ * JWT Authentication handler for incoming requests.
+ *
+ * A verified principal stays bound to the connection until its token expires:
+ * keep-alive requests carrying the identical Authorization header skip
+ * verification entirely. A connection with a mapped client certificate
+ * ({@link CertificateIdentities}) is authenticated by it and needs no token;
+ * a mapping reload re-resolves that principal before it is trusted again.
  */
 public class AuthenticationHandler extends ChannelInboundHandlerAdapter {
     
     private static final Logger logger = LoggerFactory.getLogger(AuthenticationHandler.class);
     private static final Logger securityLogger = LoggerFactory.getLogger("security");
     
+    /**
+     * Principal of the current request; null when authentication is skipped
+     */
+    public static final AttributeKey<Principal> PRINCIPAL = AttributeKey.valueOf("principal");
+    public static final String ANONYMOUS = "anonymous";
+    
+    // Principal verified for this connection and the exact header it came from
+    private String boundHeader;
+    private Principal boundPrincipal;
+    private int boundGeneration;
+    
+    /**
+     * Principal stored by this handler for the request being processed on a channel
+     */
+    public static Principal principal(ChannelHandlerContext ctx) {
+        return ctx.channel().attr(PRINCIPAL).get();
+    }
+    
+    /**
+     * Tenant of the current request, {@link #ANONYMOUS} when authentication is skipped
+     */
+    public static String tenant(ChannelHandlerContext ctx) {
+        Principal principal = principal(ctx);
+        return principal != null && principal.tenant() != null ? principal.tenant() : ANONYMOUS;
+    }
+    
     @Override
     public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
         if (msg instanceof FullHttpRequest req) {
+            // Keep-alive connections must not inherit the previous request's principal
+            ctx.channel().attr(PRINCIPAL).set(null);
+            
+            Principal certificate = CertificateIdentities.principal(ctx.channel());
+            if (certificate != null && !certificate.isExpired(System.currentTimeMillis())) {
+                MDC.put("user", certificate.subject());
+                ctx.channel().attr(PRINCIPAL).set(certificate);
+                RequestTimings.stamp(ctx, RequestTimings.Stage.AUTH);
+                super.channelRead(ctx, msg);
+                return;
+            }
             
             // Skip authentication for health and metrics endpoints
             if (isPublicEndpoint(req.uri())) {
+                RequestTimings.stamp(ctx, RequestTimings.Stage.AUTH);
                 super.channelRead(ctx, msg);
                 return;
             }
             
             // Skip authentication if disabled
             if (!JwtValidator.isAuthEnabled()) {
+                RequestTimings.stamp(ctx, RequestTimings.Stage.AUTH);
                 super.channelRead(ctx, msg);
                 return;
             }
             
             String authHeader = req.headers().get(HttpHeaderNames.AUTHORIZATION);
-            String clientIp = getClientIp(ctx);
-            
-            if (!validateAuth(authHeader, clientIp)) {
-                sendUnauthorized(ctx);
-                return;
+            Principal principal = boundPrincipal(authHeader);
+            if (principal == null) {
+                principal = validateAuth(authHeader, getClientIp(ctx));
+                if (principal == null) {
+                    boundHeader = null;
+                    boundPrincipal = null;
+                    sendUnauthorized(ctx);
+                    return;
+                }
+                boundGeneration = JwtValidator.generation();
+                boundHeader = authHeader;
+                boundPrincipal = principal;
             }
             
-            // Extract user info and add to MDC for logging
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                String token = authHeader.substring(7);
-                String subject = JwtValidator.getSubject(token);
-                if (subject != null) {
-                    MDC.put("user", subject);
-                }
+            // Add user info to MDC for logging
+            if (principal.subject() != null) {
+                MDC.put("user", principal.subject());
             }
+            ctx.channel().attr(PRINCIPAL).set(principal);
+            RequestTimings.stamp(ctx, RequestTimings.Stage.AUTH);
         }
         
         super.channelRead(ctx, msg);
     }
     
+    /**
+     * Principal bound to this connection if the header is the one it was verified from and it is still valid
+     */
+    private Principal boundPrincipal(String authHeader) {
+        if (boundPrincipal == null || authHeader == null || !authHeader.equals(boundHeader)) {
+            return null;
+        }
+        if (boundPrincipal.isExpired(System.currentTimeMillis()) || boundGeneration != JwtValidator.generation()) {
+            boundHeader = null;
+            boundPrincipal = null;
+            return null;
+        }
+        Metrics.jwtCacheRequests.labels("connection").inc();
+        return boundPrincipal;
+    }
+    
     private boolean isPublicEndpoint(String uri) {
         return uri.equals("/health") || 
                uri.equals("/metrics") ||
                uri.startsWith("/auth/"); // Future auth endpoints
     }
     
-    private boolean validateAuth(String authHeader, String clientIp) {
+    private Principal validateAuth(String authHeader, String clientIp) {
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             securityLogger.warn("Missing or invalid Authorization header from {}", clientIp);
-            return false;
+            return null;
         }
         
         String token = authHeader.substring(7);
-        boolean isValid = JwtValidator.validate(token);
+        Principal principal = JwtValidator.authenticate(token);
         
-        if (!isValid) {
+        if (principal == null) {
             securityLogger.warn("Invalid JWT token from {}", clientIp);
         } else {
             logger.debug("✅ Authentication successful for {}", clientIp);
         }
         
-        return isValid;
+        return principal;
     }
     
     private String getClientIp(ChannelHandlerContext ctx) {
@@ -107,7 +177,6 @@ public class AuthenticationHandler extends ChannelInboundHandlerAdapter {
         response.headers().set(HttpHeaderNames.WWW_AUTHENTICATE, "Bearer");
         
         ctx.writeAndFlush(response);
-        ctx.close();
     }
     
     @Override
@@ -0,0 +1,260 @@
+package com.github.darioajr.teuthis.security;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.CertificateParsingException;
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import javax.naming.InvalidNameException;
+import javax.naming.ldap.LdapName;
+import javax.naming.ldap.Rdn;
+import javax.net.ssl.SSLPeerUnverifiedException;
+import javax.net.ssl.SSLSession;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.darioajr.teuthis.infra.Config;
+import com.github.darioajr.teuthis.infra.Metrics;
+
+import io.netty.channel.Channel;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.util.AttributeKey;
+
+/**
+ * Principals for verified client certificates (mutual TLS).
+ *
+ * A certificate's identity is its first URI SAN (e.g. a SPIFFE id), else its
+ * first DNS SAN, else its subject CN. Identities are mapped by
+ * {@code teuthis.mtls.identity.<name>.match} entries, each with optional
+ * {@code .topics} (the caller's topic ACL, {@link TopicMatcher} syntax),
+ * {@code .roles} and {@code .tenant}. A certificate with no matching entry
+ * gets no principal, so the request falls back to JWT authentication.
+ * Results are cached by certificate SHA-256 fingerprint and dropped when the
+ * mapping changes in a configuration reload.
+ */
+public final class CertificateIdentities {
+
+    private static final Logger logger = LoggerFactory.getLogger(CertificateIdentities.class);
+
+    public static final String PREFIX = "teuthis.mtls.identity.";
+
+    // Principal of the client certificate presented on a connection and the mapping generation it was resolved under
+    private record Binding(Principal principal, int generation) {}
+
+    private static final AttributeKey<Binding> BINDING = AttributeKey.valueOf("certificatePrincipal");
+
+    private static final int URI_SAN = 6;
+    private static final int DNS_SAN = 2;
+
+    /**
+     * Mapping entry for one identity
+     *
+     * @param topics compiled ACL, null for no restriction beyond the allowlist
+     */
+    record Rule(String identity, TopicMatcher topics, List<String> roles, String tenant) {}
+
+    // Rules by identity; swapped on configuration reload, which bumps the generation
+    private static volatile Map<String, Rule> rules = parse(Config.withPrefix(PREFIX));
+    private static volatile int generation;
+
+    // Principals by certificate fingerprint; unmapped certificates are not cached
+    private static final Cache<String, Principal> principals = Caffeine.newBuilder()
+        .maximumSize(Config.i("teuthis.mtls.cache.max.size", 10_000))
+        .build();
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    static {
+        Config.addListener((previous, current) -> {
+            if (current.changed(previous, PREFIX)) {
+                try {
+                    rules = parse(Config.withPrefix(PREFIX));
+                    generation++;
+                    principals.invalidateAll();
+                } catch (IllegalArgumentException e) {
+                    logger.error("❌ Invalid client certificate mapping, keeping previous one: {}", e.getMessage());
+                }
+            }
+        });
+        logger.info("✅ Client certificate identities: {} mapped", rules.size());
+    }
+
+    private CertificateIdentities() {
+    }
+
+    /**
+     * Changes whenever previously resolved principals must no longer be trusted
+     */
+    public static int generation() {
+        return generation;
+    }
+
+    /**
+     * Bind the principal resolved under {@code generation} to a connection
+     */
+    public static void bind(Channel channel, Principal principal, int generation) {
+        channel.attr(BINDING).set(principal != null ? new Binding(principal, generation) : null);
+    }
+
+    /**
+     * Principal of the client certificate presented on a connection, null when none was mapped.
+     * A principal bound before a mapping reload is resolved again from the peer certificate,
+     * and dropped when it no longer maps.
+     */
+    public static Principal principal(Channel channel) {
+        Binding binding = channel.attr(BINDING).get();
+        if (binding == null) {
+            return null;
+        }
+        int current = generation;
+        if (binding.generation() == current) {
+            return binding.principal();
+        }
+        SslHandler ssl = channel.pipeline().get(SslHandler.class);
+        Principal principal = ssl != null ? resolve(ssl.engine().getSession()) : null;
+        bind(channel, principal, current);
+        return principal;
+    }
+
+    /**
+     * Principal for the peer certificate of a TLS session, or null when there is none or it is not mapped
+     */
+    public static Principal resolve(SSLSession session) {
+        Certificate[] chain;
+        try {
+            chain = session.getPeerCertificates();
+        } catch (SSLPeerUnverifiedException e) {
+            return null;
+        }
+        if (chain.length == 0 || !(chain[0] instanceof X509Certificate certificate)) {
+            return null;
+        }
+        return resolve(certificate);
+    }
+
+    /**
+     * Principal for a certificate the TLS engine has already verified, or null when it is not mapped
+     */
+    public static Principal resolve(X509Certificate certificate) {
+        String fingerprint;
+        try {
+            fingerprint = HexFormat.of().formatHex(SHA256.get().digest(certificate.getEncoded()));
+        } catch (CertificateEncodingException e) {
+            return null;
+        }
+        Principal principal = principals.getIfPresent(fingerprint);
+        if (principal != null) {
+            Metrics.mtlsIdentities.labels("hit").inc();
+            return principal;
+        }
+        principal = map(certificate, rules);
+        Metrics.mtlsIdentities.labels(principal != null ? "mapped" : "unmapped").inc();
+        if (principal != null) {
+            principals.put(fingerprint, principal);
+        } else {
+            logger.debug("🔍 Client certificate {} is not mapped", identity(certificate));
+        }
+        return principal;
+    }
+
+    /**
+     * Apply the mapping to a certificate
+     */
+    static Principal map(X509Certificate certificate, Map<String, Rule> rules) {
+        String identity = identity(certificate);
+        Rule rule = identity != null ? rules.get(identity) : null;
+        if (rule == null) {
+            return null;
+        }
+        return new Principal(identity, rule.roles(), rule.tenant() != null ? rule.tenant() : identity,
+                             certificate.getNotAfter().toInstant(), rule.topics());
+    }
+
+    /**
+     * First URI SAN, else first DNS SAN, else subject CN; null when there is none
+     */
+    static String identity(X509Certificate certificate) {
+        String dns = null;
+        try {
+            Collection<List<?>> names = certificate.getSubjectAlternativeNames();
+            if (names != null) {
+                for (List<?> name : names) {
+                    int type = (Integer) name.get(0);
+                    if (type == URI_SAN) {
+                        return (String) name.get(1);
+                    }
+                    if (type == DNS_SAN && dns == null) {
+                        dns = (String) name.get(1);
+                    }
+                }
+            }
+        } catch (CertificateParsingException e) {
+            logger.debug("Unreadable SAN extension: {}", e.getMessage());
+        }
+        if (dns != null) {
+            return dns;
+        }
+        try {
+            for (Rdn rdn : new LdapName(certificate.getSubjectX500Principal().getName()).getRdns()) {
+                if (rdn.getType().equalsIgnoreCase("CN")) {
+                    return rdn.getValue().toString();
+                }
+            }
+        } catch (InvalidNameException e) {
+            logger.debug("Unreadable subject: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Build rules from {@code <name>.match}, {@code <name>.topics}, {@code <name>.roles} and {@code <name>.tenant}
+     *
+     * @throws IllegalArgumentException on an entry without match or with invalid topics
+     */
+    static Map<String, Rule> parse(Map<String, String> properties) {
+        Map<String, Map<String, String>> entries = new HashMap<>();
+        properties.forEach((key, value) -> {
+            int dot = key.indexOf('.');
+            if (dot > 0) {
+                entries.computeIfAbsent(key.substring(0, dot), name -> new HashMap<>()).put(key.substring(dot + 1), value);
+            }
+        });
+        Map<String, Rule> parsed = new HashMap<>();
+        entries.forEach((name, fields) -> {
+            String identity = fields.get("match");
+            if (identity == null || identity.isBlank()) {
+                throw new IllegalArgumentException(PREFIX + name + ".match is required");
+            }
+            List<String> topics = split(fields.get("topics"));
+            parsed.put(identity.trim(), new Rule(identity.trim(),
+                topics.isEmpty() ? null : TopicMatcher.compile(topics),
+                split(fields.get("roles")),
+                fields.get("tenant")));
+        });
+        return Map.copyOf(parsed);
+    }
+
+    private static List<String> split(String value) {
+        if (value == null) {
+            return List.of();
+        }
+        return Arrays.stream(value.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+    }
+}
@@ -0,0 +1,56 @@
+package com.github.darioajr.teuthis.security;
+
+import javax.net.ssl.SSLSession;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.ssl.SslHandshakeCompletionEvent;
+
+/**
+ * Binds the principal of the client certificate to the connection once the
+ * TLS handshake completes, then leaves the pipeline. The principal is also
+ * stored in the TLS session, so a resumed session skips the lookup.
+ */
+public class ClientCertificateHandler extends ChannelInboundHandlerAdapter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClientCertificateHandler.class);
+
+    private static final String SESSION_PRINCIPAL = "teuthis.principal";
+
+    // Stored in the TLS session; a mapping reload makes it stale
+    private record SessionPrincipal(Principal principal, int generation) {}
+
+    @Override
+    public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+        if (evt instanceof SslHandshakeCompletionEvent completion) {
+            if (completion.isSuccess()) {
+                SslHandler ssl = ctx.pipeline().get(SslHandler.class);
+                int generation = CertificateIdentities.generation();
+                Principal principal = ssl != null ? principal(ssl.engine().getSession(), generation) : null;
+                if (principal != null) {
+                    CertificateIdentities.bind(ctx.channel(), principal, generation);
+                    logger.debug("🔐 Client certificate {} bound to {}", principal.subject(), ctx.channel().remoteAddress());
+                }
+            }
+            super.userEventTriggered(ctx, evt);
+            ctx.pipeline().remove(this);
+            return;
+        }
+        super.userEventTriggered(ctx, evt);
+    }
+
+    private static Principal principal(SSLSession session, int generation) {
+        if (session.getValue(SESSION_PRINCIPAL) instanceof SessionPrincipal stored && stored.generation() == generation) {
+            return stored.principal();
+        }
+        Principal principal = CertificateIdentities.resolve(session);
+        if (principal != null) {
+            session.putValue(SESSION_PRINCIPAL, new SessionPrincipal(principal, generation));
+        }
+        return principal;
+    }
+}
@@ -0,0 +1,345 @@
+package com.github.darioajr.teuthis.security;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.darioajr.teuthis.infra.Metrics;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.DatagramPacket;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+/**
+ * Exchanges rate limit consumption between Teuthis instances over UDP.
+ *
+ * Admitted requests are counted locally per key without blocking; every
+ * sync interval the counts are sent to each peer as deltas and reset. On
+ * receipt a node charges a peer's deltas to its own buckets through the
+ * {@link Sink}, so each node enforces against the cluster's consumption,
+ * at most one interval (plus network delay) stale. A lost packet means
+ * under-counting, never over-counting.
+ *
+ * Packets are signed with an HMAC of the shared {@code secret}, which is
+ * mandatory: UDP source addresses are trivial to spoof. Each carries the
+ * sender's wall clock and a per-node sequence number, so a packet older than
+ * the replay window, or not newer than the last one seen from its node, is
+ * dropped (node clocks must agree within the window). Counts are clamped to
+ * what one node can admit in an interval under the limits set by
+ * {@link #setLimits}, so even a valid sender cannot drain a bucket at once.
+ * Packets from unknown addresses or from this node are ignored.
+ */
+public final class ClusterRateSync {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterRateSync.class);
+
+    private static final int MAGIC = 0x54524C32; // "TRL2"
+    // magic, node id, sent at (epoch ms), sequence, global count, entries
+    private static final int HEADER = 4 + 8 + 8 + 8 + 8 + 2;
+    private static final int ENTRY = 8 + 4;
+    private static final int MAX_ENTRIES = 100;
+    private static final int MAC_LENGTH = 16;
+    private static final int PROBES = 8;
+    private static final long EMPTY = 0;
+
+    /**
+     * Receives consumption reported by peers
+     */
+    public interface Sink {
+        void charge(long key, long count);
+
+        void chargeGlobal(long count);
+    }
+
+    private final long nodeId;
+    private final String bindHost;
+    private final int bindPort;
+    private final long intervalMs;
+    private final long replayWindowMs;
+    private final SecretKeySpec secret;
+    private final AtomicLongArray keys;
+    private final AtomicLongArray counts;
+    private final int mask;
+    private final LongAdder global = new LongAdder();
+    private volatile List<InetSocketAddress> peers = List.of();
+    private EventLoopGroup group;
+    private Channel channel;
+    private Mac mac;
+    // Written on the sync event loop only
+    private long sequence;
+    private final Map<Long, long[]> lastSeen = new HashMap<>();
+    // Most a peer can have admitted in one interval: zero until limits are set
+    private volatile long maxGlobal;
+    private volatile long maxPerKey;
+
+    /**
+     * @param slots          distinct keys that can be pending between two syncs
+     * @param secret         shared HMAC key, required
+     * @param replayWindowMs oldest packet accepted, by the sender's clock
+     */
+    public ClusterRateSync(long nodeId, String bindHost, int bindPort, long intervalMs, int slots, String secret,
+                           long replayWindowMs) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalArgumentException("A shared secret is required to sync rate limits");
+        }
+        int size = Integer.highestOneBit(Math.max(slots - 1, PROBES) << 1);
+        this.nodeId = nodeId;
+        this.bindHost = bindHost;
+        this.bindPort = bindPort;
+        this.intervalMs = intervalMs;
+        this.replayWindowMs = Math.max(replayWindowMs, 2 * intervalMs);
+        this.secret = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        this.keys = new AtomicLongArray(size);
+        this.counts = new AtomicLongArray(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Bind the UDP socket and start syncing
+     *
+     * @return the bound port
+     */
+    public int start(Sink sink) throws InterruptedException, GeneralSecurityException {
+        mac = Mac.getInstance("HmacSHA256");
+        mac.init(secret);
+        group = new NioEventLoopGroup(1, new DefaultThreadFactory("cluster-sync", true));
+        channel = new Bootstrap()
+            .group(group)
+            .channel(NioDatagramChannel.class)
+            .handler(new SimpleChannelInboundHandler<DatagramPacket>() {
+                @Override
+                protected void channelRead0(ChannelHandlerContext ctx, DatagramPacket packet) {
+                    receive(packet, sink);
+                }
+            })
+            .bind(bindHost, bindPort).sync().channel();
+        channel.eventLoop().scheduleAtFixedRate(this::flush, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        int port = ((InetSocketAddress) channel.localAddress()).getPort();
+        logger.info("✅ Cluster rate limit sync on {}:{} (node {}, {} peers, every {}ms)",
+            bindHost, port, Long.toHexString(nodeId), peers.size(), intervalMs);
+        return port;
+    }
+
+    /**
+     * Bound the counts accepted from one packet by what a peer can admit in two
+     * intervals (one of scheduling slack) plus a one second burst
+     *
+     * @param globalRate requests per second of the global limit
+     * @param perKeyRate requests per second of one client bucket
+     */
+    public void setLimits(double globalRate, double perKeyRate) {
+        maxGlobal = perPacket(globalRate);
+        maxPerKey = perPacket(perKeyRate);
+    }
+
+    private long perPacket(double rate) {
+        return (long) Math.ceil(rate * 2 * intervalMs / 1000.0) + (long) Math.ceil(rate);
+    }
+
+    public void setPeers(List<InetSocketAddress> peers) {
+        this.peers = List.copyOf(peers);
+    }
+
+    public void shutdown() {
+        if (group != null) {
+            group.shutdownGracefully(0, 1, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Count one admitted request against {@code key}; never blocks
+     */
+    public void record(long key) {
+        int start = (int) mix(key) & mask;
+        for (int i = 0; i < PROBES; i++) {
+            int slot = (start + i) & mask;
+            long k = keys.get(slot);
+            if (k == key || (k == EMPTY && (keys.compareAndSet(slot, EMPTY, key) || keys.get(slot) == key))) {
+                counts.incrementAndGet(slot);
+                return;
+            }
+        }
+        Metrics.clusterSyncDropped.inc();
+    }
+
+    /**
+     * Count one request admitted by the global limit
+     */
+    public void recordGlobal() {
+        global.increment();
+    }
+
+    /**
+     * Send the pending deltas to every peer and reset them; runs on the sync event loop
+     */
+    private void flush() {
+        forgetIdleNodes();
+        List<InetSocketAddress> targets = peers;
+        long globalCount = global.sumThenReset();
+        ByteBuf packet = null;
+        int entries = 0;
+        for (int slot = 0; slot <= mask; slot++) {
+            long key = keys.get(slot);
+            if (key == EMPTY) {
+                continue;
+            }
+            long count = counts.getAndSet(slot, 0);
+            if (count == 0) {
+                // Idle since the last sync: free the slot (a racing increment may go to the next key)
+                keys.compareAndSet(slot, key, EMPTY);
+                continue;
+            }
+            if (packet == null) {
+                packet = header(globalCount);
+                globalCount = 0;
+            }
+            packet.writeLong(key).writeInt((int) Math.min(count, Integer.MAX_VALUE));
+            if (++entries == MAX_ENTRIES) {
+                send(packet, entries, targets);
+                packet = null;
+                entries = 0;
+            }
+        }
+        if (packet == null && globalCount > 0) {
+            packet = header(globalCount);
+        }
+        if (packet != null) {
+            send(packet, entries, targets);
+        }
+    }
+
+    private ByteBuf header(long globalCount) {
+        return channel.alloc().buffer(HEADER + MAX_ENTRIES * ENTRY + MAC_LENGTH)
+            .writeInt(MAGIC).writeLong(nodeId).writeLong(System.currentTimeMillis()).writeLong(0)
+            .writeLong(globalCount).writeShort(0);
+    }
+
+    private void send(ByteBuf packet, int entries, List<InetSocketAddress> targets) {
+        packet.setLong(4 + 8 + 8, ++sequence);
+        packet.setShort(HEADER - 2, entries);
+        packet.writeBytes(sign(packet, packet.readableBytes()));
+        for (InetSocketAddress peer : targets) {
+            channel.write(new DatagramPacket(packet.retainedDuplicate(), peer));
+            Metrics.clusterSyncPackets.labels("sent").inc();
+        }
+        channel.flush();
+        packet.release();
+    }
+
+    private void receive(DatagramPacket packet, Sink sink) {
+        ByteBuf in = packet.content();
+        if (!trusted(packet.sender().getAddress()) || !valid(in)) {
+            Metrics.clusterSyncPackets.labels("rejected").inc();
+            return;
+        }
+        in.skipBytes(4);
+        long sender = in.readLong();
+        if (sender == nodeId) {
+            return;
+        }
+        if (!fresh(sender, in.readLong(), in.readLong())) {
+            Metrics.clusterSyncPackets.labels("replayed").inc();
+            return;
+        }
+        Metrics.clusterSyncPackets.labels("received").inc();
+        long globalCount = Math.min(in.readLong(), maxGlobal);
+        int entries = in.readUnsignedShort();
+        if (globalCount > 0) {
+            sink.chargeGlobal(globalCount);
+        }
+        long perKey = maxPerKey;
+        for (int i = 0; i < entries; i++) {
+            long key = in.readLong();
+            long count = Math.min(in.readInt(), perKey);
+            if (count > 0) {
+                sink.charge(key, count);
+            }
+        }
+    }
+
+    /**
+     * Whether a packet is within the replay window and newer than the last one from its node
+     */
+    private boolean fresh(long sender, long sentAt, long seq) {
+        long now = System.currentTimeMillis();
+        if (Math.abs(now - sentAt) > replayWindowMs) {
+            return false;
+        }
+        long[] last = lastSeen.get(sender);
+        if (last != null && seq <= last[0]) {
+            return false;
+        }
+        lastSeen.put(sender, new long[] {seq, now});
+        return true;
+    }
+
+    /**
+     * Drop sequence state of nodes silent for two windows; their old packets fail the clock check by then
+     */
+    private void forgetIdleNodes() {
+        long cutoff = System.currentTimeMillis() - 2 * replayWindowMs;
+        lastSeen.values().removeIf(last -> last[1] < cutoff);
+    }
+
+    private boolean trusted(InetAddress sender) {
+        for (InetSocketAddress peer : peers) {
+            if (sender.equals(peer.getAddress())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean valid(ByteBuf in) {
+        int length = in.readableBytes();
+        int signed = length - MAC_LENGTH;
+        if (signed < HEADER || in.getInt(in.readerIndex()) != MAGIC) {
+            return false;
+        }
+        if (signed != HEADER + in.getUnsignedShort(in.readerIndex() + HEADER - 2) * ENTRY) {
+            return false;
+        }
+        byte[] expected = sign(in, signed);
+        byte[] actual = new byte[MAC_LENGTH];
+        in.getBytes(in.readerIndex() + signed, actual);
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    private byte[] sign(ByteBuf buf, int length) {
+        byte[] data = new byte[length];
+        buf.getBytes(buf.readerIndex(), data);
+        byte[] full = mac.doFinal(data);
+        byte[] truncated = new byte[MAC_LENGTH];
+        System.arraycopy(full, 0, truncated, 0, MAC_LENGTH);
+        return truncated;
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        return key ^ key >>> 33;
+    }
+}
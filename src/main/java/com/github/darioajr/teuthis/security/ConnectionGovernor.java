@@ -0,0 +1,358 @@
+package com.github.darioajr.teuthis.security;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.darioajr.teuthis.infra.Config;
+import com.github.darioajr.teuthis.infra.Metrics;
+import com.github.darioajr.teuthis.infra.RequestTimings;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpStatusClass;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.handler.timeout.IdleStateHandler;
+
+/**
+ * Connection governance against slow and greedy clients.
+ *
+ * Per-IP and global connection caps are enforced when the connection opens,
+ * before any TLS or HTTP decoding. A request head must then arrive within
+ * {@code teuthis.connection.header.timeout.ms} of its first byte (TLS
+ * handshake included) and its body within
+ * {@code teuthis.connection.body.timeout.ms} of the head; past the grace
+ * period the body must keep up {@code teuthis.connection.min.body.rate} bytes
+ * per second. Keep-alive connections with no request in flight are closed
+ * after {@code teuthis.connection.idle.timeout.ms}.
+ *
+ * The governor also starts the {@link RequestTimings} of each request and
+ * records them once its response is flushed, adding a {@code Server-Timing}
+ * header when enabled.
+ *
+ * One instance per connection: add it first in the pipeline and its
+ * {@link #requestProbe()} right after the HTTP codec.
+ */
+public class ConnectionGovernor extends IdleStateHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionGovernor.class);
+    private static final Logger securityLogger = LoggerFactory.getLogger("security");
+
+    private static final String PREFIX = "teuthis.connection.";
+    private static final long CHECK_PERIOD_MILLIS = 1000;
+    private static final String SERVER_TIMING = "Server-Timing";
+
+    /**
+     * Caps and deadlines; 0 disables a cap, timeout or the minimum rate
+     *
+     * @param minBodyRate bytes per second, enforced once a body has been arriving for graceMillis
+     */
+    record Limits(int maxTotal, int maxPerIp, long idleMillis, long headerMillis, long bodyMillis,
+                  long minBodyRate, long graceMillis) {
+
+        static Limits fromConfig() {
+            return new Limits(
+                Config.i(PREFIX + "max.total", 10_000),
+                Config.i(PREFIX + "max.per.ip", 100),
+                Config.l(PREFIX + "idle.timeout.ms", 60_000),
+                Config.l(PREFIX + "header.timeout.ms", 10_000),
+                Config.l(PREFIX + "body.timeout.ms", 60_000),
+                Config.l(PREFIX + "min.body.rate", 1024),
+                Config.l(PREFIX + "min.body.rate.grace.ms", 5_000));
+        }
+    }
+
+    // Reloadable: applies to connections opened afterwards
+    private static volatile Limits limitsInEffect = Limits.fromConfig();
+
+    // Open connections, overall and by address (IPv6 by /64, as a client usually holds a whole prefix)
+    private static final AtomicInteger total = new AtomicInteger();
+    private static final ConcurrentHashMap<Long, Integer> perAddress = new ConcurrentHashMap<>();
+
+    static {
+        Config.addListener((previous, current) -> {
+            if (current.changed(previous, PREFIX)) {
+                limitsInEffect = Limits.fromConfig();
+                logger.info("🔄 Connection limits reloaded: {}", limitsInEffect);
+            }
+        });
+        logger.info("✅ Connection governance: {}", limitsInEffect);
+    }
+
+    private enum Phase { IDLE, HEADERS, BODY }
+
+    private final Limits limits;
+    private final RequestProbe probe = new RequestProbe();
+
+    private ChannelHandlerContext ctx;
+    private boolean admitted;
+    private Long addressKey;
+    private String closeReason;
+
+    // Read progress of the current request; only touched on the channel's event loop
+    private Phase phase = Phase.IDLE;
+    private long headStart;
+    private long bodyStart;
+    private long bodyBytes;
+    private int inFlight;
+    private boolean informational;
+    private ScheduledFuture<?> check;
+
+    // Stage timings of requests awaiting a response, in arrival order; acceptedAt is cleared by the first request
+    private long acceptedAt;
+    private final ArrayDeque<RequestTimings> timed = new ArrayDeque<>(2);
+    private RequestTimings responding;
+    private int respondingStatus;
+
+    public ConnectionGovernor() {
+        this(limitsInEffect);
+    }
+
+    ConnectionGovernor(Limits limits) {
+        super(0, 0, limits.idleMillis(), TimeUnit.MILLISECONDS);
+        this.limits = limits;
+    }
+
+    /**
+     * Companion handler that sees decoded requests and responses; goes right after the HTTP codec
+     */
+    public ChannelHandler requestProbe() {
+        return probe;
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+        this.ctx = ctx;
+        super.handlerAdded(ctx);
+    }
+
+    @Override
+    public void channelActive(ChannelHandlerContext ctx) throws Exception {
+        closeReason = admit(ctx.channel().remoteAddress());
+        if (closeReason != null) {
+            securityLogger.warn("Connection from {} refused: {}", ctx.channel().remoteAddress(), closeReason);
+            ctx.close();
+            return;
+        }
+        admitted = true;
+        acceptedAt = System.nanoTime();
+        super.channelActive(ctx);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        cancelCheck();
+        Metrics.connectionsClosed.labels(closeReason != null ? closeReason : "normal").inc();
+        if (!admitted) {
+            // Handlers further on never saw this connection open
+            return;
+        }
+        admitted = false;
+        total.decrementAndGet();
+        if (addressKey != null) {
+            perAddress.computeIfPresent(addressKey, (key, count) -> count > 1 ? count - 1 : null);
+        }
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (phase == Phase.IDLE && msg instanceof ByteBuf buf && buf.isReadable()) {
+            // First bytes of the next request: the head deadline starts now
+            phase = Phase.HEADERS;
+            headStart = System.nanoTime();
+            scheduleCheck();
+        }
+        super.channelRead(ctx, msg);
+    }
+
+    @Override
+    protected void channelIdle(ChannelHandlerContext ctx, IdleStateEvent evt) {
+        if (phase == Phase.IDLE && inFlight == 0) {
+            closeReason = "idle";
+            logger.debug("💤 Closing idle connection from {}", ctx.channel().remoteAddress());
+            ctx.close();
+        }
+    }
+
+    /**
+     * Count the connection in; returns the reason it is refused, or null
+     */
+    private String admit(SocketAddress remote) {
+        int connections = total.incrementAndGet();
+        if (limits.maxTotal() > 0 && connections > limits.maxTotal()) {
+            total.decrementAndGet();
+            return "global_limit";
+        }
+        if (remote instanceof InetSocketAddress address && address.getAddress() != null) {
+            long key = TokenBucketTable.key(address.getAddress(), 32, 64);
+            int fromAddress = perAddress.merge(key, 1, Integer::sum);
+            if (limits.maxPerIp() > 0 && fromAddress > limits.maxPerIp()) {
+                perAddress.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+                total.decrementAndGet();
+                return "ip_limit";
+            }
+            addressKey = key;
+        }
+        return null;
+    }
+
+    private void scheduleCheck() {
+        if (check != null || (limits.headerMillis() <= 0 && limits.bodyMillis() <= 0 && limits.minBodyRate() <= 0)) {
+            return;
+        }
+        long period = CHECK_PERIOD_MILLIS;
+        if (limits.headerMillis() > 0) {
+            period = Math.min(period, limits.headerMillis());
+        }
+        if (limits.bodyMillis() > 0) {
+            period = Math.min(period, limits.bodyMillis());
+        }
+        if (limits.minBodyRate() > 0 && limits.graceMillis() > 0) {
+            period = Math.min(period, limits.graceMillis());
+        }
+        // Kept running across requests on a busy connection; stops once the connection goes quiet
+        check = ctx.executor().scheduleAtFixedRate(this::check, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelCheck() {
+        if (check != null) {
+            check.cancel(false);
+            check = null;
+        }
+    }
+
+    private void check() {
+        long elapsedMillis;
+        switch (phase) {
+            case HEADERS -> {
+                elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - headStart);
+                if (limits.headerMillis() > 0 && elapsedMillis > limits.headerMillis()) {
+                    timeOut("header_timeout");
+                }
+            }
+            case BODY -> {
+                elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - bodyStart);
+                if (limits.bodyMillis() > 0 && elapsedMillis > limits.bodyMillis()) {
+                    timeOut("body_timeout");
+                } else if (limits.minBodyRate() > 0 && elapsedMillis >= limits.graceMillis()
+                           && bodyBytes * 1000 < limits.minBodyRate() * Math.max(1, elapsedMillis)) {
+                    timeOut("slow_body");
+                }
+            }
+            default -> cancelCheck();
+        }
+    }
+
+    private void timeOut(String reason) {
+        closeReason = reason;
+        cancelCheck();
+        securityLogger.warn("Slow client {} disconnected: {}", ctx.channel().remoteAddress(), reason);
+        if (probe.ctx == null || inFlight > 0) {
+            ctx.close();
+            return;
+        }
+        FullHttpResponse response = new DefaultFullHttpResponse(
+            HttpVersion.HTTP_1_1, HttpResponseStatus.REQUEST_TIMEOUT, Unpooled.EMPTY_BUFFER);
+        response.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, 0);
+        response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+        probe.ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+    }
+
+    /**
+     * Tracks request heads, body progress and completed responses
+     */
+    private final class RequestProbe extends ChannelDuplexHandler {
+
+        private ChannelHandlerContext ctx;
+
+        @Override
+        public void handlerAdded(ChannelHandlerContext ctx) {
+            this.ctx = ctx;
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+            if (msg instanceof HttpRequest request) {
+                long now = System.nanoTime();
+                // A head pipelined behind the previous body has no first-byte stamp of its own
+                RequestTimings timings = new RequestTimings(acceptedAt, phase == Phase.HEADERS ? headStart : now,
+                                                            request.method().name(), request.uri());
+                timings.stamp(RequestTimings.Stage.HEADERS);
+                acceptedAt = 0;
+                timed.add(timings);
+                ctx.channel().attr(RequestTimings.KEY).set(timings);
+                phase = Phase.BODY;
+                bodyStart = now;
+                bodyBytes = 0;
+                scheduleCheck();
+            }
+            if (msg instanceof HttpContent content) {
+                bodyBytes += content.content().readableBytes();
+                if (msg instanceof LastHttpContent) {
+                    phase = Phase.IDLE;
+                    inFlight++;
+                    RequestTimings timings = timed.peekLast();
+                    if (timings != null) {
+                        timings.stamp(RequestTimings.Stage.BODY);
+                    }
+                }
+            }
+            super.channelRead(ctx, msg);
+        }
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+            if (msg instanceof HttpResponse response) {
+                // 100 Continue precedes the real response
+                informational = response.status().codeClass() == HttpStatusClass.INFORMATIONAL;
+                if (!informational) {
+                    responding = timed.poll();
+                    respondingStatus = response.status().code();
+                    String serverTiming = responding != null ? responding.serverTiming() : null;
+                    if (serverTiming != null) {
+                        response.headers().set(SERVER_TIMING, serverTiming);
+                    }
+                }
+            }
+            if (msg instanceof LastHttpContent && !informational) {
+                if (inFlight > 0) {
+                    inFlight--;
+                }
+                if (responding != null) {
+                    RequestTimings timings = responding;
+                    int status = respondingStatus;
+                    responding = null;
+                    promise = promise.unvoid();
+                    promise.addListener(future -> {
+                        timings.stamp(RequestTimings.Stage.FLUSH);
+                        timings.record(status);
+                    });
+                }
+            }
+            super.write(ctx, msg, promise);
+        }
+    }
+}
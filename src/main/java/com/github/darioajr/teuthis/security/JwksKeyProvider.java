@@ -0,0 +1,264 @@
+package com.github.darioajr.teuthis.security;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.darioajr.teuthis.infra.Metrics;
+
+/**
+ * Verifiers for the public keys of a JWKS document, indexed by {@code kid}.
+ *
+ * The document is read from a file or an http(s) URL and refreshed in the
+ * background; a failed refresh keeps the keys already loaded. A token with an
+ * unknown kid is rejected at once and triggers at most one refresh per
+ * {@code minRefreshInterval}; the kid is then remembered as unknown for
+ * {@code unknownKidTtl}, so a flood of bad tokens never waits on or causes fetches.
+ */
+public final class JwksKeyProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwksKeyProvider.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Duration FETCH_TIMEOUT = Duration.ofSeconds(10);
+
+    private final String location;
+    private final long minRefreshIntervalNanos;
+    private final Cache<String, Boolean> unknownKids;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final AtomicLong lastAttemptNanos;
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "jwks-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+    private volatile HttpClient http;
+    private volatile Map<String, JWTVerifier> verifiers = Map.of();
+
+    public JwksKeyProvider(String location, Duration minRefreshInterval, Duration unknownKidTtl) {
+        this.location = location;
+        this.minRefreshIntervalNanos = minRefreshInterval.toNanos();
+        this.lastAttemptNanos = new AtomicLong(System.nanoTime() - minRefreshIntervalNanos);
+        this.unknownKids = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(unknownKidTtl)
+            .build();
+    }
+
+    /**
+     * Load the keys, then refresh them every {@code refreshInterval}. A failed
+     * first load is logged and retried on schedule.
+     */
+    public void start(Duration refreshInterval) {
+        try {
+            refresh();
+        } catch (IOException e) {
+            logger.error("❌ Could not load JWKS from {}: {}", location, e.getMessage());
+        }
+        long interval = refreshInterval.toMillis();
+        refresher.scheduleWithFixedDelay(this::refreshQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Verifier for a key id, or null when the kid is unknown
+     */
+    public JWTVerifier verifier(String kid) {
+        if (kid == null) {
+            return null;
+        }
+        JWTVerifier verifier = verifiers.get(kid);
+        if (verifier == null && unknownKids.asMap().putIfAbsent(kid, Boolean.TRUE) == null) {
+            Metrics.jwksUnknownKids.inc();
+            logger.debug("🔍 Unknown JWKS kid {}, scheduling a refresh", kid);
+            refreshSoon();
+        }
+        return verifier;
+    }
+
+    /**
+     * Key ids currently loaded
+     */
+    public Set<String> keyIds() {
+        return verifiers.keySet();
+    }
+
+    /**
+     * Fetch the document and swap in its keys; the previous keys stay in effect on failure
+     *
+     * @return number of keys loaded
+     */
+    public synchronized int refresh() throws IOException {
+        lastAttemptNanos.set(System.nanoTime());
+        Map<String, JWTVerifier> loaded;
+        try {
+            loaded = parse(fetch());
+        } catch (IOException | RuntimeException e) {
+            Metrics.jwksRefreshes.labels("error").inc();
+            throw e instanceof IOException io ? io : new IOException(e.getMessage(), e);
+        }
+        verifiers = loaded;
+        loaded.keySet().forEach(unknownKids::invalidate);
+        Metrics.jwksRefreshes.labels("success").inc();
+        Metrics.jwksKeys.set(loaded.size());
+        logger.info("🔑 JWKS loaded from {}: {} keys", location, loaded.size());
+        return loaded.size();
+    }
+
+    private void refreshSoon() {
+        long last = lastAttemptNanos.get();
+        if (System.nanoTime() - last < minRefreshIntervalNanos || !refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        refresher.execute(() -> {
+            try {
+                refreshQuietly();
+            } finally {
+                refreshing.set(false);
+            }
+        });
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (IOException e) {
+            logger.warn("⚠️ JWKS refresh from {} failed, keeping {} keys: {}", location, verifiers.size(), e.getMessage());
+        }
+    }
+
+    private String fetch() throws IOException {
+        if (!location.startsWith("http://") && !location.startsWith("https://")) {
+            Path path = location.startsWith("file:") ? Path.of(URI.create(location)) : Path.of(location);
+            return Files.readString(path);
+        }
+        if (http == null) {
+            http = HttpClient.newBuilder().connectTimeout(FETCH_TIMEOUT).build();
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(location)).timeout(FETCH_TIMEOUT).GET().build();
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IOException("HTTP " + response.statusCode());
+            }
+            return response.body();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        }
+    }
+
+    /**
+     * Build one verifier per usable signing key of a JWKS document
+     */
+    static Map<String, JWTVerifier> parse(String json) throws IOException {
+        JsonNode keys = MAPPER.readTree(json).path("keys");
+        Map<String, JWTVerifier> verifiers = new HashMap<>();
+        for (JsonNode key : keys) {
+            String kid = key.path("kid").asText(null);
+            if (kid == null || !key.path("use").asText("sig").equals("sig")) {
+                continue;
+            }
+            try {
+                Algorithm algorithm = algorithm(key);
+                if (algorithm != null) {
+                    verifiers.put(kid, JWT.require(algorithm).build());
+                } else {
+                    logger.warn("⚠️ Skipping JWKS key {}: unsupported kty/alg", kid);
+                }
+            } catch (GeneralSecurityException | IllegalArgumentException e) {
+                logger.warn("⚠️ Skipping JWKS key {}: {}", kid, e.getMessage());
+            }
+        }
+        if (verifiers.isEmpty()) {
+            throw new IOException("JWKS has no usable signing keys");
+        }
+        return Map.copyOf(verifiers);
+    }
+
+    private static Algorithm algorithm(JsonNode key) throws GeneralSecurityException {
+        String alg = key.path("alg").asText("");
+        switch (key.path("kty").asText()) {
+            case "RSA" -> {
+                RSAPublicKey publicKey = (RSAPublicKey) KeyFactory.getInstance("RSA").generatePublic(
+                    new RSAPublicKeySpec(unsigned(key, "n"), unsigned(key, "e")));
+                return switch (alg.isEmpty() ? "RS256" : alg) {
+                    case "RS256" -> Algorithm.RSA256(publicKey, null);
+                    case "RS384" -> Algorithm.RSA384(publicKey, null);
+                    case "RS512" -> Algorithm.RSA512(publicKey, null);
+                    default -> null;
+                };
+            }
+            case "EC" -> {
+                String crv = key.path("crv").asText();
+                String expected = switch (crv) {
+                    case "P-256" -> "ES256";
+                    case "P-384" -> "ES384";
+                    case "P-521" -> "ES512";
+                    default -> null;
+                };
+                if (expected == null || !(alg.isEmpty() || alg.equals(expected))) {
+                    return null;
+                }
+                AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+                parameters.init(new ECGenParameterSpec("secp" + crv.substring(2) + "r1"));
+                ECPoint point = new ECPoint(unsigned(key, "x"), unsigned(key, "y"));
+                ECPublicKey publicKey = (ECPublicKey) KeyFactory.getInstance("EC").generatePublic(
+                    new ECPublicKeySpec(point, parameters.getParameterSpec(ECParameterSpec.class)));
+                return switch (expected) {
+                    case "ES256" -> Algorithm.ECDSA256(publicKey, null);
+                    case "ES384" -> Algorithm.ECDSA384(publicKey, null);
+                    default -> Algorithm.ECDSA512(publicKey, null);
+                };
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    private static BigInteger unsigned(JsonNode key, String field) {
+        String value = key.path(field).asText(null);
+        if (value == null) {
+            throw new IllegalArgumentException("missing '" + field + "'");
+        }
+        return new BigInteger(1, Base64.getUrlDecoder().decode(value));
+    }
+}
@@ -1,7 +1,13 @@
 package com.github.darioajr.teuthis.security;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,7 +18,12 @@ import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.github.darioajr.teuthis.infra.Config;
+import com.github.darioajr.teuthis.infra.Metrics;
+import com.github.darioajr.teuthis.infra.Settings;
 
 /**
  * JWT token validation and creation utilities
@@ -27,29 +38,187 @@ public class JwtValidator {
     private static final Algorithm algorithm = Algorithm.HMAC256(JWT_SECRET);
     private static final JWTVerifier verifier = JWT.require(algorithm).build();
     
+    // Asymmetric (RS*/ES*) tokens are verified against a JWKS when one is configured
+    private static final JwksKeyProvider jwks = jwksFromConfig();
+    private static final boolean HMAC_ENABLED = Config.b("teuthis.security.jwt.hmac.enabled", jwks == null);
+    
+    // Verified principals by token SHA-256; an entry never outlives its token
+    private static final int CACHE_MAX_SIZE = Config.i("teuthis.security.jwt.cache.max.size", 100_000);
+    private static final long CACHE_MAX_TTL_NANOS =
+        Config.l("teuthis.security.jwt.cache.max.ttl.seconds", 300) * 1_000_000_000L;
+    private static final Cache<String, Principal> principals = Caffeine.newBuilder()
+        .maximumSize(Math.max(CACHE_MAX_SIZE, 0))
+        .expireAfter(new Expiry<String, Principal>() {
+            @Override
+            public long expireAfterCreate(String key, Principal principal, long currentTime) {
+                long remaining = (principal.expiresAt().toEpochMilli() - System.currentTimeMillis()) * 1_000_000L;
+                return Math.max(0, Math.min(remaining, CACHE_MAX_TTL_NANOS));
+            }
+            
+            @Override
+            public long expireAfterUpdate(String key, Principal principal, long currentTime, long currentDuration) {
+                return expireAfterCreate(key, principal, currentTime);
+            }
+            
+            @Override
+            public long expireAfterRead(String key, Principal principal, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        })
+        .build();
+    
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+    
+    // Bumped whenever verified principals go stale, so copies held outside the cache can tell
+    private static volatile int generation;
+    
+    static {
+        // The tenant is derived from a configurable claim, so cached principals go stale with it
+        Config.addListener((previous, current) -> {
+            if (current.changed(previous, "teuthis.fair.tenant.claim")) {
+                generation++;
+                principals.invalidateAll();
+            }
+        });
+    }
+    
+    /**
+     * Changes whenever previously returned principals must no longer be trusted
+     */
+    public static int generation() {
+        return generation;
+    }
+    
+    private static JwksKeyProvider jwksFromConfig() {
+        String location = Config.str("teuthis.security.jwt.jwks.location", null);
+        if (location == null) {
+            return null;
+        }
+        return new JwksKeyProvider(location,
+            Duration.ofMillis(Config.l("teuthis.security.jwt.jwks.min.refresh.interval.ms", 30_000)),
+            Duration.ofMillis(Config.l("teuthis.security.jwt.jwks.unknown.kid.ttl.ms", 60_000)));
+    }
+    
+    /**
+     * Load the JWKS, if configured, and keep it refreshed
+     */
+    public static void start() {
+        if (jwks != null) {
+            jwks.start(Duration.ofMillis(Config.l("teuthis.security.jwt.jwks.refresh.interval.ms", 300_000)));
+            logger.info("✅ JWKS verification enabled (HMAC tokens {})", HMAC_ENABLED ? "also accepted" : "rejected");
+        }
+    }
+    
+    public static void shutdown() {
+        if (jwks != null) {
+            jwks.shutdown();
+        }
+    }
+    
+    /**
+     * Verifier for the token's algorithm and key id, or null when none applies
+     */
+    private static JWTVerifier verifierFor(String token) {
+        if (jwks == null) {
+            return verifier;
+        }
+        DecodedJWT unverified = JWT.decode(token);
+        String alg = unverified.getAlgorithm();
+        if (alg != null && alg.startsWith("HS")) {
+            return HMAC_ENABLED ? verifier : null;
+        }
+        return jwks.verifier(unverified.getKeyId());
+    }
+    
+    /**
+     * Verify a JWT token and return its principal, or null when invalid or expired.
+     * Tokens already verified are served from a cache keyed by their SHA-256.
+     */
+    public static Principal authenticate(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        if (CACHE_MAX_SIZE <= 0) {
+            return toPrincipal(decode(token));
+        }
+        
+        String key = HexFormat.of().formatHex(SHA256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+        Principal principal = principals.getIfPresent(key);
+        if (principal != null) {
+            if (!principal.isExpired(System.currentTimeMillis())) {
+                Metrics.jwtCacheRequests.labels("hit").inc();
+                return principal;
+            }
+            principals.invalidate(key);
+        }
+        
+        Metrics.jwtCacheRequests.labels("miss").inc();
+        principal = toPrincipal(decode(token));
+        if (principal != null) {
+            principals.put(key, principal);
+        }
+        return principal;
+    }
+    
+    private static Principal toPrincipal(DecodedJWT jwt) {
+        if (jwt == null) {
+            return null;
+        }
+        List<String> roles = jwt.getClaim("roles").asList(String.class);
+        String tenant = jwt.getClaim(Settings.current().tenantClaim()).asString();
+        return new Principal(
+            jwt.getSubject(),
+            roles != null ? roles : List.of(),
+            tenant != null ? tenant : jwt.getSubject(),
+            jwt.getExpiresAtAsInstant()
+        );
+    }
+    
     /**
      * Validate JWT token
      */
     public static boolean validate(String token) {
+        return authenticate(token) != null;
+    }
+    
+    /**
+     * Verify a JWT token and return it decoded, or null when invalid or expired
+     */
+    public static DecodedJWT decode(String token) {
         if (token == null || token.trim().isEmpty()) {
-            return false;
+            return null;
         }
         
         try {
-            DecodedJWT jwt = verifier.verify(token);
+            JWTVerifier tokenVerifier = verifierFor(token);
+            if (tokenVerifier == null) {
+                securityLogger.warn("❌ No verification key for JWT token");
+                return null;
+            }
+            DecodedJWT jwt = tokenVerifier.verify(token);
             
             // Additional validation
+            if (jwt.getExpiresAt() == null) {
+                securityLogger.warn("JWT token without expiry attempted: {}", jwt.getSubject());
+                return null;
+            }
             if (jwt.getExpiresAt().before(new Date())) {
                 securityLogger.warn("Expired JWT token attempted: {}", jwt.getSubject());
-                return false;
+                return null;
             }
             
             logger.debug("✅ JWT token validated successfully for subject: {}", jwt.getSubject());
-            return true;
+            return jwt;
             
         } catch (JWTVerificationException e) {
             securityLogger.warn("❌ Invalid JWT token: {}", e.getMessage());
-            return false;
+            return null;
         }
     }
     
@@ -112,6 +281,6 @@ public class JwtValidator {
      * Check if authentication is enabled
      */
     public static boolean isAuthEnabled() {
-        return Config.b("teuthis.security.auth.enabled");
+        return Settings.current().authEnabled();
     }
 }
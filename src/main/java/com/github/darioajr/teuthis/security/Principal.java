@@ -0,0 +1,42 @@
+package com.github.darioajr.teuthis.security;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Caller of a request, taken from a verified JWT or a mapped client certificate
+ *
+ * @param subject   the {@code sub} claim, or the certificate identity
+ * @param roles     the {@code roles} claim, empty when absent
+ * @param tenant    the {@code teuthis.fair.tenant.claim} claim, else the subject
+ * @param expiresAt the {@code exp} claim, or the certificate's notAfter
+ * @param topics    topics the caller may publish to, null when only the allowlist applies
+ */
+public record Principal(String subject, List<String> roles, String tenant, Instant expiresAt, TopicMatcher topics) {
+
+    public Principal {
+        roles = List.copyOf(roles);
+    }
+
+    public Principal(String subject, List<String> roles, String tenant, Instant expiresAt) {
+        this(subject, roles, tenant, expiresAt, null);
+    }
+
+    /**
+     * Whether the token this principal came from has expired at {@code nowMillis}
+     */
+    public boolean isExpired(long nowMillis) {
+        return expiresAt.toEpochMilli() <= nowMillis;
+    }
+
+    public boolean hasRole(String role) {
+        return roles.contains(role);
+    }
+
+    /**
+     * Whether this caller's own topic ACL permits {@code topic}; the allowlist is checked separately
+     */
+    public boolean mayPublish(String topic) {
+        return topics == null || topics.matches(topic);
+    }
+}
@@ -0,0 +1,241 @@
+package com.github.darioajr.teuthis.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.darioajr.teuthis.infra.Metrics;
+import com.github.darioajr.teuthis.infra.Settings;
+import com.github.darioajr.teuthis.kafka.PublishRoute;
+import com.google.common.hash.Hashing;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+
+/**
+ * Request and byte quotas per JWT subject, per topic and per subject×topic.
+ *
+ * Every quota that applies to a publish is taken in one pass from the
+ * {@link TokenBucketTable} of the per-IP limits, keyed by a hash of the quota
+ * holder; if any is exhausted those already taken are refunded and the request
+ * gets a 429. Bytes are those of the decoded payload, counted once per allowed
+ * target topic. Subject quotas apply to authenticated requests only. The most
+ * constrained quota is reported in {@code X-RateLimit-*} headers.
+ */
+public class QuotaHandler extends ChannelDuplexHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuotaHandler.class);
+    private static final Logger securityLogger = LoggerFactory.getLogger("security");
+
+    // Checks of one request: subject plus topic and subject×topic per topic, two units each
+    private static int checksFor(int topics) {
+        return 2 + 4 * topics;
+    }
+
+    private enum Scope {
+        SUBJECT("subject"), TOPIC("topic"), SUBJECT_TOPIC("subject_topic");
+
+        final String label;
+
+        Scope(String label) {
+            this.label = label;
+        }
+    }
+
+    // Checks of the request being evaluated, grown to the largest fan-out seen; requests on a channel are handled one at a time
+    private long[] keys = new long[checksFor(1)];
+    private long[] intervals = new long[keys.length];
+    private long[] bursts = new long[keys.length];
+    private long[] costs = new long[keys.length];
+    private Scope[] scopes = new Scope[keys.length];
+    private boolean[] byteUnits = new boolean[keys.length];
+    private int checks;
+
+    // X-RateLimit-* values for the response to the admitted request, null when no quota applied
+    private String limit;
+    private String remaining;
+    private String reset;
+    private String policy;
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        limit = null;
+        Settings settings = Settings.current();
+        if (settings.quotaEnabled() && msg instanceof FullHttpRequest req && req.method().equals(HttpMethod.POST)) {
+            PublishRoute route = PublishRoute.parse(req.uri());
+            if (route != null && !admit(ctx, req, route, settings)) {
+                req.release();
+                return;
+            }
+        }
+        super.channelRead(ctx, msg);
+    }
+
+    /**
+     * Take every applicable quota, or none of them
+     *
+     * @return false when a quota was exhausted and the 429 was sent
+     */
+    private boolean admit(ChannelHandlerContext ctx, FullHttpRequest req, PublishRoute route, Settings settings) {
+        Principal principal = AuthenticationHandler.principal(ctx);
+        String subject = principal != null ? principal.subject() : null;
+        long bytes = req.content().readableBytes();
+        // Topics past the fan-out limit are rejected downstream, as are those not allowed; creating
+        // buckets for them would only let clients fill the table
+        List<String> targets = route.topics().subList(0, Math.min(route.topics().size(), settings.maxFanoutTopics()));
+        int allowed = 0;
+        for (String topic : targets) {
+            if (TopicAllowlist.isAllowed(topic)) {
+                allowed++;
+            }
+        }
+        if (allowed == 0) {
+            return true;
+        }
+        ensureCapacity(checksFor(allowed));
+
+        checks = 0;
+        if (subject != null) {
+            add(Scope.SUBJECT, settings.subjectQuota(), subject, "", allowed, bytes * allowed);
+        }
+        for (String topic : targets) {
+            if (!TopicAllowlist.isAllowed(topic)) {
+                continue;
+            }
+            add(Scope.TOPIC, settings.topicQuota(), "", topic, 1, bytes);
+            if (subject != null) {
+                add(Scope.SUBJECT_TOPIC, settings.subjectTopicQuota(), subject, topic, 1, bytes);
+            }
+        }
+
+        TokenBucketTable buckets = RateLimitHandler.buckets();
+        double tightest = Double.MAX_VALUE;
+        for (int i = 0; i < checks; i++) {
+            long left = buckets.acquire(keys[i], intervals[i], bursts[i], costs[i]);
+            if (left < 0) {
+                for (int j = 0; j < i; j++) {
+                    buckets.refund(keys[j], intervals[j], bursts[j], costs[j]);
+                }
+                reject(ctx, i, -left);
+                return false;
+            }
+            double fraction = (double) left / bursts[i];
+            if (fraction < tightest) {
+                tightest = fraction;
+                limit = Long.toString(bursts[i]);
+                remaining = Long.toString(left);
+                reset = Long.toString(seconds((bursts[i] - left) * intervals[i]));
+                policy = policy(i);
+            }
+        }
+        return true;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (keys.length < capacity) {
+            keys = new long[capacity];
+            intervals = new long[capacity];
+            bursts = new long[capacity];
+            costs = new long[capacity];
+            scopes = new Scope[capacity];
+            byteUnits = new boolean[capacity];
+        }
+    }
+
+    private void add(Scope scope, Settings.Quota quota, String subject, String topic, long requests, long bytes) {
+        if (quota.requestsPerSecond() > 0) {
+            check(scope, false, quota.requestsPerSecond(), subject, topic, requests);
+        }
+        if (quota.bytesPerSecond() > 0) {
+            check(scope, true, quota.bytesPerSecond(), subject, topic, bytes);
+        }
+    }
+
+    /**
+     * Queue a check of a bucket holding one second of {@code rate}
+     */
+    private void check(Scope scope, boolean byteUnit, double rate, String subject, String topic, long cost) {
+        long key = Hashing.farmHashFingerprint64().newHasher()
+            .putByte((byte) scope.ordinal())
+            .putBoolean(byteUnit)
+            .putString(subject, StandardCharsets.UTF_8)
+            .putByte((byte) 0)
+            .putString(topic, StandardCharsets.UTF_8)
+            .hash().asLong();
+        keys[checks] = key != 0 ? key : 1;
+        intervals[checks] = Math.max(1, Math.round(1_000_000_000d / rate));
+        bursts[checks] = (long) Math.max(1, Math.ceil(rate));
+        costs[checks] = cost;
+        scopes[checks] = scope;
+        byteUnits[checks] = byteUnit;
+        checks++;
+    }
+
+    private String unit(int check) {
+        return byteUnits[check] ? "bytes" : "requests";
+    }
+
+    private String policy(int check) {
+        return scopes[check].label + ";unit=" + unit(check);
+    }
+
+    private static long seconds(long nanos) {
+        return Math.max(1, (nanos + 999_999_999L) / 1_000_000_000L);
+    }
+
+    private void reject(ChannelHandlerContext ctx, int check, long waitNanos) {
+        Metrics.quotaRejected.labels(scopes[check].label, unit(check)).inc();
+        securityLogger.warn("Quota exceeded: {} {} from {}", scopes[check].label, unit(check),
+                            ctx.channel().remoteAddress());
+
+        byte[] bytes = ("Quota exceeded: " + scopes[check].label + " " + unit(check)).getBytes(StandardCharsets.UTF_8);
+        FullHttpResponse response = new DefaultFullHttpResponse(
+            HttpVersion.HTTP_1_1,
+            HttpResponseStatus.TOO_MANY_REQUESTS,
+            Unpooled.wrappedBuffer(bytes)
+        );
+        String wait = Long.toString(seconds(waitNanos));
+        HttpHeaders headers = response.headers();
+        headers.set(HttpHeaderNames.CONTENT_TYPE, "text/plain; charset=UTF-8");
+        headers.setInt(HttpHeaderNames.CONTENT_LENGTH, bytes.length);
+        headers.set(HttpHeaderNames.RETRY_AFTER, wait);
+        headers.set("X-RateLimit-Limit", Long.toString(bursts[check]));
+        headers.set("X-RateLimit-Remaining", "0");
+        headers.set("X-RateLimit-Reset", wait);
+        headers.set("X-RateLimit-Policy", policy(check));
+
+        ctx.writeAndFlush(response);
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (limit != null && msg instanceof HttpResponse response) {
+            HttpHeaders headers = response.headers();
+            headers.set("X-RateLimit-Limit", limit);
+            headers.set("X-RateLimit-Remaining", remaining);
+            headers.set("X-RateLimit-Reset", reset);
+            headers.set("X-RateLimit-Policy", policy);
+            limit = null;
+        }
+        super.write(ctx, msg, promise);
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+        logger.error("❌ Quota handler error: {}", cause.getMessage(), cause);
+        ctx.close();
+    }
+}
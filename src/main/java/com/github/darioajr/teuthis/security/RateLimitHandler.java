@@ -1,6 +1,10 @@
 package com.github.darioajr.teuthis.security;
 
-import java.util.concurrent.ConcurrentHashMap;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.List;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -9,7 +13,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.darioajr.teuthis.infra.Config;
-import com.google.common.util.concurrent.RateLimiter;
+import com.github.darioajr.teuthis.infra.Metrics;
+import com.github.darioajr.teuthis.infra.Settings;
+import com.google.common.hash.Hashing;
 
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
@@ -22,37 +28,139 @@ import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpVersion;
 
 /**
- * Rate limiting handler using Guava RateLimiter
+ * Rate limiting handler: a {@link StripedRateLimiter} for the global limit and
+ * a {@link TokenBucketTable} for per-client limits
  */
 public class RateLimitHandler extends ChannelInboundHandlerAdapter {
     
     private static final Logger logger = LoggerFactory.getLogger(RateLimitHandler.class);
     private static final Logger securityLogger = LoggerFactory.getLogger("security");
     
-    private static final double GLOBAL_RATE_LIMIT = Config.d("teuthis.security.rate.limit.global");
-    private static final double PER_IP_RATE_LIMIT = Config.d("teuthis.security.rate.limit.per.ip");
+    // Reloadable: updated by a configuration listener
+    private static volatile double GLOBAL_RATE_LIMIT = Settings.current().rateLimitGlobal();
+    private static volatile double PER_IP_RATE_LIMIT = Settings.current().rateLimitPerIp();
     
-    // Global rate limiter
-    private static final RateLimiter globalLimiter = RateLimiter.create(GLOBAL_RATE_LIMIT);
+    // Global rate limiter, striped so worker threads do not contend on it
+    private static final StripedRateLimiter globalLimiter = new StripedRateLimiter(GLOBAL_RATE_LIMIT,
+        2 * Runtime.getRuntime().availableProcessors(),
+        TimeUnit.MILLISECONDS.toNanos(Config.l("teuthis.security.rate.limit.global.batch.ms", 10)),
+        System::nanoTime);
     
-    // Per-IP rate limiters
-    private static final ConcurrentHashMap<String, RateLimiter> ipLimiters = new ConcurrentHashMap<>();
+    // Per-client buckets, one per address, /ipv4.prefix or /ipv6.prefix network, or client certificate identity;
+    // also holds the quota buckets
+    private static final TokenBucketTable ipBuckets = new TokenBucketTable(
+        Config.i("teuthis.security.rate.limit.table.slots", 1 << 18), System::nanoTime);
+    private static final int IPV4_PREFIX = Math.clamp(Config.i("teuthis.security.rate.limit.ipv4.prefix", 32), 0, 32);
+    private static final int IPV6_PREFIX = Math.clamp(Config.i("teuthis.security.rate.limit.ipv6.prefix", 64), 0, 64);
+    private static final long UNKNOWN_CLIENT = 2;
+    private static final long IDLE_NANOS = TimeUnit.MINUTES.toNanos(1);
     
-    // Cleanup scheduler for unused IP limiters
+    // Bucket shape derived from PER_IP_RATE_LIMIT: one token per interval, one second of burst
+    private static volatile long perIpIntervalNanos = intervalNanos(PER_IP_RATE_LIMIT);
+    private static volatile int perIpBurst = burst(PER_IP_RATE_LIMIT);
+    
+    // Cluster mode: consumption exchanged with the other instances, null when off
+    private static volatile ClusterRateSync cluster;
+    
+    // Sweeper for idle per-client buckets
     private static final ScheduledExecutorService cleanupScheduler = 
         Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread t = new Thread(r, "rate-limit-cleanup");
+            Thread t = new Thread(r, "rate-limit-sweep");
             t.setDaemon(true);
             return t;
         });
     
     static {
-        // Clean up unused IP limiters every 5 minutes
-        cleanupScheduler.scheduleAtFixedRate(RateLimitHandler::cleanupUnusedLimiters, 
-                                           5, 5, TimeUnit.MINUTES);
+        // Free buckets that have been full for a minute
+        cleanupScheduler.scheduleAtFixedRate(RateLimitHandler::sweepIdleBuckets, 
+                                           1, 1, TimeUnit.MINUTES);
+        
+        logger.info("✅ Rate limiting initialized - Global: {} req/s, Per-IP: {} req/s ({} client slots, /{} IPv4, /{} IPv6)", 
+                   GLOBAL_RATE_LIMIT, PER_IP_RATE_LIMIT, ipBuckets.capacity(), IPV4_PREFIX, IPV6_PREFIX);
+        
+        Config.addListener((previous, current) -> {
+            if (current.changed(previous, "teuthis.security.rate.limit.")) {
+                applyRates(Settings.current().rateLimitGlobal(), Settings.current().rateLimitPerIp());
+            }
+        });
+    }
+    
+    /**
+     * Change the global and per-IP limits in place; existing buckets keep their state
+     */
+    private static void applyRates(double global, double perIp) {
+        GLOBAL_RATE_LIMIT = global;
+        PER_IP_RATE_LIMIT = perIp;
+        globalLimiter.setRate(global);
+        perIpIntervalNanos = intervalNanos(perIp);
+        perIpBurst = burst(perIp);
+        ClusterRateSync sync = cluster;
+        if (sync != null) {
+            sync.setLimits(global, perIp);
+        }
+        logger.info("🔄 Rate limits changed - Global: {} req/s, Per-IP: {} req/s", global, perIp);
+    }
+    
+    /**
+     * Start exchanging consumption with {@code teuthis.cluster.peers} when
+     * {@code teuthis.cluster.rate.limit.enabled}, so limits hold across instances
+     */
+    public static void startCluster() throws InterruptedException {
+        if (!Config.b("teuthis.cluster.rate.limit.enabled", false)) {
+            return;
+        }
+        String secret = Config.str("teuthis.cluster.secret", "");
+        if (secret.isBlank()) {
+            throw new IllegalStateException("teuthis.cluster.secret is required when teuthis.cluster.rate.limit.enabled=true");
+        }
+        ClusterRateSync sync = new ClusterRateSync(
+            new SecureRandom().nextLong(),
+            Config.str("teuthis.cluster.bind.host", "0.0.0.0"),
+            Config.i("teuthis.cluster.bind.port", 7947),
+            Config.l("teuthis.cluster.sync.interval.ms", 100),
+            Config.i("teuthis.cluster.sync.slots", 1 << 16),
+            secret,
+            Config.l("teuthis.cluster.replay.window.ms", 5000));
+        sync.setLimits(GLOBAL_RATE_LIMIT, PER_IP_RATE_LIMIT);
+        sync.setPeers(peers(Config.list("teuthis.cluster.peers")));
+        try {
+            sync.start(new ClusterRateSync.Sink() {
+                @Override
+                public void charge(long key, long count) {
+                    ipBuckets.charge(key, perIpIntervalNanos, count);
+                }
+                
+                @Override
+                public void chargeGlobal(long count) {
+                    globalLimiter.charge(count);
+                }
+            });
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid teuthis.cluster.secret", e);
+        }
+        cluster = sync;
         
-        logger.info("✅ Rate limiting initialized - Global: {} req/s, Per-IP: {} req/s", 
-                   GLOBAL_RATE_LIMIT, PER_IP_RATE_LIMIT);
+        Config.addListener((previous, current) -> {
+            if (current.changed(previous, "teuthis.cluster.peers")) {
+                sync.setPeers(peers(Config.list("teuthis.cluster.peers")));
+                logger.info("🔄 Cluster peers changed: {}", Config.list("teuthis.cluster.peers"));
+            }
+        });
+    }
+    
+    public static void stopCluster() {
+        ClusterRateSync sync = cluster;
+        if (sync != null) {
+            sync.shutdown();
+            cluster = null;
+        }
+    }
+    
+    private static List<InetSocketAddress> peers(List<String> entries) {
+        return entries.stream().map(entry -> {
+            int colon = entry.lastIndexOf(':');
+            return new InetSocketAddress(entry.substring(0, colon), Integer.parseInt(entry.substring(colon + 1)));
+        }).toList();
     }
     
     @Override
@@ -67,12 +175,21 @@ public class RateLimitHandler extends ChannelInboundHandlerAdapter {
                 return;
             }
             
+            ClusterRateSync sync = cluster;
+            if (sync != null) {
+                sync.recordGlobal();
+            }
+            
             // Check per-IP rate limit
-            if (!checkIpRateLimit(clientIp)) {
+            long key = clientKey(ctx);
+            if (!ipBuckets.tryAcquire(key, perIpIntervalNanos, perIpBurst)) {
                 securityLogger.warn("IP rate limit exceeded from {}", clientIp);
                 sendRateLimitResponse(ctx, "IP rate limit exceeded");
                 return;
             }
+            if (sync != null) {
+                sync.record(key);
+            }
             
             logger.debug("✅ Rate limit check passed for {}", clientIp);
         }
@@ -80,14 +197,24 @@ public class RateLimitHandler extends ChannelInboundHandlerAdapter {
         super.channelRead(ctx, msg);
     }
     
-    private boolean checkIpRateLimit(String clientIp) {
-        RateLimiter ipLimiter = ipLimiters.computeIfAbsent(clientIp, 
-            k -> {
-                logger.debug("🔧 Creating new rate limiter for IP: {}", k);
-                return RateLimiter.create(PER_IP_RATE_LIMIT);
-            });
-        
-        return ipLimiter.tryAcquire();
+    private static long clientKey(ChannelHandlerContext ctx) {
+        // Callers with a client certificate are limited by identity, wherever they connect from
+        Principal certificate = CertificateIdentities.principal(ctx.channel());
+        if (certificate != null) {
+            long key = Hashing.farmHashFingerprint64().hashString(certificate.subject(), StandardCharsets.UTF_8).asLong();
+            return key != 0 ? key : 1;
+        }
+        return ctx.channel().remoteAddress() instanceof InetSocketAddress address && address.getAddress() != null
+            ? TokenBucketTable.key(address.getAddress(), IPV4_PREFIX, IPV6_PREFIX)
+            : UNKNOWN_CLIENT;
+    }
+    
+    private static long intervalNanos(double rate) {
+        return Math.max(1, Math.round(1_000_000_000d / rate));
+    }
+    
+    private static int burst(double rate) {
+        return (int) Math.max(1, Math.ceil(rate));
     }
     
     private String extractClientIp(ChannelHandlerContext ctx) {
@@ -119,20 +246,24 @@ public class RateLimitHandler extends ChannelInboundHandlerAdapter {
         response.headers().set(HttpHeaderNames.RETRY_AFTER, "60"); // Retry after 60 seconds
         
         ctx.writeAndFlush(response);
-        ctx.close();
     }
     
     /**
-     * Clean up unused IP rate limiters to prevent memory leaks
+     * Table shared with {@link QuotaHandler}, whose keys are hashes of the quota holder
      */
-    private static void cleanupUnusedLimiters() {
-        int sizeBefore = ipLimiters.size();
-        
-        // Remove limiters that haven't been used recently
-        // This is a simple cleanup - in production you might want more sophisticated logic
-        if (sizeBefore > 1000) { // Only cleanup if we have many limiters
-            ipLimiters.clear();
-            logger.info("🧹 Cleaned up {} unused rate limiters", sizeBefore);
+    static TokenBucketTable buckets() {
+        return ipBuckets;
+    }
+    
+    /**
+     * Free idle per-client buckets; active clients keep their budget
+     */
+    private static void sweepIdleBuckets() {
+        int evicted = ipBuckets.sweep(IDLE_NANOS);
+        int size = ipBuckets.size();
+        Metrics.rateLimitClients.set(size);
+        if (evicted > 0) {
+            logger.debug("🧹 Evicted {} idle rate limit buckets, {} active", evicted, size);
         }
     }
     
@@ -141,7 +272,7 @@ public class RateLimitHandler extends ChannelInboundHandlerAdapter {
      */
     public static RateLimitStats getStats() {
         return new RateLimitStats(
-            ipLimiters.size(),
+            ipBuckets.size(),
             globalLimiter.getRate(),
             PER_IP_RATE_LIMIT
         );
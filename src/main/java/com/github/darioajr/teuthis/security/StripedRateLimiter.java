@@ -0,0 +1,122 @@
+package com.github.darioajr.teuthis.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Global rate limiter that threads can hit without sharing a lock or a cache line.
+ *
+ * Tokens are issued by one central bucket (a GCRA arrival time updated by CAS)
+ * in batches of about {@code batchWindow} worth of rate per stripe; each
+ * thread then spends its stripe's local allocation and only goes back to the
+ * central bucket when it runs dry. Tokens are never issued beyond the central
+ * budget, so the limiter never admits more than the configured rate and burst;
+ * it may admit less by at most the tokens parked in stripes, i.e. one batch
+ * window of rate ({@code stripes × batch}).
+ */
+public final class StripedRateLimiter {
+
+    // 16 longs (128 bytes) between stripe counters keeps them on separate cache lines
+    private static final int PAD = 16;
+
+    private final AtomicLong arrival = new AtomicLong();
+    private final AtomicLongArray stripes;
+    private final int mask;
+    private final long batchWindowNanos;
+    private final LongSupplier clock;
+    private final long base;
+    private volatile Shape shape;
+
+    private record Shape(double rate, long intervalNanos, int burst, int batch) {}
+
+    /**
+     * @param rate        permits per second
+     * @param stripes     local allocations, rounded up to a power of two
+     * @param batchWindow nanoseconds of rate a stripe takes from the central bucket at once
+     * @param clock       nanosecond clock, {@code System::nanoTime} outside tests
+     */
+    public StripedRateLimiter(double rate, int stripes, long batchWindow, LongSupplier clock) {
+        int size = Integer.highestOneBit(Math.max(stripes - 1, 1) << 1);
+        this.stripes = new AtomicLongArray(size * PAD);
+        this.mask = size - 1;
+        this.batchWindowNanos = batchWindow;
+        this.clock = clock;
+        this.base = clock.getAsLong();
+        setRate(rate);
+    }
+
+    /**
+     * Change the rate; permits already handed to stripes stay valid
+     */
+    public void setRate(double rate) {
+        if (!(rate > 0)) {
+            throw new IllegalArgumentException("rate must be positive: " + rate);
+        }
+        long interval = Math.max(1, Math.round(1_000_000_000d / rate));
+        int burst = (int) Math.max(1, Math.ceil(rate));
+        int batch = Math.clamp(batchWindowNanos / interval / (mask + 1), 1, burst);
+        shape = new Shape(rate, interval, burst, batch);
+    }
+
+    public double getRate() {
+        return shape.rate();
+    }
+
+    public int stripes() {
+        return mask + 1;
+    }
+
+    public boolean tryAcquire() {
+        int index = ((int) Thread.currentThread().threadId() & mask) * PAD;
+        while (true) {
+            long local = stripes.get(index);
+            if (local <= 0) {
+                break;
+            }
+            if (stripes.compareAndSet(index, local, local - 1)) {
+                return true;
+            }
+        }
+        int granted = borrow(shape);
+        if (granted == 0) {
+            return false;
+        }
+        if (granted > 1) {
+            stripes.addAndGet(index, granted - 1);
+        }
+        return true;
+    }
+
+    /**
+     * Take {@code permits} from the central bucket unconditionally, e.g. for
+     * requests admitted elsewhere; the bucket may go into debt
+     */
+    public void charge(long permits) {
+        long now = clock.getAsLong() - base;
+        long interval = shape.intervalNanos();
+        arrival.getAndUpdate(current -> Math.max(current, now) + interval * permits);
+    }
+
+    /**
+     * Take up to one batch from the central bucket
+     *
+     * @return permits taken, 0 when the bucket is empty
+     */
+    private int borrow(Shape s) {
+        long now = clock.getAsLong() - base;
+        long limit = now + s.intervalNanos() * s.burst();
+        while (true) {
+            long current = arrival.get();
+            long start = Math.max(current, now);
+            long available = (limit - start) / s.intervalNanos();
+            if (available <= 0) {
+                return 0;
+            }
+            int granted = (int) Math.min(available, s.batch());
+            if (arrival.compareAndSet(current, start + granted * s.intervalNanos())) {
+                return granted;
+            }
+        }
+    }
+}
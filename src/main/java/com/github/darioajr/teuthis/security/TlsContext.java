@@ -0,0 +1,281 @@
+package com.github.darioajr.teuthis.security;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLSession;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.darioajr.teuthis.infra.Config;
+import com.github.darioajr.teuthis.infra.Metrics;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.ssl.ApplicationProtocolConfig;
+import io.netty.handler.ssl.ApplicationProtocolNames;
+import io.netty.handler.ssl.ClientAuth;
+import io.netty.handler.ssl.OpenSsl;
+import io.netty.handler.ssl.OpenSslContextOption;
+import io.netty.handler.ssl.OpenSslServerSessionContext;
+import io.netty.handler.ssl.OpenSslSessionTicketKey;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.ssl.SslProvider;
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+/**
+ * Server TLS context, built with the OpenSSL (BoringSSL) engine when
+ * netty-tcnative is on the classpath and the JDK engine otherwise.
+ *
+ * Sessions are cached for resumption and, with the OpenSSL engine, tickets can
+ * be encrypted with shared keys so any instance resumes them. ALPN advertises
+ * HTTP/1.1. Delegated handshake work runs on a dedicated pool rather than on
+ * the event loops. The certificate and key files are polled and a changed
+ * pair is swapped in for new connections; a pair that fails to load keeps the
+ * previous context.
+ *
+ * With {@code teuthis.tls.client.auth} clients present certificates chaining
+ * to {@code teuthis.tls.client.ca.file} (polled like the certificate); see
+ * {@link CertificateIdentities} for how they become principals.
+ */
+public final class TlsContext {
+
+    private static final Logger logger = LoggerFactory.getLogger(TlsContext.class);
+
+    /**
+     * @param provider    engine, see {@link #provider(String)}
+     * @param protocols   enabled protocols, empty for the engine defaults
+     * @param ciphers     enabled cipher suites, empty for the engine defaults
+     * @param ticketKeys  base64 48-byte session ticket keys, the first one encrypts; OpenSSL only
+     * @param handshakeThreads pool running delegated handshake tasks
+     * @param clientAuth  whether client certificates are requested or required
+     * @param trustFile   CAs client certificates must chain to, null without client auth
+     */
+    public record Options(Path certFile, Path keyFile, String keyPassword, SslProvider provider,
+                          List<String> protocols, List<String> ciphers,
+                          long sessionCacheSize, long sessionTimeoutSeconds, List<String> ticketKeys,
+                          int handshakeThreads, ClientAuth clientAuth, Path trustFile) {}
+
+    private final Options options;
+    private final String providerLabel;
+    private final ExecutorService handshakeExecutor;
+    private ScheduledExecutorService reloader;
+    private String version = "";
+    private volatile SslContext context;
+
+    public TlsContext(Options options) throws IOException {
+        this.options = options;
+        this.providerLabel = options.provider() == SslProvider.JDK ? "jdk" : "openssl";
+        this.handshakeExecutor = Executors.newFixedThreadPool(Math.max(1, options.handshakeThreads()),
+            new DefaultThreadFactory("tls-handshake", true));
+        reload();
+    }
+
+    /**
+     * Context from the {@code teuthis.tls.*} settings, or null when TLS is disabled
+     */
+    public static TlsContext fromConfig() throws IOException {
+        if (!Config.b("teuthis.tls.enabled", false)) {
+            return null;
+        }
+        int threads = Config.i("teuthis.tls.handshake.threads", 0);
+        ClientAuth clientAuth = ClientAuth.valueOf(Config.str("teuthis.tls.client.auth", "none").toUpperCase());
+        String trustFile = Config.str("teuthis.tls.client.ca.file", null);
+        if (clientAuth != ClientAuth.NONE && trustFile == null) {
+            throw new IllegalArgumentException("teuthis.tls.client.ca.file is required with teuthis.tls.client.auth=" + clientAuth);
+        }
+        return new TlsContext(new Options(
+            Path.of(Config.str("teuthis.tls.cert.file")),
+            Path.of(Config.str("teuthis.tls.key.file")),
+            Config.str("teuthis.tls.key.password", null),
+            provider(Config.str("teuthis.tls.provider", "auto")),
+            Config.list("teuthis.tls.protocols"),
+            Config.list("teuthis.tls.ciphers"),
+            Config.l("teuthis.tls.session.cache.size", 20_480),
+            Config.l("teuthis.tls.session.timeout.seconds", 3_600),
+            Config.list("teuthis.tls.session.ticket.keys"),
+            threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+            clientAuth,
+            trustFile != null ? Path.of(trustFile) : null));
+    }
+
+    /**
+     * Resolve {@code auto}, {@code openssl} or {@code jdk}; auto prefers OpenSSL when available
+     *
+     * @throws IllegalArgumentException for openssl when netty-tcnative is missing, or an unknown name
+     */
+    public static SslProvider provider(String name) {
+        return switch (name.toLowerCase()) {
+            case "auto" -> OpenSsl.isAvailable() ? SslProvider.OPENSSL : SslProvider.JDK;
+            case "jdk" -> SslProvider.JDK;
+            case "openssl" -> {
+                if (!OpenSsl.isAvailable()) {
+                    throw new IllegalArgumentException("OpenSSL engine unavailable: " + OpenSsl.unavailabilityCause());
+                }
+                yield SslProvider.OPENSSL;
+            }
+            default -> throw new IllegalArgumentException("Unknown TLS provider: " + name);
+        };
+    }
+
+    /**
+     * Poll the certificate and key files every {@code interval}
+     */
+    public synchronized void start(Duration interval) {
+        if (interval.isZero() || interval.isNegative() || reloader != null) {
+            return;
+        }
+        reloader = Executors.newSingleThreadScheduledExecutor(new DefaultThreadFactory("tls-reloader", true));
+        reloader.scheduleWithFixedDelay(this::reloadIfChanged, interval.toMillis(), interval.toMillis(),
+                                        TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void shutdown() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+            reloader = null;
+        }
+        handshakeExecutor.shutdownNow();
+    }
+
+    /**
+     * Build a context from the current files and swap it in; the previous one stays in effect on failure
+     */
+    public synchronized void reload() throws IOException {
+        try {
+            String current = version();
+            context = build();
+            version = current;
+            Metrics.tlsReloads.labels("success").inc();
+            logger.info("🔐 TLS context loaded from {} ({} engine)", options.certFile(), providerLabel);
+        } catch (IOException | RuntimeException e) {
+            Metrics.tlsReloads.labels("error").inc();
+            throw e instanceof IOException io ? io : new IOException(e.getMessage(), e);
+        }
+    }
+
+    private synchronized void reloadIfChanged() {
+        try {
+            if (!version.equals(version())) {
+                reload();
+            }
+        } catch (IOException e) {
+            logger.error("❌ Failed to reload TLS certificate {}, keeping previous one: {}", options.certFile(), e.getMessage());
+        }
+    }
+
+    /**
+     * Handler for a new connection, with handshake metrics
+     */
+    public SslHandler newHandler(ByteBufAllocator alloc) {
+        SslHandler handler = context.newHandler(alloc, handshakeExecutor);
+        long start = System.nanoTime();
+        long startMillis = System.currentTimeMillis();
+        handler.handshakeFuture().addListener(future -> {
+            if (!future.isSuccess()) {
+                Metrics.tlsHandshakes.labels(providerLabel, "failure").inc();
+                return;
+            }
+            // A resumed session keeps the creation time of the handshake that established it
+            SSLSession session = handler.engine().getSession();
+            boolean resumed = session.getCreationTime() < startMillis;
+            Metrics.tlsHandshakes.labels(providerLabel, resumed ? "resumed" : "full").inc();
+            Metrics.tlsHandshakeSeconds.labels(providerLabel).observe((System.nanoTime() - start) / 1e9);
+        });
+        return handler;
+    }
+
+    /**
+     * Context in effect for new connections
+     */
+    public SslContext context() {
+        return context;
+    }
+
+    public SslProvider provider() {
+        return options.provider();
+    }
+
+    /**
+     * Whether clients are asked for a certificate, so connections may carry a {@link ClientCertificateHandler} principal
+     */
+    public boolean requestsClientCertificates() {
+        return options.clientAuth() != ClientAuth.NONE;
+    }
+
+    private SslContext build() throws SSLException {
+        SslContextBuilder builder = SslContextBuilder
+            .forServer(options.certFile().toFile(), options.keyFile().toFile(), options.keyPassword())
+            .sslProvider(options.provider())
+            .sessionCacheSize(options.sessionCacheSize())
+            .sessionTimeout(options.sessionTimeoutSeconds())
+            .applicationProtocolConfig(new ApplicationProtocolConfig(
+                ApplicationProtocolConfig.Protocol.ALPN,
+                ApplicationProtocolConfig.SelectorFailureBehavior.NO_ADVERTISE,
+                ApplicationProtocolConfig.SelectedListenerFailureBehavior.ACCEPT,
+                ApplicationProtocolNames.HTTP_1_1));
+        if (!options.protocols().isEmpty()) {
+            builder.protocols(options.protocols());
+        }
+        if (!options.ciphers().isEmpty()) {
+            builder.ciphers(options.ciphers());
+        }
+        if (options.clientAuth() != ClientAuth.NONE) {
+            builder.clientAuth(options.clientAuth()).trustManager(options.trustFile().toFile());
+        }
+        if (options.provider() != SslProvider.JDK) {
+            // Certificate and key selection callbacks run as delegated tasks too
+            builder.option(OpenSslContextOption.USE_TASKS, true);
+        }
+        SslContext built = builder.build();
+        applyTicketKeys(built);
+        return built;
+    }
+
+    private void applyTicketKeys(SslContext built) {
+        if (options.ticketKeys().isEmpty()) {
+            return;
+        }
+        if (!(built.sessionContext() instanceof OpenSslServerSessionContext sessions)) {
+            logger.warn("⚠️ teuthis.tls.session.ticket.keys ignored: the {} engine manages its own ticket keys", providerLabel);
+            return;
+        }
+        List<OpenSslSessionTicketKey> keys = new ArrayList<>();
+        for (String encoded : options.ticketKeys()) {
+            byte[] key = Base64.getDecoder().decode(encoded);
+            if (key.length != OpenSslSessionTicketKey.TICKET_KEY_SIZE) {
+                throw new IllegalArgumentException("Session ticket keys must be "
+                    + OpenSslSessionTicketKey.TICKET_KEY_SIZE + " bytes, got " + key.length);
+            }
+            keys.add(new OpenSslSessionTicketKey(slice(key, 0), slice(key, 16), slice(key, 32)));
+        }
+        sessions.setTicketKeys(keys.toArray(OpenSslSessionTicketKey[]::new));
+    }
+
+    private static byte[] slice(byte[] key, int from) {
+        byte[] part = new byte[16];
+        System.arraycopy(key, from, part, 0, 16);
+        return part;
+    }
+
+    private String version() throws IOException {
+        String version = version(options.certFile()) + "/" + version(options.keyFile());
+        return options.trustFile() != null ? version + "/" + version(options.trustFile()) : version;
+    }
+
+    private static String version(Path file) throws IOException {
+        return Files.getLastModifiedTime(file).toMillis() + ":" + Files.size(file);
+    }
+}
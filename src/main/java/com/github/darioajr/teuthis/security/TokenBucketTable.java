@@ -0,0 +1,188 @@
+package com.github.darioajr.teuthis.security;
+
+import java.net.InetAddress;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Fixed-size, lock-free table of token buckets keyed by a packed client address.
+ *
+ * Each bucket is a single long updated by CAS: its theoretical arrival time
+ * (GCRA), which encodes both the tokens left and when they were last
+ * refilled. A bucket whose arrival time is in the past is full, so dropping
+ * it loses nothing. A key lives in one of {@value #PROBES} slots after its
+ * hash; when they are all taken the slot with the fullest bucket is reused.
+ * Memory is therefore fixed at 16 bytes per slot whatever the number of
+ * clients, and under pressure the clients evicted first are the idle ones.
+ */
+public final class TokenBucketTable {
+
+    static final int PROBES = 8;
+    private static final long EMPTY = 0;
+    private static final long IPV4_TAG = 0xFFFF_FFFF_0000_0000L;
+
+    private final AtomicLongArray keys;
+    private final AtomicLongArray arrivals;
+    private final int mask;
+    private final LongSupplier clock;
+    private final long base;
+
+    /**
+     * @param slots table size, rounded up to a power of two
+     * @param clock nanosecond clock, {@code System::nanoTime} outside tests
+     */
+    public TokenBucketTable(int slots, LongSupplier clock) {
+        int size = Integer.highestOneBit(Math.max(slots - 1, PROBES) << 1);
+        this.keys = new AtomicLongArray(size);
+        this.arrivals = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.clock = clock;
+        this.base = clock.getAsLong();
+    }
+
+    /**
+     * Take one token from the bucket of {@code key}
+     *
+     * @param intervalNanos time to refill one token (1s / rate)
+     * @param burst         bucket capacity in tokens
+     */
+    public boolean tryAcquire(long key, long intervalNanos, int burst) {
+        return acquire(key, intervalNanos, burst, 1) >= 0;
+    }
+
+    /**
+     * Take {@code cost} tokens from the bucket of {@code key}; a cost above the
+     * burst is capped to it so that a large request can pass a full bucket
+     *
+     * @return tokens left when taken, else minus the nanoseconds until they would be
+     */
+    public long acquire(long key, long intervalNanos, long burst, long cost) {
+        long now = clock.getAsLong() - base;
+        int slot = slotOf(key, now);
+        long limit = now + intervalNanos * burst;
+        long charge = intervalNanos * Math.min(cost, burst);
+        while (true) {
+            long arrival = arrivals.get(slot);
+            long next = Math.max(arrival, now) + charge;
+            if (next > limit) {
+                return -(next - limit);
+            }
+            if (arrivals.compareAndSet(slot, arrival, next)) {
+                return (limit - next) / intervalNanos;
+            }
+        }
+    }
+
+    /**
+     * Give back tokens taken by {@link #acquire} for a request rejected by another bucket
+     */
+    public void refund(long key, long intervalNanos, long burst, long cost) {
+        int slot = slotOf(key, clock.getAsLong() - base);
+        long charge = intervalNanos * Math.min(cost, burst);
+        arrivals.getAndUpdate(slot, arrival -> arrival - charge);
+    }
+
+    /**
+     * Take {@code tokens} from the bucket of {@code key} unconditionally, e.g. for
+     * requests admitted elsewhere; the bucket may go into debt
+     */
+    public void charge(long key, long intervalNanos, long tokens) {
+        long now = clock.getAsLong() - base;
+        int slot = slotOf(key, now);
+        arrivals.getAndUpdate(slot, arrival -> Math.max(arrival, now) + intervalNanos * tokens);
+    }
+
+    /**
+     * Slot holding {@code key}, claiming an empty or the fullest slot of its window if absent
+     */
+    private int slotOf(long key, long now) {
+        int start = (int) mix(key) & mask;
+        int victim = -1;
+        long oldest = Long.MAX_VALUE;
+        for (int i = 0; i < PROBES; i++) {
+            int slot = (start + i) & mask;
+            long k = keys.get(slot);
+            if (k == key) {
+                return slot;
+            }
+            if (k == EMPTY && keys.compareAndSet(slot, EMPTY, key)) {
+                arrivals.set(slot, now);
+                return slot;
+            }
+            long arrival = arrivals.get(slot);
+            if (arrival < oldest) {
+                oldest = arrival;
+                victim = slot;
+            }
+        }
+        // A racing request of the evicted key may be charged to the newcomer; its bucket was the fullest anyway
+        keys.set(victim, key);
+        arrivals.set(victim, now);
+        return victim;
+    }
+
+    /**
+     * Empty the slots whose bucket has been full for at least {@code idleNanos}
+     *
+     * @return number of slots emptied
+     */
+    public int sweep(long idleNanos) {
+        long cutoff = clock.getAsLong() - base - idleNanos;
+        int evicted = 0;
+        for (int slot = 0; slot <= mask; slot++) {
+            long key = keys.get(slot);
+            if (key != EMPTY && arrivals.get(slot) < cutoff && keys.compareAndSet(slot, key, EMPTY)) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Occupied slots (a full scan)
+     */
+    public int size() {
+        int size = 0;
+        for (int slot = 0; slot <= mask; slot++) {
+            if (keys.get(slot) != EMPTY) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Pack an address into a key, keeping the first {@code ipv4Prefix} bits of an
+     * IPv4 address or the first {@code ipv6Prefix} (at most 64) bits of an IPv6 one
+     */
+    public static long key(InetAddress address, int ipv4Prefix, int ipv6Prefix) {
+        byte[] bytes = address.getAddress();
+        long value = 0;
+        if (bytes.length == 4) {
+            for (byte b : bytes) {
+                value = value << 8 | (b & 0xFF);
+            }
+            value &= 0xFFFF_FFFFL << (32 - ipv4Prefix);
+            // IPv4 keys live in ffff:ffff::/32, a multicast range no client connects from
+            return IPV4_TAG | (value & 0xFFFF_FFFFL);
+        }
+        for (int i = 0; i < 8; i++) {
+            value = value << 8 | (bytes[i] & 0xFF);
+        }
+        value &= ipv6Prefix >= 64 ? -1L : ~(-1L >>> ipv6Prefix);
+        // 0 marks an empty slot; ::/64 (loopback) shares a key with 0:0:0:1::/64, which is unassigned
+        return value == EMPTY ? 1 : value;
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        return key ^ key >>> 33;
+    }
+}
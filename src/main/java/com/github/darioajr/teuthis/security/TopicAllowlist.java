@@ -0,0 +1,148 @@
+package com.github.darioajr.teuthis.security;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.darioajr.teuthis.infra.Config;
+import com.github.darioajr.teuthis.infra.Metrics;
+
+/**
+ * Topics clients may publish to.
+ *
+ * Entries come from {@code allowed.topics} plus, when set, the file
+ * {@code teuthis.topics.allowlist.file} (one entry per line, {@code #} starts a
+ * comment). See {@link TopicMatcher} for the entry syntax. The file is polled
+ * every {@code teuthis.topics.allowlist.reload.interval.ms} and can be reloaded
+ * on demand; every reload compiles a new {@link TopicMatcher} and swaps it in,
+ * so lookups never lock. A file that fails to load keeps the previous snapshot.
+ * Changes to {@code allowed.topics} in a configuration reload are applied too.
+ */
+public class TopicAllowlist {
+
+    private static final Logger logger = LoggerFactory.getLogger(TopicAllowlist.class);
+
+    private static final String FILE = Config.str("teuthis.topics.allowlist.file", "");
+    private static final long RELOAD_INTERVAL_MS = Config.l("teuthis.topics.allowlist.reload.interval.ms", 5000L);
+
+    // Declared before current: initial() sets it
+    private static String fileVersion = "";
+    private static volatile TopicMatcher current = initial();
+    private static ScheduledExecutorService reloader;
+
+    static {
+        Config.addListener((previous, current) -> {
+            if (current.changed(previous, "allowed.topics")) {
+                try {
+                    reload();
+                } catch (IOException | RuntimeException e) {
+                    logger.error("❌ Failed to apply new allowed.topics, keeping previous allowlist: {}", e.getMessage());
+                }
+            }
+        });
+    }
+
+    public static boolean isAllowed(String topic) {
+        return current.matches(topic);
+    }
+
+    /**
+     * Allowlist in effect
+     */
+    public static TopicMatcher snapshot() {
+        return current;
+    }
+
+    /**
+     * Re-read the allowlist file and swap in the result
+     *
+     * @throws IOException if the file cannot be read; the current snapshot is kept
+     * @throws IllegalArgumentException if an entry is invalid; the current snapshot is kept
+     */
+    public static synchronized TopicMatcher reload() throws IOException {
+        try {
+            return swap(load());
+        } catch (IOException | RuntimeException e) {
+            Metrics.topicAllowlistReloads.labels("error").inc();
+            throw e;
+        }
+    }
+
+    /**
+     * Start polling the allowlist file for changes
+     */
+    public static synchronized void start() {
+        if (FILE.isEmpty() || RELOAD_INTERVAL_MS <= 0 || reloader != null) {
+            return;
+        }
+        reloader = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "topic-allowlist-reloader");
+            t.setDaemon(true);
+            return t;
+        });
+        reloader.scheduleWithFixedDelay(TopicAllowlist::reloadIfChanged, RELOAD_INTERVAL_MS, RELOAD_INTERVAL_MS,
+                                        TimeUnit.MILLISECONDS);
+    }
+
+    public static synchronized void shutdown() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+            reloader = null;
+        }
+    }
+
+    private static synchronized void reloadIfChanged() {
+        try {
+            if (!fileVersion.equals(version(Path.of(FILE)))) {
+                swap(load());
+            }
+        } catch (IOException | RuntimeException e) {
+            Metrics.topicAllowlistReloads.labels("error").inc();
+            logger.error("❌ Failed to reload topic allowlist {}, keeping previous version: {}", FILE, e.getMessage());
+        }
+    }
+
+    private static TopicMatcher initial() {
+        try {
+            return swap(load());
+        } catch (IOException | RuntimeException e) {
+            logger.error("❌ Failed to load topic allowlist {}, using allowed.topics only: {}", FILE, e.getMessage());
+            return TopicMatcher.compile(Config.allowedTopics());
+        }
+    }
+
+    private static TopicMatcher load() throws IOException {
+        List<String> entries = new ArrayList<>(Config.allowedTopics());
+        if (!FILE.isEmpty()) {
+            Path file = Path.of(FILE);
+            String version = version(file);
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                int comment = line.indexOf('#');
+                entries.add(comment >= 0 ? line.substring(0, comment) : line);
+            }
+            fileVersion = version;
+        }
+        return TopicMatcher.compile(entries);
+    }
+
+    private static TopicMatcher swap(TopicMatcher matcher) {
+        current = matcher;
+        Metrics.topicAllowlistReloads.labels("success").inc();
+        Metrics.topicAllowlistEntries.set(matcher.entries().size());
+        logger.info("✅ Topic allowlist loaded: {} entries ({} exact)", matcher.entries().size(), matcher.exactTopics().size());
+        return matcher;
+    }
+
+    private static String version(Path file) throws IOException {
+        return Files.getLastModifiedTime(file).toMillis() + "/" + Files.size(file);
+    }
+}
@@ -0,0 +1,187 @@
+package com.github.darioajr.teuthis.security;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable compiled topic allowlist.
+ *
+ * Entries are exact names ({@code events}), prefixes ending in a single
+ * {@code *} ({@code events.*}) or globs with {@code *} / {@code ?} anywhere
+ * else ({@code events.*.v2}). Exact names are a hash lookup, prefixes share a
+ * trie walked once over the topic, and globs (expected to be few) are tried
+ * last as compiled patterns.
+ */
+public final class TopicMatcher {
+
+    // Legal Kafka topic characters: [a-zA-Z0-9._-]
+    private static final byte[] SLOT = new byte[128];
+    private static final int SLOTS;
+
+    static {
+        Arrays.fill(SLOT, (byte) -1);
+        String alphabet = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789._-";
+        for (int i = 0; i < alphabet.length(); i++) {
+            SLOT[alphabet.charAt(i)] = (byte) i;
+        }
+        SLOTS = alphabet.length();
+    }
+
+    private static final class Node {
+        Node[] children;
+        boolean terminal;
+    }
+
+    private final List<String> entries;
+    private final Set<String> exact;
+    private final Node prefixes;
+    private final boolean hasPrefixes;
+    private final Pattern[] globs;
+
+    private TopicMatcher(List<String> entries, Set<String> exact, Node prefixes, boolean hasPrefixes, Pattern[] globs) {
+        this.entries = entries;
+        this.exact = exact;
+        this.prefixes = prefixes;
+        this.hasPrefixes = hasPrefixes;
+        this.globs = globs;
+    }
+
+    /**
+     * Compile allowlist entries; blank entries are ignored
+     *
+     * @throws IllegalArgumentException if an entry has characters that no topic can contain
+     */
+    public static TopicMatcher compile(Collection<String> rawEntries) {
+        Set<String> unique = new LinkedHashSet<>();
+        for (String raw : rawEntries) {
+            String entry = raw.trim();
+            if (!entry.isEmpty()) {
+                unique.add(entry);
+            }
+        }
+
+        Set<String> exact = new HashSet<>();
+        Node root = new Node();
+        boolean hasPrefixes = false;
+        List<Pattern> globs = new ArrayList<>();
+        for (String entry : unique) {
+            int wildcard = firstWildcard(entry);
+            if (wildcard < 0) {
+                checkChars(entry, entry.length());
+                exact.add(entry);
+            } else if (wildcard == entry.length() - 1 && entry.charAt(wildcard) == '*') {
+                checkChars(entry, wildcard);
+                insert(root, entry, wildcard);
+                hasPrefixes = true;
+            } else {
+                globs.add(glob(entry));
+            }
+        }
+        return new TopicMatcher(List.copyOf(unique), Set.copyOf(exact), root, hasPrefixes, globs.toArray(Pattern[]::new));
+    }
+
+    public boolean matches(String topic) {
+        if (exact.contains(topic)) {
+            return true;
+        }
+        if (hasPrefixes && matchesPrefix(topic)) {
+            return true;
+        }
+        for (Pattern glob : globs) {
+            if (glob.matcher(topic).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Entries as configured, in order
+     */
+    public List<String> entries() {
+        return entries;
+    }
+
+    /**
+     * Entries that name a single topic
+     */
+    public Set<String> exactTopics() {
+        return exact;
+    }
+
+    private boolean matchesPrefix(String topic) {
+        Node node = prefixes;
+        for (int i = 0; ; i++) {
+            if (node.terminal) {
+                return true;
+            }
+            if (i == topic.length() || node.children == null) {
+                return false;
+            }
+            int slot = slot(topic.charAt(i));
+            if (slot < 0 || (node = node.children[slot]) == null) {
+                return false;
+            }
+        }
+    }
+
+    private static void insert(Node root, String entry, int length) {
+        Node node = root;
+        for (int i = 0; i < length; i++) {
+            if (node.children == null) {
+                node.children = new Node[SLOTS];
+            }
+            int slot = slot(entry.charAt(i));
+            if (node.children[slot] == null) {
+                node.children[slot] = new Node();
+            }
+            node = node.children[slot];
+        }
+        node.terminal = true;
+    }
+
+    private static Pattern glob(String entry) {
+        StringBuilder regex = new StringBuilder(entry.length() + 8);
+        for (int i = 0; i < entry.length(); i++) {
+            char c = entry.charAt(i);
+            if (c == '*') {
+                regex.append(".*");
+            } else if (c == '?') {
+                regex.append('.');
+            } else if (slot(c) >= 0) {
+                regex.append(c == '.' ? "\\." : String.valueOf(c));
+            } else {
+                throw new IllegalArgumentException("Invalid character '" + c + "' in topic pattern " + entry);
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private static int firstWildcard(String entry) {
+        for (int i = 0; i < entry.length(); i++) {
+            char c = entry.charAt(i);
+            if (c == '*' || c == '?') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void checkChars(String entry, int length) {
+        for (int i = 0; i < length; i++) {
+            if (slot(entry.charAt(i)) < 0) {
+                throw new IllegalArgumentException("Invalid character '" + entry.charAt(i) + "' in topic entry " + entry);
+            }
+        }
+    }
+
+    private static int slot(char c) {
+        return c < 128 ? SLOT[c] : -1;
+    }
+}
@@ -6,8 +6,14 @@ import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.github.darioajr.teuthis.infra.Config;
+import com.github.darioajr.teuthis.infra.Metrics;
+import com.github.darioajr.teuthis.infra.RequestTimings;
+import com.github.darioajr.teuthis.infra.Settings;
+import com.github.darioajr.teuthis.kafka.PublishRoute;
+import com.github.darioajr.teuthis.schema.JsonSchemaRegistry;
+import com.github.darioajr.teuthis.schema.JsonSchemaValidator;
 
+import io.netty.buffer.ByteBufInputStream;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
@@ -28,7 +34,6 @@ public class ValidationHandler extends ChannelInboundHandlerAdapter {
     private static final Logger logger = LoggerFactory.getLogger(ValidationHandler.class);
     private static final Logger securityLogger = LoggerFactory.getLogger("security");
     
-    private static final int MAX_PAYLOAD_SIZE = Config.i("teuthis.security.max.payload.size");
     private static final Pattern TOPIC_PATTERN = Pattern.compile("^[a-zA-Z0-9._-]+$");
     private static final Pattern SAFE_PATH_PATTERN = Pattern.compile("^[a-zA-Z0-9/_.-]+$");
     
@@ -54,21 +59,24 @@ public class ValidationHandler extends ChannelInboundHandlerAdapter {
                     return;
                 }
                 
-                // Validate URI path
-                if (!isValidPath(req.uri())) {
+                // Validate URI path (query parameters are checked by the endpoint that uses them)
+                QueryStringDecoder decoder = new QueryStringDecoder(req.uri());
+                if (!isValidPath(decoder.path())) {
                     securityLogger.warn("Invalid URI path {} from {}", req.uri(), clientIp);
                     sendValidationError(ctx, "Invalid path", HttpResponseStatus.BAD_REQUEST);
                     return;
                 }
                 
                 // For POST requests to publish endpoints
-                if (req.method().equals(HttpMethod.POST) && req.uri().startsWith("/publish/")) {
-                    if (!validatePublishRequest(req, clientIp, ctx)) {
+                PublishRoute route = req.method().equals(HttpMethod.POST) ? PublishRoute.parse(decoder) : null;
+                if (route != null) {
+                    if (!validatePublishRequest(req, route, clientIp, ctx)) {
                         return; // Error response already sent
                     }
                 }
                 
                 logger.debug("✅ Request validation passed for {}", clientIp);
+                RequestTimings.stamp(ctx, RequestTimings.Stage.VALIDATION);
                 
             } catch (Exception e) {
                 logger.error("❌ Validation error for request from {}: {}", clientIp, e.getMessage(), e);
@@ -80,13 +88,14 @@ public class ValidationHandler extends ChannelInboundHandlerAdapter {
         super.channelRead(ctx, msg);
     }
     
-    private boolean validatePublishRequest(FullHttpRequest req, String clientIp, ChannelHandlerContext ctx) {
+    private boolean validatePublishRequest(FullHttpRequest req, PublishRoute route, String clientIp, ChannelHandlerContext ctx) {
         // Validate payload size
+        Settings settings = Settings.current();
         int contentLength = req.content().readableBytes();
-        if (contentLength > MAX_PAYLOAD_SIZE) {
+        if (contentLength > settings.maxPayloadSize()) {
             securityLogger.warn("Payload too large ({} bytes) from {}", contentLength, clientIp);
             sendValidationError(ctx, 
-                String.format("Payload too large. Maximum allowed: %d bytes", MAX_PAYLOAD_SIZE),
+                String.format("Payload too large. Maximum allowed: %d bytes", settings.maxPayloadSize()),
                 HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE);
             return false;
         }
@@ -99,20 +108,34 @@ public class ValidationHandler extends ChannelInboundHandlerAdapter {
             return false;
         }
         
-        // Extract and validate topic name
-        QueryStringDecoder decoder = new QueryStringDecoder(req.uri());
-        String[] segments = decoder.path().split("/");
-        if (segments.length >= 3) {
-            String topic = segments[2];
+        // Validate topic names
+        if (route.topics().isEmpty()) {
+            sendValidationError(ctx, "Missing topics parameter", HttpResponseStatus.BAD_REQUEST);
+            return false;
+        }
+        if (route.topics().size() > settings.maxFanoutTopics()) {
+            securityLogger.warn("Fan-out to {} topics from {} exceeds the limit", route.topics().size(), clientIp);
+            sendValidationError(ctx,
+                String.format("Too many topics. Maximum allowed: %d", settings.maxFanoutTopics()),
+                HttpResponseStatus.BAD_REQUEST);
+            return false;
+        }
+        Principal principal = AuthenticationHandler.principal(ctx);
+        for (String topic : route.topics()) {
             if (!isValidTopicName(topic)) {
                 securityLogger.warn("Invalid topic name '{}' from {}", topic, clientIp);
                 sendValidationError(ctx, "Invalid topic name", HttpResponseStatus.BAD_REQUEST);
                 return false;
             }
+            if (principal != null && !principal.mayPublish(topic)) {
+                securityLogger.warn("Topic {} not permitted for {} from {}", topic, principal.subject(), clientIp);
+                sendValidationError(ctx, "Topic not permitted", HttpResponseStatus.FORBIDDEN);
+                return false;
+            }
         }
         
         // Validate payload content based on content type
-        if (contentLength > 0) {
+        if (settings.payloadValidationEnabled() && contentLength > 0) {
             byte[] content = new byte[contentLength];
             req.content().getBytes(0, content);
             
@@ -123,9 +146,42 @@ public class ValidationHandler extends ChannelInboundHandlerAdapter {
             }
         }
         
+        // Enforce the topic JSON Schemas, if configured
+        for (String topic : route.topics()) {
+            String violation = validateSchema(req, topic);
+            if (violation != null) {
+                securityLogger.warn("Schema violation for topic {} from {}: {}", topic, clientIp, violation);
+                sendValidationError(ctx, violation, HttpResponseStatus.UNPROCESSABLE_ENTITY);
+                return false;
+            }
+        }
+        
         return true;
     }
     
+    private String validateSchema(FullHttpRequest req, String topic) {
+        JsonSchemaValidator validator = JsonSchemaRegistry.forTopic(topic);
+        if (validator == null) {
+            return null;
+        }
+        
+        long start = System.nanoTime();
+        String violation = validator.validate(new ByteBufInputStream(req.content().duplicate()));
+        Metrics.schemaValidationDuration.labels(topic).observe((System.nanoTime() - start) / 1_000_000_000.0);
+        
+        if (violation != null) {
+            Metrics.schemaViolations.labels(topic).inc();
+        }
+        return violation;
+    }
+    
+    /**
+     * Check if payload content validation is enabled
+     */
+    public static boolean isPayloadValidationEnabled() {
+        return Settings.current().payloadValidationEnabled();
+    }
+    
     private boolean isValidMethod(HttpMethod method) {
         return method.equals(HttpMethod.GET) || 
                method.equals(HttpMethod.POST) ||
@@ -242,7 +298,6 @@ public class ValidationHandler extends ChannelInboundHandlerAdapter {
         response.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, bytes.length);
         
         ctx.writeAndFlush(response);
-        ctx.close();
     }
     
     @Override
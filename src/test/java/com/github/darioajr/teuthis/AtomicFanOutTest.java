@@ -0,0 +1,164 @@
+package com.github.darioajr.teuthis;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Supplier;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.darioajr.teuthis.infra.Config;
+import com.github.darioajr.teuthis.kafka.Lanes;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.ReferenceCountUtil;
+
+/**
+ * Every test swaps in its own transactional producers through {@link TeuthisServer#startTransactions}.
+ */
+@DisplayName("Atomic Fan-out Tests")
+class AtomicFanOutTest {
+
+    private static final String URI = "/publish?topics=test-topic,events&atomic=true";
+
+    @BeforeAll
+    static void startLanes() throws Exception {
+        // Keep a busy build machine from shedding the requests under test
+        System.setProperty("resources.threshold", "1");
+        Config.reload();
+        Lanes.start(producer(), null, false, (compression, overrides) -> {
+            throw new IllegalStateException("No extra lanes in tests");
+        });
+    }
+
+    @AfterAll
+    static void stopLanes() throws Exception {
+        Lanes.shutdown();
+        System.clearProperty("resources.threshold");
+        Config.reload();
+    }
+
+    @Test
+    @DisplayName("Should commit every topic in one transaction")
+    void shouldCommitAllTopics() throws Exception {
+        MockProducer<String, byte[]> producer = transactional();
+        TeuthisServer.startTransactions(() -> producer);
+
+        FullHttpResponse response = publish();
+        try {
+            assertEquals(HttpResponseStatus.CREATED, response.status());
+        } finally {
+            response.release();
+        }
+        assertEquals(1, producer.commitCount());
+        assertEquals(2, producer.history().size());
+    }
+
+    @Test
+    @DisplayName("Should fail every topic when the commit fails, then commit the next request")
+    void shouldAbortFailedCommit() throws Exception {
+        MockProducer<String, byte[]> producer = transactional();
+        TeuthisServer.startTransactions(() -> producer);
+        producer.commitTransactionException = new KafkaException("commit failed");
+
+        FullHttpResponse failed = publish();
+        try {
+            assertEquals(HttpResponseStatus.SERVICE_UNAVAILABLE, failed.status());
+            String body = failed.content().toString(StandardCharsets.UTF_8);
+            assertEquals(2, body.split("\"status\":\"error\"", -1).length - 1, body);
+        } finally {
+            failed.release();
+        }
+        assertTrue(producer.transactionAborted());
+        assertTrue(producer.history().isEmpty());
+
+        producer.commitTransactionException = null;
+        assertEquals(HttpResponseStatus.CREATED, status(publish()));
+        assertEquals(2, producer.history().size());
+    }
+
+    @Test
+    @DisplayName("Should answer and recover after a fenced producer cannot be recreated at once")
+    void shouldRecoverFromFencedProducer() throws Exception {
+        MockProducer<String, byte[]> fenced = transactional();
+        MockProducer<String, byte[]> replacement = transactional();
+        Deque<Supplier<MockProducer<String, byte[]>>> factory = new ArrayDeque<>();
+        factory.add(() -> fenced);
+        factory.add(() -> {
+            throw new KafkaException("Broker unavailable");
+        });
+        factory.add(() -> replacement);
+        TeuthisServer.startTransactions(() -> factory.poll().get());
+        fenced.fenceProducer();
+
+        assertEquals(HttpResponseStatus.SERVICE_UNAVAILABLE, status(publish()));
+        assertTrue(fenced.closed());
+
+        assertEquals(HttpResponseStatus.CREATED, status(publish()));
+        assertEquals(2, replacement.history().size());
+    }
+
+    private static MockProducer<String, byte[]> producer() {
+        return new MockProducer<>(true, new StringSerializer(), new ByteArraySerializer());
+    }
+
+    private static MockProducer<String, byte[]> transactional() {
+        MockProducer<String, byte[]> producer = producer();
+        producer.initTransactions();
+        return producer;
+    }
+
+    private static FullHttpResponse publish() throws InterruptedException {
+        FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, URI,
+            Unpooled.copiedBuffer("{\"event\":\"click\"}", StandardCharsets.UTF_8));
+        request.headers().set(HttpHeaderNames.CONTENT_TYPE, "application/json");
+        request.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, request.content().readableBytes());
+
+        EmbeddedChannel channel = new EmbeddedChannel(TeuthisServer.requestHandlers(null));
+        channel.writeInbound(request);
+        FullHttpResponse response = awaitResponse(channel);
+        channel.finishAndReleaseAll();
+        assertNotNull(response, "No response for " + URI);
+        return response;
+    }
+
+    private static HttpResponseStatus status(FullHttpResponse response) {
+        try {
+            return response.status();
+        } finally {
+            response.release();
+        }
+    }
+
+    private static FullHttpResponse awaitResponse(EmbeddedChannel channel) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            channel.runPendingTasks();
+            Object response = channel.readOutbound();
+            if (response instanceof FullHttpResponse full) {
+                return full;
+            }
+            ReferenceCountUtil.release(response);
+            Thread.sleep(1);
+        }
+        return null;
+    }
+}
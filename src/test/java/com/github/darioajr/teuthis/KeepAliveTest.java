@@ -0,0 +1,97 @@
+package com.github.darioajr.teuthis;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.AfterAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.github.darioajr.teuthis.infra.Config;
+import com.github.darioajr.teuthis.infra.Metrics;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+
+@DisplayName("Keep-Alive Tests")
+class KeepAliveTest {
+
+    private static final String TOKEN = JWT.create()
+        .withSubject("alice")
+        .withExpiresAt(Instant.now().plusSeconds(3600))
+        .sign(Algorithm.HMAC256("test-secret"));
+
+    @BeforeAll
+    static void enableAuth() throws Exception {
+        System.setProperty("teuthis.security.auth.enabled", "true");
+        System.setProperty("teuthis.admin.enabled", "true");
+        Config.reload();
+    }
+
+    @AfterAll
+    static void restoreConfig() throws Exception {
+        System.clearProperty("teuthis.security.auth.enabled");
+        System.clearProperty("teuthis.admin.enabled");
+        Config.reload();
+    }
+
+    @Test
+    @DisplayName("Should keep the connection open and reuse its verified principal")
+    void shouldReuseConnectionPrincipal() {
+        EmbeddedChannel channel = new EmbeddedChannel(TeuthisServer.requestHandlers(null));
+        double bound = Metrics.jwtCacheRequests.labels("connection").get();
+
+        assertEquals(HttpResponseStatus.OK, send(channel, request(false)));
+        assertTrue(channel.isOpen());
+        assertEquals(HttpResponseStatus.OK, send(channel, request(false)));
+        assertTrue(channel.isOpen());
+        assertEquals(bound + 1, Metrics.jwtCacheRequests.labels("connection").get());
+
+        assertEquals(HttpResponseStatus.OK, send(channel, request(true)));
+        assertFalse(channel.isOpen(), "Connection: close should end the connection after the response");
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    @DisplayName("Should keep the connection open after an error response")
+    void shouldKeepAliveAfterUnauthorized() {
+        EmbeddedChannel channel = new EmbeddedChannel(TeuthisServer.requestHandlers(null));
+        FullHttpRequest anonymous = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/admin/config");
+
+        assertEquals(HttpResponseStatus.UNAUTHORIZED, send(channel, anonymous));
+        assertTrue(channel.isOpen());
+        assertEquals(HttpResponseStatus.OK, send(channel, request(false)));
+        channel.finishAndReleaseAll();
+    }
+
+    private static FullHttpRequest request(boolean close) {
+        FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/admin/config");
+        request.headers().set(HttpHeaderNames.AUTHORIZATION, "Bearer " + TOKEN);
+        if (close) {
+            request.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+        }
+        return request;
+    }
+
+    private static HttpResponseStatus send(EmbeddedChannel channel, FullHttpRequest request) {
+        channel.writeInbound(request);
+        FullHttpResponse response = channel.readOutbound();
+        try {
+            return response.status();
+        } finally {
+            response.release();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.darioajr.teuthis;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.darioajr.teuthis.infra.Config;
+import com.github.darioajr.teuthis.kafka.Lanes;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.ReferenceCountUtil;
+
+@DisplayName("Request Path Configuration Tests")
+class RequestPathConfigTest {
+
+    @BeforeAll
+    static void startLanes() {
+        MockProducer<String, byte[]> producer = new MockProducer<>(true, new StringSerializer(), new ByteArraySerializer());
+        Lanes.start(producer, null, false, (compression, overrides) -> {
+            throw new IllegalStateException("No extra lanes in tests");
+        });
+    }
+
+    @AfterAll
+    static void stopLanes() {
+        Lanes.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should serve requests without reading Config")
+    void shouldNotReadConfigPerRequest() throws Exception {
+        // The first round loads every handler class, whose static fields may read Config once
+        serveAll();
+        long lookups = Config.lookups();
+
+        serveAll();
+
+        assertEquals(lookups, Config.lookups(), "Config was read on the request path");
+    }
+
+    private static void serveAll() throws InterruptedException {
+        for (FullHttpRequest request : requests()) {
+            String uri = request.uri();
+            EmbeddedChannel channel = new EmbeddedChannel(TeuthisServer.requestHandlers(null));
+            channel.writeInbound(request);
+            Object response = awaitResponse(channel);
+            assertNotNull(response, "No response for " + uri);
+            ReferenceCountUtil.release(response);
+            channel.finishAndReleaseAll();
+        }
+    }
+
+    private static List<FullHttpRequest> requests() {
+        return List.of(
+            request(HttpMethod.GET, "/health", null),
+            request(HttpMethod.POST, "/publish/test-topic", "{\"event\":\"click\"}"),
+            request(HttpMethod.POST, "/publish/not-allowed", "{\"event\":\"click\"}"),
+            request(HttpMethod.POST, "/publish?topics=test-topic,events", "{\"event\":\"click\"}"),
+            request(HttpMethod.GET, "/admin/topics", null)
+        );
+    }
+
+    private static FullHttpRequest request(HttpMethod method, String uri, String body) {
+        FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, method, uri,
+            body != null ? Unpooled.copiedBuffer(body, StandardCharsets.UTF_8) : Unpooled.EMPTY_BUFFER);
+        if (body != null) {
+            request.headers().set(HttpHeaderNames.CONTENT_TYPE, "application/json");
+            request.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, request.content().readableBytes());
+        }
+        return request;
+    }
+
+    private static Object awaitResponse(EmbeddedChannel channel) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            channel.runPendingTasks();
+            Object response = channel.readOutbound();
+            if (response instanceof FullHttpResponse) {
+                return response;
+            }
+            ReferenceCountUtil.release(response);
+            Thread.sleep(1);
+        }
+        return null;
+    }
+}
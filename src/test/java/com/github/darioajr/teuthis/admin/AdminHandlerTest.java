@@ -0,0 +1,71 @@
+package com.github.darioajr.teuthis.admin;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.darioajr.teuthis.infra.Config;
+import com.github.darioajr.teuthis.security.AuthenticationHandler;
+import com.github.darioajr.teuthis.security.Principal;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+
+@DisplayName("Admin Handler Tests")
+class AdminHandlerTest {
+
+    @BeforeAll
+    static void enableAdmin() throws Exception {
+        System.setProperty("teuthis.admin.enabled", "true");
+        System.setProperty("teuthis.security.auth.enabled", "true");
+        System.setProperty("teuthis.admin.role", "ops");
+        Config.reload();
+    }
+
+    @AfterAll
+    static void restoreConfig() throws Exception {
+        System.clearProperty("teuthis.admin.enabled");
+        System.clearProperty("teuthis.security.auth.enabled");
+        System.clearProperty("teuthis.admin.role");
+        Config.reload();
+    }
+
+    @Test
+    @DisplayName("Should refuse reloads to callers without the admin role")
+    void shouldRequireAdminRoleForReloads() {
+        assertEquals(HttpResponseStatus.FORBIDDEN, send(List.of("publisher"), HttpMethod.POST, "/admin/config/reload"));
+        assertEquals(HttpResponseStatus.FORBIDDEN, send(List.of(), HttpMethod.POST, "/admin/topics/reload"));
+        assertEquals(HttpResponseStatus.OK, send(List.of("publisher"), HttpMethod.GET, "/admin/config"));
+        assertEquals(HttpResponseStatus.OK, send(List.of("ops"), HttpMethod.POST, "/admin/config/reload"));
+    }
+
+    @Test
+    @DisplayName("Should serve the latency dump to callers with the admin role only")
+    void shouldRequireAdminRoleForLatencyDump() {
+        assertEquals(HttpResponseStatus.FORBIDDEN, send(List.of("publisher"), HttpMethod.GET, "/admin/latency"));
+        assertEquals(HttpResponseStatus.OK, send(List.of("ops"), HttpMethod.GET, "/admin/latency"));
+    }
+
+    private static HttpResponseStatus send(List<String> roles, HttpMethod method, String uri) {
+        EmbeddedChannel channel = new EmbeddedChannel(new AdminHandler());
+        channel.attr(AuthenticationHandler.PRINCIPAL)
+               .set(new Principal("caller", roles, "caller", Instant.now().plusSeconds(60)));
+        channel.writeInbound(new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, method, uri));
+        FullHttpResponse response = channel.readOutbound();
+        try {
+            return response.status();
+        } finally {
+            response.release();
+            channel.finishAndReleaseAll();
+        }
+    }
+}
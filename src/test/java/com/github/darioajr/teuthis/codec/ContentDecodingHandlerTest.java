@@ -0,0 +1,126 @@
+package com.github.darioajr.teuthis.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.darioajr.teuthis.infra.Config;
+
+import com.github.luben.zstd.ZstdOutputStream;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import net.jpountz.lz4.LZ4FrameOutputStream;
+
+@DisplayName("Content Decoding Tests")
+class ContentDecodingHandlerTest {
+
+    private static final byte[] PAYLOAD =
+        "{\"event\": \"click\", \"value\": 42}".repeat(20).getBytes(StandardCharsets.UTF_8);
+
+    // Read once by the handler and the schema registries; set before either class loads
+    private static final Map<String, String> PASSTHROUGH_CONFIG = Map.of(
+        "teuthis.compression.passthrough.enabled", "true",
+        "kafka.compression.type", "gzip",
+        "teuthis.security.payload.validation.enabled", "false",
+        "teuthis.schema.avro.enabled", "true");
+
+    @TempDir
+    static Path avroDir;
+
+    @BeforeAll
+    static void enablePassthrough() throws Exception {
+        Files.writeString(avroDir.resolve("clicks.avsc"),
+            "{\"type\": \"record\", \"name\": \"Click\", \"fields\": [{\"name\": \"event\", \"type\": \"string\"}]}");
+        PASSTHROUGH_CONFIG.forEach(System::setProperty);
+        System.setProperty("teuthis.schema.avro.dir", avroDir.toString());
+        Config.reload();
+    }
+
+    @AfterAll
+    static void restoreConfig() throws Exception {
+        PASSTHROUGH_CONFIG.keySet().forEach(System::clearProperty);
+        System.clearProperty("teuthis.schema.avro.dir");
+        Config.reload();
+    }
+
+    @Test
+    @DisplayName("Should round-trip every supported encoding")
+    void shouldDecodeSupportedEncodings() throws Exception {
+        for (ContentEncoding encoding : ContentEncoding.values()) {
+            ByteBuf decoded = ContentDecodingHandler.decode(ByteBufAllocator.DEFAULT,
+                Unpooled.wrappedBuffer(compress(encoding, PAYLOAD)), encoding, 1 << 20, 100);
+            try {
+                assertArrayEquals(PAYLOAD, ByteBufUtil.getBytes(decoded), encoding.token());
+            } finally {
+                decoded.release();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should stop decoding bodies that expand beyond the limits")
+    void shouldRejectZipBombs() throws Exception {
+        byte[] bomb = compress(ContentEncoding.GZIP, new byte[4 * 1024 * 1024]);
+
+        ContentDecodingHandler.DecompressionLimitException ratio = assertThrows(
+            ContentDecodingHandler.DecompressionLimitException.class,
+            () -> ContentDecodingHandler.decode(ByteBufAllocator.DEFAULT, Unpooled.wrappedBuffer(bomb),
+                ContentEncoding.GZIP, 64 * 1024 * 1024, 100));
+        assertEquals("ratio", ratio.reason());
+
+        ContentDecodingHandler.DecompressionLimitException size = assertThrows(
+            ContentDecodingHandler.DecompressionLimitException.class,
+            () -> ContentDecodingHandler.decode(ByteBufAllocator.DEFAULT, Unpooled.wrappedBuffer(bomb),
+                ContentEncoding.GZIP, 1024, 1_000_000));
+        assertEquals("size", size.reason());
+    }
+
+    @Test
+    @DisplayName("Should decode instead of passing through bodies for topics converted to Avro")
+    void shouldNotPassThroughConvertedTopics() {
+        assertTrue(ContentDecodingHandler.isPassthroughEligible(ContentEncoding.GZIP, "/publish/views"));
+        assertFalse(ContentDecodingHandler.isPassthroughEligible(ContentEncoding.GZIP, "/publish/clicks"));
+        assertFalse(ContentDecodingHandler.isPassthroughEligible(ContentEncoding.GZIP, "/publish?topics=views,clicks"));
+        assertFalse(ContentDecodingHandler.isPassthroughEligible(ContentEncoding.ZSTD, "/publish/views"));
+    }
+
+    @Test
+    @DisplayName("Should map Content-Encoding headers")
+    void shouldResolveHeaders() {
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.fromHeader(" GZIP "));
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.fromHeader("x-gzip"));
+        assertEquals(ContentEncoding.ZSTD, ContentEncoding.fromHeader("zstd"));
+        assertEquals(null, ContentEncoding.fromHeader("br"));
+    }
+
+    private static byte[] compress(ContentEncoding encoding, byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = switch (encoding) {
+            case GZIP -> new GZIPOutputStream(bytes);
+            case ZSTD -> new ZstdOutputStream(bytes);
+            case LZ4 -> new LZ4FrameOutputStream(bytes);
+        }) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,78 @@
+package com.github.darioajr.teuthis.infra;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Configuration Reload Tests")
+class ConfigReloadTest {
+
+    private static final String KEY = "teuthis.test.reload.value";
+
+    @AfterEach
+    void tearDown() throws Exception {
+        System.clearProperty(KEY);
+        Config.reload();
+    }
+
+    @Test
+    @DisplayName("Should swap a new snapshot and notify listeners on change")
+    void shouldNotifyListenersOnChange() throws Exception {
+        List<Set<String>> notified = new ArrayList<>();
+        Config.addListener((previous, current) -> notified.add(current.changedKeys(previous)));
+        Config.Snapshot before = Config.snapshot();
+
+        System.setProperty(KEY, "42");
+        Config.Snapshot after = Config.reload();
+
+        assertEquals(before.version() + 1, after.version());
+        assertSame(after, Config.snapshot());
+        assertEquals(42, Config.i(KEY, 0));
+        assertEquals(List.of(Set.of(KEY)), notified);
+        assertTrue(after.changed(before, "teuthis.test."));
+        assertFalse(after.changed(before, "kafka."));
+    }
+
+    @Test
+    @DisplayName("Should keep the snapshot when nothing changed")
+    void shouldKeepUnchangedSnapshot() throws Exception {
+        Config.Snapshot before = Config.reload();
+
+        assertSame(before, Config.reload());
+    }
+
+    @Test
+    @DisplayName("Should report added, changed and removed keys")
+    void shouldDiffSnapshots() {
+        Config.Snapshot previous = new Config.Snapshot(1, Map.of("a", "1", "b", "2", "c", "3"));
+        Config.Snapshot current = new Config.Snapshot(2, Map.of("a", "1", "b", "20", "d", "4"));
+
+        assertEquals(Set.of("b", "c", "d"), current.changedKeys(previous));
+    }
+
+    @Test
+    @DisplayName("Should list every invalid setting")
+    void shouldRejectInvalidSettings() {
+        Config.Snapshot snapshot = new Config.Snapshot(1, Map.of(
+            "resources.threshold", "2",
+            "retry.after.seconds", "soon",
+            "teuthis.publish.raw.topics", "audit, raw"));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> Settings.from(snapshot));
+
+        assertTrue(e.getMessage().contains("resources.threshold"));
+        assertTrue(e.getMessage().contains("retry.after.seconds"));
+        assertEquals(Set.of("audit", "raw"),
+            Settings.from(new Config.Snapshot(1, Map.of("teuthis.publish.raw.topics", "audit, raw"))).rawTopics());
+    }
+}
@@ -0,0 +1,25 @@
+package com.github.darioajr.teuthis.infra;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link Config} reads its sources once per JVM, so nothing else in this class may touch it.
+ */
+@DisplayName("Configuration Startup Tests")
+class ConfigStartupTest {
+
+    @Test
+    @DisplayName("Should refuse to start when the configured file cannot be read")
+    void shouldFailOnUnreadableConfigFile() {
+        System.setProperty("teuthis.config.file", "target/no-such-teuthis.properties");
+        try {
+            ExceptionInInitializerError error = assertThrows(ExceptionInInitializerError.class, Config::snapshot);
+            assertInstanceOf(IllegalStateException.class, error.getCause());
+        } finally {
+            System.clearProperty("teuthis.config.file");
+        }
+    }
+}
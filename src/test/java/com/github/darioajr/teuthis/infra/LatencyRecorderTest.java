@@ -0,0 +1,122 @@
+package com.github.darioajr.teuthis.infra;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.prometheus.client.exemplars.Exemplar;
+
+@DisplayName("Latency Recorder Tests")
+class LatencyRecorderTest {
+
+    private static final double[] BOUNDS = {0.001, 0.01, 0.1, 1.0};
+
+    private static LatencyRecorder recorder() {
+        return new LatencyRecorder("test_latency", 2, BOUNDS, TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    @DisplayName("Should keep percentiles within the configured significant digits")
+    void shouldKeepPrecision() {
+        LatencyRecorder recorder = recorder();
+        for (long micros = 1; micros <= 100_000; micros++) {
+            recorder.record(TimeUnit.MICROSECONDS.toNanos(micros), null);
+        }
+
+        LatencyRecorder.Snapshot total = recorder.merge();
+
+        assertEquals(100_000, total.count());
+        for (double percentile : new double[] {50, 90, 99, 99.9, 99.99}) {
+            double expected = percentile * 1000;
+            double actual = total.percentileMicros(percentile);
+            assertTrue(Math.abs(actual - expected) / expected < 0.01,
+                       "p" + percentile + " was " + actual + ", expected about " + expected);
+        }
+        // A bucket straddling a bound counts above it
+        assertEquals(1000, total.countAtOrBelow(0.001), 10);
+        assertEquals(100_000, total.countAtOrBelow(1.0));
+    }
+
+    @Test
+    @DisplayName("Should merge the stripes of every recording thread")
+    void shouldMergeThreads() throws Exception {
+        LatencyRecorder recorder = recorder();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    recorder.record(2_000_000, null);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        LatencyRecorder.Snapshot total = recorder.merge();
+
+        assertEquals(40_000, total.count());
+        assertEquals(40_000L * 2_000_000, total.sumNanos());
+    }
+
+    @Test
+    @DisplayName("Should keep the counts of ended threads and drop their stripes")
+    void shouldFoldEndedThreads() throws Exception {
+        LatencyRecorder recorder = recorder();
+        recorder.record(1_000_000, null);
+        for (int t = 0; t < 3; t++) {
+            Thread thread = new Thread(() -> recorder.record(2_000_000, null));
+            thread.start();
+            thread.join();
+        }
+        assertEquals(4, recorder.stripeCount());
+
+        LatencyRecorder.Snapshot total = recorder.merge();
+
+        assertEquals(1, recorder.stripeCount());
+        assertEquals(4, total.count());
+        assertEquals(7_000_000, total.sumNanos());
+        recorder.record(1_000_000, null);
+        assertEquals(5, recorder.merge().count());
+    }
+
+    @Test
+    @DisplayName("Should report only the last interval in the window")
+    void shouldRotateWindow() {
+        LatencyRecorder recorder = recorder();
+        recorder.record(TimeUnit.MILLISECONDS.toNanos(500), null);
+        recorder.rotate();
+        assertEquals(1, recorder.window().count());
+
+        recorder.record(TimeUnit.MILLISECONDS.toNanos(1), null);
+        recorder.record(TimeUnit.MILLISECONDS.toNanos(1), null);
+        recorder.rotate();
+
+        LatencyRecorder.Snapshot window = recorder.window();
+        assertEquals(2, window.count());
+        assertTrue(window.percentileMicros(100) < 1100, "The slow recording belongs to the previous interval");
+        assertEquals(3, recorder.merge().count());
+    }
+
+    @Test
+    @DisplayName("Should keep request id exemplars for slow recordings only")
+    void shouldKeepSlowExemplars() {
+        LatencyRecorder recorder = recorder();
+        recorder.record(TimeUnit.MILLISECONDS.toNanos(5), "fast");
+        recorder.record(TimeUnit.MILLISECONDS.toNanos(80), "slow");
+        recorder.record(TimeUnit.SECONDS.toNanos(3), "slowest");
+
+        assertNull(recorder.exemplar(1));
+        Exemplar slow = recorder.exemplar(2);
+        assertNotNull(slow);
+        assertEquals("slow", slow.getLabelValue(0));
+        assertEquals(0.08, slow.getValue(), 1e-9);
+        assertEquals("slowest", recorder.exemplar(BOUNDS.length).getLabelValue(0));
+    }
+}
@@ -0,0 +1,54 @@
+package com.github.darioajr.teuthis.infra;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.prometheus.client.exporter.common.TextFormat;
+
+@DisplayName("Metrics Exposition Tests")
+class MetricsExpositionTest {
+
+    private static String text(ByteBuf content, boolean gzip) throws IOException {
+        try (InputStream in = gzip ? new GZIPInputStream(new ByteBufInputStream(content, true))
+                                   : new ByteBufInputStream(content, true)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    @DisplayName("Should expose registered and JVM metrics as text and OpenMetrics")
+    void shouldExposeRegistry() throws Exception {
+        Metrics.requestsTotal.labels("GET", "received").inc();
+
+        String text = text(MetricsExposition.scrape(TextFormat.CONTENT_TYPE_004, false).get(5, TimeUnit.SECONDS), false);
+        String openMetrics = text(MetricsExposition.scrape(TextFormat.CONTENT_TYPE_OPENMETRICS_100, true)
+            .get(5, TimeUnit.SECONDS), true);
+
+        assertTrue(text.contains("teuthis_requests_total{method=\"GET\",status=\"received\""));
+        assertTrue(text.contains("jvm_memory_bytes_used"), "Hotspot collectors should be registered");
+        assertTrue(openMetrics.contains("teuthis_requests_total{method=\"GET\",status=\"received\""));
+        assertTrue(openMetrics.endsWith("# EOF\n"));
+    }
+
+    @Test
+    @DisplayName("Should serve repeated scrapes from the render cache")
+    void shouldCacheRenders() throws Exception {
+        String first = text(MetricsExposition.scrape(TextFormat.CONTENT_TYPE_004, true).get(5, TimeUnit.SECONDS), true);
+        double cached = Metrics.metricsScrapes.labels("cached").get();
+
+        String second = text(MetricsExposition.scrape(TextFormat.CONTENT_TYPE_004, true).get(5, TimeUnit.SECONDS), true);
+
+        assertEquals(first, second);
+        assertEquals(cached + 1, Metrics.metricsScrapes.labels("cached").get());
+    }
+}
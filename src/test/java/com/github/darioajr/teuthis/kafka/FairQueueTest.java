@@ -0,0 +1,70 @@
+package com.github.darioajr.teuthis.kafka;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Fair Queue Tests")
+class FairQueueTest {
+
+    @Test
+    @DisplayName("Should share bytes in proportion to tenant weights")
+    void shouldShareByWeight() {
+        Map<String, Integer> weights = Map.of("gold", 3, "bronze", 1);
+        FairQueue<String> queue = new FairQueue<>(1000, t -> weights.getOrDefault(t, 1), 1000, Long.MAX_VALUE);
+        // Bronze sends requests four times larger than gold
+        for (int i = 0; i < 400; i++) {
+            assertTrue(queue.offer("gold", "gold", 250));
+            assertTrue(queue.offer("bronze", "bronze", 1000));
+        }
+
+        long goldBytes = 0;
+        long bronzeBytes = 0;
+        for (int i = 0; i < 200; i++) {
+            if (queue.poll().equals("gold")) {
+                goldBytes += 250;
+            } else {
+                bronzeBytes += 1000;
+            }
+        }
+        assertEquals(3.0, (double) goldBytes / bronzeBytes, 0.1);
+    }
+
+    @Test
+    @DisplayName("Should bound each tenant queue independently")
+    void shouldBoundPerTenant() {
+        FairQueue<String> queue = new FairQueue<>(1000, t -> 1, 2, 10_000);
+
+        assertTrue(queue.offer("noisy", "a", 100));
+        assertTrue(queue.offer("noisy", "b", 100));
+        assertFalse(queue.offer("noisy", "c", 100));
+        assertTrue(queue.offer("quiet", "d", 9_000));
+        assertFalse(queue.offer("quiet", "e", 1_001));
+        assertFalse(queue.offer("huge", "f", 10_001));
+        assertEquals(3, queue.size());
+        assertEquals(9_000, queue.queuedBytes("quiet"));
+        assertEquals(0, queue.queuedBytes("huge"));
+    }
+
+    @Test
+    @DisplayName("Should serve items larger than the quantum over several rounds")
+    void shouldServeLargeItems() {
+        FairQueue<String> queue = new FairQueue<>(100, t -> 1, 10, Long.MAX_VALUE);
+        queue.offer("big", "big", 350);
+        queue.offer("small", "small-1", 100);
+        queue.offer("small", "small-2", 100);
+        queue.offer("small", "small-3", 100);
+
+        assertEquals("small-1", queue.poll());
+        assertEquals("small-2", queue.poll());
+        assertEquals("small-3", queue.poll());
+        assertEquals("big", queue.poll());
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+}
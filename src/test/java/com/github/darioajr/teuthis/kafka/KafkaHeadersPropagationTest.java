@@ -0,0 +1,74 @@
+package com.github.darioajr.teuthis.kafka;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.junit.jupiter.api.AfterAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.darioajr.teuthis.infra.Config;
+
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+
+/**
+ * Propagation settings are read once when KafkaHeaders loads, so this runs apart
+ * from {@link KafkaHeadersTest}, which covers the unconfigured defaults.
+ */
+@DisplayName("Kafka Header Propagation Tests")
+class KafkaHeadersPropagationTest {
+
+    private static final String TRACEPARENT = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+    @BeforeAll
+    static void configurePropagation() throws Exception {
+        System.setProperty("teuthis.kafka.headers.propagate", "Traceparent, X-Tenant, X-Absent");
+        System.setProperty("teuthis.kafka.headers.request.id.enabled", "true");
+        Config.reload();
+    }
+
+    @AfterAll
+    static void restoreConfig() throws Exception {
+        System.clearProperty("teuthis.kafka.headers.propagate");
+        System.clearProperty("teuthis.kafka.headers.request.id.enabled");
+        Config.reload();
+    }
+
+    @Test
+    @DisplayName("Should copy allow-listed headers and the request id onto the record")
+    void shouldPropagateConfiguredHeaders() {
+        DefaultHttpHeaders http = new DefaultHttpHeaders();
+        http.set("traceparent", TRACEPARENT);
+        http.set("X-TENANT", "acme");
+        http.set("Authorization", "Bearer secret");
+
+        Headers headers = KafkaHeaders.propagate(KafkaHeaders.envelope("json", 1L, null), http, "abc12345");
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>("events", null, "key", new byte[0], headers);
+
+        List<String> keys = Arrays.stream(record.headers().toArray()).map(Header::key).toList();
+        assertEquals(List.of(KafkaHeaders.FORMAT, KafkaHeaders.TIMESTAMP, KafkaHeaders.HOSTNAME,
+                             "traceparent", "x-tenant", KafkaHeaders.REQUEST_ID), keys);
+        assertEquals(TRACEPARENT, text(record.headers().lastHeader("traceparent")));
+        assertEquals("acme", text(record.headers().lastHeader("x-tenant")));
+        assertEquals("abc12345", text(record.headers().lastHeader(KafkaHeaders.REQUEST_ID)));
+    }
+
+    @Test
+    @DisplayName("Should create headers for records without an envelope")
+    void shouldCreateHeadersWhenAbsent() {
+        Headers headers = KafkaHeaders.propagate(null, new DefaultHttpHeaders(), "abc12345");
+
+        assertEquals(1, headers.toArray().length);
+        assertEquals("abc12345", text(headers.lastHeader(KafkaHeaders.REQUEST_ID)));
+    }
+
+    private static String text(Header header) {
+        return new String(header.value(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.darioajr.teuthis.kafka;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.kafka.common.header.Headers;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.darioajr.teuthis.codec.ContentEncoding;
+
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+
+@DisplayName("Kafka Envelope Headers Tests")
+class KafkaHeadersTest {
+
+    @Test
+    @DisplayName("Should carry envelope fields as record headers")
+    void shouldCarryEnvelopeFields() {
+        Headers headers = KafkaHeaders.envelope("json", 1_700_000_000_000L, ContentEncoding.ZSTD);
+
+        assertEquals("json", text(headers, KafkaHeaders.FORMAT));
+        assertEquals(1_700_000_000_000L, ByteBuffer.wrap(headers.lastHeader(KafkaHeaders.TIMESTAMP).value()).getLong());
+        assertEquals(KafkaHeaders.hostname(), text(headers, KafkaHeaders.HOSTNAME));
+        assertEquals("zstd", text(headers, KafkaHeaders.ENCODING));
+    }
+
+    @Test
+    @DisplayName("Should reuse pre-encoded values and omit absent encoding")
+    void shouldReusePreEncodedValues() {
+        Headers first = KafkaHeaders.envelope("xml", 1L, null);
+        Headers second = KafkaHeaders.envelope("xml", 2L, null);
+
+        assertSame(first.lastHeader(KafkaHeaders.FORMAT).value(), second.lastHeader(KafkaHeaders.FORMAT).value());
+        assertSame(first.lastHeader(KafkaHeaders.HOSTNAME).value(), second.lastHeader(KafkaHeaders.HOSTNAME).value());
+        assertNull(first.lastHeader(KafkaHeaders.ENCODING));
+    }
+
+    @Test
+    @DisplayName("Should not build headers when propagation is not configured")
+    void shouldSkipUnconfiguredPropagation() {
+        DefaultHttpHeaders http = new DefaultHttpHeaders();
+        http.set("traceparent", "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01");
+
+        assertNull(KafkaHeaders.propagate(null, http, "abc12345"));
+        Headers envelope = KafkaHeaders.envelope("json", 1L, null);
+        assertSame(envelope, KafkaHeaders.propagate(envelope, http, "abc12345"));
+        assertEquals(3, envelope.toArray().length);
+    }
+
+    private static String text(Headers headers, String key) {
+        return new String(headers.lastHeader(key).value(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,129 @@
+package com.github.darioajr.teuthis.kafka;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Priority Lane Tests")
+class LaneTest {
+
+    private final ExecutorService bulkSender = Executors.newSingleThreadExecutor();
+    private final ExecutorService criticalSender = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        bulkSender.shutdownNow();
+        criticalSender.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should keep a saturated lane from affecting another lane")
+    void shouldIsolateLanes() throws Exception {
+        // Bulk acknowledgements never arrive, so its budget fills up
+        MockProducer<String, byte[]> bulkProducer = new MockProducer<>(false, new StringSerializer(), new ByteArraySerializer());
+        MockProducer<String, byte[]> criticalProducer = new MockProducer<>(true, new StringSerializer(), new ByteArraySerializer());
+        Lane bulk = new Lane("test-bulk", 1, bulkProducer, null, bulkSender, 2);
+        Lane critical = new Lane("test-critical", 0, criticalProducer, null, criticalSender, 2);
+
+        for (int i = 0; i < 2; i++) {
+            assertTrue(bulk.tryAcquire());
+            bulk.send(new ProducerRecord<>("logs", "k", new byte[] {1}), false);
+        }
+        assertFalse(bulk.tryAcquire());
+        assertEquals(2, bulk.inFlight());
+
+        assertTrue(critical.tryAcquire());
+        RecordMetadata md = critical.send(new ProducerRecord<>("events", "k", new byte[] {1}), false)
+                                    .get(5, TimeUnit.SECONDS);
+        assertEquals("events", md.topic());
+        assertEquals(0, critical.inFlight());
+    }
+
+    @Test
+    @DisplayName("Should release the permit when a send fails")
+    void shouldReleaseOnFailure() throws Exception {
+        MockProducer<String, byte[]> producer = new MockProducer<>(false, new StringSerializer(), new ByteArraySerializer());
+        Lane lane = new Lane("test-failing", 0, producer, null, bulkSender, 1);
+
+        assertTrue(lane.tryAcquire());
+        CompletableFuture<RecordMetadata> result = lane.send(new ProducerRecord<>("logs", "k", new byte[] {1}), false);
+        while (producer.history().isEmpty()) {
+            Thread.onSpinWait();
+        }
+        producer.errorNext(new RuntimeException("broker down"));
+
+        assertTrue(result.handle((r, ex) -> ex != null).get(5, TimeUnit.SECONDS));
+        assertEquals(0, lane.inFlight());
+        assertTrue(lane.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("Should send records queued before a producer swap through the new producer")
+    void shouldSendQueuedRecordsThroughSwappedProducer() throws Exception {
+        MockProducer<String, byte[]> oldProducer = new MockProducer<>(true, new StringSerializer(), new ByteArraySerializer());
+        MockProducer<String, byte[]> newProducer = new MockProducer<>(true, new StringSerializer(), new ByteArraySerializer());
+        Lane lane = new Lane("test-swap", 0, oldProducer, null, bulkSender, 1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        bulkSender.execute(() -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertTrue(lane.tryAcquire());
+        CompletableFuture<RecordMetadata> result = lane.send(new ProducerRecord<>("logs", "k", new byte[] {1}), false);
+        lane.swapProducers(newProducer, null);
+        oldProducer.close();
+        blocked.countDown();
+
+        assertEquals("logs", result.get(5, TimeUnit.SECONDS).topic());
+        assertEquals(1, newProducer.history().size());
+        assertTrue(oldProducer.history().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should interleave tenants and bound each tenant queue when fair")
+    void shouldInterleaveTenants() throws Exception {
+        MockProducer<String, byte[]> producer = new MockProducer<>(false, new StringSerializer(), new ByteArraySerializer());
+        // Every record is 2 bytes (key + value), one record per tenant per round
+        Lane lane = new Lane("test-fair", 0, producer, null, bulkSender, 1, new FairQueue<>(2, t -> 1, 3, 1024));
+
+        lane.submit("a", new ProducerRecord<>("a1", "k", new byte[] {1}), false);
+        for (String topic : List.of("a2", "a3", "a4")) {
+            lane.submit("a", new ProducerRecord<>(topic, "k", new byte[] {1}), false);
+        }
+        CompletableFuture<RecordMetadata> rejected = lane.submit("a", new ProducerRecord<>("a5", "k", new byte[] {1}), false);
+        lane.submit("b", new ProducerRecord<>("b1", "k", new byte[] {1}), false);
+        lane.submit("b", new ProducerRecord<>("b2", "k", new byte[] {1}), false);
+        assertTrue(rejected.isCompletedExceptionally());
+
+        for (int sent = 1; sent < 6; sent++) {
+            while (producer.history().size() < sent) {
+                Thread.onSpinWait();
+            }
+            assertTrue(producer.completeNext());
+        }
+        while (producer.history().size() < 6) {
+            Thread.onSpinWait();
+        }
+        assertEquals(List.of("a1", "a2", "b1", "a3", "b2", "a4"),
+                     producer.history().stream().map(ProducerRecord::topic).toList());
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.darioajr.teuthis.kafka;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Publish Route Tests")
+class PublishRouteTest {
+
+    @Test
+    @DisplayName("Should route single topic publishes")
+    void shouldRouteSingleTopic() {
+        PublishRoute route = PublishRoute.parse("/publish/events");
+
+        assertEquals(List.of("events"), route.topics());
+        assertFalse(route.fanOut());
+        assertFalse(route.atomic());
+    }
+
+    @Test
+    @DisplayName("Should route fan-out publishes without duplicates")
+    void shouldRouteFanOut() {
+        PublishRoute route = PublishRoute.parse("/publish?topics=events,logs,%20events&topics=metrics&atomic=true");
+
+        assertEquals(List.of("events", "logs", "metrics"), route.topics());
+        assertTrue(route.fanOut());
+        assertTrue(route.atomic());
+        assertTrue(PublishRoute.parse("/publish").topics().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should ignore non publish paths")
+    void shouldIgnoreOtherPaths() {
+        assertNull(PublishRoute.parse("/health"));
+        assertNull(PublishRoute.parse("/publish/a/b"));
+        assertNull(PublishRoute.parse("/queue/events"));
+    }
+}
@@ -0,0 +1,93 @@
+package com.github.darioajr.teuthis.performance;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumWriter;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.github.darioajr.teuthis.avro.Message;
+import com.github.darioajr.teuthis.schema.JsonAvroConverter;
+
+@DisplayName("JSON to Avro Conversion Benchmark")
+@EnabledIfSystemProperty(named = "performance.tests", matches = "true")
+class AvroConversionBenchmarkTest {
+
+    private static final int WARMUP = 50_000;
+    private static final int ITERATIONS = 200_000;
+
+    private static final Schema SCHEMA = new Schema.Parser().parse("""
+        {
+          "type": "record", "name": "Event", "namespace": "bench",
+          "fields": [
+            {"name": "id", "type": "long"},
+            {"name": "user", "type": "string"},
+            {"name": "kind", "type": {"type": "enum", "name": "Kind", "symbols": ["CLICK", "VIEW"]}},
+            {"name": "score", "type": ["null", "double"], "default": null},
+            {"name": "tags", "type": {"type": "array", "items": "string"}},
+            {"name": "attrs", "type": {"type": "map", "values": "long"}}
+          ]
+        }
+        """);
+
+    private static final byte[] JSON = ("{\"id\": 123456789, \"user\": \"customer-42\", \"kind\": \"CLICK\", "
+        + "\"score\": 0.75, \"tags\": [\"mobile\", \"promo\", \"eu\"], "
+        + "\"attrs\": {\"x\": 1, \"y\": 2, \"z\": 3}}").getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    @DisplayName("Should measure conversion cost against envelope serialization")
+    void shouldMeasureConversionCost() throws IOException {
+        JsonAvroConverter converter = JsonAvroConverter.compile(SCHEMA);
+
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += converter.convert(JSON).length + serializeEnvelope(JSON).length;
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += converter.convert(JSON).length;
+        }
+        double conversionNs = (double) (System.nanoTime() - start) / ITERATIONS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += serializeEnvelope(JSON).length;
+        }
+        double envelopeNs = (double) (System.nanoTime() - start) / ITERATIONS;
+
+        System.out.println("JSON to Avro Conversion Benchmark Results:");
+        System.out.println("Payload size: " + JSON.length + " bytes, converted: " + converter.convert(JSON).length + " bytes");
+        System.out.printf("JSON -> Avro conversion: %.0f ns/op%n", conversionNs);
+        System.out.printf("Message envelope serialization: %.0f ns/op%n", envelopeNs);
+
+        assertTrue(sink > 0);
+        assertTrue(conversionNs < 50_000, "Conversion should stay below 50us per document, was: " + conversionNs + "ns");
+    }
+
+    private static final SpecificDatumWriter<Message> ENVELOPE_WRITER = new SpecificDatumWriter<>(Message.class);
+    private static final ByteArrayOutputStream OUT = new ByteArrayOutputStream();
+    private static BinaryEncoder encoder;
+
+    private static byte[] serializeEnvelope(byte[] body) throws IOException {
+        Message msg = Message.newBuilder()
+            .setFormat("json")
+            .setPayload(ByteBuffer.wrap(body))
+            .setTimestamp(System.currentTimeMillis())
+            .setHostname("bench-host")
+            .build();
+        OUT.reset();
+        encoder = EncoderFactory.get().binaryEncoder(OUT, encoder);
+        ENVELOPE_WRITER.write(msg, encoder);
+        encoder.flush();
+        return OUT.toByteArray();
+    }
+}
@@ -0,0 +1,80 @@
+package com.github.darioajr.teuthis.performance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.github.darioajr.teuthis.security.StripedRateLimiter;
+import com.google.common.util.concurrent.RateLimiter;
+
+@DisplayName("Global Rate Limiter Benchmark")
+@EnabledIfSystemProperty(named = "performance.tests", matches = "true")
+class GlobalRateLimiterBenchmarkTest {
+
+    private static final int THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
+    private static final long DURATION_MS = 2_000;
+
+    @Test
+    @DisplayName("Should measure throughput and accuracy against Guava RateLimiter")
+    void shouldCompareWithGuava() throws InterruptedException {
+        double rate = 200_000;
+        RateLimiter guava = RateLimiter.create(rate);
+        StripedRateLimiter striped = new StripedRateLimiter(rate, 2 * THREADS, 10_000_000L, System::nanoTime);
+
+        // Each warm-up also drains the burst, so the measured runs see only the steady rate
+        run(guava::tryAcquire, 500);
+        long[] guavaResult = run(guava::tryAcquire, DURATION_MS);
+        run(striped::tryAcquire, 500);
+        long[] stripedResult = run(striped::tryAcquire, DURATION_MS);
+
+        double expected = rate * DURATION_MS / 1000;
+        System.out.println("Global Rate Limiter Benchmark Results (" + THREADS + " threads, " + rate + " permits/s):");
+        report("Guava RateLimiter", guavaResult, expected);
+        report("StripedRateLimiter", stripedResult, expected);
+
+        double error = Math.abs(stripedResult[1] - expected) / expected;
+        assertTrue(error < 0.05, "Striped limiter should stay within 5% of the rate, was " + error);
+        if (Runtime.getRuntime().availableProcessors() > 1) {
+            assertTrue(stripedResult[0] > guavaResult[0], "Striped limiter should sustain more calls than Guava");
+        }
+    }
+
+    private static void report(String name, long[] result, double expected) {
+        System.out.printf("%s: %.1f M calls/s, admitted %d (expected %.0f, error %.2f%%)%n", name,
+            result[0] / (DURATION_MS / 1000.0) / 1e6, result[1], expected, 100 * (result[1] - expected) / expected);
+    }
+
+    /**
+     * @return calls made and permits admitted
+     */
+    private static long[] run(BooleanSupplier tryAcquire, long durationMs) throws InterruptedException {
+        LongAdder calls = new LongAdder();
+        LongAdder admitted = new LongAdder();
+        long deadline = System.nanoTime() + durationMs * 1_000_000L;
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                long localCalls = 0;
+                long localAdmitted = 0;
+                while (System.nanoTime() < deadline) {
+                    localCalls++;
+                    if (tryAcquire.getAsBoolean()) {
+                        localAdmitted++;
+                    }
+                }
+                calls.add(localCalls);
+                admitted.add(localAdmitted);
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return new long[]{calls.sum(), admitted.sum()};
+    }
+}
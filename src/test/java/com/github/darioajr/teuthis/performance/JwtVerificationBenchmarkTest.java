@@ -0,0 +1,73 @@
+package com.github.darioajr.teuthis.performance;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+
+@DisplayName("JWT Signature Verification Benchmark")
+@EnabledIfSystemProperty(named = "performance.tests", matches = "true")
+class JwtVerificationBenchmarkTest {
+
+    private static final int WARMUP = 5_000;
+    private static final int ITERATIONS = 20_000;
+
+    @Test
+    @DisplayName("Should measure verification cost per algorithm")
+    void shouldMeasureVerificationCost() throws Exception {
+        KeyPairGenerator rsaGenerator = KeyPairGenerator.getInstance("RSA");
+        rsaGenerator.initialize(2048);
+        KeyPair rsa = rsaGenerator.generateKeyPair();
+        KeyPairGenerator ecGenerator = KeyPairGenerator.getInstance("EC");
+        ecGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair ec = ecGenerator.generateKeyPair();
+
+        Algorithm hs256 = Algorithm.HMAC256("benchmark-secret");
+        Algorithm rs256 = Algorithm.RSA256((RSAPublicKey) rsa.getPublic(), (RSAPrivateKey) rsa.getPrivate());
+        Algorithm es256 = Algorithm.ECDSA256((ECPublicKey) ec.getPublic(), (ECPrivateKey) ec.getPrivate());
+
+        System.out.println("JWT Signature Verification Benchmark Results:");
+        double hsNs = measure("HS256", hs256);
+        double rsNs = measure("RS256 (2048)", rs256);
+        double esNs = measure("ES256 (P-256)", es256);
+
+        assertTrue(hsNs < rsNs, "HMAC should be cheaper than RSA");
+        assertTrue(esNs > 0);
+    }
+
+    private static double measure(String name, Algorithm algorithm) {
+        String token = JWT.create()
+            .withSubject("benchmark")
+            .withArrayClaim("roles", new String[]{"publisher"})
+            .withExpiresAt(Instant.now().plusSeconds(3600))
+            .sign(algorithm);
+        JWTVerifier verifier = JWT.require(algorithm).build();
+
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += verifier.verify(token).getSubject().length();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += verifier.verify(token).getSubject().length();
+        }
+        double ns = (double) (System.nanoTime() - start) / ITERATIONS;
+
+        System.out.printf("%s verify: %.0f ns/op (%.0f ops/s per core)%n", name, ns, 1e9 / ns);
+        assertTrue(sink > 0);
+        return ns;
+    }
+}
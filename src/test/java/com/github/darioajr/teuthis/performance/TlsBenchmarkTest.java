@@ -0,0 +1,183 @@
+package com.github.darioajr.teuthis.performance;
+
+import java.io.File;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.github.darioajr.teuthis.security.TlsContext;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.ssl.ClientAuth;
+import io.netty.handler.ssl.OpenSsl;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.ssl.SslProvider;
+
+/**
+ * Full handshakes per second and bulk throughput of the JDK and, when
+ * netty-tcnative is on the classpath ({@code -Popenssl}), OpenSSL engines
+ */
+@DisplayName("TLS Engine Benchmark")
+@EnabledIfSystemProperty(named = "performance.tests", matches = "true")
+class TlsBenchmarkTest {
+
+    private static final File CERT = new File("src/test/resources/tls/server.crt");
+    private static final File KEY = new File("src/test/resources/tls/server.key");
+    private static final int WARMUP_HANDSHAKES = 100;
+    private static final int HANDSHAKES = 500;
+    private static final int CHUNK = 16 * 1024;
+    private static final long BULK_BYTES = 256L * 1024 * 1024;
+
+    @Test
+    @DisplayName("Should measure handshake rate and bulk throughput per engine")
+    void shouldMeasureEngines() throws Exception {
+        List<SslProvider> providers = new ArrayList<>(List.of(SslProvider.JDK));
+        if (OpenSsl.isAvailable()) {
+            providers.add(SslProvider.OPENSSL);
+        } else {
+            System.out.println("OpenSSL engine unavailable (run with -Popenssl): " + OpenSsl.unavailabilityCause());
+        }
+
+        System.out.println("TLS Engine Benchmark Results:");
+        for (SslProvider provider : providers) {
+            double handshakes = measureHandshakes(provider);
+            double throughput = measureThroughput(provider);
+            System.out.printf("  %-8s %8.0f handshakes/s %8.1f MB/s%n", provider, handshakes, throughput);
+            assertTrue(handshakes > 0 && throughput > 0);
+        }
+    }
+
+    private static double measureHandshakes(SslProvider provider) throws Exception {
+        TlsContext tls = new TlsContext(new TlsContext.Options(CERT.toPath(), KEY.toPath(), null, provider,
+            List.of("TLSv1.3"), List.of(), 1024, 300, List.of(), 1, ClientAuth.NONE, null));
+        EventLoopGroup group = new NioEventLoopGroup(2);
+        try {
+            Channel server = new ServerBootstrap()
+                .group(group)
+                .channel(NioServerSocketChannel.class)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline().addLast(tls.newHandler(ch.alloc()));
+                    }
+                })
+                .bind("127.0.0.1", 0).sync().channel();
+            int port = ((InetSocketAddress) server.localAddress()).getPort();
+            // No peer host given: the client never offers a session, so every handshake is a full one
+            SslContext client = SslContextBuilder.forClient().trustManager(CERT).sslProvider(provider).build();
+
+            for (int i = 0; i < WARMUP_HANDSHAKES; i++) {
+                handshake(group, client, port);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < HANDSHAKES; i++) {
+                handshake(group, client, port);
+            }
+            long elapsed = System.nanoTime() - start;
+            server.close().sync();
+            return HANDSHAKES / (elapsed / 1e9);
+        } finally {
+            group.shutdownGracefully(0, 1, TimeUnit.SECONDS);
+            tls.shutdown();
+        }
+    }
+
+    private static void handshake(EventLoopGroup group, SslContext client, int port) throws Exception {
+        Channel channel = new Bootstrap()
+            .group(group)
+            .channel(NioSocketChannel.class)
+            .handler(new ChannelInitializer<SocketChannel>() {
+                @Override
+                protected void initChannel(SocketChannel ch) {
+                    ch.pipeline().addLast(client.newHandler(ch.alloc()));
+                }
+            })
+            .connect("127.0.0.1", port).sync().channel();
+        channel.pipeline().get(SslHandler.class).handshakeFuture().sync();
+        channel.close().sync();
+    }
+
+    private static double measureThroughput(SslProvider provider) throws Exception {
+        TlsContext tls = new TlsContext(new TlsContext.Options(CERT.toPath(), KEY.toPath(), null, provider,
+            List.of("TLSv1.3"), List.of(), 1024, 300, List.of(), 1, ClientAuth.NONE, null));
+        EventLoopGroup group = new NioEventLoopGroup(2);
+        CompletableFuture<Long> received = new CompletableFuture<>();
+        try {
+            Channel server = new ServerBootstrap()
+                .group(group)
+                .channel(NioServerSocketChannel.class)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline().addLast(tls.newHandler(ch.alloc()), new ChannelInboundHandlerAdapter() {
+                            private long bytes;
+
+                            @Override
+                            public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                                ByteBuf buf = (ByteBuf) msg;
+                                bytes += buf.readableBytes();
+                                buf.release();
+                                if (bytes >= BULK_BYTES) {
+                                    received.complete(System.nanoTime());
+                                }
+                            }
+                        });
+                    }
+                })
+                .bind("127.0.0.1", 0).sync().channel();
+            int port = ((InetSocketAddress) server.localAddress()).getPort();
+            SslContext client = SslContextBuilder.forClient().trustManager(CERT).sslProvider(provider).build();
+            Channel channel = new Bootstrap()
+                .group(group)
+                .channel(NioSocketChannel.class)
+                .handler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline().addLast(client.newHandler(ch.alloc()));
+                    }
+                })
+                .connect("127.0.0.1", port).sync().channel();
+            channel.pipeline().get(SslHandler.class).handshakeFuture().sync();
+
+            ByteBuf chunk = Unpooled.directBuffer(CHUNK).writeZero(CHUNK);
+            long start = System.nanoTime();
+            for (long sent = 0; sent < BULK_BYTES; sent += CHUNK) {
+                channel.write(chunk.retainedDuplicate());
+                if (!channel.isWritable()) {
+                    // Bound the bytes queued in the client
+                    channel.writeAndFlush(Unpooled.EMPTY_BUFFER).sync();
+                }
+            }
+            channel.flush();
+            long end = received.get(2, TimeUnit.MINUTES);
+            chunk.release();
+            channel.close().sync();
+            server.close().sync();
+            return BULK_BYTES / 1024.0 / 1024.0 / ((end - start) / 1e9);
+        } finally {
+            group.shutdownGracefully(0, 1, TimeUnit.SECONDS);
+            tls.shutdown();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.darioajr.teuthis.schema;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.DecoderFactory;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("JSON to Avro Converter Tests")
+class JsonAvroConverterTest {
+
+    static final Schema SCHEMA = new Schema.Parser().parse("""
+        {
+          "type": "record", "name": "Event", "namespace": "test",
+          "fields": [
+            {"name": "id", "type": "long"},
+            {"name": "kind", "type": {"type": "enum", "name": "Kind", "symbols": ["CLICK", "VIEW"]}},
+            {"name": "score", "type": ["null", "double"], "default": null},
+            {"name": "tags", "type": {"type": "array", "items": "string"}, "default": []},
+            {"name": "attrs", "type": {"type": "map", "values": "int"}, "default": {}},
+            {"name": "source", "type": "string", "default": "web"}
+          ]
+        }
+        """);
+
+    private final JsonAvroConverter converter = JsonAvroConverter.compile(SCHEMA);
+
+    @Test
+    @DisplayName("Should convert JSON into Avro binary honoring defaults")
+    void shouldConvertWithDefaults() throws IOException {
+        byte[] avro = converter.convert(json("{\"kind\": \"VIEW\", \"unknown\": {\"x\": 1}, \"id\": 9, \"tags\": [\"a\", \"b\"]}"));
+
+        GenericRecord record = new GenericDatumReader<GenericRecord>(SCHEMA)
+            .read(null, DecoderFactory.get().binaryDecoder(avro, null));
+        assertEquals(9L, record.get("id"));
+        assertEquals("VIEW", record.get("kind").toString());
+        assertNull(record.get("score"));
+        assertEquals(2, ((java.util.List<?>) record.get("tags")).size());
+        assertEquals("web", record.get("source").toString());
+    }
+
+    @Test
+    @DisplayName("Should resolve nullable unions from the token type")
+    void shouldResolveUnions() {
+        assertEquals(1.5, converter.toRecord(json("{\"id\": 1, \"kind\": \"CLICK\", \"score\": 1.5}")).get("score"));
+        assertEquals(2.0, converter.toRecord(json("{\"id\": 1, \"kind\": \"CLICK\", \"score\": 2}")).get("score"));
+    }
+
+    @Test
+    @DisplayName("Should report the failing path")
+    void shouldReportFailingPath() {
+        assertEquals("$: missing required field 'id'", failure("{\"kind\": \"CLICK\"}"));
+        assertEquals("$.kind: 'BUY' is not a symbol of Kind", failure("{\"id\": 1, \"kind\": \"BUY\"}"));
+        assertEquals("$.tags[1]: expected string but found VALUE_NUMBER_INT", failure("{\"id\": 1, \"kind\": \"VIEW\", \"tags\": [\"a\", 2]}"));
+        assertEquals("$.attrs.n: expected int but found VALUE_STRING", failure("{\"id\": 1, \"kind\": \"VIEW\", \"attrs\": {\"n\": \"x\"}}"));
+    }
+
+    private String failure(String json) {
+        return assertThrows(JsonAvroConverter.ConversionException.class, () -> converter.convert(json(json))).getMessage();
+    }
+
+    private static byte[] json(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
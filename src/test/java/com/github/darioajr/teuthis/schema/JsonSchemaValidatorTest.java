@@ -0,0 +1,107 @@
+package com.github.darioajr.teuthis.schema;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@DisplayName("JSON Schema Validator Tests")
+class JsonSchemaValidatorTest {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static JsonSchemaValidator validator;
+
+    @BeforeAll
+    static void compileSchema() throws Exception {
+        String schema = """
+            {
+              "type": "object",
+              "required": ["id", "type"],
+              "additionalProperties": false,
+              "properties": {
+                "id": {"type": "integer", "minimum": 1},
+                "type": {"enum": ["click", "view"]},
+                "tags": {"type": "array", "maxItems": 2, "items": {"type": "string", "minLength": 1}},
+                "meta": {"type": "object"}
+              }
+            }
+            """;
+        validator = JsonSchemaValidator.compile(mapper.readTree(schema), "test");
+    }
+
+    @Test
+    @DisplayName("Should accept a conforming document")
+    void shouldAcceptValidDocument() {
+        assertNull(validate("{\"id\": 7, \"type\": \"click\", \"tags\": [\"a\"], \"meta\": {\"x\": [1, {}]}}"));
+    }
+
+    @Test
+    @DisplayName("Should report the first violation with its path")
+    void shouldReportFirstViolation() {
+        assertEquals("$.id: expected integer but found string", validate("{\"id\": \"7\", \"type\": \"click\"}"));
+        assertEquals("$.tags[1]: string shorter than 1", validate("{\"id\": 1, \"type\": \"view\", \"tags\": [\"a\", \"\"]}"));
+        assertEquals("$: missing required property 'type'", validate("{\"id\": 1}"));
+        assertEquals("$: additional property 'extra' is not allowed", validate("{\"id\": 1, \"type\": \"view\", \"extra\": 1}"));
+        assertEquals("$.type: value is not one of the allowed values", validate("{\"id\": 1, \"type\": \"buy\"}"));
+        assertEquals("$.id: value below minimum 1.0", validate("{\"id\": 0, \"type\": \"view\"}"));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed JSON")
+    void shouldRejectMalformedJson() {
+        assertTrue(validate("{\"id\": 1, ").startsWith("$: malformed JSON"));
+        assertEquals("$: unexpected trailing content", validate("{\"id\": 1, \"type\": \"view\"} {}"));
+    }
+
+    @Test
+    @DisplayName("Should refuse unsupported keywords at compile time")
+    void shouldRefuseUnsupportedKeywords() {
+        assertThrows(IllegalArgumentException.class,
+            () -> JsonSchemaValidator.compile(mapper.readTree("{\"oneOf\": [{\"type\": \"string\"}]}"), "bad"));
+        assertThrows(IllegalArgumentException.class,
+            () -> JsonSchemaValidator.compile(mapper.readTree("{\"type\": \"number\", \"multipleOf\": 5}"), "bad"));
+    }
+
+    @Test
+    @DisplayName("Should enforce inclusive and exclusive bounds together")
+    void shouldEnforceBothBounds() throws Exception {
+        JsonSchemaValidator both = JsonSchemaValidator.compile(
+            mapper.readTree("{\"title\": \"n\", \"minimum\": 10, \"exclusiveMinimum\": 5, \"exclusiveMaximum\": 20}"), "both");
+        JsonSchemaValidator draft4 = JsonSchemaValidator.compile(
+            mapper.readTree("{\"minimum\": 5, \"exclusiveMinimum\": true}"), "draft4");
+
+        assertEquals("$: value below minimum 10.0", both.validate("7".getBytes(StandardCharsets.UTF_8)));
+        assertNull(both.validate("10".getBytes(StandardCharsets.UTF_8)));
+        assertEquals("$: value not below exclusive maximum 20.0", both.validate("20".getBytes(StandardCharsets.UTF_8)));
+        assertEquals("$: value not above exclusive minimum 5.0", draft4.validate("5".getBytes(StandardCharsets.UTF_8)));
+        assertNull(draft4.validate("5.5".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("Should compare integers past 2^53 with their bounds exactly")
+    void shouldCompareLargeIntegersExactly() throws Exception {
+        // 2^53 + 1 rounds to 2^53 as a double
+        JsonSchemaValidator maximum = JsonSchemaValidator.compile(
+            mapper.readTree("{\"type\": \"integer\", \"maximum\": 9007199254740992}"), "maximum");
+        JsonSchemaValidator exclusive = JsonSchemaValidator.compile(
+            mapper.readTree("{\"type\": \"integer\", \"exclusiveMaximum\": 9007199254740993}"), "exclusive");
+
+        assertNull(maximum.validate("9007199254740992".getBytes(StandardCharsets.UTF_8)));
+        assertNotNull(maximum.validate("9007199254740993".getBytes(StandardCharsets.UTF_8)));
+        assertNull(exclusive.validate("9007199254740992".getBytes(StandardCharsets.UTF_8)));
+        assertNotNull(exclusive.validate("9007199254740993".getBytes(StandardCharsets.UTF_8)));
+        assertNotNull(maximum.validate("123456789012345678901234567890".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String validate(String json) {
+        return validator.validate(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,154 @@
+package com.github.darioajr.teuthis.schema;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.darioajr.teuthis.avro.Message;
+import com.sun.net.httpserver.HttpServer;
+
+@DisplayName("Schema Registry Id Cache Tests")
+class SchemaIdCacheTest {
+
+    private static final Schema SCHEMA = Message.getClassSchema();
+    private static final long FINGERPRINT = SchemaNormalization.parsingFingerprint64(SCHEMA);
+
+    @TempDir
+    Path dir;
+
+    private HttpServer registry;
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final AtomicInteger registrations = new AtomicInteger();
+    private final AtomicLong clock = new AtomicLong();
+    private volatile boolean failing;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @BeforeEach
+    void startRegistry() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        registry = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        registry.createContext("/subjects/", exchange -> {
+            registrations.incrementAndGet();
+            if (failing) {
+                exchange.sendResponseHeaders(500, -1);
+                exchange.close();
+                return;
+            }
+            String schema = mapper.readTree(exchange.getRequestBody()).path("schema").asText();
+            int id = ids.computeIfAbsent(schema, s -> ids.size() + 1);
+            byte[] response = ("{\"id\":" + id + "}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        registry.start();
+    }
+
+    @AfterEach
+    void stopRegistry() {
+        registry.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should register once and serve later lookups from the cache")
+    void shouldRegisterOnceAndCache() throws Exception {
+        SchemaIdCache cache = cache(dir.resolve("ids.json"));
+
+        assertEquals(-1, cache.lookup("orders-value", SCHEMA, FINGERPRINT));
+        int id = cache.registerAsync("orders-value", SCHEMA, FINGERPRINT).get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, id);
+        assertEquals(id, cache.lookup("orders-value", SCHEMA, FINGERPRINT));
+        assertEquals(1, registrations.get());
+        assertEquals(SCHEMA, new Schema.Parser().parse(cache.schema(id)));
+    }
+
+    @Test
+    @DisplayName("Should resolve persisted ids without the registry")
+    void shouldResolvePersistedIdsOffline() throws Exception {
+        Path file = dir.resolve("ids.json");
+        cache(file).register("orders-value", SCHEMA, FINGERPRINT);
+        registry.stop(0);
+
+        SchemaIdCache restarted = cache(file);
+
+        assertEquals(1, restarted.lookup("orders-value", SCHEMA, FINGERPRINT));
+        assertThrows(IOException.class, () -> restarted.register("payments-value", SCHEMA, FINGERPRINT));
+        assertEquals(1, Files.readAllLines(file).stream().filter(l -> l.contains("\"subject\"")).count());
+    }
+
+    @Test
+    @DisplayName("Should back off exponentially while the registry fails")
+    void shouldBackOffAfterFailures() throws Exception {
+        failing = true;
+        SchemaIdCache cache = cache(dir.resolve("ids.json"));
+
+        assertThrows(ExecutionException.class,
+                     () -> cache.registerAsync("orders-value", SCHEMA, FINGERPRINT).get(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(-1, cache.lookup("orders-value", SCHEMA, FINGERPRINT));
+        }
+        assertEquals(1, registrations.get());
+
+        // First retry after 1 s, the next one 2 s later
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThrows(ExecutionException.class,
+                     () -> cache.registerAsync("orders-value", SCHEMA, FINGERPRINT).get(5, TimeUnit.SECONDS));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(-1, cache.lookup("orders-value", SCHEMA, FINGERPRINT));
+        assertEquals(2, registrations.get());
+
+        failing = false;
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(1, cache.registerAsync("orders-value", SCHEMA, FINGERPRINT).get(5, TimeUnit.SECONDS));
+        assertEquals(1, cache.lookup("orders-value", SCHEMA, FINGERPRINT));
+        assertEquals(3, registrations.get());
+    }
+
+    @Test
+    @DisplayName("Should prefix payloads with the wire format header")
+    void shouldWriteWireFormatHeader() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SchemaRegistry.writeHeader(out, 0x01020304);
+
+        ByteBuffer header = ByteBuffer.wrap(out.toByteArray());
+        assertEquals(SchemaRegistry.HEADER_SIZE, header.remaining());
+        assertEquals(SchemaRegistry.MAGIC_BYTE, header.get());
+        assertEquals(0x01020304, header.getInt());
+    }
+
+    private SchemaIdCache cache(Path file) {
+        return new SchemaIdCache(file, client(), executor, 1000, 60_000, clock::get);
+    }
+
+    private SchemaRegistryClient client() {
+        return new SchemaRegistryClient("http://127.0.0.1:" + registry.getAddress().getPort(), Duration.ofSeconds(2));
+    }
+}
@@ -0,0 +1,58 @@
+package com.github.darioajr.teuthis.schema;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.darioajr.teuthis.infra.Config;
+
+@DisplayName("Topic Avro Schemas Tests")
+class TopicAvroSchemasTest {
+
+    @TempDir
+    static Path dir;
+
+    @BeforeAll
+    static void enableConversion() throws Exception {
+        System.setProperty("teuthis.schema.avro.enabled", "true");
+        System.setProperty("teuthis.schema.avro.dir", dir.toString());
+        System.setProperty("teuthis.schema.avro.reload.interval.ms", "0");
+        Config.reload();
+    }
+
+    @AfterAll
+    static void restoreConfig() throws Exception {
+        System.clearProperty("teuthis.schema.avro.enabled");
+        System.clearProperty("teuthis.schema.avro.dir");
+        System.clearProperty("teuthis.schema.avro.reload.interval.ms");
+        Config.reload();
+    }
+
+    @Test
+    @DisplayName("Should drop converters of replaced schemas on reload")
+    void shouldEvictReplacedConverters() throws Exception {
+        Path file = dir.resolve("clicks.avsc");
+        Files.writeString(file, schema("{\"name\": \"event\", \"type\": \"string\"}"));
+        TopicAvroSchemas.reload();
+        JsonAvroConverter first = TopicAvroSchemas.forTopic("clicks").converter();
+
+        Files.writeString(file, schema("{\"name\": \"event\", \"type\": \"string\"}, {\"name\": \"value\", \"type\": \"long\"}"));
+        TopicAvroSchemas.reload();
+
+        assertNotNull(TopicAvroSchemas.forTopic("clicks"));
+        assertNotSame(first, TopicAvroSchemas.forTopic("clicks").converter());
+        assertEquals(1, TopicAvroSchemas.converterCount());
+    }
+
+    private static String schema(String fields) {
+        return "{\"type\": \"record\", \"name\": \"Click\", \"fields\": [" + fields + "]}";
+    }
+}
@@ -0,0 +1,97 @@
+package com.github.darioajr.teuthis.security;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.darioajr.teuthis.infra.Config;
+import com.github.darioajr.teuthis.infra.Metrics;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+
+@DisplayName("Certificate Identities Tests")
+class CertificateIdentitiesTest {
+
+    private static X509Certificate certificate() throws Exception {
+        try (InputStream in = Files.newInputStream(Path.of("src/test/resources/tls/server.crt"))) {
+            return (X509Certificate) CertificateFactory.getInstance("X.509").generateCertificate(in);
+        }
+    }
+
+    @Test
+    @DisplayName("Should map a certificate identity to roles, tenant and topic ACL")
+    void shouldMapIdentity() throws Exception {
+        X509Certificate certificate = certificate();
+        Map<String, CertificateIdentities.Rule> rules = CertificateIdentities.parse(Map.of(
+            "orders.match", "localhost",
+            "orders.topics", "orders.*, audit",
+            "orders.roles", "publisher",
+            "orders.tenant", "acme"));
+
+        Principal principal = CertificateIdentities.map(certificate, rules);
+
+        assertEquals("localhost", CertificateIdentities.identity(certificate));
+        assertEquals("localhost", principal.subject());
+        assertEquals("acme", principal.tenant());
+        assertEquals(List.of("publisher"), principal.roles());
+        assertEquals(certificate.getNotAfter().toInstant(), principal.expiresAt());
+        assertTrue(principal.mayPublish("orders.created"));
+        assertTrue(principal.mayPublish("audit"));
+        assertEquals(false, principal.mayPublish("payments"));
+        assertNull(CertificateIdentities.map(certificate, Map.of()), "Unmapped certificates get no principal");
+    }
+
+    @Test
+    @DisplayName("Should reject mapping entries without an identity")
+    void shouldRejectEntryWithoutMatch() {
+        assertThrows(IllegalArgumentException.class,
+            () -> CertificateIdentities.parse(Map.of("orders.topics", "orders.*")));
+    }
+
+    @Test
+    @DisplayName("Should resolve a certificate once and serve it by fingerprint")
+    void shouldCacheByFingerprint() throws Exception {
+        X509Certificate certificate = certificate();
+
+        Principal first = CertificateIdentities.resolve(certificate);
+        double hits = Metrics.mtlsIdentities.labels("hit").get();
+        Principal second = CertificateIdentities.resolve(certificate);
+
+        assertEquals("localhost", first.subject());
+        assertSame(first, second);
+        assertEquals(hits + 1, Metrics.mtlsIdentities.labels("hit").get());
+    }
+
+    @Test
+    @DisplayName("Should stop trusting a connection's principal once the mapping is reloaded")
+    void shouldDropStalePrincipal() throws Exception {
+        Principal principal = new Principal("localhost", List.of("publisher"), "localhost", Instant.now().plusSeconds(60));
+        EmbeddedChannel channel = new EmbeddedChannel();
+        CertificateIdentities.bind(channel, principal, CertificateIdentities.generation());
+        assertSame(principal, CertificateIdentities.principal(channel));
+
+        System.setProperty(CertificateIdentities.PREFIX + "extra.match", "other");
+        try {
+            Config.reload();
+            // No TLS session to resolve the certificate from again, so the principal is dropped
+            assertNull(CertificateIdentities.principal(channel));
+        } finally {
+            System.clearProperty(CertificateIdentities.PREFIX + "extra.match");
+            Config.reload();
+            channel.finishAndReleaseAll();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.github.darioajr.teuthis.security;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Cluster Rate Sync Tests")
+class ClusterRateSyncTest {
+
+    private static final long KEY = 0xFFFF_FFFF_CB00_7107L;
+    private static final long INTERVAL = 1_000_000_000L;
+    private static final int BURST = 30;
+
+    private final List<Node> nodes = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(node -> node.sync.shutdown());
+    }
+
+    @Test
+    @DisplayName("Should enforce a per-key limit across instances")
+    void shouldEnforceAcrossInstances() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            nodes.add(new Node(i, "shared-secret"));
+        }
+        connect();
+
+        // Each instance alone would allow 30; together they admit 10 each
+        for (Node node : nodes) {
+            for (int i = 0; i < 10; i++) {
+                assertTrue(node.table.tryAcquire(KEY, INTERVAL, BURST));
+                node.sync.record(KEY);
+                node.sync.recordGlobal();
+            }
+        }
+        for (Node node : nodes) {
+            await(node, 20);
+        }
+
+        for (Node node : nodes) {
+            assertFalse(node.table.tryAcquire(KEY, INTERVAL, BURST), "node " + node.id + " should see the cluster total");
+            assertEquals(20, node.global.sum());
+        }
+    }
+
+    @Test
+    @DisplayName("Should ignore packets signed with another secret")
+    void shouldIgnoreForeignPackets() throws Exception {
+        nodes.add(new Node(0, "secret-a"));
+        nodes.add(new Node(1, "secret-b"));
+        connect();
+
+        nodes.get(0).sync.record(KEY);
+        Thread.sleep(200);
+
+        assertEquals(0, nodes.get(1).charged.sum());
+        assertTrue(nodes.get(1).table.tryAcquire(KEY, INTERVAL, 1));
+    }
+
+    @Test
+    @DisplayName("Should refuse to run without a shared secret")
+    void shouldRequireSecret() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new ClusterRateSync(1, "127.0.0.1", 0, 20, 1024, "", 5000));
+        assertThrows(IllegalArgumentException.class,
+            () -> new ClusterRateSync(1, "127.0.0.1", 0, 20, 1024, null, 5000));
+    }
+
+    @Test
+    @DisplayName("Should drop replayed packets")
+    void shouldDropReplays() throws Exception {
+        nodes.add(new Node(0, "shared-secret"));
+        nodes.add(new Node(1, "shared-secret"));
+        try (DatagramSocket eavesdropper = new DatagramSocket(0, InetAddress.getLoopbackAddress())) {
+            eavesdropper.setSoTimeout(5000);
+            Node sender = nodes.get(0);
+            Node target = nodes.get(1);
+            sender.sync.setPeers(List.of(new InetSocketAddress("127.0.0.1", target.port),
+                                         new InetSocketAddress("127.0.0.1", eavesdropper.getLocalPort())));
+            // The replay comes from the sender's (spoofable) address
+            target.sync.setPeers(List.of(new InetSocketAddress("127.0.0.1", sender.port)));
+
+            sender.sync.record(KEY);
+            await(target, 1);
+            DatagramPacket captured = new DatagramPacket(new byte[2048], 2048);
+            eavesdropper.receive(captured);
+            byte[] packet = Arrays.copyOf(captured.getData(), captured.getLength());
+            for (int i = 0; i < 3; i++) {
+                eavesdropper.send(new DatagramPacket(packet, packet.length, InetAddress.getLoopbackAddress(), target.port));
+            }
+            Thread.sleep(200);
+
+            assertEquals(1, target.charged.sum());
+        }
+    }
+
+    @Test
+    @DisplayName("Should clamp counts to what a peer can admit in an interval")
+    void shouldClampCounts() throws Exception {
+        nodes.add(new Node(0, "shared-secret"));
+        nodes.add(new Node(1, "shared-secret"));
+        connect();
+
+        for (int i = 0; i < 500; i++) {
+            nodes.get(0).sync.record(KEY);
+            nodes.get(0).sync.recordGlobal();
+        }
+        Thread.sleep(300);
+
+        // Per packet: 2 intervals of 20ms plus a one second burst; the records may straddle two syncs
+        Node target = nodes.get(1);
+        assertTrue(target.charged.sum() > 0 && target.charged.sum() <= 2 * 32, "per-key charges " + target.charged.sum());
+        assertTrue(target.global.sum() > 0 && target.global.sum() <= 2 * 52, "global charges " + target.global.sum());
+    }
+
+    private void connect() {
+        for (Node node : nodes) {
+            node.sync.setPeers(nodes.stream()
+                .filter(other -> other != node)
+                .map(other -> new InetSocketAddress("127.0.0.1", other.port))
+                .toList());
+        }
+    }
+
+    private static void await(Node node, long charges) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (node.charged.sum() < charges && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(charges, node.charged.sum(), "charges seen by node " + node.id);
+    }
+
+    private static final class Node implements ClusterRateSync.Sink {
+        final int id;
+        final TokenBucketTable table = new TokenBucketTable(64, System::nanoTime);
+        final LongAdder charged = new LongAdder();
+        final LongAdder global = new LongAdder();
+        final ClusterRateSync sync;
+        final int port;
+
+        Node(int id, String secret) throws Exception {
+            this.id = id;
+            this.sync = new ClusterRateSync(id + 1, "127.0.0.1", 0, 20, 1024, secret, 5000);
+            this.sync.setLimits(50, BURST);
+            this.port = sync.start(this);
+        }
+
+        @Override
+        public void charge(long key, long count) {
+            table.charge(key, INTERVAL, count);
+            charged.add(count);
+        }
+
+        @Override
+        public void chargeGlobal(long count) {
+            global.add(count);
+        }
+    }
+}
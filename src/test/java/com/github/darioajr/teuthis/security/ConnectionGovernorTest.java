@@ -0,0 +1,162 @@
+package com.github.darioajr.teuthis.security;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.darioajr.teuthis.infra.Metrics;
+import com.github.darioajr.teuthis.infra.RequestTimings;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.HttpVersion;
+
+@DisplayName("Connection Governor Tests")
+class ConnectionGovernorTest {
+
+    // TEST-NET-3, so no other test shares the per-address count
+    private static final SocketAddress CLIENT = new InetSocketAddress("203.0.113.7", 40000);
+
+    private static EmbeddedChannel connect(ConnectionGovernor governor) {
+        return connect(governor, new HttpServerCodec(), governor.requestProbe());
+    }
+
+    private static EmbeddedChannel connect(ChannelHandler... handlers) {
+        return new EmbeddedChannel(handlers) {
+            @Override
+            protected SocketAddress remoteAddress0() {
+                return CLIENT;
+            }
+        };
+    }
+
+    private static ByteBuf ascii(String text) {
+        return Unpooled.copiedBuffer(text, StandardCharsets.US_ASCII);
+    }
+
+    private static String response(EmbeddedChannel channel) {
+        ByteBuf out = channel.readOutbound();
+        try {
+            return out != null ? out.toString(StandardCharsets.US_ASCII) : "";
+        } finally {
+            if (out != null) {
+                out.release();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse connections over the per-address cap until one closes")
+    void shouldCapConnectionsPerAddress() {
+        ConnectionGovernor.Limits limits = new ConnectionGovernor.Limits(0, 2, 0, 0, 0, 0, 0);
+        double refused = Metrics.connectionsClosed.labels("ip_limit").get();
+
+        EmbeddedChannel first = connect(new ConnectionGovernor(limits));
+        EmbeddedChannel second = connect(new ConnectionGovernor(limits));
+        EmbeddedChannel third = connect(new ConnectionGovernor(limits));
+
+        assertTrue(first.isOpen());
+        assertTrue(second.isOpen());
+        assertFalse(third.isOpen(), "Third connection from the same address should be refused");
+        assertEquals(refused + 1, Metrics.connectionsClosed.labels("ip_limit").get());
+
+        first.finishAndReleaseAll();
+        EmbeddedChannel fourth = connect(new ConnectionGovernor(limits));
+        assertTrue(fourth.isOpen(), "A closed connection frees its slot");
+
+        second.finishAndReleaseAll();
+        fourth.finishAndReleaseAll();
+    }
+
+    @Test
+    @DisplayName("Should answer 408 and close when the request head trickles in")
+    void shouldTimeOutSlowHeaders() throws Exception {
+        ConnectionGovernor.Limits limits = new ConnectionGovernor.Limits(0, 0, 0, 20, 0, 0, 0);
+        double timedOut = Metrics.connectionsClosed.labels("header_timeout").get();
+        EmbeddedChannel channel = connect(new ConnectionGovernor(limits));
+
+        channel.writeInbound(ascii("POST /publish/test-topic HTTP/1.1\r\nHost: localhost\r\n"));
+        Thread.sleep(50);
+        channel.runScheduledPendingTasks();
+
+        assertTrue(response(channel).startsWith("HTTP/1.1 408"));
+        assertFalse(channel.isOpen());
+        assertEquals(timedOut + 1, Metrics.connectionsClosed.labels("header_timeout").get());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    @DisplayName("Should close a body arriving below the minimum rate after the grace period")
+    void shouldCloseSlowBody() throws Exception {
+        ConnectionGovernor.Limits limits = new ConnectionGovernor.Limits(0, 0, 0, 0, 60_000, 1_000_000, 20);
+        double slow = Metrics.connectionsClosed.labels("slow_body").get();
+        EmbeddedChannel channel = connect(new ConnectionGovernor(limits));
+
+        channel.writeInbound(ascii("POST /publish/test-topic HTTP/1.1\r\nHost: localhost\r\nContent-Length: 100000\r\n\r\n"));
+        channel.writeInbound(ascii("{\"event\":"));
+        Thread.sleep(50);
+        channel.runScheduledPendingTasks();
+
+        assertFalse(channel.isOpen());
+        assertEquals(slow + 1, Metrics.connectionsClosed.labels("slow_body").get());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    @DisplayName("Should close idle keep-alive connections but not those awaiting a response")
+    void shouldCloseIdleConnections() throws Exception {
+        ConnectionGovernor.Limits limits = new ConnectionGovernor.Limits(0, 0, 200, 0, 0, 0, 0);
+        EmbeddedChannel channel = connect(new ConnectionGovernor(limits));
+
+        channel.writeInbound(ascii("GET /health HTTP/1.1\r\nHost: localhost\r\n\r\n"));
+        Thread.sleep(250);
+        channel.runScheduledPendingTasks();
+        assertTrue(channel.isOpen(), "A request in flight keeps the connection open");
+
+        channel.releaseInbound();
+        double idle = Metrics.connectionsClosed.labels("idle").get();
+        channel.writeOutbound(new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK));
+        channel.releaseOutbound();
+        Thread.sleep(250);
+        channel.runScheduledPendingTasks();
+
+        assertFalse(channel.isOpen());
+        assertEquals(idle + 1, Metrics.connectionsClosed.labels("idle").get());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    @DisplayName("Should record request stage timings once the response is flushed")
+    void shouldRecordStageTimings() {
+        ConnectionGovernor.Limits limits = new ConnectionGovernor.Limits(0, 0, 0, 0, 0, 0, 0);
+        EmbeddedChannel channel = connect(new ConnectionGovernor(limits));
+        double flushed = stageCount("flush");
+        double accepted = stageCount("accept");
+
+        channel.writeInbound(ascii("GET /health HTTP/1.1\r\nHost: localhost\r\n\r\n"));
+        RequestTimings.stamp(channel.pipeline().lastContext(), RequestTimings.Stage.AUTH);
+        channel.releaseInbound();
+        channel.writeOutbound(new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK));
+        channel.releaseOutbound();
+
+        assertEquals(flushed + 1, stageCount("flush"));
+        assertEquals(accepted + 1, stageCount("accept"), "The first request on a connection times the accept");
+        channel.finishAndReleaseAll();
+    }
+
+    private static double stageCount(String stage) {
+        double[] buckets = Metrics.requestStageSeconds.labels(stage).get().buckets;
+        return buckets[buckets.length - 1];
+    }
+}
@@ -0,0 +1,152 @@
+package com.github.darioajr.teuthis.security;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.github.darioajr.teuthis.infra.Metrics;
+
+@DisplayName("JWKS Key Provider Tests")
+class JwksKeyProviderTest {
+
+    private static KeyPair rsa;
+    private static KeyPair ec;
+
+    @TempDir
+    Path dir;
+
+    private JwksKeyProvider provider;
+
+    @BeforeAll
+    static void generateKeys() throws Exception {
+        KeyPairGenerator rsaGenerator = KeyPairGenerator.getInstance("RSA");
+        rsaGenerator.initialize(2048);
+        rsa = rsaGenerator.generateKeyPair();
+        KeyPairGenerator ecGenerator = KeyPairGenerator.getInstance("EC");
+        ecGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        ec = ecGenerator.generateKeyPair();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (provider != null) {
+            provider.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should verify RS256 and ES256 tokens by kid")
+    void shouldVerifyByKid() throws IOException {
+        Path jwks = write("rsa-1", "ec-1");
+        provider = new JwksKeyProvider(jwks.toString(), Duration.ofHours(1), Duration.ofMinutes(1));
+
+        assertEquals(2, provider.refresh());
+
+        String rsaToken = JWT.create().withKeyId("rsa-1").withSubject("alice")
+            .withExpiresAt(Instant.now().plusSeconds(60))
+            .sign(Algorithm.RSA256(null, (RSAPrivateKey) rsa.getPrivate()));
+        String ecToken = JWT.create().withKeyId("ec-1").withSubject("bob")
+            .withExpiresAt(Instant.now().plusSeconds(60))
+            .sign(Algorithm.ECDSA256(null, (ECPrivateKey) ec.getPrivate()));
+
+        assertEquals("alice", provider.verifier("rsa-1").verify(rsaToken).getSubject());
+        assertEquals("bob", provider.verifier("ec-1").verify(ecToken).getSubject());
+        assertThrows(Exception.class, () -> provider.verifier("ec-1").verify(rsaToken));
+    }
+
+    @Test
+    @DisplayName("Should refresh in the background when a new kid appears")
+    void shouldRefreshOnUnknownKid() throws Exception {
+        Path jwks = write("rsa-1");
+        provider = new JwksKeyProvider(jwks.toString(), Duration.ZERO, Duration.ofMinutes(1));
+        provider.refresh();
+        write("rsa-1", "ec-1");
+
+        assertNull(provider.verifier("ec-1"));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!provider.keyIds().contains("ec-1") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertNotNull(provider.verifier("ec-1"));
+    }
+
+    @Test
+    @DisplayName("Should not fetch for repeated unknown kids and keep keys when a refresh fails")
+    void shouldLimitFetchesAndKeepStaleKeys() throws Exception {
+        Path jwks = write("rsa-1");
+        provider = new JwksKeyProvider(jwks.toString(), Duration.ofHours(1), Duration.ofMinutes(1));
+        provider.refresh();
+        double refreshes = Metrics.jwksRefreshes.labels("success").get() + Metrics.jwksRefreshes.labels("error").get();
+
+        for (int i = 0; i < 1000; i++) {
+            assertNull(provider.verifier("bogus-" + (i % 10)));
+        }
+        Thread.sleep(100);
+        assertEquals(refreshes, Metrics.jwksRefreshes.labels("success").get() + Metrics.jwksRefreshes.labels("error").get());
+
+        Files.writeString(jwks, "{\"keys\": [");
+        assertThrows(IOException.class, provider::refresh);
+        assertEquals(Set.of("rsa-1"), provider.keyIds());
+        assertTrue(provider.verifier("rsa-1") != null);
+    }
+
+    private Path write(String... kids) throws IOException {
+        StringBuilder json = new StringBuilder("{\"keys\": [");
+        for (int i = 0; i < kids.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(kids[i].startsWith("rsa") ? rsaJwk(kids[i]) : ecJwk(kids[i]));
+        }
+        Path file = dir.resolve("jwks.json");
+        Files.writeString(file, json.append("]}"));
+        return file;
+    }
+
+    private static String rsaJwk(String kid) {
+        RSAPublicKey key = (RSAPublicKey) rsa.getPublic();
+        return "{\"kty\":\"RSA\",\"use\":\"sig\",\"alg\":\"RS256\",\"kid\":\"" + kid + "\",\"n\":\""
+            + base64(key.getModulus()) + "\",\"e\":\"" + base64(key.getPublicExponent()) + "\"}";
+    }
+
+    private static String ecJwk(String kid) {
+        ECPublicKey key = (ECPublicKey) ec.getPublic();
+        return "{\"kty\":\"EC\",\"crv\":\"P-256\",\"kid\":\"" + kid + "\",\"x\":\""
+            + base64(key.getW().getAffineX()) + "\",\"y\":\"" + base64(key.getW().getAffineY()) + "\"}";
+    }
+
+    private static String base64(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.darioajr.teuthis.security;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.github.darioajr.teuthis.infra.Metrics;
+
+@DisplayName("JWT Validator Tests")
+class JwtValidatorTest {
+
+    private static final Algorithm ALGORITHM = Algorithm.HMAC256("test-secret");
+
+    @Test
+    @DisplayName("Should verify a token once and serve it from the cache")
+    void shouldCacheVerifiedPrincipal() {
+        String token = JWT.create()
+            .withSubject("alice")
+            .withArrayClaim("roles", new String[]{"publisher"})
+            .withClaim("tenant", "acme")
+            .withExpiresAt(Instant.now().plusSeconds(3600))
+            .sign(ALGORITHM);
+        double hits = Metrics.jwtCacheRequests.labels("hit").get();
+
+        Principal first = JwtValidator.authenticate(token);
+        Principal second = JwtValidator.authenticate(token);
+
+        assertNotNull(first);
+        assertSame(first, second);
+        assertEquals("alice", first.subject());
+        assertEquals(List.of("publisher"), first.roles());
+        assertEquals("acme", first.tenant());
+        assertEquals(hits + 1, Metrics.jwtCacheRequests.labels("hit").get());
+    }
+
+    @Test
+    @DisplayName("Should stop accepting a cached token once it expires")
+    void shouldNotAcceptExpiredCachedToken() throws InterruptedException {
+        String token = JWT.create()
+            .withSubject("bob")
+            .withExpiresAt(Instant.now().plusSeconds(2))
+            .sign(ALGORITHM);
+
+        Principal principal = JwtValidator.authenticate(token);
+        assertNotNull(principal);
+        assertEquals("bob", principal.tenant());
+
+        Thread.sleep(Math.max(0, principal.expiresAt().toEpochMilli() - System.currentTimeMillis()) + 50);
+
+        assertNull(JwtValidator.authenticate(token));
+    }
+
+    @Test
+    @DisplayName("Should reject tampered and unsigned tokens")
+    void shouldRejectInvalidTokens() {
+        String token = JWT.create()
+            .withSubject("carol")
+            .withExpiresAt(Instant.now().plusSeconds(3600))
+            .sign(Algorithm.HMAC256("other-secret"));
+
+        assertNull(JwtValidator.authenticate(token));
+        assertNull(JwtValidator.authenticate(JWT.create().withSubject("carol").sign(ALGORITHM)));
+        assertNull(JwtValidator.authenticate(" "));
+    }
+}
@@ -0,0 +1,145 @@
+package com.github.darioajr.teuthis.security;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.darioajr.teuthis.infra.Config;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+
+/**
+ * Quota buckets live in a table shared by the whole JVM, so every test uses its
+ * own subjects and topics.
+ */
+@DisplayName("Quota Handler Tests")
+class QuotaHandlerTest {
+
+    @BeforeAll
+    static void enableQuotas() throws Exception {
+        System.setProperty("teuthis.quota.enabled", "true");
+        System.setProperty("teuthis.quota.subject.requests.per.second", "3");
+        System.setProperty("teuthis.quota.subject.bytes.per.second", "100");
+        System.setProperty("teuthis.quota.topic.requests.per.second", "1");
+        System.setProperty("allowed.topics", "refund-a,refund-b,limit-a,limit-b,bytes-a,bytes-b");
+        Config.reload();
+    }
+
+    @AfterAll
+    static void restoreConfig() throws Exception {
+        System.clearProperty("teuthis.quota.enabled");
+        System.clearProperty("teuthis.quota.subject.requests.per.second");
+        System.clearProperty("teuthis.quota.subject.bytes.per.second");
+        System.clearProperty("teuthis.quota.topic.requests.per.second");
+        System.clearProperty("allowed.topics");
+        Config.reload();
+    }
+
+    @Test
+    @DisplayName("Should refund the quotas already taken when a later one is exhausted")
+    void shouldRefundOnRejection() {
+        assertEquals(HttpResponseStatus.OK, status(publish("refunded", "/publish/refund-a", 0)));
+        // The subject quota (3/s) covers both topics, then refund-a is exhausted
+        assertEquals(HttpResponseStatus.TOO_MANY_REQUESTS,
+                     status(publish("refunded", "/publish?topics=refund-a,refund-b", 0)));
+        // Without the refund the subject would have no request left
+        assertEquals(HttpResponseStatus.OK, status(publish("refunded", "/publish/refund-b", 0)));
+    }
+
+    @Test
+    @DisplayName("Should answer 429 with the exhausted quota and when to retry")
+    void shouldRejectWithRateLimitHeaders() {
+        assertEquals(HttpResponseStatus.OK, status(publish("limited", "/publish/limit-a", 0)));
+
+        FullHttpResponse response = publish("limited", "/publish?topics=limit-b,limit-a", 0);
+        try {
+            assertEquals(HttpResponseStatus.TOO_MANY_REQUESTS, response.status());
+            assertEquals("1", response.headers().get(HttpHeaderNames.RETRY_AFTER));
+            assertEquals("1", response.headers().get("X-RateLimit-Limit"));
+            assertEquals("0", response.headers().get("X-RateLimit-Remaining"));
+            assertEquals("1", response.headers().get("X-RateLimit-Reset"));
+            assertEquals("topic;unit=requests", response.headers().get("X-RateLimit-Policy"));
+            assertEquals("Quota exceeded: topic requests", response.content().toString(StandardCharsets.UTF_8));
+        } finally {
+            response.release();
+        }
+    }
+
+    @Test
+    @DisplayName("Should report the most constrained quota on admitted responses")
+    void shouldAddHeadersToAdmittedResponses() {
+        FullHttpResponse response = publish("admitted", "/publish/limit-b", 0);
+        try {
+            assertEquals(HttpResponseStatus.OK, response.status());
+            assertEquals("1", response.headers().get("X-RateLimit-Limit"));
+            assertEquals("0", response.headers().get("X-RateLimit-Remaining"));
+            assertEquals("1", response.headers().get("X-RateLimit-Reset"));
+            assertEquals("topic;unit=requests", response.headers().get("X-RateLimit-Policy"));
+        } finally {
+            response.release();
+        }
+
+        FullHttpResponse health = send(null, new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/health"));
+        try {
+            assertNull(health.headers().get("X-RateLimit-Limit"));
+        } finally {
+            health.release();
+        }
+    }
+
+    @Test
+    @DisplayName("Should charge subject bytes for allowed topics only")
+    void shouldChargeAllowedTopicsOnly() {
+        assertEquals(HttpResponseStatus.OK, status(publish("bytes", "/publish?topics=bytes-a,unknown", 60)));
+        // 60 + 30 bytes fit the 100 bytes/s subject quota; charging unknown too would not
+        assertEquals(HttpResponseStatus.OK, status(publish("bytes", "/publish/bytes-b", 30)));
+    }
+
+    private static FullHttpResponse publish(String subject, String uri, int bytes) {
+        FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, uri,
+                                                             Unpooled.wrappedBuffer(new byte[bytes]));
+        return send(new Principal(subject, List.of(), subject, Instant.now().plusSeconds(60)), request);
+    }
+
+    private static FullHttpResponse send(Principal principal, FullHttpRequest request) {
+        EmbeddedChannel channel = new EmbeddedChannel(new QuotaHandler(), new Responder());
+        channel.attr(AuthenticationHandler.PRINCIPAL).set(principal);
+        channel.writeInbound(request);
+        FullHttpResponse response = channel.readOutbound();
+        channel.finishAndReleaseAll();
+        return response;
+    }
+
+    private static HttpResponseStatus status(FullHttpResponse response) {
+        try {
+            return response.status();
+        } finally {
+            response.release();
+        }
+    }
+
+    private static final class Responder extends SimpleChannelInboundHandler<FullHttpRequest> {
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, FullHttpRequest msg) {
+            ctx.writeAndFlush(new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.github.darioajr.teuthis.security;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Striped Rate Limiter Tests")
+class StripedRateLimiterTest {
+
+    private static final long MILLI = 1_000_000L;
+
+    private final AtomicLong clock = new AtomicLong(5_000 * MILLI);
+
+    @Test
+    @DisplayName("Should never admit more than the burst across threads")
+    void shouldHoldBurstAcrossThreads() throws InterruptedException {
+        StripedRateLimiter limiter = new StripedRateLimiter(10_000, 8, 10 * MILLI, clock::get);
+        LongAdder admitted = new LongAdder();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    if (limiter.tryAcquire()) {
+                        admitted.increment();
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Frozen clock: the central bucket issues exactly one burst; stripes may keep part of it
+        int parked = 8 * (10_000 / 100 / 8);
+        assertTrue(admitted.sum() <= 10_000, "admitted " + admitted.sum());
+        assertTrue(admitted.sum() >= 10_000 - parked, "admitted " + admitted.sum());
+    }
+
+    @Test
+    @DisplayName("Should hold the rate over time within one batch window")
+    void shouldHoldRateOverTime() {
+        StripedRateLimiter limiter = new StripedRateLimiter(1_000, 4, 10 * MILLI, clock::get);
+        long admitted = 0;
+        // Drain the initial burst, then offer 5 requests per millisecond for 10 seconds
+        while (limiter.tryAcquire()) {
+            admitted++;
+        }
+        assertEquals(1_000, admitted);
+        admitted = 0;
+        for (int ms = 0; ms < 10_000; ms++) {
+            clock.addAndGet(MILLI);
+            for (int i = 0; i < 5; i++) {
+                if (limiter.tryAcquire()) {
+                    admitted++;
+                }
+            }
+        }
+
+        assertTrue(Math.abs(admitted - 10_000) <= 10, "admitted " + admitted);
+    }
+
+    @Test
+    @DisplayName("Should reject non-positive rates")
+    void shouldRejectInvalidRate() {
+        StripedRateLimiter limiter = new StripedRateLimiter(100, 4, 10 * MILLI, clock::get);
+
+        assertThrows(IllegalArgumentException.class, () -> limiter.setRate(0));
+        assertEquals(100, limiter.getRate());
+    }
+}
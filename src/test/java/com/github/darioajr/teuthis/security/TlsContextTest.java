@@ -0,0 +1,225 @@
+package com.github.darioajr.teuthis.security;
+
+import java.io.File;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.darioajr.teuthis.infra.Metrics;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.ssl.ApplicationProtocolConfig;
+import io.netty.handler.ssl.ApplicationProtocolNames;
+import io.netty.handler.ssl.ClientAuth;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.ssl.SslHandshakeCompletionEvent;
+import io.netty.handler.ssl.SslProvider;
+import io.netty.util.ReferenceCountUtil;
+
+@DisplayName("TLS Context Tests")
+class TlsContextTest {
+
+    static final File CERT = new File("src/test/resources/tls/server.crt");
+    static final File KEY = new File("src/test/resources/tls/server.key");
+
+    static TlsContext.Options options(Path cert, Path key, SslProvider provider) {
+        return new TlsContext.Options(cert, key, null, provider, List.of("TLSv1.3", "TLSv1.2"), List.of(),
+                                      1024, 300, List.of(), 1, ClientAuth.NONE, null);
+    }
+
+    static SslContext client(SslProvider provider) throws Exception {
+        return client(SslContextBuilder.forClient(), provider);
+    }
+
+    static SslContext client(SslContextBuilder builder, SslProvider provider) throws Exception {
+        return builder
+            .trustManager(CERT)
+            .sslProvider(provider)
+            .applicationProtocolConfig(new ApplicationProtocolConfig(
+                ApplicationProtocolConfig.Protocol.ALPN,
+                ApplicationProtocolConfig.SelectorFailureBehavior.NO_ADVERTISE,
+                ApplicationProtocolConfig.SelectedListenerFailureBehavior.ACCEPT,
+                ApplicationProtocolNames.HTTP_1_1))
+            .build();
+    }
+
+    @Test
+    @DisplayName("Should negotiate HTTP/1.1 over ALPN and resume sessions")
+    void shouldNegotiateAlpnAndResumeSessions() throws Exception {
+        TlsContext tls = new TlsContext(options(CERT.toPath(), KEY.toPath(), SslProvider.JDK));
+        EventLoopGroup group = new NioEventLoopGroup(1);
+        try {
+            Channel server = new ServerBootstrap()
+                .group(group)
+                .channel(NioServerSocketChannel.class)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline().addLast(tls.newHandler(ch.alloc()), new ChannelInboundHandlerAdapter() {
+                            @Override
+                            public void userEventTriggered(ChannelHandlerContext ctx, Object evt) {
+                                if (evt == SslHandshakeCompletionEvent.SUCCESS) {
+                                    ctx.writeAndFlush(Unpooled.copiedBuffer("ok", StandardCharsets.US_ASCII));
+                                }
+                            }
+                        });
+                    }
+                })
+                .bind("127.0.0.1", 0).sync().channel();
+            int port = ((InetSocketAddress) server.localAddress()).getPort();
+            SslContext client = client(SslProvider.JDK);
+            double full = Metrics.tlsHandshakes.labels("jdk", "full").get();
+            double resumed = Metrics.tlsHandshakes.labels("jdk", "resumed").get();
+
+            assertEquals(ApplicationProtocolNames.HTTP_1_1, connect(group, client, port));
+            assertEquals(ApplicationProtocolNames.HTTP_1_1, connect(group, client, port));
+
+            assertEquals(full + 1, Metrics.tlsHandshakes.labels("jdk", "full").get());
+            assertEquals(resumed + 1, Metrics.tlsHandshakes.labels("jdk", "resumed").get());
+            server.close().sync();
+        } finally {
+            group.shutdownGracefully(0, 1, TimeUnit.SECONDS);
+            tls.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should bind the mapped client certificate principal to the connection")
+    void shouldBindClientCertificatePrincipal() throws Exception {
+        // The self-signed test certificate doubles as the client certificate and its CA
+        TlsContext tls = new TlsContext(new TlsContext.Options(CERT.toPath(), KEY.toPath(), null, SslProvider.JDK,
+            List.of("TLSv1.3"), List.of(), 1024, 300, List.of(), 1, ClientAuth.REQUIRE, CERT.toPath()));
+        EventLoopGroup group = new NioEventLoopGroup(1);
+        CompletableFuture<Principal> bound = new CompletableFuture<>();
+        try {
+            Channel server = new ServerBootstrap()
+                .group(group)
+                .channel(NioServerSocketChannel.class)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline().addLast(tls.newHandler(ch.alloc()), new ClientCertificateHandler(),
+                            new ChannelInboundHandlerAdapter() {
+                                @Override
+                                public void userEventTriggered(ChannelHandlerContext ctx, Object evt) {
+                                    if (evt == SslHandshakeCompletionEvent.SUCCESS) {
+                                        bound.complete(CertificateIdentities.principal(ctx.channel()));
+                                        ctx.writeAndFlush(Unpooled.copiedBuffer("ok", StandardCharsets.US_ASCII));
+                                    }
+                                }
+                            });
+                    }
+                })
+                .bind("127.0.0.1", 0).sync().channel();
+            int port = ((InetSocketAddress) server.localAddress()).getPort();
+
+            connect(group, client(SslContextBuilder.forClient().keyManager(CERT, KEY), SslProvider.JDK), port);
+
+            Principal principal = bound.get(10, TimeUnit.SECONDS);
+            assertEquals("localhost", principal.subject());
+            assertEquals(List.of("publisher"), principal.roles());
+            assertTrue(principal.mayPublish("test-topic"));
+            assertFalse(principal.mayPublish("events"));
+            server.close().sync();
+        } finally {
+            group.shutdownGracefully(0, 1, TimeUnit.SECONDS);
+            tls.shutdown();
+        }
+    }
+
+    /**
+     * Handshake, wait for the server's greeting (which also delivers the session ticket) and close
+     *
+     * @return the negotiated application protocol
+     */
+    private static String connect(EventLoopGroup group, SslContext client, int port) throws Exception {
+        CompletableFuture<Void> greeted = new CompletableFuture<>();
+        SslHandler[] ssl = new SslHandler[1];
+        Channel channel = new Bootstrap()
+            .group(group)
+            .channel(NioSocketChannel.class)
+            .handler(new ChannelInitializer<SocketChannel>() {
+                @Override
+                protected void initChannel(SocketChannel ch) {
+                    ssl[0] = client.newHandler(ch.alloc(), "localhost", port);
+                    ch.pipeline().addLast(ssl[0], new ChannelInboundHandlerAdapter() {
+                        @Override
+                        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                            ReferenceCountUtil.release(msg);
+                            greeted.complete(null);
+                        }
+                    });
+                }
+            })
+            .connect("127.0.0.1", port).sync().channel();
+        greeted.get(10, TimeUnit.SECONDS);
+        String protocol = ssl[0].applicationProtocol();
+        channel.close().sync();
+        return protocol;
+    }
+
+    @Test
+    @DisplayName("Should swap in a changed certificate and keep the previous one when it is invalid")
+    void shouldReloadChangedCertificate(@TempDir Path dir) throws Exception {
+        Path cert = Files.copy(CERT.toPath(), dir.resolve("server.crt"), StandardCopyOption.REPLACE_EXISTING);
+        Path key = Files.copy(KEY.toPath(), dir.resolve("server.key"), StandardCopyOption.REPLACE_EXISTING);
+        TlsContext tls = new TlsContext(options(cert, key, SslProvider.JDK));
+        try {
+            SslContext initial = tls.context();
+            tls.start(Duration.ofMillis(50));
+
+            Files.setLastModifiedTime(cert, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+            assertTrue(await(() -> tls.context() != initial), "Changed certificate should be loaded");
+            SslContext reloaded = tls.context();
+            assertNotSame(initial, reloaded);
+
+            double errors = Metrics.tlsReloads.labels("error").get();
+            Files.writeString(cert, "not a certificate");
+            assertTrue(await(() -> Metrics.tlsReloads.labels("error").get() > errors), "Invalid certificate should be reported");
+            assertSame(reloaded, tls.context());
+        } finally {
+            tls.shutdown();
+        }
+    }
+
+    private static boolean await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return false;
+    }
+}
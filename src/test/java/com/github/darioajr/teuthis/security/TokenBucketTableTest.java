@@ -0,0 +1,97 @@
+package com.github.darioajr.teuthis.security;
+
+import java.net.InetAddress;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Token Bucket Table Tests")
+class TokenBucketTableTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong(1_000 * SECOND);
+
+    @Test
+    @DisplayName("Should allow a burst, then refill one token per interval")
+    void shouldAllowBurstThenRefill() {
+        TokenBucketTable table = new TokenBucketTable(64, clock::get);
+        long interval = SECOND / 10;
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(table.tryAcquire(42, interval, 10));
+        }
+        assertFalse(table.tryAcquire(42, interval, 10));
+        assertTrue(table.tryAcquire(43, interval, 10), "Other keys keep their own budget");
+
+        clock.addAndGet(interval);
+        assertTrue(table.tryAcquire(42, interval, 10));
+        assertFalse(table.tryAcquire(42, interval, 10));
+    }
+
+    @Test
+    @DisplayName("Should take weighted costs and give them back on refund")
+    void shouldAcquireWeightedCostsAndRefund() {
+        TokenBucketTable table = new TokenBucketTable(64, clock::get);
+        long interval = SECOND / 1_000;
+
+        assertEquals(600, table.acquire(9, interval, 1_000, 400));
+        assertEquals(0, table.acquire(9, interval, 1_000, 600));
+        long wait = table.acquire(9, interval, 1_000, 100);
+        assertTrue(wait < 0);
+        assertEquals(100 * interval, -wait, "Rejection reports the time until the cost fits");
+
+        table.refund(9, interval, 1_000, 600);
+        assertEquals(500, table.acquire(9, interval, 1_000, 100));
+
+        clock.addAndGet(SECOND);
+        assertEquals(0, table.acquire(9, interval, 1_000, 5_000), "A cost above the burst passes a full bucket");
+        assertTrue(table.acquire(9, interval, 1_000, 1) < 0);
+    }
+
+    @Test
+    @DisplayName("Should stay within its slots and evict full buckets first")
+    void shouldBoundMemoryAndEvictIdleBuckets() {
+        TokenBucketTable table = new TokenBucketTable(16, clock::get);
+        long interval = SECOND;
+
+        // An attacker exhausts its bucket, then a flood of new clients fills the table
+        while (table.tryAcquire(7, interval, 5)) {
+            // drain
+        }
+        for (long key = 100; key < 100_000; key++) {
+            table.tryAcquire(key, interval, 5);
+        }
+
+        assertEquals(16, table.capacity());
+        assertTrue(table.size() <= 16);
+        assertFalse(table.tryAcquire(7, interval, 5), "The flood must not reset the attacker's bucket");
+
+        clock.addAndGet(120 * SECOND);
+        assertEquals(table.size(), table.sweep(60 * SECOND));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    @DisplayName("Should pack addresses with prefix aggregation")
+    void shouldPackAddresses() throws Exception {
+        long a = TokenBucketTable.key(InetAddress.getByName("203.0.113.7"), 32, 64);
+        long b = TokenBucketTable.key(InetAddress.getByName("203.0.113.8"), 32, 64);
+        long a24 = TokenBucketTable.key(InetAddress.getByName("203.0.113.7"), 24, 64);
+        long b24 = TokenBucketTable.key(InetAddress.getByName("203.0.113.8"), 24, 64);
+        long v6a = TokenBucketTable.key(InetAddress.getByName("2001:db8:0:1::1"), 32, 64);
+        long v6b = TokenBucketTable.key(InetAddress.getByName("2001:db8:0:1:ffff::2"), 32, 64);
+        long v6c = TokenBucketTable.key(InetAddress.getByName("2001:db8:0:2::1"), 32, 64);
+
+        assertNotEquals(a, b);
+        assertEquals(a24, b24);
+        assertEquals(v6a, v6b);
+        assertNotEquals(v6a, v6c);
+        assertNotEquals(0, TokenBucketTable.key(InetAddress.getByName("::1"), 32, 64));
+    }
+}
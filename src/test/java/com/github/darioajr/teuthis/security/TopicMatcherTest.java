@@ -0,0 +1,48 @@
+package com.github.darioajr.teuthis.security;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Topic Matcher Tests")
+class TopicMatcherTest {
+
+    @Test
+    @DisplayName("Should match exact names and prefixes")
+    void shouldMatchExactAndPrefix() {
+        TopicMatcher matcher = TopicMatcher.compile(List.of("logs", " events.* ", "events.eu.*", ""));
+
+        assertTrue(matcher.matches("logs"));
+        assertFalse(matcher.matches("logs2"));
+        assertTrue(matcher.matches("events.acme"));
+        assertTrue(matcher.matches("events.eu.acme"));
+        assertFalse(matcher.matches("events"));
+        assertFalse(matcher.matches("event.acme"));
+        assertEquals(List.of("logs", "events.*", "events.eu.*"), matcher.entries());
+    }
+
+    @Test
+    @DisplayName("Should match globs")
+    void shouldMatchGlobs() {
+        TopicMatcher matcher = TopicMatcher.compile(List.of("events.*.v2", "audit-?"));
+
+        assertTrue(matcher.matches("events.acme.v2"));
+        assertFalse(matcher.matches("events.acme.v3"));
+        assertFalse(matcher.matches("eventsXacme.v2"));
+        assertTrue(matcher.matches("audit-1"));
+        assertFalse(matcher.matches("audit-12"));
+        assertTrue(matcher.exactTopics().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject entries no topic can match")
+    void shouldRejectInvalidEntries() {
+        assertThrows(IllegalArgumentException.class, () -> TopicMatcher.compile(List.of("events/acme")));
+        assertThrows(IllegalArgumentException.class, () -> TopicMatcher.compile(List.of("ev ents.*")));
+    }
+}